@@ -0,0 +1,49 @@
+package com.jamiecheung.apps.columneddataformatter.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Takes the usual JMH command line options,
+ * and always adds the GC profiler so the allocation rate of each benchmark is
+ * reported alongside its throughput.
+ *
+ * @author JamieCheung
+ *
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args
+     *             The JMH command line options
+     *
+     * @throws CommandLineOptionException
+     *                                    if the options are not valid
+     * @throws RunnerException
+     *                                    if a benchmark fails
+     * @throws IOException
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        // Leave listing the benchmarks or profilers to JMH's own entry point
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList()
+                || commandLineOptions.shouldListProfilers() || commandLineOptions.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        new Runner(new OptionsBuilder().parent(commandLineOptions).addProfiler(GCProfiler.class).build()).run();
+
+    }
+
+}
@@ -0,0 +1,273 @@
+package com.jamiecheung.apps.columneddataformatter.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jamiecheung.apps.columneddataformatter.benchmarks.SyntheticDataGenerator.CellLengthDistribution;
+import com.jamiecheung.apps.columneddataformatter.model.DelimiterMatcher;
+import com.jamiecheung.apps.columneddataformatter.utils.ByteScannerUtils;
+import com.jamiecheung.apps.columneddataformatter.utils.ByteTokenizerUtils;
+
+/**
+ * JMH benchmarks of splitting input into lines and counting the delimiters in
+ * each of them, comparing a stream over the chars of each line and a loop over
+ * each byte with the word at a time scanning of {@link ByteScannerUtils}. The
+ * input is synthetic, or the file given by the {@code sampleFile} parameter,
+ * e.g. {@code -p sampleFile=executable_application/input_files/sample_input_file_1.txt}.
+ * On Java 21 or later, the bytes are scanned with the Vector API when the
+ * benchmarks are run with {@code -jvmArgsAppend "--add-modules jdk.incubator.vector"},
+ * unless the {@code scalarScan} parameter is true.
+ *
+ * @author JamieCheung
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ByteScanningBenchmark {
+
+    private static final char DELIMITER_CHARACTER = '|';
+    private static final byte DELIMITER_BYTE = '|';
+    private static final byte LINE_FEED_BYTE = '\n';
+    private static final int MEAN_CELL_LENGTH = 8;
+    private static final long SEED = 42L;
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    @Param({ "100000" })
+    public int rows;
+
+    @Param({ "8" })
+    public int columns;
+
+    @Param({ "FIXED", "SKEWED" })
+    public CellLengthDistribution cellLengthDistribution;
+
+    @Param({ "" })
+    public String sampleFile;
+
+    @Param({ "false" })
+    public boolean scalarScan;
+
+    private ByteBuffer input;
+    private List<String> linesAsStrings;
+    private DelimiterMatcher delimiterMatcher;
+
+    /**
+     * Counters reported by JMH as rates alongside each benchmark's score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Throughput {
+
+        /* Megabytes of input scanned, reported per second */
+        public double megabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            megabytes = 0;
+        }
+
+        /*
+         * Counts one pass over the whole input
+         */
+        void count(ByteScanningBenchmark benchmark) {
+            megabytes += benchmark.input.limit() / BYTES_PER_MEGABYTE;
+        }
+
+    }
+
+    /**
+     * Generates the input, or reads the sample file, into a direct buffer, as its
+     * bytes would be found in a memory mapping of the file.
+     *
+     * @throws IOException
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        byte[] data = sampleFile.isEmpty()
+                ? new SyntheticDataGenerator(rows, columns, MEAN_CELL_LENGTH, cellLengthDistribution, 0, 0, SEED)
+                        .generate().getBytes(StandardCharsets.UTF_8)
+                : Files.readAllBytes(Paths.get(sampleFile));
+
+        input = ByteBuffer.allocateDirect(data.length);
+        input.put(data).flip();
+        linesAsStrings = Arrays.asList(new String(data, StandardCharsets.UTF_8).split("\n"));
+        delimiterMatcher = DelimiterMatcher.compile(String.valueOf(DELIMITER_CHARACTER));
+        ByteScannerUtils.setScalarScanning(scalarScan);
+
+    }
+
+    /**
+     * Benchmarks counting the delimiters of each line with a stream over its
+     * chars.
+     *
+     * @param throughput
+     *                   the counters of the input scanned
+     *
+     * @return the number of delimiters
+     */
+    @Benchmark
+    public long countDelimitersWithStreams(Throughput throughput) {
+
+        long delimiterCount = 0;
+
+        for (String line : linesAsStrings) {
+            delimiterCount += line.chars().filter(character -> character == DELIMITER_CHARACTER).count();
+        }
+
+        throughput.count(this);
+
+        return delimiterCount;
+
+    }
+
+    /**
+     * Benchmarks finding the end of each line and counting its delimiters one byte
+     * at a time.
+     *
+     * @param throughput
+     *                   the counters of the input scanned
+     *
+     * @return the number of delimiters
+     */
+    @Benchmark
+    public long countDelimitersByteAtATime(Throughput throughput) {
+
+        long delimiterCount = 0;
+        int limit = input.limit();
+        int position = 0;
+
+        while (position < limit) {
+
+            int lineEnd = position;
+            while (lineEnd < limit && input.get(lineEnd) != LINE_FEED_BYTE) {
+                lineEnd++;
+            }
+
+            for (int i = position; i < lineEnd; i++) {
+                if (input.get(i) == DELIMITER_BYTE) {
+                    delimiterCount++;
+                }
+            }
+
+            position = lineEnd + 1;
+
+        }
+
+        throughput.count(this);
+
+        return delimiterCount;
+
+    }
+
+    /**
+     * Benchmarks finding the end of each line and counting its delimiters eight
+     * bytes at a time.
+     *
+     * @param throughput
+     *                   the counters of the input scanned
+     *
+     * @return the number of delimiters
+     */
+    @Benchmark
+    public long countDelimitersWordAtATime(Throughput throughput) {
+
+        long delimiterCount = 0;
+        int limit = input.limit();
+        int position = 0;
+
+        while (position < limit) {
+
+            int lineEnd = ByteTokenizerUtils.findLineEnd(input, position, limit);
+            delimiterCount += delimiterMatcher.countIn(input, position, lineEnd);
+            position = ByteTokenizerUtils.skipLineTerminator(input, lineEnd, limit);
+
+        }
+
+        throughput.count(this);
+
+        return delimiterCount;
+
+    }
+
+    /**
+     * Benchmarks counting the lines and delimiters of the whole input eight bytes
+     * at a time, as done to size the table of an input file up front.
+     *
+     * @param throughput
+     *                   the counters of the input scanned
+     *
+     * @return the number of lines and delimiters
+     */
+    @Benchmark
+    public long prescanWordAtATime(Throughput throughput) {
+
+        long count = ByteScannerUtils.count(input, 0, input.limit(), LINE_FEED_BYTE)
+                + ByteScannerUtils.count(input, 0, input.limit(), DELIMITER_BYTE);
+
+        throughput.count(this);
+
+        return count;
+
+    }
+
+    /**
+     * Benchmarks splitting the input into lines and tokenizing each of them, which
+     * finds its delimiters eight bytes at a time.
+     *
+     * @param throughput
+     *                   the counters of the input scanned
+     *
+     * @return the number of cells
+     */
+    @Benchmark
+    public long tokenizeLines(Throughput throughput) {
+
+        long cellCount = 0;
+        int limit = input.limit();
+        int position = 0;
+
+        while (position < limit) {
+
+            int lineEnd = ByteTokenizerUtils.findLineEnd(input, position, limit);
+            int[] boundaries = ByteTokenizerUtils.tokenizeLine(input, position, lineEnd, delimiterMatcher);
+
+            if (boundaries != null) {
+                cellCount += boundaries.length / 2;
+            }
+
+            position = ByteTokenizerUtils.skipLineTerminator(input, lineEnd, limit);
+
+        }
+
+        throughput.count(this);
+
+        return cellCount;
+
+    }
+
+}
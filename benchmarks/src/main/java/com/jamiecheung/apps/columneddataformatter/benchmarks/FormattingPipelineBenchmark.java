@@ -0,0 +1,258 @@
+package com.jamiecheung.apps.columneddataformatter.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jamiecheung.apps.columneddataformatter.benchmarks.SyntheticDataGenerator.CellLengthDistribution;
+import com.jamiecheung.apps.columneddataformatter.readers.MappedFileReader;
+import com.jamiecheung.apps.columneddataformatter.utils.FormatInputUtils;
+import com.jamiecheung.apps.columneddataformatter.utils.ResultGeneratorUtils;
+
+/**
+ * JMH benchmarks of each stage of the formatting pipeline, run against
+ * synthetic input files of every combination of the parameters. Besides the
+ * operations per second, each benchmark reports the megabytes and the rows of
+ * input it processes per second.
+ *
+ * @author JamieCheung
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormattingPipelineBenchmark {
+
+    private static final String DELIMITER = "|";
+    private static final int MEAN_CELL_LENGTH = 8;
+    private static final long SEED = 42L;
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    @Param({ "10000", "100000" })
+    public int rows;
+
+    @Param({ "8" })
+    public int columns;
+
+    @Param({ "FIXED", "UNIFORM", "SKEWED" })
+    public CellLengthDistribution cellLengthDistribution;
+
+    @Param({ "0.0", "0.25" })
+    public double raggedRowRatio;
+
+    @Param({ "0.0", "0.25" })
+    public double emptyCellRatio;
+
+    private Path workingDirectory;
+    private String inputFile;
+    private String resultDirectory;
+    private long inputSize;
+    private List<String> linesAsStrings;
+    private List<StringBuilder> linesAsStringBuilders;
+    private PrintStream originalOut;
+
+    /**
+     * Counters reported by JMH as rates alongside each benchmark's score.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Throughput {
+
+        /* Megabytes of input processed, reported per second */
+        public double megabytes;
+
+        /* Rows of input processed, reported per second */
+        public long rowsProcessed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+
+            megabytes = 0;
+            rowsProcessed = 0;
+
+        }
+
+        /*
+         * Counts one pass over the whole input
+         */
+        void count(FormattingPipelineBenchmark benchmark) {
+
+            megabytes += benchmark.inputSize / BYTES_PER_MEGABYTE;
+            rowsProcessed += benchmark.rows;
+
+        }
+
+    }
+
+    /**
+     * Generates the input file and the inputs of each stage, and discards the
+     * console output of the stage that writes out the results.
+     *
+     * @throws IOException
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        workingDirectory = Files.createTempDirectory("columned-data-formatter-benchmarks");
+        Path inputPath = workingDirectory.resolve("input.txt");
+
+        String data = new SyntheticDataGenerator(rows, columns, MEAN_CELL_LENGTH, cellLengthDistribution,
+                raggedRowRatio, emptyCellRatio, SEED).generate();
+        Files.write(inputPath, data.getBytes(StandardCharsets.UTF_8));
+
+        inputFile = inputPath.toString();
+        resultDirectory = workingDirectory.toString() + "/";
+        inputSize = Files.size(inputPath);
+        linesAsStrings = Arrays.asList(data.split("\n"));
+
+        try (MappedFileReader reader = new MappedFileReader(inputFile)) {
+            linesAsStringBuilders = FormatInputUtils.formatInputFile(reader, DELIMITER);
+        }
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                // Discard the console output
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                // Discard the console output
+            }
+        }));
+
+    }
+
+    /**
+     * Restores the console output and deletes the generated files.
+     *
+     * @throws IOException
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+
+        System.setOut(originalOut);
+
+        try (Stream<Path> paths = Files.walk(workingDirectory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+
+    }
+
+    /**
+     * Benchmarks formatting the input file through a memory mapping, as done for
+     * an input file.
+     *
+     * @param throughput
+     *                   the counters of the input processed
+     *
+     * @return the formatted lines
+     *
+     * @throws IOException
+     */
+    @Benchmark
+    public List<StringBuilder> formatInputFile(Throughput throughput) throws IOException {
+
+        List<StringBuilder> formattedLines;
+
+        try (MappedFileReader reader = new MappedFileReader(inputFile)) {
+            formattedLines = FormatInputUtils.formatInputFile(reader, DELIMITER);
+        }
+
+        throughput.count(this);
+
+        return formattedLines;
+
+    }
+
+    /**
+     * Benchmarks formatting lines already held in memory, as done for an input
+     * String.
+     *
+     * @param throughput
+     *                   the counters of the input processed
+     *
+     * @return the formatted lines
+     *
+     * @throws IOException
+     */
+    @Benchmark
+    public List<StringBuilder> formatInputLines(Throughput throughput) throws IOException {
+
+        List<StringBuilder> formattedLines = FormatInputUtils.formatInputFile(linesAsStrings, DELIMITER);
+
+        throughput.count(this);
+
+        return formattedLines;
+
+    }
+
+    /**
+     * Benchmarks reading the whole input file into a String.
+     *
+     * @param throughput
+     *                   the counters of the input processed
+     *
+     * @return the contents of the input file
+     *
+     * @throws IOException
+     */
+    @Benchmark
+    public String convertFileContentsToString(Throughput throughput) throws IOException {
+
+        String fileContents = FormatInputUtils.convertFileContentsToString(inputFile);
+
+        throughput.count(this);
+
+        return fileContents;
+
+    }
+
+    /**
+     * Benchmarks writing the formatted lines out to the console and to the
+     * resulting file.
+     *
+     * @param throughput
+     *                   the counters of the input processed
+     *
+     * @throws IOException
+     */
+    @Benchmark
+    public void writeOutFormattedResults(Throughput throughput) throws IOException {
+
+        ResultGeneratorUtils.writeOutFormattedResults(linesAsStringBuilders, inputFile, resultDirectory, true);
+
+        throughput.count(this);
+
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.jamiecheung.apps.columneddataformatter.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generates synthetic columned data to benchmark the formatting pipeline with.
+ * The same arguments always generate the same data, so results can be compared
+ * between runs.
+ *
+ * @author JamieCheung
+ *
+ */
+public class SyntheticDataGenerator {
+
+    private static final char DEFAULT_DELIMITER = '|';
+    private static final char SPACE_CHARACTER = ' ';
+    private static final String CELL_CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789@.-_";
+    private static final int MAXIMUM_PADDING = 3;
+
+    /**
+     * How the lengths of the cells are distributed.
+     */
+    public enum CellLengthDistribution {
+
+        /* Every cell has the mean length */
+        FIXED,
+
+        /* Cell lengths are spread evenly between 1 and twice the mean length */
+        UNIFORM,
+
+        /* Most cells are short, with a few far longer than the mean length */
+        SKEWED
+
+    }
+
+    private final int rows;
+    private final int columns;
+    private final int meanCellLength;
+    private final CellLengthDistribution cellLengthDistribution;
+    private final double raggedRowRatio;
+    private final double emptyCellRatio;
+    private final long seed;
+
+    /**
+     * Creates a generator of synthetic columned data.
+     *
+     * @param rows
+     *                               the number of rows to generate
+     * @param columns
+     *                               the number of columns in a full row
+     * @param meanCellLength
+     *                               the mean length of a non-empty cell
+     * @param cellLengthDistribution
+     *                               how the lengths of the cells are
+     *                               distributed
+     * @param raggedRowRatio
+     *                               the fraction of rows with fewer than the
+     *                               full number of columns
+     * @param emptyCellRatio
+     *                               the fraction of cells left empty, in runs
+     *                               of consecutive empty cells
+     * @param seed
+     *                               the seed of the random data
+     */
+    public SyntheticDataGenerator(int rows, int columns, int meanCellLength,
+            CellLengthDistribution cellLengthDistribution, double raggedRowRatio, double emptyCellRatio, long seed) {
+
+        this.rows = rows;
+        this.columns = columns;
+        this.meanCellLength = meanCellLength;
+        this.cellLengthDistribution = cellLengthDistribution;
+        this.raggedRowRatio = raggedRowRatio;
+        this.emptyCellRatio = emptyCellRatio;
+        this.seed = seed;
+
+    }
+
+    /**
+     * Generates the columned data, with each row on its own line, separated by the
+     * '|' delimiter, and each cell surrounded by a random amount of padding.
+     *
+     * @return the columned data
+     */
+    public String generate() {
+
+        Random random = new Random(seed);
+        StringBuilder data = new StringBuilder(rows * columns * (meanCellLength + MAXIMUM_PADDING + 1));
+
+        for (int row = 0; row < rows; row++) {
+
+            int rowColumns = random.nextDouble() < raggedRowRatio ? 1 + random.nextInt(columns) : columns;
+            int emptyCellsRemaining = 0;
+
+            appendPadding(data, random);
+
+            for (int column = 0; column < rowColumns; column++) {
+
+                data.append(DEFAULT_DELIMITER);
+                appendPadding(data, random);
+
+                // Start a run of consecutive empty cells, which averages two cells long so
+                // the overall fraction of empty cells matches the ratio
+                if (emptyCellsRemaining == 0 && random.nextDouble() < emptyCellRatio / 2) {
+                    emptyCellsRemaining = 1 + random.nextInt(3);
+                }
+
+                if (emptyCellsRemaining > 0) {
+                    emptyCellsRemaining--;
+                } else {
+                    appendCell(data, random);
+                    appendPadding(data, random);
+                }
+
+            }
+
+            data.append('\n');
+
+        }
+
+        return data.toString();
+
+    }
+
+    /*
+     * Appends a single cell with a length drawn from the distribution
+     */
+    private void appendCell(StringBuilder data, Random random) {
+
+        int cellLength;
+
+        switch (cellLengthDistribution) {
+        case UNIFORM:
+            cellLength = 1 + random.nextInt(2 * meanCellLength);
+            break;
+        case SKEWED:
+            // Exponentially distributed, so one cell in twenty is three times the mean
+            cellLength = 1 + (int) (-Math.log(1 - random.nextDouble()) * (meanCellLength - 1));
+            break;
+        default:
+            cellLength = meanCellLength;
+            break;
+        }
+
+        for (int i = 0; i < cellLength; i++) {
+            data.append(CELL_CHARACTERS.charAt(random.nextInt(CELL_CHARACTERS.length())));
+        }
+
+    }
+
+    /*
+     * Appends up to the maximum amount of padding around a cell
+     */
+    private static void appendPadding(StringBuilder data, Random random) {
+
+        for (int i = random.nextInt(MAXIMUM_PADDING + 1); i > 0; i--) {
+            data.append(SPACE_CHARACTER);
+        }
+
+    }
+
+}
@@ -39,15 +39,36 @@ function getMultiLineProperty {
 
 # Load the properties from the properties file.
 DELIMITER_KEY="delimiter"
+QUOTE_CHARACTER_KEY="quote.character"
+ESCAPE_CHARACTER_KEY="escape.character"
 FORMAT_DATA_CONTENTS_KEY="format.data.contents"
 FORMAT_INPUT_FILE_DATA_CONTENTS_KEY="format.input.file.data.contents"
 INPUT_FILE_KEY="input.file"
 INPUT_DIRECTORY_KEY="input.directory"
 RESULT_DIRECTORY_KEY="result.directory"
 RESULT_DIRECTORY_CLEAN_UP_BEFORE_EXECUTION_KEY="clear.result.directory.before.execution"
+STREAM_INPUT_FILES_KEY="stream.input.files"
+PARALLELISM_KEY="parallelism"
+PARALLEL_THRESHOLD_KEY="parallel.threshold"
+BATCH_WORKERS_KEY="batch.workers"
+CACHE_RESULTS_KEY="cache.results"
+MAX_COLUMN_WIDTH_KEY="max.column.width"
+PER_COLUMN_MAX_WIDTHS_KEY="per.column.max.widths"
+FIXED_COLUMN_WIDTHS_KEY="fixed.column.widths"
+TRUNCATE_WITH_ELLIPSIS_KEY="truncate.with.ellipsis"
+WINDOW_ROWS_KEY="window.rows"
+SAMPLE_ROWS_KEY="sample.rows"
+SAMPLE_FROM_WHOLE_FILE_KEY="sample.from.whole.file"
+OVERFLOW_POLICY_KEY="overflow.policy"
+WATCH_INPUT_DIRECTORY_KEY="watch.input.directory"
+WATCH_DEBOUNCE_KEY="watch.debounce"
+SCALAR_SCAN_KEY="scalar.scan"
+METRICS_FORMAT_KEY="metrics.format"
 
 # Set the arguments for the application.
 DELIMITER=$(getProperty $DELIMITER_KEY)
+QUOTE_CHARACTER=$(getProperty $QUOTE_CHARACTER_KEY)
+ESCAPE_CHARACTER=$(getProperty $ESCAPE_CHARACTER_KEY)
 FORMAT_DATA_CONTENTS=$(getProperty $FORMAT_DATA_CONTENTS_KEY)
 FORMAT_INPUT_FILE_DATA_CONTENTS=$(getProperty $FORMAT_INPUT_FILE_DATA_CONTENTS_KEY)
 DATA_CONTENTS=$(getMultiLineProperty)
@@ -55,6 +76,105 @@ INPUT_FILE=$(getProperty $INPUT_FILE_KEY)
 INPUT_DIRECTORY=$(getProperty $INPUT_DIRECTORY_KEY)
 RESULT_DIRECTORY=$(getProperty $RESULT_DIRECTORY_KEY)
 RESULT_DIRECTORY_CLEAN_UP_BEFORE_EXECUTION=$(getProperty $RESULT_DIRECTORY_CLEAN_UP_BEFORE_EXECUTION_KEY)
+STREAM_INPUT_FILES=$(getProperty $STREAM_INPUT_FILES_KEY)
+PARALLELISM=$(getProperty $PARALLELISM_KEY)
+PARALLEL_THRESHOLD=$(getProperty $PARALLEL_THRESHOLD_KEY)
+BATCH_WORKERS=$(getProperty $BATCH_WORKERS_KEY)
+CACHE_RESULTS=$(getProperty $CACHE_RESULTS_KEY)
+MAX_COLUMN_WIDTH=$(getProperty $MAX_COLUMN_WIDTH_KEY)
+PER_COLUMN_MAX_WIDTHS=$(getProperty $PER_COLUMN_MAX_WIDTHS_KEY)
+FIXED_COLUMN_WIDTHS=$(getProperty $FIXED_COLUMN_WIDTHS_KEY)
+TRUNCATE_WITH_ELLIPSIS=$(getProperty $TRUNCATE_WITH_ELLIPSIS_KEY)
+WINDOW_ROWS=$(getProperty $WINDOW_ROWS_KEY)
+SAMPLE_ROWS=$(getProperty $SAMPLE_ROWS_KEY)
+SAMPLE_FROM_WHOLE_FILE=$(getProperty $SAMPLE_FROM_WHOLE_FILE_KEY)
+OVERFLOW_POLICY=$(getProperty $OVERFLOW_POLICY_KEY)
+WATCH_INPUT_DIRECTORY=$(getProperty $WATCH_INPUT_DIRECTORY_KEY)
+WATCH_DEBOUNCE=$(getProperty $WATCH_DEBOUNCE_KEY)
+SCALAR_SCAN=$(getProperty $SCALAR_SCAN_KEY)
+METRICS_FORMAT=$(getProperty $METRICS_FORMAT_KEY)
+
+# Optional arguments passed to the application after the required arguments.
+OPTIONAL_ARGS=""
+if [ "$STREAM_INPUT_FILES" == true ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --stream"
+fi
+if [ ! -z "$PARALLELISM" ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --parallelism=$PARALLELISM"
+fi
+if [ ! -z "$PARALLEL_THRESHOLD" ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --parallel-threshold=$PARALLEL_THRESHOLD"
+fi
+if [ "$CACHE_RESULTS" == true ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --cache"
+fi
+if [ ! -z "$MAX_COLUMN_WIDTH" ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --max-width=$MAX_COLUMN_WIDTH"
+fi
+if [ ! -z "$PER_COLUMN_MAX_WIDTHS" ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --max-widths=${PER_COLUMN_MAX_WIDTHS// /}"
+fi
+if [ "$FIXED_COLUMN_WIDTHS" == true ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --fixed-widths"
+fi
+if [ "$TRUNCATE_WITH_ELLIPSIS" == true ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --ellipsis"
+fi
+if [ ! -z "$WINDOW_ROWS" ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --window=$WINDOW_ROWS"
+fi
+if [ ! -z "$SAMPLE_ROWS" ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --sample-rows=$SAMPLE_ROWS"
+fi
+if [ "$SAMPLE_FROM_WHOLE_FILE" == true ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --sample-reservoir"
+fi
+if [ ! -z "$OVERFLOW_POLICY" ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --overflow=$OVERFLOW_POLICY"
+fi
+if [ ! -z "$QUOTE_CHARACTER" ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --quote=$QUOTE_CHARACTER"
+fi
+if [ ! -z "$ESCAPE_CHARACTER" ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --escape=$ESCAPE_CHARACTER"
+fi
+if [ "$SCALAR_SCAN" == true ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --scalar-scan"
+fi
+if [ ! -z "$METRICS_FORMAT" ]
+then
+	OPTIONAL_ARGS="$OPTIONAL_ARGS --metrics=$METRICS_FORMAT"
+fi
+
+# Optional arguments passed to the application when formatting all files in a directory.
+BATCH_OPTIONAL_ARGS=""
+if [ ! -z "$BATCH_WORKERS" ]
+then
+	BATCH_OPTIONAL_ARGS="$BATCH_OPTIONAL_ARGS --workers=$BATCH_WORKERS"
+fi
+if [ "$WATCH_INPUT_DIRECTORY" == true ]
+then
+	BATCH_OPTIONAL_ARGS="$BATCH_OPTIONAL_ARGS --watch"
+fi
+if [ ! -z "$WATCH_DEBOUNCE" ]
+then
+	BATCH_OPTIONAL_ARGS="$BATCH_OPTIONAL_ARGS --debounce=$WATCH_DEBOUNCE"
+fi
 
 # Check required properties are provided before running the application for an input String.
 if [ "$FORMAT_DATA_CONTENTS" == true ]
@@ -97,7 +217,12 @@ fi
 RESULT_DIRECTORY_FILES="$RESULT_DIRECTORY*"
 
 # Clear the result directory before running the program if configured to do so.
-if [ ! -z "$RESULT_DIRECTORY" ] && [ "$RESULT_DIRECTORY_CLEAN_UP_BEFORE_EXECUTION" == true ]
+# The result directory is kept when caching results, as the cached result files are reused.
+if [ ! -z "$RESULT_DIRECTORY" ] && [ "$RESULT_DIRECTORY_CLEAN_UP_BEFORE_EXECUTION" == true ] && [ "$CACHE_RESULTS" == true ]
+then
+	echo Keeping the result directory "$RESULT_DIRECTORY", as $CACHE_RESULTS_KEY is true.
+	echo "$EMPTY_LINE"
+elif [ ! -z "$RESULT_DIRECTORY" ] && [ "$RESULT_DIRECTORY_CLEAN_UP_BEFORE_EXECUTION" == true ]
 then
 	echo Clearing the result directory "$RESULT_DIRECTORY" before execution.
 	rm -r $RESULT_DIRECTORY_FILES
@@ -110,16 +235,27 @@ SORT_EXECUTABLE_JAR=$(ls ./executable_jar/columned-data-formatter-*.jar | sort -
 # Set the location of the main class entry point for the columned-data-formatter.
 MAIN_CLASS_LOCATION=com.jamiecheung.apps.columneddataformatter.executors.Executor
 
+# Set the location of the main class entry point for formatting all files in a directory.
+BATCH_MAIN_CLASS_LOCATION=com.jamiecheung.apps.columneddataformatter.executors.BatchExecutor
+
 # Get the jar with the latest version.
 set -- $SORT_EXECUTABLE_JAR
 LATEST_VERSION_EXECUTABLE_JAR=$1
 
+# Options passed to the JVM. On Java 21 or later, add the Vector API module so input is scanned with the Vector API.
+JAVA_OPTIONS=""
+JAVA_MAJOR_VERSION=$(java -version 2>&1 | head -1 | cut -d'"' -f2 | sed 's/^1\.//' | cut -d'.' -f1 | cut -d'-' -f1)
+if [ "$JAVA_MAJOR_VERSION" -ge 21 ] 2>/dev/null
+then
+	JAVA_OPTIONS="--add-modules jdk.incubator.vector"
+fi
+
 # Running the application for an input String.
 if [ "$FORMAT_DATA_CONTENTS" == true ]
 then
 	echo Running $LATEST_VERSION_EXECUTABLE_JAR on contents: "$NEW_LINE" "$DATA_CONTENTS"
 	echo "$EMPTY_LINE"
-	java -cp $LATEST_VERSION_EXECUTABLE_JAR $MAIN_CLASS_LOCATION "$DELIMITER" "$DATA_CONTENTS" "$RESULT_DIRECTORY"
+	java $JAVA_OPTIONS -cp $LATEST_VERSION_EXECUTABLE_JAR $MAIN_CLASS_LOCATION "$DELIMITER" "$DATA_CONTENTS" "$RESULT_DIRECTORY"
 	echo "$EMPTY_LINE"
 fi
 
@@ -131,21 +267,17 @@ then
 		# If input.file is provided, run the application against the input.file.
 		echo Running $LATEST_VERSION_EXECUTABLE_JAR on input file $INPUT_FILE
 		echo "$EMPTY_LINE"
-		java -cp $LATEST_VERSION_EXECUTABLE_JAR $MAIN_CLASS_LOCATION "$DELIMITER" "$INPUT_FILE" "$RESULT_DIRECTORY"
+		java $JAVA_OPTIONS -cp $LATEST_VERSION_EXECUTABLE_JAR $MAIN_CLASS_LOCATION "$DELIMITER" "$INPUT_FILE" "$RESULT_DIRECTORY" $OPTIONAL_ARGS
 		echo "$EMPTY_LINE"
 	fi
 
 	if [ ! -z "$INPUT_DIRECTORY" ]
 	then
-		# If input.directory is empty, run the application against all files in the input.directory.
+		# If input.directory is provided, run the application once against all files in the input.directory.
+		# If watch.input.directory is true, the application keeps running until stopped, formatting files as they change.
 		echo Running $LATEST_VERSION_EXECUTABLE_JAR on all files in $INPUT_DIRECTORY
 		echo "$EMPTY_LINE"
-		find $INPUT_DIRECTORY -type f -name "*.*" | while read fileToFormat; do
-	  		echo Running $LATEST_VERSION_EXECUTABLE_JAR on input file $fileToFormat
-	  		echo "$EMPTY_LINE"
-	  		java -cp $LATEST_VERSION_EXECUTABLE_JAR $MAIN_CLASS_LOCATION "$DELIMITER" "$fileToFormat" "$RESULT_DIRECTORY"
-	  		echo "$EMPTY_LINE"
-		done
+		java $JAVA_OPTIONS -cp $LATEST_VERSION_EXECUTABLE_JAR $BATCH_MAIN_CLASS_LOCATION "$DELIMITER" "$INPUT_DIRECTORY" "$RESULT_DIRECTORY" $OPTIONAL_ARGS $BATCH_OPTIONAL_ARGS
 	fi
 fi
 
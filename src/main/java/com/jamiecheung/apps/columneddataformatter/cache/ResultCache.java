@@ -0,0 +1,348 @@
+package com.jamiecheung.apps.columneddataformatter.cache;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.RESULT_CACHE_ENTRY_FIELD_COUNT;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.RESULT_CACHE_ENTRY_SEPARATOR;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.RESULT_CACHE_HASH_ALGORITHM;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.RESULT_CACHE_MANIFEST_FILE_NAME;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.RESULT_CACHE_MANIFEST_HEADER;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.jamiecheung.apps.columneddataformatter.utils.FormatInputUtils;
+import com.jamiecheung.apps.columneddataformatter.utils.ResultGeneratorUtils;
+
+/**
+ * Class for the manifest of the result files already generated in a result
+ * directory, so input files that have not changed since their result file was
+ * generated do not need to be formatted again.
+ *
+ * <p>
+ * Each entry is keyed by the absolute path of the input file, and records the
+ * size, last modified time and content hash of the input file, the delimiter and
+ * formatting settings it was formatted with, and the size and last modified
+ * time of its result file. A result file is up to date if its entry matches the
+ * delimiter and the current formatting settings, the input
+ * file has the same content, and the result file has not been touched since it
+ * was generated. Input files whose size and last modified time both match are
+ * taken to have the same content without being hashed.
+ *
+ * <p>
+ * The size, last modified time and content hash of an input file are taken in
+ * an {@link InputSnapshot} before it is formatted, so the entry describes the
+ * content the result file was generated from. An input file changed while it
+ * was being formatted is left out of the manifest, so it is formatted again.
+ *
+ * <p>
+ * The manifest is saved to a temporary file that is then moved over the
+ * previous manifest, so it is never left partly written.
+ *
+ * @author JamieCheung
+ *
+ */
+public class ResultCache {
+
+    private static final int INPUT_SIZE_FIELD = 0;
+    private static final int INPUT_MODIFIED_FIELD = 1;
+    private static final int INPUT_HASH_FIELD = 2;
+    private static final int RESULT_SIZE_FIELD = 3;
+    private static final int RESULT_MODIFIED_FIELD = 4;
+    private static final int FORMAT_SETTINGS_FIELD = 5;
+    private static final int DELIMITER_FIELD = 6;
+    private static final int HASH_BUFFER_SIZE = 1 << 16;
+    private static final char[] HEXADECIMAL_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final String resultDirectory;
+    private final Path manifestPath;
+    private final Map<String, String[]> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The size, last modified time and content hash of an input file, taken
+     * before it is formatted.
+     */
+    public static final class InputSnapshot {
+
+        private final long size;
+        private final long modified;
+        private final String hash;
+
+        /*
+         * Creates the snapshot of an input file.
+         */
+        private InputSnapshot(long size, long modified, String hash) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+        }
+
+    }
+
+    /*
+     * Creates an empty ResultCache for the result directory.
+     */
+    private ResultCache(String resultDirectory) {
+        this.resultDirectory = resultDirectory;
+        this.manifestPath = Paths.get(resultDirectory, RESULT_CACHE_MANIFEST_FILE_NAME);
+    }
+
+    /**
+     * Loads the manifest of the result directory. A result directory without a
+     * manifest, or with a manifest that cannot be read, has an empty cache.
+     *
+     * @param resultDirectory
+     *                        the folder containing the result files and the
+     *                        manifest
+     *
+     * @return the result cache of the result directory
+     */
+    public static ResultCache load(String resultDirectory) {
+
+        ResultCache resultCache = new ResultCache(resultDirectory);
+
+        if (!Files.isRegularFile(resultCache.manifestPath)) {
+            return resultCache;
+        }
+
+        Properties manifest = new Properties();
+
+        try (InputStream input = Files.newInputStream(resultCache.manifestPath)) {
+            manifest.load(input);
+        } catch (IOException | IllegalArgumentException e) {
+            // Every result file is generated again, and the manifest replaced when saved
+            return resultCache;
+        }
+
+        for (String inputFile : manifest.stringPropertyNames()) {
+
+            String[] entry = manifest.getProperty(inputFile).split(RESULT_CACHE_ENTRY_SEPARATOR,
+                    RESULT_CACHE_ENTRY_FIELD_COUNT);
+
+            if (entry.length == RESULT_CACHE_ENTRY_FIELD_COUNT) {
+                resultCache.entries.put(inputFile, entry);
+            }
+
+        }
+
+        return resultCache;
+
+    }
+
+    /**
+     * Checks whether the result file of the input file is up to date, i.e. the
+     * input file has not changed since the result file was generated with the same
+     * delimiter and formatting settings, and the result file has not changed
+     * since.
+     *
+     * @param inputFile
+     *                  the file containing the input text
+     * @param delimiter
+     *                  the character that forms the columns of the data
+     *
+     * @return true iff the result file is up to date, otherwise false
+     *
+     * @throws IOException
+     */
+    public boolean isUpToDate(String inputFile, String delimiter) throws IOException {
+
+        Path inputFilePath = Paths.get(inputFile);
+        String key = getKey(inputFilePath);
+        String[] entry = entries.get(key);
+
+        if (entry == null || !entry[DELIMITER_FIELD].equals(delimiter) || !entry[FORMAT_SETTINGS_FIELD]
+                .equals(FormatInputUtils.getFormatSettings())) {
+            return false;
+        }
+
+        Path resultFilePath = ResultGeneratorUtils.getResultFilePath(inputFile, resultDirectory);
+
+        if (!Files.isRegularFile(resultFilePath)
+                || Files.size(resultFilePath) != Long.parseLong(entry[RESULT_SIZE_FIELD])
+                || Files.getLastModifiedTime(resultFilePath).toMillis() != Long
+                        .parseLong(entry[RESULT_MODIFIED_FIELD])) {
+            return false;
+        }
+
+        long inputSize = Files.size(inputFilePath);
+        long inputModified = Files.getLastModifiedTime(inputFilePath).toMillis();
+
+        if (inputSize != Long.parseLong(entry[INPUT_SIZE_FIELD])) {
+            return false;
+        }
+
+        if (inputModified == Long.parseLong(entry[INPUT_MODIFIED_FIELD])) {
+            return true;
+        }
+
+        // The input file has been touched, so compare its content
+        if (!hash(inputFilePath).equals(entry[INPUT_HASH_FIELD])) {
+            return false;
+        }
+
+        String[] touchedEntry = entry.clone();
+        touchedEntry[INPUT_MODIFIED_FIELD] = Long.toString(inputModified);
+        entries.put(key, touchedEntry);
+
+        return true;
+
+    }
+
+    /**
+     * Takes the size, last modified time and content hash of the input file,
+     * before it is formatted.
+     *
+     * @param inputFile
+     *                  the file containing the input text
+     *
+     * @return the snapshot of the input file
+     *
+     * @throws IOException
+     */
+    public InputSnapshot snapshot(String inputFile) throws IOException {
+
+        Path inputFilePath = Paths.get(inputFile);
+
+        // The size and last modified time are taken first, so a change made while
+        // hashing gives the input file a later last modified time than recorded
+        long size = Files.size(inputFilePath);
+        long modified = Files.getLastModifiedTime(inputFilePath).toMillis();
+
+        return new InputSnapshot(size, modified, hash(inputFilePath));
+
+    }
+
+    /**
+     * Records that the result file of the input file has just been generated from
+     * the content in the snapshot, with the delimiter and the current formatting
+     * settings. If the input file has changed since the snapshot was taken, the
+     * result file may have been generated from either content, so the input file
+     * is removed from the manifest instead, and formatted again next time.
+     *
+     * @param inputFile
+     *                  the file containing the input text
+     * @param delimiter
+     *                  the character that forms the columns of the data
+     * @param snapshot
+     *                  the snapshot of the input file taken before it was
+     *                  formatted
+     *
+     * @throws IOException
+     */
+    public void update(String inputFile, String delimiter, InputSnapshot snapshot) throws IOException {
+
+        Path inputFilePath = Paths.get(inputFile);
+        Path resultFilePath = ResultGeneratorUtils.getResultFilePath(inputFile, resultDirectory);
+
+        if (Files.size(inputFilePath) != snapshot.size
+                || Files.getLastModifiedTime(inputFilePath).toMillis() != snapshot.modified) {
+            entries.remove(getKey(inputFilePath));
+            return;
+        }
+
+        String[] entry = new String[RESULT_CACHE_ENTRY_FIELD_COUNT];
+        entry[INPUT_SIZE_FIELD] = Long.toString(snapshot.size);
+        entry[INPUT_MODIFIED_FIELD] = Long.toString(snapshot.modified);
+        entry[INPUT_HASH_FIELD] = snapshot.hash;
+        entry[RESULT_SIZE_FIELD] = Long.toString(Files.size(resultFilePath));
+        entry[RESULT_MODIFIED_FIELD] = Long.toString(Files.getLastModifiedTime(resultFilePath).toMillis());
+        entry[FORMAT_SETTINGS_FIELD] = FormatInputUtils.getFormatSettings();
+        entry[DELIMITER_FIELD] = delimiter;
+
+        entries.put(getKey(inputFilePath), entry);
+
+    }
+
+    /**
+     * Saves the manifest into the result directory, replacing the previous
+     * manifest in a single step.
+     *
+     * @throws IOException
+     */
+    public synchronized void save() throws IOException {
+
+        Properties manifest = new Properties();
+
+        for (Map.Entry<String, String[]> entry : entries.entrySet()) {
+            manifest.setProperty(entry.getKey(), String.join(RESULT_CACHE_ENTRY_SEPARATOR, entry.getValue()));
+        }
+
+        Path temporaryManifestPath = Files.createTempFile(manifestPath.toAbsolutePath().getParent(),
+                RESULT_CACHE_MANIFEST_FILE_NAME, null);
+
+        try {
+
+            try (OutputStream output = Files.newOutputStream(temporaryManifestPath)) {
+                manifest.store(output, RESULT_CACHE_MANIFEST_HEADER);
+            }
+
+            try {
+                Files.move(temporaryManifestPath, manifestPath, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryManifestPath, manifestPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+        } finally {
+            Files.deleteIfExists(temporaryManifestPath);
+        }
+
+    }
+
+    /*
+     * Gets the key of the input file's entry, which is the same however the path
+     * to the input file is written.
+     */
+    private static String getKey(Path inputFilePath) {
+
+        return inputFilePath.toAbsolutePath().normalize().toString();
+
+    }
+
+    /*
+     * Hashes the content of the input file, as a hexadecimal String.
+     */
+    private static String hash(Path inputFilePath) throws IOException {
+
+        MessageDigest messageDigest;
+
+        try {
+            messageDigest = MessageDigest.getInstance(RESULT_CACHE_HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support the hash algorithm
+            throw new IllegalStateException(e);
+        }
+
+        byte[] buffer = new byte[HASH_BUFFER_SIZE];
+
+        try (InputStream input = Files.newInputStream(inputFilePath)) {
+
+            int bytesRead;
+            while ((bytesRead = input.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, bytesRead);
+            }
+
+        }
+
+        byte[] digest = messageDigest.digest();
+        char[] hexadecimal = new char[2 * digest.length];
+
+        for (int i = 0; i < digest.length; i++) {
+            hexadecimal[2 * i] = HEXADECIMAL_DIGITS[(digest[i] >> 4) & 0xF];
+            hexadecimal[2 * i + 1] = HEXADECIMAL_DIGITS[digest[i] & 0xF];
+        }
+
+        return new String(hexadecimal);
+
+    }
+
+}
@@ -15,12 +15,39 @@ public class CommonConstants {
     /* Space */
     public static final String SPACE = " ";
 
+    /* Space character */
+    public static final char SPACE_CHARACTER = ' ';
+
     /* Empty String */
     public static final String EMPTY_STRING = "";
 
     /* New line */
     public static final String NEW_LINE = "\n";
 
+    /* Line feed byte */
+    public static final byte LINE_FEED_BYTE = '\n';
+
+    /* Carriage return byte */
+    public static final byte CARRIAGE_RETURN_BYTE = '\r';
+
+    /* Line feed character */
+    public static final char LINE_FEED_CHARACTER = '\n';
+
+    /* Carriage return character */
+    public static final char CARRIAGE_RETURN_CHARACTER = '\r';
+
+    /* System property naming the charset System.out encodes in, from Java 18 */
+    public static final String STDOUT_ENCODING_PROPERTY = "stdout.encoding";
+
+    /* The largest region of an input file that is memory mapped at once */
+    public static final long MAXIMUM_MAPPED_REGION_SIZE = Integer.MAX_VALUE;
+
+    /* The largest length of an array, leaving room for the header words some JVMs keep in it */
+    public static final int MAXIMUM_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    /* The most characters of cell text a table is given room for up front, growing as it fills beyond them */
+    public static final int MAXIMUM_EXPECTED_TEXT_LENGTH = 1 << 20;
+
     /* Text file extension */
     public static final String TXT_FILE_EXTENSION = ".txt";
 
@@ -51,6 +78,183 @@ public class CommonConstants {
     /* The third expected argument passed to Executor */
     public static final String EXPECTED_ARG_3 = "Delimiter";
 
+    /* The optional argument to format an input file one line at a time */
+    public static final String STREAM_OPTION = "--stream";
+
+    /* The optional argument setting the number of threads used to format large input files */
+    public static final String PARALLELISM_OPTION = "--parallelism=";
+
+    /* The optional argument setting the size in bytes below which input files are formatted on a single thread */
+    public static final String PARALLEL_THRESHOLD_OPTION = "--parallel-threshold=";
+
+    /* The default number of threads used to format large input files */
+    public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    /* The default size in bytes below which input files are formatted on a single thread */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 20;
+
+    /* The optional argument setting the number of input files formatted at once by BatchExecutor */
+    public static final String WORKERS_OPTION = "--workers=";
+
+    /* The default number of input files formatted at once by BatchExecutor */
+    public static final int DEFAULT_WORKERS = Runtime.getRuntime().availableProcessors();
+
+    /* The number of formatted input files per worker that BatchExecutor holds before writing them out */
+    public static final int FORMATTED_FILES_PER_WORKER_LIMIT = 2;
+
+    /* The optional argument setting the port the formatter daemon listens on */
+    public static final String PORT_OPTION = "--port=";
+
+    /* The default port the formatter daemon listens on */
+    public static final int DEFAULT_DAEMON_PORT = 7171;
+
+    /* The optional argument setting the number of requests the formatter daemon can queue */
+    public static final String QUEUE_SIZE_OPTION = "--queue-size=";
+
+    /* The default number of requests the formatter daemon can queue */
+    public static final int DEFAULT_DAEMON_QUEUE_SIZE = 64;
+
+    /* The optional argument setting the time in milliseconds the formatter daemon allows for each request */
+    public static final String TIMEOUT_OPTION = "--timeout=";
+
+    /* The default time in milliseconds the formatter daemon allows for each request */
+    public static final int DEFAULT_DAEMON_TIMEOUT = 30000;
+
+    /* The optional argument setting the file holding the token every request to the formatter daemon must send */
+    public static final String TOKEN_FILE_OPTION = "--token-file=";
+
+    /* The name of the default token file in the home directory, for the port of the formatter daemon */
+    public static final String DAEMON_TOKEN_FILE_NAME = ".columned-data-formatter-daemon-%d.token";
+
+    /* The number of random bytes in the token every request to the formatter daemon must send */
+    public static final int DAEMON_TOKEN_LENGTH = 32;
+
+    /* The permissions of the token file, so only the user running the formatter daemon can read it */
+    public static final String DAEMON_TOKEN_FILE_PERMISSIONS = "rw-------";
+
+    /* The name of the file attribute view of file systems supporting POSIX permissions */
+    public static final String POSIX_FILE_ATTRIBUTE_VIEW = "posix";
+
+    /* The maximum number of UTF-8 bytes of any String in a message to or from the formatter daemon */
+    public static final int MAXIMUM_DAEMON_STRING_LENGTH = 1 << 22;
+
+    /* The status the formatter daemon responds with when a request is formatted */
+    public static final int DAEMON_STATUS_OK = 0;
+
+    /* The status the formatter daemon responds with when a request cannot be formatted */
+    public static final int DAEMON_STATUS_ERROR = 1;
+
+    /* The line of text output when the formatter daemon starts */
+    public static final String DAEMON_STARTED = "Formatter daemon listening on port %d";
+
+    /* The line of text BatchExecutor outputs before the formatted contents of each input file */
+    public static final String BATCH_INPUT_FILE_HEADER = "Formatting input file %s";
+
+    /* The optional argument to skip formatting input files whose result file is already up to date */
+    public static final String CACHE_OPTION = "--cache";
+
+    /* The name of the manifest of the result files already generated in a result directory */
+    public static final String RESULT_CACHE_MANIFEST_FILE_NAME = ".columned-data-formatter-cache";
+
+    /* The comment at the top of the manifest of the result files */
+    public static final String RESULT_CACHE_MANIFEST_HEADER = "Result files generated by columned-data-formatter";
+
+    /* The character separating the fields of each entry in the manifest of the result files */
+    public static final String RESULT_CACHE_ENTRY_SEPARATOR = ",";
+
+    /* The number of fields in each entry in the manifest of the result files */
+    public static final int RESULT_CACHE_ENTRY_FIELD_COUNT = 7;
+
+    /* The algorithm used to hash the content of the input files in the manifest of the result files */
+    public static final String RESULT_CACHE_HASH_ALGORITHM = "SHA-256";
+
+    /* The optional argument to keep formatting input files as they are created or modified in the input directory */
+    public static final String WATCH_OPTION = "--watch";
+
+    /* The optional argument setting the time in milliseconds without a change before a watched input file is formatted */
+    public static final String DEBOUNCE_OPTION = "--debounce=";
+
+    /* The default time in milliseconds without a change before a watched input file is formatted */
+    public static final int DEFAULT_WATCH_DEBOUNCE = 200;
+
+    /* The line of text BatchExecutor outputs once it is watching the input directory */
+    public static final String WATCHING_INPUT_DIRECTORY = "Watching input directory %s for new and modified input files";
+
+    /* The optional argument setting the maximum width of every column */
+    public static final String MAX_WIDTH_OPTION = "--max-width=";
+
+    /* The optional argument setting the maximum width of each column in turn, separated by commas */
+    public static final String MAX_WIDTHS_OPTION = "--max-widths=";
+
+    /* The character separating the values of an optional argument taking several values */
+    public static final String OPTION_VALUE_SEPARATOR = ",";
+
+    /* The optional argument to make every column exactly its maximum width, so input files are formatted in a single pass */
+    public static final String FIXED_WIDTHS_OPTION = "--fixed-widths";
+
+    /* The optional argument to end entries cut short to fit their column with an ellipsis */
+    public static final String ELLIPSIS_OPTION = "--ellipsis";
+
+    /* The text ending entries cut short to fit their column */
+    public static final String ELLIPSIS = "...";
+
+    /* The optional argument setting the number of rows in each window of streamed input files formatted with their own column lengths */
+    public static final String WINDOW_OPTION = "--window=";
+
+    /* The optional argument setting the number of rows the column lengths of streamed input files are estimated from */
+    public static final String SAMPLE_ROWS_OPTION = "--sample-rows=";
+
+    /* The optional argument to sample the rows from across the whole input file rather than from its start */
+    public static final String SAMPLE_RESERVOIR_OPTION = "--sample-reservoir";
+
+    /* The optional argument setting how lines overflowing the sampled column lengths are formatted */
+    public static final String OVERFLOW_OPTION = "--overflow=";
+
+    /* The optional argument setting the character entries are quoted with, so they may contain delimiters and line terminators */
+    public static final String QUOTE_OPTION = "--quote=";
+
+    /* The optional argument setting the character escaping the next character of an entry, which is the quote character by default */
+    public static final String ESCAPE_OPTION = "--escape=";
+
+    /* The optional argument to always scan input bytes with the portable scalar scanner, even if the JVM supports the Vector API */
+    public static final String SCALAR_SCAN_OPTION = "--scalar-scan";
+
+    /* The optional argument to report how long each stage of formatting each input file takes, in the format given */
+    public static final String METRICS_OPTION = "--metrics=";
+
+    /* The format of the metrics report, which is the only one supported */
+    public static final String METRICS_FORMAT_JSON = "json";
+
+    /* The name of the file in the result directory the metrics report is written to */
+    public static final String METRICS_REPORT_FILE_NAME = "columned-data-formatter-metrics.json";
+
+    /* The JMX object name the live statistics of a batch or the formatter daemon are registered under */
+    public static final String FORMATTER_STATISTICS_OBJECT_NAME = "com.jamiecheung.apps.columneddataformatter:type=FormatterStatistics";
+
+    /* The shortest time in milliseconds the rows formatted per second are measured over */
+    public static final long ROWS_PER_SECOND_WINDOW = 5000;
+
+    /* The JMX object name the latencies of each stage are registered under, given the name of the stage */
+    public static final String STAGE_LATENCY_OBJECT_NAME = "com.jamiecheung.apps.columneddataformatter:type=StageLatency,stage=%s";
+
+    /* The last visible character of ASCII, which is the largest character a quote or escape character may be */
+    public static final char LAST_VISIBLE_ASCII_CHARACTER = '~';
+
+    /* The quote character of input that is not quoted */
+    public static final char NO_QUOTE_CHARACTER = '\0';
+
+    /* The number of records of quoted input files streamed with the same column lengths that are output together */
+    public static final int QUOTED_STREAM_WINDOW_ROWS = 1024;
+
+    /* The number of rows formatted between checks of whether formatting has been interrupted, a power of two */
+    public static final int INTERRUPT_CHECK_ROWS = 1024;
+
+    /* The seed of the random choices made when sampling rows from across the whole input file */
+    public static final long RESERVOIR_SAMPLE_SEED = 0x5EED5A3D1EL;
+
+    /* The line of text output once a streamed input file with sampled column lengths has been formatted */
+    public static final String SAMPLED_ROWS_OVERFLOWED = "%d of %d rows of %s overflowed the column lengths sampled from %d rows";
+
     /* The arguments passed to Executor has length 0 */
     public static final int ACTUAL_ARGS_LENGTH_ZERO = 0;
 
@@ -61,7 +265,7 @@ public class CommonConstants {
     public static final int ACTUAL_ARGS_LENGTH_TWO = 2;
 
     /* The maximum character length of the delimiter argument */
-    public static final int DELIMITER_LENGTH_LIMIT = 1;
+    public static final int DELIMITER_LENGTH_LIMIT = 16;
 
     /* The time stamp format */
     public static final String TIME_STAMP_FORMAT = "uuuuMMddHHmmss";
@@ -72,6 +276,27 @@ public class CommonConstants {
     /* The character separating the date and time */
     public static final char DATE_TIME_SEPARATOR = 'T';
 
+    /* The number of characters of formatted data contents buffered before they are written to the console */
+    public static final int CONSOLE_BUFFER_SIZE = 1 << 16;
+
+    /* The number of characters of formatted data contents encoded into each buffer of a resulting file */
+    public static final int RESULT_FILE_BUFFER_SIZE = 1 << 16;
+
+    /* The number of buffers of a resulting file written out together in a single write */
+    public static final int RESULT_FILE_BUFFER_COUNT = 8;
+
+    /* The file extension of the temporary file a resulting file is written to before it replaces the resulting file */
+    public static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+
+    /* The number of bytes of console output a worker holds in memory before spilling the rest to a temporary file */
+    public static final int CONSOLE_SPOOL_MEMORY_LIMIT = 1 << 22;
+
+    /* The number of bytes of console output a worker first makes room for in memory */
+    public static final int SPOOL_INITIAL_CAPACITY = 1 << 16;
+
+    /* The prefix of the name of the temporary file console output is spilled to */
+    public static final String SPOOL_FILE_PREFIX = "columned-data-formatter-console";
+
     /* The line of text to output before the formatted data contents */
     public static final String START_OF_FORMATTED_DATA_CONTENTS = "---START OF FORMATTED DATA CONTENTS---";
 
@@ -20,6 +20,15 @@ public class ErrorMessageConstants {
     /* Error message for when the input file argument is not a file */
     public static final String ERROR_MESSAGE_INPUT_FILE_NOT_A_FILE = "Input file %s is not a file.";
 
+    /* Error message for when the input directory argument does not exist in the file system */
+    public static final String ERROR_MESSAGE_INPUT_DIRECTORY_DOES_NOT_EXIST = "Input directory %s does not exist.";
+
+    /* Error message for when the input directory argument is not a folder */
+    public static final String ERROR_MESSAGE_INPUT_DIRECTORY_NOT_A_DIRECTORY = "Input directory %s is not a directory.";
+
+    /* Error message for when one of the input files in a batch could not be formatted */
+    public static final String ERROR_MESSAGE_INPUT_FILE_NOT_FORMATTED = "Input file %s could not be formatted: %s";
+
     /* Error message for when the result directory argument is not provided */
     public static final String ERROR_MESSAGE_RESULT_DIRECTORY_NOT_PROVIDED = "Result directory not provided.";
 
@@ -29,7 +38,52 @@ public class ErrorMessageConstants {
     /* Error message for when the result directory argument is not a folder */
     public static final String ERROR_MESSAGE_RESULT_DIRECTORY_NOT_A_DIRECTORY = "Result directory %s is not a directory.";
 
-    /* Error message for when the delimiter argument is more than 1 character in length */
-    public static final String ERROR_MESSAGE_DELIMITER_NOT_A_SINGLE_CHARACTER = "Delimiter %s is not a single character.";
+    /* Error message for when the delimiter argument is empty, too long, or has a new line in it */
+    public static final String ERROR_MESSAGE_DELIMITER_NOT_VALID = "Delimiter %s is not 1 to %d characters on a single line.";
+
+    /* Error message for when an optional argument is not given a positive whole number */
+    public static final String ERROR_MESSAGE_OPTION_NOT_A_POSITIVE_INTEGER = "Optional argument %s%s is not a positive whole number.";
+
+    /* Error message for when an optional argument is not given a list of positive whole numbers */
+    public static final String ERROR_MESSAGE_OPTION_NOT_A_POSITIVE_INTEGER_LIST = "Optional argument %s%s is not a list of positive whole numbers separated by commas.";
+
+    /* Error message for when an optional argument is not given one of its allowed values */
+    public static final String ERROR_MESSAGE_OPTION_NOT_ONE_OF = "Optional argument %s%s is not one of %s.";
+
+    /* Error message for when an optional argument is not given a single visible ASCII character */
+    public static final String ERROR_MESSAGE_OPTION_NOT_A_CHARACTER = "Optional argument %s%s is not a single visible ASCII character.";
+
+    /* Error message for when the delimiter has the quote or escape character in it */
+    public static final String ERROR_MESSAGE_DELIMITER_HAS_QUOTE = "Delimiter %s must not contain the quote character %s or the escape character %s.";
+
+    /* Error message for when a quoted entry is still open at the end of the input */
+    public static final String ERROR_MESSAGE_QUOTE_NOT_CLOSED = "Quoted entry starting on line %d is not closed.";
+
+    /* Error message for when columns are to be fixed at their maximum width without every column having one */
+    public static final String ERROR_MESSAGE_FIXED_WIDTHS_NOT_PROVIDED = "Optional argument %s needs %s to be provided, so every column has a maximum width.";
+
+    /* Error message for when the formatter daemon has no room to queue a request */
+    public static final String ERROR_MESSAGE_DAEMON_BUSY = "Formatter daemon is busy, try again later.";
+
+    /* Error message for when a request to the formatter daemon takes longer than the timeout */
+    public static final String ERROR_MESSAGE_DAEMON_TIMEOUT = "Request timed out after %d ms.";
+
+    /* Error message for when a message to or from the formatter daemon is not valid */
+    public static final String ERROR_MESSAGE_DAEMON_INVALID_MESSAGE = "Invalid formatter daemon message.";
+
+    /* Error message for when a request does not send the token of the formatter daemon */
+    public static final String ERROR_MESSAGE_DAEMON_UNAUTHORISED = "Request does not have the token of the formatter daemon.";
+
+    /* Error message for when the token file of the formatter daemon cannot be found */
+    public static final String ERROR_MESSAGE_DAEMON_TOKEN_NOT_FOUND = "Token file %s not found, is the formatter daemon running?";
+
+    /* Error message for when a String is too long to be sent to or from the formatter daemon */
+    public static final String ERROR_MESSAGE_DAEMON_STRING_TOO_LONG = "Formatter daemon messages cannot hold more than %d bytes in a single String.";
+
+    /* Error message for when formatting is stopped because its thread was interrupted */
+    public static final String ERROR_MESSAGE_FORMATTING_INTERRUPTED = "Formatting was interrupted.";
+
+    /* Error message for when the input has more characters, cells or rows than a table can hold in memory */
+    public static final String ERROR_MESSAGE_TABLE_TOO_LARGE = "Input has more than %d characters, cells or rows to format in memory, stream it instead.";
 
 }
@@ -0,0 +1,406 @@
+package com.jamiecheung.apps.columneddataformatter.daemon;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.TXT_FILE_EXTENSION;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_DAEMON_BUSY;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_DAEMON_TIMEOUT;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.jamiecheung.apps.columneddataformatter.exceptions.DaemonRequestException;
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineMetrics;
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineStage;
+import com.jamiecheung.apps.columneddataformatter.model.ColumnedData;
+import com.jamiecheung.apps.columneddataformatter.readers.MappedFileReader;
+import com.jamiecheung.apps.columneddataformatter.utils.CommonUtils;
+import com.jamiecheung.apps.columneddataformatter.utils.DaemonProtocolUtils;
+import com.jamiecheung.apps.columneddataformatter.utils.FormatInputUtils;
+import com.jamiecheung.apps.columneddataformatter.utils.ResultGeneratorUtils;
+import com.jamiecheung.apps.columneddataformatter.validators.ArgumentsValidator;
+import com.jamiecheung.apps.columneddataformatter.validators.ColumnedDataValidator;
+
+/**
+ * Long-running server that formats requests sent over a socket on the loopback
+ * address, so each request avoids the start-up cost of a new JVM. Requests are
+ * formatted in the same way as by
+ * {@link com.jamiecheung.apps.columneddataformatter.executors.Executor
+ * Executor}, with the formatted lines sent back in the response instead of
+ * being output to the console. The messages are described in
+ * {@link DaemonProtocolUtils}.
+ *
+ * <p>
+ * Every request must send the token the formatter daemon writes to its token
+ * file when it is created, which is readable by the user running it only, and
+ * is deleted when it is closed. Requests without it are answered with an error
+ * before the rest of the request is read.
+ *
+ * <p>
+ * At most workers requests are handled at once, with up to queueSize more
+ * waiting. Requests beyond that are rejected straight away. Each request has
+ * the timeout to be both read and formatted, counted from when it is first
+ * handled, however slowly it is sent; a request that takes longer is answered
+ * with an error and has its formatting interrupted. Formatting checks for the
+ * interrupt as it goes, but a request is also rejected if every formatting
+ * thread is still busy stopping an earlier request, so abandoned requests
+ * cannot pile up.
+ *
+ * @author JamieCheung
+ *
+ */
+public class FormatterDaemon implements Closeable {
+
+    private final ServerSocket serverSocket;
+    private final Path tokenFile;
+    private final String token;
+    private final ThreadPoolExecutor requestPool;
+    private final ExecutorService formattingPool;
+    private final int timeout;
+    private final Thread acceptorThread;
+
+    /**
+     * Creates the formatter daemon, listening on the port of the loopback address,
+     * and writes its token to the token file. Requests are not accepted until
+     * {@link FormatterDaemon#start()} is called.
+     *
+     * @param port
+     *                  the port to listen on, or 0 for any free port
+     * @param workers
+     *                  the number of requests handled at once
+     * @param queueSize
+     *                  the number of requests that can wait to be handled
+     * @param timeout
+     *                  the time in milliseconds allowed for each request
+     * @param tokenFile
+     *                  the file to write the token every request must send to
+     *
+     * @throws IOException
+     *                     if the port cannot be listened on, or the token file
+     *                     cannot be written
+     */
+    public FormatterDaemon(int port, int workers, int queueSize, int timeout, Path tokenFile) throws IOException {
+
+        this.serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        this.tokenFile = tokenFile;
+
+        try {
+            this.token = DaemonProtocolUtils.createTokenFile(tokenFile);
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+
+        this.requestPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize));
+        this.formattingPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>());
+        this.timeout = timeout;
+        this.acceptorThread = new Thread(this::acceptRequests, FormatterDaemon.class.getSimpleName());
+
+    }
+
+    /**
+     * Starts accepting requests on a separate thread.
+     */
+    public void start() {
+
+        acceptorThread.start();
+
+    }
+
+    /**
+     * Gets the port the formatter daemon is listening on.
+     *
+     * @return the port
+     */
+    public int getPort() {
+
+        return serverSocket.getLocalPort();
+
+    }
+
+    /**
+     * Gets the number of requests waiting to be handled.
+     *
+     * @return the number of waiting requests
+     */
+    public int getQueuedRequestCount() {
+
+        return requestPool.getQueue().size();
+
+    }
+
+    /**
+     * Gets the number of requests being handled.
+     *
+     * @return the number of requests being handled
+     */
+    public int getActiveRequestCount() {
+
+        return requestPool.getActiveCount();
+
+    }
+
+    /**
+     * Stops accepting requests, stops any requests being handled, and deletes the
+     * token file.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+
+        serverSocket.close();
+        requestPool.shutdownNow();
+        formattingPool.shutdownNow();
+        Files.deleteIfExists(tokenFile);
+
+    }
+
+    /*
+     * Accepts connections until the server socket is closed, handing each one to
+     * the request pool, or rejecting it if the request pool is full.
+     */
+    private void acceptRequests() {
+
+        while (!serverSocket.isClosed()) {
+
+            Socket socket;
+
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                // The server socket has been closed
+                return;
+            }
+
+            try {
+                requestPool.execute(() -> handleRequest(socket));
+            } catch (RejectedExecutionException e) {
+                PipelineMetrics.countRejectedRequest();
+                respondWithError(socket, ERROR_MESSAGE_DAEMON_BUSY);
+            }
+
+        }
+
+    }
+
+    /*
+     * Reads the request from the connection, formats it on the formatting pool,
+     * and responds with the formatted lines, or an error if reading and formatting
+     * it together take longer than the timeout, or no formatting thread is free.
+     * The timeout runs from when the request is first handled.
+     */
+    private void handleRequest(Socket socket) {
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+
+        try (Socket connection = socket) {
+
+            DataInputStream input = new DataInputStream(
+                    new BufferedInputStream(new DeadlineInputStream(connection, deadline)));
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+
+            try {
+
+                String[] request = DaemonProtocolUtils.readRequest(input, token);
+                Future<List<StringBuilder>> formattedLines;
+
+                try {
+                    formattedLines = formattingPool.submit(() -> format(request[0], request[1], request[2]));
+                } catch (RejectedExecutionException e) {
+                    PipelineMetrics.countRejectedRequest();
+                    DaemonProtocolUtils.writeErrorResponse(output, ERROR_MESSAGE_DAEMON_BUSY);
+                    return;
+                }
+
+                try {
+                    DaemonProtocolUtils.writeResponse(output,
+                            formattedLines.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+                } catch (TimeoutException e) {
+                    formattedLines.cancel(true);
+                    PipelineMetrics.countTimedOutRequest();
+                    DaemonProtocolUtils.writeErrorResponse(output, String.format(ERROR_MESSAGE_DAEMON_TIMEOUT, timeout));
+                } catch (ExecutionException e) {
+                    DaemonProtocolUtils.writeErrorResponse(output, e.getCause().getMessage());
+                }
+
+            } catch (DaemonRequestException e) {
+                // The request was not valid or authorised, or the response is too long to send
+                DaemonProtocolUtils.writeErrorResponse(output, e.getMessage());
+                discardRequest(connection);
+            } catch (SocketTimeoutException e) {
+                PipelineMetrics.countTimedOutRequest();
+                DaemonProtocolUtils.writeErrorResponse(output, String.format(ERROR_MESSAGE_DAEMON_TIMEOUT, timeout));
+                discardRequest(connection);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+        } catch (IOException e) {
+            // The client has gone, so there is no one to respond to
+        }
+
+    }
+
+    /*
+     * Formats the contents of a request in the same way as Executor, generating
+     * the resulting file if a valid result directory is provided, and recording
+     * its metrics.
+     */
+    private static List<StringBuilder> format(String delimiter, String contents, String resultDirectory)
+            throws IOException {
+
+        ZonedDateTime currentTimeStamp = ZonedDateTime.now(ZoneId.systemDefault());
+        boolean isInputFile = ArgumentsValidator.isArgumentAPath(contents);
+        String inputFile = isInputFile ? contents
+                : CommonUtils.getTimeStampAsString(currentTimeStamp) + TXT_FILE_EXTENSION;
+
+        PipelineMetrics.startFile(inputFile);
+
+        try {
+
+            ColumnedDataValidator.validateDelimiter(delimiter);
+            ColumnedDataValidator.validateQuoting(delimiter, FormatInputUtils.getQuoteCharacter(),
+                    FormatInputUtils.getEscapeCharacter());
+
+            List<StringBuilder> linesAsStringBuilders;
+
+            if (isInputFile) {
+
+                ColumnedDataValidator.validateInputFile(contents);
+
+                try (MappedFileReader reader = new MappedFileReader(contents)) {
+                    linesAsStringBuilders = FormatInputUtils.formatInputFile(reader, delimiter);
+                }
+
+            } else {
+
+                ColumnedData columnedData = PipelineMetrics.measure(PipelineStage.READ,
+                        () -> new ColumnedData(currentTimeStamp, delimiter, contents));
+
+                linesAsStringBuilders = FormatInputUtils.formatInputFile(columnedData.getLinesAsStrings(), delimiter);
+
+            }
+
+            if (!resultDirectory.isEmpty() && ColumnedDataValidator.isResultDirectoryValid(resultDirectory)) {
+                ResultGeneratorUtils.generateResultFile(inputFile, resultDirectory, linesAsStringBuilders);
+            }
+
+            return linesAsStringBuilders;
+
+        } catch (IOException | RuntimeException e) {
+            PipelineMetrics.setFailed();
+            throw e;
+        } finally {
+            PipelineMetrics.finishFile();
+        }
+
+    }
+
+    /*
+     * Responds to the connection with an error without reading its request.
+     */
+    private static void respondWithError(Socket socket, String errorMessage) {
+
+        try (Socket connection = socket) {
+
+            DaemonProtocolUtils.writeErrorResponse(
+                    new DataOutputStream(new BufferedOutputStream(connection.getOutputStream())), errorMessage);
+            discardRequest(connection);
+
+        } catch (IOException e) {
+            // The client has gone, so there is no one to respond to
+        }
+
+    }
+
+    /*
+     * Ends the response, and discards any of the request already received without
+     * waiting for the rest, as closing a connection with unread input resets it
+     * before the client can read the response.
+     */
+    private static void discardRequest(Socket connection) throws IOException {
+
+        connection.shutdownOutput();
+        connection.getInputStream().skip(connection.getInputStream().available());
+
+    }
+
+    /*
+     * Reads from a connection, setting its read timeout before each read to the
+     * time left until the deadline, so a request sent a little at a time cannot
+     * take longer than the timeout altogether.
+     */
+    private static final class DeadlineInputStream extends FilterInputStream {
+
+        private final Socket connection;
+        private final long deadline;
+
+        private DeadlineInputStream(Socket connection, long deadline) throws IOException {
+
+            super(connection.getInputStream());
+            this.connection = connection;
+            this.deadline = deadline;
+
+        }
+
+        @Override
+        public int read() throws IOException {
+
+            setRemainingTimeout();
+
+            return super.read();
+
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+
+            setRemainingTimeout();
+
+            return super.read(bytes, offset, length);
+
+        }
+
+        /*
+         * Sets the read timeout to the time left, in whole milliseconds as a timeout
+         * of 0 would never time out.
+         */
+        private void setRemainingTimeout() throws IOException {
+
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+
+            if (remaining <= 0) {
+                throw new SocketTimeoutException();
+            }
+
+            connection.setSoTimeout((int) remaining);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.jamiecheung.apps.columneddataformatter.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Class containing custom exception to be thrown in the case that the
+ * {@link com.jamiecheung.apps.columneddataformatter.daemon.FormatterDaemon FormatterDaemon}
+ * could not format a request.
+ *
+ * @author JamieCheung
+ *
+ */
+public class DaemonRequestException extends IOException {
+
+    public DaemonRequestException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.jamiecheung.apps.columneddataformatter.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Class containing custom exception to be thrown in the case that a record of
+ * quoted input cannot be split into its entries, e.g. a quoted entry is never
+ * closed.
+ *
+ * @author JamieCheung
+ *
+ */
+public class MalformedRecordException extends IOException {
+
+    public MalformedRecordException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,546 @@
+package com.jamiecheung.apps.columneddataformatter.executors;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.BATCH_INPUT_FILE_HEADER;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.CACHE_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.CONSOLE_SPOOL_MEMORY_LIMIT;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEBOUNCE_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_PARALLELISM;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_PARALLEL_THRESHOLD;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_WATCH_DEBOUNCE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_WORKERS;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.ESCAPE_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.FILE_EXTENSION_START_CHARACTER;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.FORMATTED_FILES_PER_WORKER_LIMIT;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.NO_QUOTE_CHARACTER;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.PARALLELISM_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.PARALLEL_THRESHOLD_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.QUOTE_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SAMPLE_RESERVOIR_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SAMPLE_ROWS_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SCALAR_SCAN_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.STREAM_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.WATCHING_INPUT_DIRECTORY;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.WATCH_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.WINDOW_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.WORKERS_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_INPUT_FILE_NOT_FORMATTED;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.jamiecheung.apps.columneddataformatter.cache.ResultCache;
+import com.jamiecheung.apps.columneddataformatter.cache.ResultCache.InputSnapshot;
+import com.jamiecheung.apps.columneddataformatter.metrics.FileMetrics;
+import com.jamiecheung.apps.columneddataformatter.metrics.FormatterStatistics;
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineMetrics;
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineStage;
+import com.jamiecheung.apps.columneddataformatter.model.ColumnedTable;
+import com.jamiecheung.apps.columneddataformatter.model.SampledColumnLengths;
+import com.jamiecheung.apps.columneddataformatter.readers.MappedFileReader;
+import com.jamiecheung.apps.columneddataformatter.utils.ByteScannerUtils;
+import com.jamiecheung.apps.columneddataformatter.utils.FormatInputUtils;
+import com.jamiecheung.apps.columneddataformatter.utils.ResultGeneratorUtils;
+import com.jamiecheung.apps.columneddataformatter.validators.ArgumentsValidator;
+import com.jamiecheung.apps.columneddataformatter.validators.ColumnedDataValidator;
+import com.jamiecheung.apps.columneddataformatter.watchers.InputDirectoryWatcher;
+import com.jamiecheung.apps.columneddataformatter.writers.SpooledOutputStream;
+
+/**
+ * Class that formats every file in an input directory within a single JVM.
+ * Files are formatted by a fixed number of workers at once, but their formatted
+ * contents are always written out in the order of their paths, and a file that
+ * cannot be formatted is reported without stopping the rest of the batch. Each
+ * worker renders the console output of its file ahead of time, so writing out
+ * a file only copies its rendered bytes to the console.
+ *
+ * <p>
+ * When watching, the input directory keeps being watched once the batch has
+ * been written out, and each input file created or modified in it is
+ * formatted and written out as soon as it has finished changing, until the JVM
+ * is stopped.
+ *
+ * <p>
+ * While the batch runs, and for as long as the input directory is watched,
+ * live statistics of the input files formatted are registered as a
+ * {@link FormatterStatistics} MBean.
+ *
+ * @author JamieCheung
+ *
+ */
+public class BatchExecutor {
+
+    /*
+     * Held while writing out the formatted contents of an input file, so the
+     * output of input files formatted at the same time is never interleaved.
+     */
+    private static final Object CONSOLE_LOCK = new Object();
+
+    /*
+     * The step that writes out the formatted contents of a single input file,
+     * returned by a worker once the file has been formatted.
+     */
+    private interface FormattedResults {
+        void writeOut() throws IOException;
+    }
+
+    /*
+     * The step that renders the console output of a single input file onto an
+     * output stream, run by the worker so only the copy to the console is left
+     * for when the file is written out.
+     */
+    private interface ConsoleOutput {
+        void render(OutputStream console) throws IOException;
+    }
+
+    /**
+     * The entry point for formatting every file in an input directory. Takes the
+     * same arguments as {@link Executor#main(String[])}, with an input directory
+     * in place of the input file.
+     *
+     * @param args
+     *             The command line arguments
+     *
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        // Validate program arguments
+        ArgumentsValidator.validateArguments(args);
+        String delimiter = args[0];
+        String inputDirectory = args[1];
+        String resultDirectory = args[2];
+        ColumnedDataValidator.validateDelimiter(delimiter);
+        ColumnedDataValidator.validateInputDirectory(inputDirectory);
+        FormatInputUtils.setParallelism(
+                ArgumentsValidator.getIntegerOption(args, PARALLELISM_OPTION, DEFAULT_PARALLELISM),
+                ArgumentsValidator.getIntegerOption(args, PARALLEL_THRESHOLD_OPTION, DEFAULT_PARALLEL_THRESHOLD));
+        FormatInputUtils.setColumnWidthLimits(ArgumentsValidator.getColumnWidthLimits(args));
+        FormatInputUtils.setColumnLengthSampling(ArgumentsValidator.getIntegerOption(args, SAMPLE_ROWS_OPTION, 0),
+                ArgumentsValidator.isOptionProvided(args, SAMPLE_RESERVOIR_OPTION),
+                ArgumentsValidator.getOverflowPolicy(args));
+        FormatInputUtils.setWindowRows(ArgumentsValidator.getIntegerOption(args, WINDOW_OPTION, 0));
+        char quoteCharacter = ArgumentsValidator.getCharacterOption(args, QUOTE_OPTION, NO_QUOTE_CHARACTER);
+        FormatInputUtils.setQuoting(quoteCharacter,
+                ArgumentsValidator.getCharacterOption(args, ESCAPE_OPTION, quoteCharacter));
+        ColumnedDataValidator.validateQuoting(delimiter, quoteCharacter, FormatInputUtils.getEscapeCharacter());
+        ByteScannerUtils.setScalarScanning(ArgumentsValidator.isOptionProvided(args, SCALAR_SCAN_OPTION));
+        PipelineMetrics.setReported(ArgumentsValidator.isMetricsReported(args));
+        int workers = ArgumentsValidator.getIntegerOption(args, WORKERS_OPTION, DEFAULT_WORKERS);
+        // Fixed, windowed and sampled column lengths are always streamed, as they need
+        // no first pass over each input file
+        boolean isStreamed = ArgumentsValidator.isOptionProvided(args, STREAM_OPTION)
+                || FormatInputUtils.isColumnWidthFixed() || FormatInputUtils.isWindowed()
+                || FormatInputUtils.isColumnLengthSampled();
+        boolean isResultDirectoryValid = ColumnedDataValidator.isResultDirectoryValid(resultDirectory);
+        ResultCache resultCache = isResultDirectoryValid && ArgumentsValidator.isOptionProvided(args, CACHE_OPTION)
+                ? ResultCache.load(resultDirectory)
+                : null;
+
+        // Start watching before the batch, so input files that change while the batch
+        // is formatted are not missed
+        InputDirectoryWatcher inputDirectoryWatcher = !ArgumentsValidator.isOptionProvided(args, WATCH_OPTION) ? null
+                : new InputDirectoryWatcher(inputDirectory, isResultDirectoryValid ? resultDirectory : "", workers,
+                        ArgumentsValidator.getIntegerOption(args, DEBOUNCE_OPTION, DEFAULT_WATCH_DEBOUNCE),
+                        inputFile -> formatWatchedInputFile(inputFile, createFormatInputFile(delimiter, inputFile,
+                                resultDirectory, isResultDirectoryValid, isStreamed, resultCache), resultCache));
+
+        if (inputDirectoryWatcher != null) {
+            inputDirectoryWatcher.start();
+        }
+
+        ThreadPoolExecutor workerPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>());
+        // The watcher's workers carry on once the batch's workers are shut down, so
+        // the jobs of both are counted
+        FormatterStatistics.register(
+                () -> workerPool.getQueue().size()
+                        + (inputDirectoryWatcher != null ? inputDirectoryWatcher.getQueuedInputFileCount() : 0),
+                () -> workerPool.getActiveCount()
+                        + (inputDirectoryWatcher != null ? inputDirectoryWatcher.getActiveInputFileCount() : 0));
+        Deque<String> pendingInputFiles = new ArrayDeque<>();
+        Deque<Future<FormattedResults>> pendingResults = new ArrayDeque<>();
+
+        try {
+
+            for (String inputFile : findInputFiles(inputDirectory,
+                    isResultDirectoryValid ? Paths.get(resultDirectory).toAbsolutePath().normalize() : null)) {
+
+                pendingInputFiles.add(inputFile);
+                pendingResults.add(workerPool.submit(measureInputFile(inputFile, createFormatInputFile(delimiter,
+                        inputFile, resultDirectory, isResultDirectoryValid, isStreamed, resultCache))));
+
+                // Bound the number of formatted files held in memory at once
+                if (pendingResults.size() > workers * FORMATTED_FILES_PER_WORKER_LIMIT) {
+                    writeOutFormattedResults(pendingInputFiles.poll(), pendingResults.poll());
+                }
+
+            }
+
+            while (!pendingResults.isEmpty()) {
+                writeOutFormattedResults(pendingInputFiles.poll(), pendingResults.poll());
+            }
+
+        } catch (IOException | RuntimeException e) {
+
+            if (inputDirectoryWatcher != null) {
+                inputDirectoryWatcher.close();
+            }
+
+            throw e;
+
+        } finally {
+
+            workerPool.shutdownNow();
+
+            // Watched input files carry on adding to the statistics
+            if (inputDirectoryWatcher == null) {
+                FormatterStatistics.unregister();
+            }
+
+            if (resultCache != null) {
+                resultCache.save();
+            }
+
+        }
+
+        // Only the batch is reported, as watched input files are never finished
+        PipelineMetrics.writeReport(resultDirectory);
+        PipelineMetrics.setReported(false);
+
+        if (inputDirectoryWatcher != null) {
+            watchInputDirectory(inputDirectory, inputDirectoryWatcher);
+        }
+
+    }
+
+    /*
+     * Keeps formatting the input files changed in the input directory until the
+     * JVM is stopped, or the thread is interrupted.
+     */
+    private static void watchInputDirectory(String inputDirectory, InputDirectoryWatcher inputDirectoryWatcher)
+            throws IOException {
+
+        // Stop watching when the JVM is stopped
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                inputDirectoryWatcher.close();
+            } catch (IOException e) {
+                // Nothing more can be done while the JVM is stopping
+            }
+        }));
+
+        synchronized (CONSOLE_LOCK) {
+            System.out.println(String.format(WATCHING_INPUT_DIRECTORY, inputDirectory));
+            System.out.println();
+        }
+
+        try {
+            inputDirectoryWatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inputDirectoryWatcher.close();
+        }
+
+    }
+
+    /*
+     * Formats a watched input file on the watcher's worker, then writes it out and
+     * saves the result cache.
+     */
+    private static void formatWatchedInputFile(String inputFile, Callable<FormattedResults> formatInputFile,
+            ResultCache resultCache) {
+
+        FutureTask<FormattedResults> formattedResults = new FutureTask<>(measureInputFile(inputFile, formatInputFile));
+        formattedResults.run();
+
+        writeOutFormattedResults(inputFile, formattedResults);
+
+        if (resultCache != null) {
+            try {
+                resultCache.save();
+            } catch (IOException e) {
+                reportError(inputFile, e);
+            }
+        }
+
+    }
+
+    /*
+     * Creates the worker task that formats the input file, in memory or one line
+     * at a time, skipping it if its result file is already up to date.
+     */
+    private static Callable<FormattedResults> createFormatInputFile(String delimiter, String inputFile,
+            String resultDirectory, boolean isResultDirectoryValid, boolean isStreamed, ResultCache resultCache) {
+
+        Callable<FormattedResults> formatInputFile = isStreamed
+                ? formatInputFileStreamed(delimiter, inputFile, resultDirectory, isResultDirectoryValid)
+                : formatInputFile(delimiter, inputFile, resultDirectory, isResultDirectoryValid);
+
+        return resultCache == null ? formatInputFile
+                : formatInputFileCached(delimiter, inputFile, resultDirectory, resultCache, formatInputFile);
+
+    }
+
+    /*
+     * Records the metrics of the input file formatted by the worker task, both
+     * while the worker formats it and while its formatted contents are written
+     * out, marking it as failed if either throws. The input file is finished once
+     * it is written out, or as soon as the worker fails.
+     */
+    private static Callable<FormattedResults> measureInputFile(String inputFile,
+            Callable<FormattedResults> formatInputFile) {
+
+        return () -> {
+
+            FileMetrics fileMetrics = PipelineMetrics.startFile(inputFile);
+            FormattedResults formattedResults;
+
+            try {
+                formattedResults = formatInputFile.call();
+            } catch (Exception e) {
+                PipelineMetrics.setFailed();
+                PipelineMetrics.finishFile();
+                throw e;
+            }
+
+            PipelineMetrics.unbind();
+
+            return () -> {
+
+                PipelineMetrics.bind(fileMetrics);
+
+                try {
+                    formattedResults.writeOut();
+                } catch (IOException | RuntimeException e) {
+                    PipelineMetrics.setFailed();
+                    throw e;
+                } finally {
+                    PipelineMetrics.finishFile();
+                }
+
+            };
+
+        };
+
+    }
+
+    /*
+     * Finds every file in the input directory and its sub-directories with a file
+     * extension, other than the files generated in the result directory, sorted by
+     * path so the batch is always written out in the same order.
+     */
+    private static List<String> findInputFiles(String inputDirectory, Path resultDirectoryPath)
+            throws IOException {
+
+        try (Stream<Path> paths = Files.walk(Paths.get(inputDirectory))) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().indexOf(FILE_EXTENSION_START_CHARACTER) >= 0)
+                    .filter(path -> !ResultGeneratorUtils.isGeneratedFile(path, resultDirectoryPath))
+                    .map(Path::toString).sorted().collect(Collectors.toList());
+        }
+
+    }
+
+    /*
+     * Creates the worker task that formats the input file in memory, in the same
+     * way as Executor, rendering its console output and resulting file on the
+     * worker.
+     */
+    private static Callable<FormattedResults> formatInputFile(String delimiter, String inputFile,
+            String resultDirectory, boolean isResultDirectoryValid) {
+
+        return () -> {
+
+            ColumnedDataValidator.validateInputFile(inputFile);
+
+            try (MappedFileReader reader = new MappedFileReader(inputFile)) {
+
+                if (FormatInputUtils.isFormattedInParallel(reader, delimiter)) {
+
+                    List<StringBuilder> linesAsStringBuilders = FormatInputUtils.formatInputFile(reader, delimiter);
+
+                    return renderFormattedResults(console -> ResultGeneratorUtils.writeOutFormattedResults(console,
+                            linesAsStringBuilders, inputFile, resultDirectory, isResultDirectoryValid));
+
+                }
+
+                ColumnedTable table = PipelineMetrics.measure(PipelineStage.TOKENIZE,
+                        () -> FormatInputUtils.tokenizeInputFile(reader, delimiter));
+
+                return renderFormattedResults(console -> ResultGeneratorUtils.writeOutFormattedResults(console,
+                        table, delimiter, inputFile, resultDirectory, isResultDirectoryValid));
+
+            }
+
+        };
+
+    }
+
+    /*
+     * Creates the worker task that finds, or samples, the column lengths of the
+     * input file, then formats it one line, or one window of lines, at a time,
+     * rendering its console output and resulting file on the worker.
+     */
+    private static Callable<FormattedResults> formatInputFileStreamed(String delimiter, String inputFile,
+            String resultDirectory, boolean isResultDirectoryValid) {
+
+        return () -> {
+
+            ColumnedDataValidator.validateInputFile(inputFile);
+
+            if (FormatInputUtils.isWindowed()) {
+
+                int windowRows = FormatInputUtils.getWindowRows();
+
+                return renderFormattedResults(console -> ResultGeneratorUtils.streamOutWindowedResults(console,
+                        inputFile, delimiter, windowRows, resultDirectory, isResultDirectoryValid));
+
+            }
+
+            if (FormatInputUtils.isColumnLengthSampled()) {
+
+                SampledColumnLengths sampledColumnLengths = PipelineMetrics.measure(PipelineStage.WIDTH,
+                        () -> FormatInputUtils.getSampledColumnLengths(inputFile, delimiter));
+
+                FormattedResults formattedResults = renderFormattedResults(
+                        console -> ResultGeneratorUtils.streamOutSampledResults(console, inputFile, delimiter,
+                                sampledColumnLengths, resultDirectory, isResultDirectoryValid));
+
+                return () -> {
+                    formattedResults.writeOut();
+                    ResultGeneratorUtils.reportOverflowedRows(inputFile, sampledColumnLengths);
+                };
+
+            }
+
+            int[] columnLengths = PipelineMetrics.measure(PipelineStage.WIDTH,
+                    () -> FormatInputUtils.getColumnLengths(inputFile, delimiter));
+
+            return renderFormattedResults(console -> ResultGeneratorUtils.streamOutFormattedResults(console,
+                    inputFile, delimiter, columnLengths, resultDirectory, isResultDirectoryValid));
+
+        };
+
+    }
+
+    /*
+     * Creates the worker task that outputs the result file of the input file if it
+     * is already up to date, otherwise formats the input file and records it in
+     * the result cache once it has been written out.
+     */
+    private static Callable<FormattedResults> formatInputFileCached(String delimiter, String inputFile,
+            String resultDirectory, ResultCache resultCache, Callable<FormattedResults> formatInputFile) {
+
+        return () -> {
+
+            ColumnedDataValidator.validateInputFile(inputFile);
+
+            if (resultCache.isUpToDate(inputFile, delimiter)) {
+                return renderFormattedResults(
+                        console -> ResultGeneratorUtils.outputCachedResultsToConsole(console, inputFile,
+                                resultDirectory));
+            }
+
+            InputSnapshot inputSnapshot = resultCache.snapshot(inputFile);
+            FormattedResults formattedResults = formatInputFile.call();
+
+            return () -> {
+                formattedResults.writeOut();
+                resultCache.update(inputFile, delimiter, inputSnapshot);
+            };
+
+        };
+
+    }
+
+    /*
+     * Renders the console output of the input file on the worker, holding it until
+     * the file is written out, when it is copied to the console in a single pass.
+     */
+    private static FormattedResults renderFormattedResults(ConsoleOutput consoleOutput) throws IOException {
+
+        SpooledOutputStream renderedOutput = new SpooledOutputStream(CONSOLE_SPOOL_MEMORY_LIMIT);
+
+        try {
+            consoleOutput.render(renderedOutput);
+        } catch (IOException | RuntimeException e) {
+            renderedOutput.close();
+            throw e;
+        }
+
+        return () -> {
+
+            PipelineMetrics.startStage(PipelineStage.CONSOLE);
+
+            try (SpooledOutputStream console = renderedOutput) {
+                console.writeTo(System.out);
+                System.out.flush();
+            } finally {
+                PipelineMetrics.endStage();
+            }
+
+        };
+
+    }
+
+    /*
+     * Waits for the input file to be formatted and writes out its formatted
+     * contents, reporting any error without stopping the batch.
+     */
+    private static void writeOutFormattedResults(String inputFile, Future<FormattedResults> formattedResults) {
+
+        synchronized (CONSOLE_LOCK) {
+
+            System.out.println(String.format(BATCH_INPUT_FILE_HEADER, inputFile));
+            System.out.println();
+
+            try {
+                formattedResults.get().writeOut();
+            } catch (ExecutionException e) {
+                reportError(inputFile, e.getCause());
+            } catch (IOException | RuntimeException e) {
+                reportError(inputFile, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reportError(inputFile, e);
+            }
+
+            System.out.println();
+
+        }
+
+    }
+
+    /*
+     * Reports that the input file could not be formatted.
+     */
+    private static void reportError(String inputFile, Throwable error) {
+
+        // Thrown while iterating over the lines of a file
+        if (error instanceof UncheckedIOException) {
+            error = error.getCause();
+        }
+
+        System.err.println(String.format(ERROR_MESSAGE_INPUT_FILE_NOT_FORMATTED, inputFile, error.getMessage()));
+        System.err.println();
+
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.jamiecheung.apps.columneddataformatter.executors;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_DAEMON_PORT;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.EMPTY_STRING;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.EXPECTED_ARGS_LENGTH;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.PORT_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.TOKEN_FILE_OPTION;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.List;
+
+import com.jamiecheung.apps.columneddataformatter.utils.DaemonProtocolUtils;
+import com.jamiecheung.apps.columneddataformatter.utils.ResultGeneratorUtils;
+import com.jamiecheung.apps.columneddataformatter.validators.ArgumentsValidator;
+import com.jamiecheung.apps.columneddataformatter.validators.ColumnedDataValidator;
+
+/**
+ * Class that sends the contents from an input file or String to a running
+ * {@link com.jamiecheung.apps.columneddataformatter.daemon.FormatterDaemon
+ * FormatterDaemon} to be formatted, and outputs the formatted lines to the
+ * console. Each request sends the token read from the token file of the
+ * formatter daemon, so it can only be sent by the user running the daemon.
+ *
+ * @author JamieCheung
+ *
+ */
+public class DaemonClientExecutor {
+
+    /**
+     * The entry point for the formatter daemon client. Takes the same arguments as
+     * {@link Executor#main(String[])}, with the port and token file of the formatter
+     * daemon as optional arguments.
+     *
+     * @param args
+     *             The command line arguments
+     *
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        // Validate program arguments
+        ArgumentsValidator.validateArguments(args);
+        String delimiter = args[0];
+        String toBeDeterminedArg = args[1];
+        String resultDirectory = args[2];
+        ColumnedDataValidator.validateDelimiter(delimiter);
+        int port = ArgumentsValidator.getIntegerOption(args, PORT_OPTION, DEFAULT_DAEMON_PORT);
+        String token = DaemonProtocolUtils.readTokenFile(Paths.get(ArgumentsValidator.getStringOption(args,
+                EXPECTED_ARGS_LENGTH, TOKEN_FILE_OPTION, DaemonProtocolUtils.getDefaultTokenFile(port).toString())));
+
+        // Paths are sent in full, as the formatter daemon may be running from another
+        // working directory
+        if (ArgumentsValidator.isArgumentAPath(toBeDeterminedArg)) {
+            toBeDeterminedArg = Paths.get(toBeDeterminedArg).toAbsolutePath().toString();
+        }
+
+        if (ColumnedDataValidator.isResultDirectoryValid(resultDirectory)) {
+            resultDirectory = Paths.get(resultDirectory).toAbsolutePath().toString();
+        } else {
+            resultDirectory = EMPTY_STRING;
+        }
+
+        List<StringBuilder> linesAsStringBuilders;
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+
+            DaemonProtocolUtils.writeRequest(new DataOutputStream(new BufferedOutputStream(socket.getOutputStream())),
+                    token, delimiter, toBeDeterminedArg, resultDirectory);
+
+            linesAsStringBuilders = DaemonProtocolUtils
+                    .readResponse(new DataInputStream(new BufferedInputStream(socket.getInputStream())));
+
+        }
+
+        ResultGeneratorUtils.outputResultsToConsole(linesAsStringBuilders);
+
+    }
+
+}
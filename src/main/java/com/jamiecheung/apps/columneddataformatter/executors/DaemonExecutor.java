@@ -0,0 +1,90 @@
+package com.jamiecheung.apps.columneddataformatter.executors;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DAEMON_STARTED;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_DAEMON_PORT;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_DAEMON_QUEUE_SIZE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_DAEMON_TIMEOUT;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_PARALLELISM;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_PARALLEL_THRESHOLD;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_WORKERS;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.ESCAPE_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.NO_QUOTE_CHARACTER;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.PARALLELISM_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.PARALLEL_THRESHOLD_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.PORT_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.QUEUE_SIZE_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.QUOTE_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SCALAR_SCAN_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.TIMEOUT_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.TOKEN_FILE_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.WORKERS_OPTION;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import com.jamiecheung.apps.columneddataformatter.daemon.FormatterDaemon;
+import com.jamiecheung.apps.columneddataformatter.metrics.FormatterStatistics;
+import com.jamiecheung.apps.columneddataformatter.utils.ByteScannerUtils;
+import com.jamiecheung.apps.columneddataformatter.utils.DaemonProtocolUtils;
+import com.jamiecheung.apps.columneddataformatter.utils.FormatInputUtils;
+import com.jamiecheung.apps.columneddataformatter.validators.ArgumentsValidator;
+
+/**
+ * Class that starts the {@link FormatterDaemon}, which keeps running and
+ * formatting requests sent by {@link DaemonClientExecutor} until the JVM is
+ * stopped. Live statistics of the requests formatted are registered as a
+ * {@link FormatterStatistics} MBean.
+ *
+ * @author JamieCheung
+ *
+ */
+public class DaemonExecutor {
+
+    /**
+     * The entry point for the formatter daemon. Takes only optional arguments,
+     * for the port, number of workers, queue size, timeout and token file of the
+     * daemon.
+     *
+     * @param args
+     *             The command line arguments
+     *
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        FormatInputUtils.setParallelism(
+                ArgumentsValidator.getIntegerOption(args, 0, PARALLELISM_OPTION, DEFAULT_PARALLELISM),
+                ArgumentsValidator.getIntegerOption(args, 0, PARALLEL_THRESHOLD_OPTION, DEFAULT_PARALLEL_THRESHOLD));
+        FormatInputUtils.setColumnWidthLimits(ArgumentsValidator.getColumnWidthLimits(args, 0));
+        char quoteCharacter = ArgumentsValidator.getCharacterOption(args, 0, QUOTE_OPTION, NO_QUOTE_CHARACTER);
+        FormatInputUtils.setQuoting(quoteCharacter,
+                ArgumentsValidator.getCharacterOption(args, 0, ESCAPE_OPTION, quoteCharacter));
+        ByteScannerUtils.setScalarScanning(ArgumentsValidator.isOptionProvided(args, 0, SCALAR_SCAN_OPTION));
+
+        int port = ArgumentsValidator.getIntegerOption(args, 0, PORT_OPTION, DEFAULT_DAEMON_PORT);
+
+        FormatterDaemon formatterDaemon = new FormatterDaemon(port,
+                ArgumentsValidator.getIntegerOption(args, 0, WORKERS_OPTION, DEFAULT_WORKERS),
+                ArgumentsValidator.getIntegerOption(args, 0, QUEUE_SIZE_OPTION, DEFAULT_DAEMON_QUEUE_SIZE),
+                ArgumentsValidator.getIntegerOption(args, 0, TIMEOUT_OPTION, DEFAULT_DAEMON_TIMEOUT),
+                Paths.get(ArgumentsValidator.getStringOption(args, 0, TOKEN_FILE_OPTION,
+                        DaemonProtocolUtils.getDefaultTokenFile(port).toString())));
+
+        // Stop accepting requests when the JVM is stopped
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                formatterDaemon.close();
+            } catch (IOException e) {
+                // Nothing more can be done while the JVM is stopping
+            }
+        }));
+
+        FormatterStatistics.register(formatterDaemon::getQueuedRequestCount,
+                formatterDaemon::getActiveRequestCount);
+        formatterDaemon.start();
+
+        System.out.println(String.format(DAEMON_STARTED, formatterDaemon.getPort()));
+
+    }
+
+}
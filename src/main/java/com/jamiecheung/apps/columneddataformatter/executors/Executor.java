@@ -1,16 +1,38 @@
 package com.jamiecheung.apps.columneddataformatter.executors;
 
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.CACHE_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_PARALLELISM;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_PARALLEL_THRESHOLD;
 import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.EMPTY_STRING;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.ESCAPE_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.NO_QUOTE_CHARACTER;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.PARALLELISM_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.PARALLEL_THRESHOLD_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.QUOTE_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SAMPLE_RESERVOIR_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SAMPLE_ROWS_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SCALAR_SCAN_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.STREAM_OPTION;
 import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.TXT_FILE_EXTENSION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.WINDOW_OPTION;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.List;
 
+import com.jamiecheung.apps.columneddataformatter.cache.ResultCache;
+import com.jamiecheung.apps.columneddataformatter.cache.ResultCache.InputSnapshot;
 import com.jamiecheung.apps.columneddataformatter.exceptions.ColumnedDataPropertyException;
 import com.jamiecheung.apps.columneddataformatter.exceptions.ProgramArgumentException;
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineMetrics;
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineStage;
 import com.jamiecheung.apps.columneddataformatter.model.ColumnedData;
+import com.jamiecheung.apps.columneddataformatter.model.ColumnedTable;
+import com.jamiecheung.apps.columneddataformatter.readers.MappedFileReader;
+import com.jamiecheung.apps.columneddataformatter.utils.ByteScannerUtils;
 import com.jamiecheung.apps.columneddataformatter.utils.CommonUtils;
 import com.jamiecheung.apps.columneddataformatter.utils.FormatInputUtils;
 import com.jamiecheung.apps.columneddataformatter.utils.ResultGeneratorUtils;
@@ -46,35 +68,161 @@ public class Executor {
         String inputFile = EMPTY_STRING;
         String resultDirectory = args[2];
         ColumnedDataValidator.validateDelimiter(delimiter);
+        FormatInputUtils.setParallelism(
+                ArgumentsValidator.getIntegerOption(args, PARALLELISM_OPTION, DEFAULT_PARALLELISM),
+                ArgumentsValidator.getIntegerOption(args, PARALLEL_THRESHOLD_OPTION, DEFAULT_PARALLEL_THRESHOLD));
+        FormatInputUtils.setColumnWidthLimits(ArgumentsValidator.getColumnWidthLimits(args));
+        FormatInputUtils.setColumnLengthSampling(ArgumentsValidator.getIntegerOption(args, SAMPLE_ROWS_OPTION, 0),
+                ArgumentsValidator.isOptionProvided(args, SAMPLE_RESERVOIR_OPTION),
+                ArgumentsValidator.getOverflowPolicy(args));
+        FormatInputUtils.setWindowRows(ArgumentsValidator.getIntegerOption(args, WINDOW_OPTION, 0));
+        char quoteCharacter = ArgumentsValidator.getCharacterOption(args, QUOTE_OPTION, NO_QUOTE_CHARACTER);
+        FormatInputUtils.setQuoting(quoteCharacter,
+                ArgumentsValidator.getCharacterOption(args, ESCAPE_OPTION, quoteCharacter));
+        ColumnedDataValidator.validateQuoting(delimiter, quoteCharacter, FormatInputUtils.getEscapeCharacter());
+        ByteScannerUtils.setScalarScanning(ArgumentsValidator.isOptionProvided(args, SCALAR_SCAN_OPTION));
+
+        // Fixed, windowed and sampled column lengths are always streamed, as they need
+        // no first pass over the input file
+        boolean isStreamed = ArgumentsValidator.isOptionProvided(args, STREAM_OPTION)
+                || FormatInputUtils.isColumnWidthFixed() || FormatInputUtils.isWindowed()
+                || FormatInputUtils.isColumnLengthSampled();
 
         // Get current time stamp to associate with a ColumnedData object
         ZonedDateTime currentTimeStamp = ZonedDateTime.now(ZoneId.systemDefault());
 
+        // Record the metrics of the input against the input file, or the placeholder
+        // input file name of an input String
+        PipelineMetrics.setReported(ArgumentsValidator.isMetricsReported(args));
+        PipelineMetrics.startFile(ArgumentsValidator.isArgumentAPath(toBeDeterminedArg) ? toBeDeterminedArg
+                : CommonUtils.getTimeStampAsString(currentTimeStamp) + TXT_FILE_EXTENSION);
+
         // Depending on whether contents represented as an input file or input String,
         // format it accordingly
-        if (ArgumentsValidator.isArgumentAPath(toBeDeterminedArg)) {
-            executeWithInputFile(currentTimeStamp, delimiter, toBeDeterminedArg, contents, inputFile, resultDirectory);
+        try {
+
+            if (ArgumentsValidator.isArgumentAPath(toBeDeterminedArg)
+                    && ArgumentsValidator.isOptionProvided(args, CACHE_OPTION)) {
+                executeWithInputFileCached(delimiter, toBeDeterminedArg, resultDirectory, isStreamed);
+            } else if (ArgumentsValidator.isArgumentAPath(toBeDeterminedArg) && isStreamed) {
+                executeWithInputFileStreamed(delimiter, toBeDeterminedArg, resultDirectory);
+            } else if (ArgumentsValidator.isArgumentAPath(toBeDeterminedArg)) {
+                executeWithInputFile(delimiter, toBeDeterminedArg, resultDirectory);
+            } else {
+                executeWithInputString(currentTimeStamp, delimiter, toBeDeterminedArg, contents, inputFile,
+                        resultDirectory);
+            }
+
+        } catch (IOException | RuntimeException e) {
+            PipelineMetrics.setFailed();
+            throw e;
+        } finally {
+            PipelineMetrics.finishFile();
+            PipelineMetrics.writeReport(resultDirectory);
+        }
+
+    }
+
+    /*
+     * Interprets the provided toBeDeterminedArg to be an input file path whose
+     * result file may already be up to date. If so, the result file is output
+     * without formatting the input file again, otherwise the input file is
+     * formatted and recorded in the result directory's cache.
+     */
+    private static void executeWithInputFileCached(String delimiter, String inputFile, String resultDirectory,
+            boolean isStreamed) throws IOException {
+
+        ColumnedDataValidator.validateInputFile(inputFile);
+
+        // The cache is kept in the result directory, so without one the input file is
+        // always formatted
+        boolean isCacheable = !resultDirectory.isEmpty() && Files.isDirectory(Paths.get(resultDirectory));
+        ResultCache resultCache = isCacheable ? ResultCache.load(resultDirectory) : null;
+
+        if (resultCache != null && resultCache.isUpToDate(inputFile, delimiter)) {
+            ResultGeneratorUtils.outputCachedResultsToConsole(inputFile, resultDirectory);
+            return;
+        }
+
+        InputSnapshot inputSnapshot = resultCache != null ? resultCache.snapshot(inputFile) : null;
+
+        if (isStreamed) {
+            executeWithInputFileStreamed(delimiter, inputFile, resultDirectory);
         } else {
-            executeWithInputString(currentTimeStamp, delimiter, toBeDeterminedArg, contents, inputFile,
-                    resultDirectory);
+            executeWithInputFile(delimiter, inputFile, resultDirectory);
+        }
+
+        if (resultCache != null) {
+            resultCache.update(inputFile, delimiter, inputSnapshot);
+            resultCache.save();
         }
 
     }
 
     /*
      * Interprets the provided toBeDeterminedArg to be an input file path. Validates
-     * and extracts the contents from this file path, before executing the function
-     * to format the contents.
+     * the file and tokenizes its lines directly from a memory mapping of the file,
+     * before formatting and writing out each row of the table. Files large enough
+     * to be formatted in parallel have all their lines formatted before any are
+     * written out.
      */
-    private static void executeWithInputFile(ZonedDateTime currentTimeStamp, String delimiter, String toBeDeterminedArg,
-            String contents, String inputFile, String resultDirectory) throws IOException {
+    private static void executeWithInputFile(String delimiter, String inputFile, String resultDirectory)
+            throws IOException {
 
-        inputFile = toBeDeterminedArg;
         ColumnedDataValidator.validateInputFile(inputFile);
 
-        contents = FormatInputUtils.convertFileContentsToString(inputFile);
+        boolean isResultDirectoryValid = ColumnedDataValidator.isResultDirectoryValid(resultDirectory);
 
-        executeColumnedDataFormatting(currentTimeStamp, delimiter, contents, inputFile, resultDirectory);
+        try (MappedFileReader reader = new MappedFileReader(inputFile)) {
+
+            if (FormatInputUtils.isFormattedInParallel(reader, delimiter)) {
+                ResultGeneratorUtils.writeOutFormattedResults(FormatInputUtils.formatInputFile(reader, delimiter),
+                        inputFile, resultDirectory, isResultDirectoryValid);
+            } else {
+                ResultGeneratorUtils.writeOutFormattedResults(
+                        PipelineMetrics.measure(PipelineStage.TOKENIZE,
+                                () -> FormatInputUtils.tokenizeInputFile(reader, delimiter)),
+                        delimiter, inputFile, resultDirectory, isResultDirectoryValid);
+            }
+
+        }
+
+    }
+
+    /*
+     * Interprets the provided toBeDeterminedArg to be an input file path that is
+     * too large to be held in memory. Validates the file, reads it once to find
+     * the column lengths, then reads it again to format and write out each line.
+     * If the column widths are fixed, the file is only read once, with each line
+     * written out as soon as it is formatted. If the file is formatted in windows,
+     * it is only read once, with each window written out as soon as it is
+     * formatted. If the column lengths are sampled, only the sampled lines are
+     * read before formatting starts.
+     */
+    private static void executeWithInputFileStreamed(String delimiter, String inputFile, String resultDirectory)
+            throws IOException {
+
+        ColumnedDataValidator.validateInputFile(inputFile);
+
+        if (FormatInputUtils.isWindowed()) {
+            ResultGeneratorUtils.streamOutWindowedResults(inputFile, delimiter, FormatInputUtils.getWindowRows(),
+                    resultDirectory, ColumnedDataValidator.isResultDirectoryValid(resultDirectory));
+            return;
+        }
+
+        if (FormatInputUtils.isColumnLengthSampled()) {
+            ResultGeneratorUtils.streamOutSampledResults(inputFile, delimiter,
+                    PipelineMetrics.measure(PipelineStage.WIDTH,
+                            () -> FormatInputUtils.getSampledColumnLengths(inputFile, delimiter)),
+                    resultDirectory, ColumnedDataValidator.isResultDirectoryValid(resultDirectory));
+            return;
+        }
+
+        int[] columnLengths = PipelineMetrics.measure(PipelineStage.WIDTH,
+                () -> FormatInputUtils.getColumnLengths(inputFile, delimiter));
+
+        ResultGeneratorUtils.streamOutFormattedResults(inputFile, delimiter, columnLengths, resultDirectory,
+                ColumnedDataValidator.isResultDirectoryValid(resultDirectory));
 
     }
 
@@ -102,17 +250,23 @@ public class Executor {
     private static void executeColumnedDataFormatting(ZonedDateTime currentTimeStamp, String delimiter, String contents,
             String inputFile, String resultDirectory) throws IOException {
 
+        if (PipelineMetrics.isEnabled()) {
+            PipelineMetrics.setBytesIn(contents.getBytes(Charset.defaultCharset()).length);
+        }
+
         // Initialise the object containing the useful properties
-        ColumnedData columnedData = new ColumnedData(currentTimeStamp, delimiter, contents);
+        ColumnedData columnedData = PipelineMetrics.measure(PipelineStage.READ,
+                () -> new ColumnedData(currentTimeStamp, delimiter, contents));
         columnedData.setInputFile(inputFile);
         columnedData.setResultDirectory(resultDirectory);
 
-        // Perform formatting
-        List<StringBuilder> linesAsStringBuilders = FormatInputUtils.formatInputFile(columnedData.getLinesAsStrings(),
-                columnedData.getDelimiter());
+        // Split the contents into cells
+        ColumnedTable table = PipelineMetrics.measure(PipelineStage.TOKENIZE,
+                () -> FormatInputUtils.tokenizeInputFile(columnedData.getLinesAsStrings(),
+                        columnedData.getDelimiter()));
 
-        // Write out the results
-        ResultGeneratorUtils.writeOutFormattedResults(linesAsStringBuilders, columnedData.getInputFile(),
+        // Format and write out the results
+        ResultGeneratorUtils.writeOutFormattedResults(table, columnedData.getDelimiter(), columnedData.getInputFile(),
                 columnedData.getResultDirectory(),
                 ColumnedDataValidator.isResultDirectoryValid(columnedData.getResultDirectory()));
 
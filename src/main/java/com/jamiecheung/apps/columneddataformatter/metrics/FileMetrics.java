@@ -0,0 +1,334 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * Class recording how long each {@link PipelineStage} of formatting a single
+ * input file takes, how many bytes the thread running it allocates, and how
+ * much input and output the input file has.
+ *
+ * <p>
+ * Stages may be started inside other stages, e.g. the formatted lines are
+ * written to the console while rendering. The time and allocations of a stage
+ * started inside another are only counted towards the inner stage, so the
+ * stages of an input file never overlap and add up to the whole time spent on
+ * it. Only one thread records the stages of an input file at a time, although
+ * it may be a different thread for each stage.
+ *
+ * <p>
+ * On Java 11 or later, once the JDK Flight Recorder has started, each stage is
+ * also emitted as an event by {@link StageEvents}, lasting from when the stage
+ * starts until it ends, including the stages started inside it.
+ *
+ * @author JamieCheung
+ *
+ */
+public class FileMetrics {
+
+    private static final int INITIAL_STAGE_DEPTH = 4;
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final boolean IS_ALLOCATION_MEASURED = enableAllocationMeasurement();
+
+    private final String inputFile;
+    private final long[] stageNanos = new long[PipelineStage.values().length];
+    private final long[] stageAllocatedBytes = new long[PipelineStage.values().length];
+    private PipelineStage[] openStages = new PipelineStage[INITIAL_STAGE_DEPTH];
+    private Object[] openEvents = new Object[INITIAL_STAGE_DEPTH];
+    private int openStageCount;
+    private long lastSwitchNanos;
+    private long lastSwitchAllocatedBytes;
+    private long bytesIn;
+    private long bytesOut;
+    private long consoleBytesOut;
+    private long rows;
+    private int columns;
+    private long cells;
+    private boolean isFailed;
+
+    /**
+     * Creates the metrics of an input file, before any of its stages have
+     * started.
+     *
+     * @param inputFile
+     *                  the file containing the input text
+     */
+    public FileMetrics(String inputFile) {
+
+        this.inputFile = inputFile;
+
+    }
+
+    /**
+     * Checks whether the bytes allocated by each stage can be measured, which
+     * needs a JVM whose {@link ThreadMXBean} measures the memory allocated by
+     * each thread, such as HotSpot.
+     *
+     * @return true iff allocated bytes are measured, otherwise false.
+     */
+    public static boolean isAllocationMeasured() {
+
+        return IS_ALLOCATION_MEASURED;
+
+    }
+
+    /**
+     * Starts a stage on the current thread, pausing the stage it was started in,
+     * if any, until it ends.
+     *
+     * @param stage
+     *              the stage to start
+     */
+    public void startStage(PipelineStage stage) {
+
+        long nanos = System.nanoTime();
+        long allocatedBytes = getAllocatedBytes();
+
+        if (openStageCount > 0) {
+            count(openStages[openStageCount - 1], nanos, allocatedBytes);
+        }
+
+        if (openStageCount == openStages.length) {
+            openStages = Arrays.copyOf(openStages, openStageCount * 2);
+            openEvents = Arrays.copyOf(openEvents, openStageCount * 2);
+        }
+
+        openStages[openStageCount] = stage;
+        openEvents[openStageCount++] = StageEvents.begin(stage, this);
+        lastSwitchNanos = nanos;
+        lastSwitchAllocatedBytes = allocatedBytes;
+
+    }
+
+    /**
+     * Ends the last stage started, resuming the stage it was started in, if any.
+     */
+    public void endStage() {
+
+        long nanos = System.nanoTime();
+        long allocatedBytes = getAllocatedBytes();
+
+        count(openStages[--openStageCount], nanos, allocatedBytes);
+        StageEvents.end(openEvents[openStageCount], this);
+        openEvents[openStageCount] = null;
+        lastSwitchNanos = nanos;
+        lastSwitchAllocatedBytes = allocatedBytes;
+
+    }
+
+    /**
+     * Gets the file containing the input text.
+     *
+     * @return the input file
+     */
+    public String getInputFile() {
+        return inputFile;
+    }
+
+    /**
+     * Gets the time spent in a stage, not counting the stages started inside it.
+     *
+     * @param stage
+     *              the stage
+     *
+     * @return the time in nanoseconds
+     */
+    public long getStageNanos(PipelineStage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    /**
+     * Gets the bytes allocated by the threads running a stage, not counting the
+     * stages started inside it.
+     *
+     * @param stage
+     *              the stage
+     *
+     * @return the number of bytes allocated, or 0 if allocations are not
+     *         measured
+     */
+    public long getStageAllocatedBytes(PipelineStage stage) {
+        return stageAllocatedBytes[stage.ordinal()];
+    }
+
+    /**
+     * Gets the time spent in every stage of the input file.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getTotalNanos() {
+
+        long totalNanos = 0;
+
+        for (long nanos : stageNanos) {
+            totalNanos += nanos;
+        }
+
+        return totalNanos;
+
+    }
+
+    /**
+     * Gets the size of the input in bytes.
+     *
+     * @return the number of bytes of input
+     */
+    public long getBytesIn() {
+        return bytesIn;
+    }
+
+    /**
+     * Sets the size of the input in bytes.
+     *
+     * @param bytesIn
+     *                the number of bytes of input
+     */
+    public void setBytesIn(long bytesIn) {
+        this.bytesIn = bytesIn;
+    }
+
+    /**
+     * Gets the number of bytes written to the resulting file.
+     *
+     * @return the number of bytes written
+     */
+    public long getBytesOut() {
+        return bytesOut;
+    }
+
+    /**
+     * Gets the number of bytes written to the console.
+     *
+     * @return the number of bytes written
+     */
+    public long getConsoleBytesOut() {
+        return consoleBytesOut;
+    }
+
+    /**
+     * Counts bytes written out by a stage, to the resulting file if the stage is
+     * {@link PipelineStage#WRITE}, otherwise to the console.
+     *
+     * @param stage
+     *              the stage writing out the bytes
+     * @param bytes
+     *              the number of bytes written
+     */
+    public void addBytesOut(PipelineStage stage, long bytes) {
+
+        if (stage == PipelineStage.WRITE) {
+            bytesOut += bytes;
+        } else {
+            consoleBytesOut += bytes;
+        }
+
+    }
+
+    /**
+     * Gets the number of formatted rows.
+     *
+     * @return the number of rows
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the largest number of columns rows have been formatted with.
+     *
+     * @return the number of columns
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Gets the number of formatted cells, which is the number of columns of each
+     * formatted row added up.
+     *
+     * @return the number of cells
+     */
+    public long getCells() {
+        return cells;
+    }
+
+    /**
+     * Counts rows formatted with the same number of columns.
+     *
+     * @param rows
+     *                the number of rows
+     * @param columns
+     *                the number of columns of each row
+     */
+    public void addRows(long rows, int columns) {
+
+        this.rows += rows;
+        this.columns = Math.max(this.columns, columns);
+        cells += rows * columns;
+
+    }
+
+    /**
+     * Checks whether the input file could not be formatted.
+     *
+     * @return true iff formatting the input file failed, otherwise false.
+     */
+    public boolean isFailed() {
+        return isFailed;
+    }
+
+    /**
+     * Records that the input file could not be formatted.
+     */
+    public void setFailed() {
+        isFailed = true;
+    }
+
+    /*
+     * Counts the time and allocations since the last stage started or ended
+     * towards the stage.
+     */
+    private void count(PipelineStage stage, long nanos, long allocatedBytes) {
+
+        stageNanos[stage.ordinal()] += nanos - lastSwitchNanos;
+        stageAllocatedBytes[stage.ordinal()] += allocatedBytes - lastSwitchAllocatedBytes;
+
+    }
+
+    /*
+     * Gets the bytes allocated by the current thread so far, or 0 if they are
+     * not measured.
+     */
+    private static long getAllocatedBytes() {
+
+        return IS_ALLOCATION_MEASURED
+                ? ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN)
+                        .getThreadAllocatedBytes(Thread.currentThread().getId())
+                : 0;
+
+    }
+
+    /*
+     * Turns on the measurement of the memory allocated by each thread, if the
+     * JVM supports it.
+     */
+    private static boolean enableAllocationMeasurement() {
+
+        if (!(THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean)) {
+            return false;
+        }
+
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+
+        if (!threadMXBean.isThreadAllocatedMemorySupported()) {
+            return false;
+        }
+
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        return true;
+
+    }
+
+}
@@ -0,0 +1,274 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.FORMATTER_STATISTICS_OBJECT_NAME;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.ROWS_PER_SECOND_WINDOW;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.STAGE_LATENCY_OBJECT_NAME;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Class keeping the live statistics of a batch or the formatter daemon, which
+ * are registered with the platform MBean server, so they can be watched in
+ * JConsole or scraped by a JMX exporter while formatting carries on. The
+ * statistics are registered under
+ * {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#FORMATTER_STATISTICS_OBJECT_NAME
+ * FORMATTER_STATISTICS_OBJECT_NAME}, and the latencies of each stage under
+ * {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#STAGE_LATENCY_OBJECT_NAME
+ * STAGE_LATENCY_OBJECT_NAME}.
+ *
+ * <p>
+ * The {@link FileMetrics} of each input file are added once it is finished by
+ * {@link PipelineMetrics#finishFile()}, with the time it spent in each stage
+ * recorded in that stage's {@link LatencyHistogram}. Counting is lock-free and
+ * allocates nothing, so the workers formatting input files never wait for each
+ * other or for JMX.
+ *
+ * <p>
+ * The rows formatted per second are measured over a recent window rather than
+ * since the statistics were registered, so a slowdown shows up however long
+ * formatting has been running. Each read measures from the row count sampled
+ * by an earlier read at least
+ * {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#ROWS_PER_SECOND_WINDOW
+ * ROWS_PER_SECOND_WINDOW} ago, or from registration until there is one.
+ *
+ * @author JamieCheung
+ *
+ */
+public class FormatterStatistics implements FormatterStatisticsMXBean {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final PipelineStage[] STAGES = PipelineStage.values();
+
+    private static FormatterStatistics registeredStatistics;
+
+    private final LongAdder filesProcessed = new LongAdder();
+    private final LongAdder bytesProcessed = new LongAdder();
+    private final LongAdder rowsProcessed = new LongAdder();
+    private final LongAdder failedFiles = new LongAdder();
+    private final LongAdder rejectedRequests = new LongAdder();
+    private final LongAdder timedOutRequests = new LongAdder();
+    private final StageLatency[] stageLatencies = new StageLatency[STAGES.length];
+    private final IntSupplier queueDepth;
+    private final IntSupplier inFlightJobs;
+    private long sampledNanos = System.nanoTime();
+    private long sampledRows;
+    private long previousSampledNanos = sampledNanos;
+    private long previousSampledRows;
+
+    /**
+     * Creates the statistics, before any input file is finished.
+     *
+     * @param queueDepth
+     *                     gets the number of jobs waiting for a worker
+     * @param inFlightJobs
+     *                     gets the number of jobs being formatted by a worker
+     */
+    public FormatterStatistics(IntSupplier queueDepth, IntSupplier inFlightJobs) {
+
+        this.queueDepth = queueDepth;
+        this.inFlightJobs = inFlightJobs;
+
+        for (PipelineStage stage : STAGES) {
+            stageLatencies[stage.ordinal()] = new StageLatency(stage);
+        }
+
+    }
+
+    /**
+     * Registers new statistics with the platform MBean server, replacing any
+     * registered before, and starts adding the metrics of each input file
+     * finished to them.
+     *
+     * @param queueDepth
+     *                     gets the number of jobs waiting for a worker
+     * @param inFlightJobs
+     *                     gets the number of jobs being formatted by a worker
+     *
+     * @return the registered statistics
+     */
+    public static synchronized FormatterStatistics register(IntSupplier queueDepth, IntSupplier inFlightJobs) {
+
+        unregister();
+
+        FormatterStatistics statistics = new FormatterStatistics(queueDepth, inFlightJobs);
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+
+            mBeanServer.registerMBean(statistics, new ObjectName(FORMATTER_STATISTICS_OBJECT_NAME));
+
+            for (StageLatency stageLatency : statistics.stageLatencies) {
+                mBeanServer.registerMBean(stageLatency,
+                        new ObjectName(String.format(STAGE_LATENCY_OBJECT_NAME, stageLatency.getStage())));
+            }
+
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+
+        registeredStatistics = statistics;
+        PipelineMetrics.setStatistics(statistics);
+
+        return statistics;
+
+    }
+
+    /**
+     * Unregisters the statistics from the platform MBean server, if any are
+     * registered, and stops adding the metrics of each input file to them.
+     */
+    public static synchronized void unregister() {
+
+        if (registeredStatistics == null) {
+            return;
+        }
+
+        PipelineMetrics.setStatistics(null);
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+
+            mBeanServer.unregisterMBean(new ObjectName(FORMATTER_STATISTICS_OBJECT_NAME));
+
+            for (StageLatency stageLatency : registeredStatistics.stageLatencies) {
+                mBeanServer.unregisterMBean(
+                        new ObjectName(String.format(STAGE_LATENCY_OBJECT_NAME, stageLatency.getStage())));
+            }
+
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            registeredStatistics = null;
+        }
+
+    }
+
+    /**
+     * Adds the metrics of a finished input file, recording the time it spent in
+     * each stage it ran.
+     *
+     * @param fileMetrics
+     *                    the metrics of the input file
+     */
+    public void record(FileMetrics fileMetrics) {
+
+        filesProcessed.increment();
+        bytesProcessed.add(fileMetrics.getBytesIn());
+        rowsProcessed.add(fileMetrics.getRows());
+
+        if (fileMetrics.isFailed()) {
+            failedFiles.increment();
+        }
+
+        for (PipelineStage stage : STAGES) {
+
+            long nanos = fileMetrics.getStageNanos(stage);
+
+            if (nanos > 0) {
+                stageLatencies[stage.ordinal()].record(nanos);
+            }
+
+        }
+
+    }
+
+    /**
+     * Counts a request to the formatter daemon rejected because too many requests
+     * were waiting.
+     */
+    public void countRejectedRequest() {
+
+        rejectedRequests.increment();
+
+    }
+
+    /**
+     * Counts a request to the formatter daemon that was not answered in time.
+     */
+    public void countTimedOutRequest() {
+
+        timedOutRequests.increment();
+
+    }
+
+    /**
+     * Gets the latencies of a stage.
+     *
+     * @param stage
+     *              the stage
+     *
+     * @return the latencies of the stage
+     */
+    public StageLatency getStageLatency(PipelineStage stage) {
+        return stageLatencies[stage.ordinal()];
+    }
+
+    @Override
+    public long getFilesProcessed() {
+        return filesProcessed.sum();
+    }
+
+    @Override
+    public long getBytesProcessed() {
+        return bytesProcessed.sum();
+    }
+
+    @Override
+    public long getRowsProcessed() {
+        return rowsProcessed.sum();
+    }
+
+    @Override
+    public synchronized double getRowsPerSecond() {
+
+        long nanos = System.nanoTime();
+        long rows = rowsProcessed.sum();
+
+        // Start a new window once the last one is long enough, keeping the one before
+        // it to measure from, so frequent reads never measure over too short a time
+        if (nanos - sampledNanos >= TimeUnit.MILLISECONDS.toNanos(ROWS_PER_SECOND_WINDOW)) {
+            previousSampledNanos = sampledNanos;
+            previousSampledRows = sampledRows;
+            sampledNanos = nanos;
+            sampledRows = rows;
+        }
+
+        double seconds = (nanos - previousSampledNanos) / NANOS_PER_SECOND;
+
+        return seconds > 0 ? (rows - previousSampledRows) / seconds : 0;
+
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queueDepth.getAsInt();
+    }
+
+    @Override
+    public int getInFlightJobs() {
+        return inFlightJobs.getAsInt();
+    }
+
+    @Override
+    public long getFailedFiles() {
+        return failedFiles.sum();
+    }
+
+    @Override
+    public long getRejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    @Override
+    public long getTimedOutRequests() {
+        return timedOutRequests.sum();
+    }
+
+}
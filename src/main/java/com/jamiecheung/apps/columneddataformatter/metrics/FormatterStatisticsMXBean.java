@@ -0,0 +1,81 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+/**
+ * Management interface of the live statistics of a batch or the formatter
+ * daemon, counting every input file finished since the statistics were
+ * registered.
+ *
+ * @author JamieCheung
+ *
+ */
+public interface FormatterStatisticsMXBean {
+
+    /**
+     * Gets the number of input files finished, whether or not they were
+     * formatted.
+     *
+     * @return the number of input files
+     */
+    long getFilesProcessed();
+
+    /**
+     * Gets the number of bytes of input of every input file finished.
+     *
+     * @return the number of bytes
+     */
+    long getBytesProcessed();
+
+    /**
+     * Gets the number of rows formatted.
+     *
+     * @return the number of rows
+     */
+    long getRowsProcessed();
+
+    /**
+     * Gets the number of rows formatted per second over a recent window, of
+     * between one and two windows' length if the statistics are read at least
+     * once per window, otherwise since the last read.
+     *
+     * @return the number of rows per second
+     */
+    double getRowsPerSecond();
+
+    /**
+     * Gets the number of input files or requests waiting for a worker.
+     *
+     * @return the number of waiting jobs
+     */
+    int getQueueDepth();
+
+    /**
+     * Gets the number of input files or requests being formatted by a worker.
+     *
+     * @return the number of jobs in flight
+     */
+    int getInFlightJobs();
+
+    /**
+     * Gets the number of input files that could not be formatted.
+     *
+     * @return the number of failed input files
+     */
+    long getFailedFiles();
+
+    /**
+     * Gets the number of requests to the formatter daemon rejected because too
+     * many requests were waiting.
+     *
+     * @return the number of rejected requests
+     */
+    long getRejectedRequests();
+
+    /**
+     * Gets the number of requests to the formatter daemon that were not answered
+     * in time.
+     *
+     * @return the number of timed out requests
+     */
+    long getTimedOutRequests();
+
+}
@@ -0,0 +1,152 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds with a fixed number of buckets on a
+ * log scale. Each power of two is split into eight buckets of equal width, so
+ * any latency is counted in a bucket at most an eighth wider than its lower
+ * bound, from a nanosecond up to the largest long, in under 500 buckets.
+ *
+ * <p>
+ * Recording a latency only finds its bucket with a few shifts and increments
+ * the bucket's count, so it never allocates, never locks, and can be called by
+ * many threads at once. Percentiles are read from the counts of every bucket,
+ * which may be in the middle of being recorded, so a percentile read while
+ * latencies are being recorded is only as up to date as the counts it reads.
+ *
+ * @author JamieCheung
+ *
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Records a latency. Negative latencies are counted as 0.
+     *
+     * @param nanos
+     *              the latency in nanoseconds
+     */
+    public void record(long nanos) {
+
+        counts.incrementAndGet(getBucket(Math.max(nanos, 0)));
+
+    }
+
+    /**
+     * Gets the number of latencies recorded.
+     *
+     * @return the number of latencies
+     */
+    public long getCount() {
+
+        long count = 0;
+
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            count += counts.get(bucket);
+        }
+
+        return count;
+
+    }
+
+    /**
+     * Gets the latency that the fraction of the latencies recorded are no longer
+     * than, e.g. 0.99 for the 99th percentile. The latency is the largest in its
+     * bucket, so it is never less than the exact percentile, and at most an
+     * eighth more.
+     *
+     * @param fraction
+     *                 the fraction of latencies, between 0 and 1
+     *
+     * @return the latency in nanoseconds, or 0 if no latencies are recorded
+     */
+    public long getPercentile(double fraction) {
+
+        long count = getCount();
+
+        if (count == 0) {
+            return 0;
+        }
+
+        // The rank of the latency in order, counting from 1
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+
+            seen += counts.get(bucket);
+
+            if (seen >= rank) {
+                return getLargestInBucket(bucket);
+            }
+
+        }
+
+        // Latencies recorded since counting are left out
+        return getMaximum();
+
+    }
+
+    /**
+     * Gets the largest latency recorded, to the precision of its bucket.
+     *
+     * @return the latency in nanoseconds, or 0 if no latencies are recorded
+     */
+    public long getMaximum() {
+
+        for (int bucket = BUCKET_COUNT - 1; bucket >= 0; bucket--) {
+            if (counts.get(bucket) > 0) {
+                return getLargestInBucket(bucket);
+            }
+        }
+
+        return 0;
+
+    }
+
+    /*
+     * Gets the bucket of the latency. Latencies below twice the number of sub
+     * buckets each have their own bucket, and every larger latency is bucketed by
+     * its highest bit and the sub bucket bits below it.
+     */
+    private static int getBucket(long nanos) {
+
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+
+        int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (highestBit - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+        return (highestBit - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+
+    }
+
+    /*
+     * Gets the largest latency counted in the bucket.
+     */
+    private static long getLargestInBucket(int bucket) {
+
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+
+        // The largest bucket runs up to the largest long
+        if (shift + SUB_BUCKET_BITS + 1 >= Long.SIZE - 1 && subBucket == SUB_BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+
+    }
+
+}
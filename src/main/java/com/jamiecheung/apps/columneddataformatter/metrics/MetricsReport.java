@@ -0,0 +1,199 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Class reporting the {@link FileMetrics} of a run as JSON, with the metrics
+ * of each input file, followed by their totals. The throughput of each input
+ * file is its bytes of input over the time spent in its stages, and the
+ * throughput of the whole run is every byte of input over the time the run
+ * took, so input files formatted at the same time make the run faster than any
+ * of its files.
+ *
+ * @author JamieCheung
+ *
+ */
+public class MetricsReport {
+
+    private static final String INDENT = "  ";
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+    private final List<FileMetrics> fileMetrics;
+    private final long elapsedNanos;
+
+    /**
+     * Creates the report of the metrics of every input file formatted in a run.
+     *
+     * @param fileMetrics
+     *                     the metrics of each input file, in the order they are
+     *                     reported
+     * @param elapsedNanos
+     *                     the time the whole run took in nanoseconds
+     */
+    public MetricsReport(List<FileMetrics> fileMetrics, long elapsedNanos) {
+
+        this.fileMetrics = fileMetrics;
+        this.elapsedNanos = elapsedNanos;
+
+    }
+
+    /**
+     * Gets the metrics of each input file in the report.
+     *
+     * @return the metrics of each input file
+     */
+    public List<FileMetrics> getFileMetrics() {
+        return fileMetrics;
+    }
+
+    /**
+     * Writes the report as a JSON object, with a "files" array holding the
+     * metrics of each input file and a "totals" object holding their totals.
+     * Times are in nanoseconds, sizes in bytes and throughputs in megabytes
+     * (1048576 bytes) per second. The allocated bytes of each stage are null if
+     * the JVM does not measure them.
+     *
+     * @return the report as JSON
+     */
+    public String toJson() {
+
+        StringBuilder json = new StringBuilder("{\n").append(INDENT).append("\"files\": [");
+        long[] totalStageNanos = new long[PipelineStage.values().length];
+        long[] totalStageAllocatedBytes = new long[PipelineStage.values().length];
+        long bytesIn = 0;
+        long bytesOut = 0;
+        long consoleBytesOut = 0;
+        long rows = 0;
+        long cells = 0;
+        int failedFiles = 0;
+
+        for (int i = 0; i < fileMetrics.size(); i++) {
+
+            FileMetrics metrics = fileMetrics.get(i);
+            long[] stageNanos = new long[totalStageNanos.length];
+            long[] stageAllocatedBytes = new long[totalStageAllocatedBytes.length];
+
+            for (PipelineStage stage : PipelineStage.values()) {
+                stageNanos[stage.ordinal()] = metrics.getStageNanos(stage);
+                stageAllocatedBytes[stage.ordinal()] = metrics.getStageAllocatedBytes(stage);
+                totalStageNanos[stage.ordinal()] += stageNanos[stage.ordinal()];
+                totalStageAllocatedBytes[stage.ordinal()] += stageAllocatedBytes[stage.ordinal()];
+            }
+
+            json.append(i == 0 ? "\n" : ",\n").append(INDENT).append(INDENT).append("{\n");
+            String indent = INDENT + INDENT + INDENT;
+            appendField(json, indent, "inputFile", quote(metrics.getInputFile()));
+            appendField(json, indent, "failed", String.valueOf(metrics.isFailed()));
+            appendSizes(json, indent, metrics.getBytesIn(), metrics.getBytesOut(), metrics.getConsoleBytesOut(),
+                    metrics.getRows(), metrics.getColumns(), metrics.getCells());
+            appendTimes(json, indent, metrics.getTotalNanos(), metrics.getBytesIn(), stageNanos, stageAllocatedBytes);
+            json.append(INDENT).append(INDENT).append("}");
+
+            bytesIn += metrics.getBytesIn();
+            bytesOut += metrics.getBytesOut();
+            consoleBytesOut += metrics.getConsoleBytesOut();
+            rows += metrics.getRows();
+            cells += metrics.getCells();
+            failedFiles += metrics.isFailed() ? 1 : 0;
+
+        }
+
+        json.append(fileMetrics.isEmpty() ? "],\n" : "\n" + INDENT + "],\n");
+        json.append(INDENT).append("\"totals\": {\n");
+        String indent = INDENT + INDENT;
+        appendField(json, indent, "files", String.valueOf(fileMetrics.size()));
+        appendField(json, indent, "failedFiles", String.valueOf(failedFiles));
+        appendSizes(json, indent, bytesIn, bytesOut, consoleBytesOut, rows, -1, cells);
+        appendTimes(json, indent, elapsedNanos, bytesIn, totalStageNanos, totalStageAllocatedBytes);
+        json.append(INDENT).append("}\n}");
+
+        return json.toString();
+
+    }
+
+    /*
+     * Appends the sizes of the input and output, leaving out the number of
+     * columns if it is negative.
+     */
+    private static void appendSizes(StringBuilder json, String indent, long bytesIn, long bytesOut,
+            long consoleBytesOut, long rows, int columns, long cells) {
+
+        appendField(json, indent, "bytesIn", String.valueOf(bytesIn));
+        appendField(json, indent, "bytesOut", String.valueOf(bytesOut));
+        appendField(json, indent, "consoleBytesOut", String.valueOf(consoleBytesOut));
+        appendField(json, indent, "rows", String.valueOf(rows));
+
+        if (columns >= 0) {
+            appendField(json, indent, "columns", String.valueOf(columns));
+        }
+
+        appendField(json, indent, "cells", String.valueOf(cells));
+
+    }
+
+    /*
+     * Appends the time taken, the throughput over that time, and the time and
+     * allocations of each stage, as the last field of an object.
+     */
+    private static void appendTimes(StringBuilder json, String indent, long nanos, long bytesIn, long[] stageNanos,
+            long[] stageAllocatedBytes) {
+
+        double seconds = nanos / NANOS_PER_SECOND;
+        double megabytesPerSecond = seconds > 0 ? bytesIn / BYTES_PER_MEGABYTE / seconds : 0;
+
+        appendField(json, indent, "elapsedNanos", String.valueOf(nanos));
+        appendField(json, indent, "megabytesPerSecond", String.format(Locale.ROOT, "%.3f", megabytesPerSecond));
+        json.append(indent).append("\"stages\": {");
+
+        for (PipelineStage stage : PipelineStage.values()) {
+
+            json.append(stage.ordinal() == 0 ? "\n" : ",\n").append(indent).append(INDENT);
+            json.append(quote(stage.getName())).append(": { \"nanos\": ").append(stageNanos[stage.ordinal()]);
+            json.append(", \"allocatedBytes\": ").append(FileMetrics.isAllocationMeasured()
+                    ? String.valueOf(stageAllocatedBytes[stage.ordinal()])
+                    : "null").append(" }");
+
+        }
+
+        json.append("\n").append(indent).append("}\n");
+
+    }
+
+    /*
+     * Appends a field of an object that is followed by another field.
+     */
+    private static void appendField(StringBuilder json, String indent, String name, String value) {
+
+        json.append(indent).append(quote(name)).append(": ").append(value).append(",\n");
+
+    }
+
+    /*
+     * Quotes the text as a JSON string, escaping the characters JSON does not
+     * allow in a string.
+     */
+    private static String quote(String text) {
+
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+
+        for (int i = 0; i < text.length(); i++) {
+
+            char character = text.charAt(i);
+
+            if (character == '"' || character == '\\') {
+                quoted.append('\\').append(character);
+            } else if (character < ' ') {
+                quoted.append(String.format("\\u%04x", (int) character));
+            } else {
+                quoted.append(character);
+            }
+
+        }
+
+        return quoted.append('"').toString();
+
+    }
+
+}
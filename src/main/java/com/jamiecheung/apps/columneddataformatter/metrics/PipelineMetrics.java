@@ -0,0 +1,400 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.METRICS_REPORT_FILE_NAME;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.TEMPORARY_FILE_EXTENSION;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Class that records the {@link FileMetrics} of every input file formatted
+ * while metrics are enabled, and either reports them once formatting has
+ * finished, or adds them to the registered {@link FormatterStatistics} as each
+ * input file is finished. Metrics are enabled while they are reported or
+ * statistics are registered, and, on Java 11 or later, once the JDK Flight
+ * Recorder has started, so each stage is emitted as an event by
+ * {@link StageEvents}.
+ *
+ * <p>
+ * The metrics of an input file are bound to the thread formatting it, so the
+ * stages of the formatting pipeline can record their metrics without being
+ * passed them. While metrics are disabled, or no input file is bound to the
+ * thread, recording a metric does nothing.
+ *
+ * @author JamieCheung
+ *
+ */
+public class PipelineMetrics {
+
+    private static final ThreadLocal<FileMetrics> BOUND_FILE_METRICS = new ThreadLocal<>();
+    private static final List<FileMetrics> FILE_METRICS = new ArrayList<>();
+
+    private static volatile boolean isEnabled;
+    private static volatile boolean isReported;
+    private static volatile FormatterStatistics statistics;
+    private static long startNanos;
+
+    /**
+     * A stage of the formatting pipeline that returns a result.
+     *
+     * @param <T>
+     *            the type of the result
+     */
+    public interface StageTask<T> {
+        T run() throws IOException;
+    }
+
+    /**
+     * Sets whether the metrics of each input file formatted from now on are
+     * kept for the metrics report, discarding any kept so far.
+     *
+     * @param isReported
+     *                   true to report metrics, otherwise false
+     */
+    public static synchronized void setReported(boolean isReported) {
+
+        FILE_METRICS.clear();
+        startNanos = System.nanoTime();
+        PipelineMetrics.isReported = isReported;
+        isEnabled = isReported || statistics != null;
+
+    }
+
+    /**
+     * Sets the statistics the metrics of each input file are added to once it is
+     * finished.
+     *
+     * @param statistics
+     *                   the statistics, or null to stop adding to them
+     */
+    public static synchronized void setStatistics(FormatterStatistics statistics) {
+
+        PipelineMetrics.statistics = statistics;
+        isEnabled = isReported || statistics != null;
+
+    }
+
+    /**
+     * Checks whether metrics are recorded.
+     *
+     * @return true iff metrics are enabled, otherwise false.
+     */
+    public static boolean isEnabled() {
+
+        return isEnabled || StageEvents.isRecorderStarted();
+
+    }
+
+    /**
+     * Starts recording the metrics of an input file, binding them to the current
+     * thread.
+     *
+     * @param inputFile
+     *                  the file containing the input text
+     *
+     * @return the metrics of the input file, or null if metrics are disabled
+     */
+    public static FileMetrics startFile(String inputFile) {
+
+        if (!isEnabled()) {
+            return null;
+        }
+
+        FileMetrics fileMetrics = new FileMetrics(inputFile);
+
+        if (isReported) {
+            synchronized (PipelineMetrics.class) {
+                FILE_METRICS.add(fileMetrics);
+            }
+        }
+
+        bind(fileMetrics);
+
+        return fileMetrics;
+
+    }
+
+    /**
+     * Binds the metrics of an input file to the current thread, so the stages it
+     * runs are recorded in them.
+     *
+     * @param fileMetrics
+     *                    the metrics of the input file, or null to record
+     *                    nothing
+     */
+    public static void bind(FileMetrics fileMetrics) {
+
+        if (fileMetrics != null) {
+            BOUND_FILE_METRICS.set(fileMetrics);
+        }
+
+    }
+
+    /**
+     * Unbinds the metrics of the input file bound to the current thread, if any.
+     */
+    public static void unbind() {
+
+        if (isEnabled()) {
+            BOUND_FILE_METRICS.remove();
+        }
+
+    }
+
+    /**
+     * Finishes the input file bound to the current thread, if any, adding its
+     * metrics to the registered statistics and unbinding them.
+     */
+    public static void finishFile() {
+
+        FileMetrics fileMetrics = getBoundFileMetrics();
+
+        if (fileMetrics == null) {
+            return;
+        }
+
+        FormatterStatistics formatterStatistics = statistics;
+
+        if (formatterStatistics != null) {
+            formatterStatistics.record(fileMetrics);
+        }
+
+        BOUND_FILE_METRICS.remove();
+
+    }
+
+    /**
+     * Records that the input file bound to the current thread could not be
+     * formatted.
+     */
+    public static void setFailed() {
+
+        FileMetrics fileMetrics = getBoundFileMetrics();
+
+        if (fileMetrics != null) {
+            fileMetrics.setFailed();
+        }
+
+    }
+
+    /**
+     * Starts a stage of the input file bound to the current thread. Every stage
+     * started must be ended with {@link PipelineMetrics#endStage()}.
+     *
+     * @param stage
+     *              the stage to start
+     */
+    public static void startStage(PipelineStage stage) {
+
+        FileMetrics fileMetrics = getBoundFileMetrics();
+
+        if (fileMetrics != null) {
+            fileMetrics.startStage(stage);
+        }
+
+    }
+
+    /**
+     * Ends the last stage started of the input file bound to the current thread.
+     */
+    public static void endStage() {
+
+        FileMetrics fileMetrics = getBoundFileMetrics();
+
+        if (fileMetrics != null) {
+            fileMetrics.endStage();
+        }
+
+    }
+
+    /**
+     * Runs a stage of the input file bound to the current thread, recording its
+     * metrics.
+     *
+     * @param <T>
+     *              the type of the result of the stage
+     * @param stage
+     *              the stage to run
+     * @param task
+     *              the work done by the stage
+     *
+     * @return the result of the stage
+     *
+     * @throws IOException
+     */
+    public static <T> T measure(PipelineStage stage, StageTask<T> task) throws IOException {
+
+        startStage(stage);
+
+        try {
+            return task.run();
+        } finally {
+            endStage();
+        }
+
+    }
+
+    /**
+     * Sets the size in bytes of the input of the input file bound to the current
+     * thread.
+     *
+     * @param bytesIn
+     *                the number of bytes of input
+     */
+    public static void setBytesIn(long bytesIn) {
+
+        FileMetrics fileMetrics = getBoundFileMetrics();
+
+        if (fileMetrics != null) {
+            fileMetrics.setBytesIn(bytesIn);
+        }
+
+    }
+
+    /**
+     * Counts bytes written out by a stage of the input file bound to the current
+     * thread.
+     *
+     * @param stage
+     *              the stage writing out the bytes
+     * @param bytes
+     *              the number of bytes written
+     */
+    public static void addBytesOut(PipelineStage stage, long bytes) {
+
+        FileMetrics fileMetrics = getBoundFileMetrics();
+
+        if (fileMetrics != null) {
+            fileMetrics.addBytesOut(stage, bytes);
+        }
+
+    }
+
+    /**
+     * Counts rows of the input file bound to the current thread formatted with
+     * the same number of columns.
+     *
+     * @param rows
+     *                the number of rows
+     * @param columns
+     *                the number of columns of each row
+     */
+    public static void addRows(long rows, int columns) {
+
+        FileMetrics fileMetrics = getBoundFileMetrics();
+
+        if (fileMetrics != null) {
+            fileMetrics.addRows(rows, columns);
+        }
+
+    }
+
+    /**
+     * Counts a request to the formatter daemon that was rejected because too many
+     * requests were waiting.
+     */
+    public static void countRejectedRequest() {
+
+        FormatterStatistics formatterStatistics = statistics;
+
+        if (formatterStatistics != null) {
+            formatterStatistics.countRejectedRequest();
+        }
+
+    }
+
+    /**
+     * Counts a request to the formatter daemon that was not answered in time.
+     */
+    public static void countTimedOutRequest() {
+
+        FormatterStatistics formatterStatistics = statistics;
+
+        if (formatterStatistics != null) {
+            formatterStatistics.countTimedOutRequest();
+        }
+
+    }
+
+    /**
+     * Gets the report of the metrics of every input file formatted since metrics
+     * were reported, in order of their paths, and their totals.
+     *
+     * @return the metrics report
+     */
+    public static synchronized MetricsReport getReport() {
+
+        List<FileMetrics> fileMetrics = new ArrayList<>(FILE_METRICS);
+        fileMetrics.sort(Comparator.comparing(FileMetrics::getInputFile));
+
+        return new MetricsReport(fileMetrics, System.nanoTime() - startNanos);
+
+    }
+
+    /**
+     * Writes the metrics report as JSON to the file
+     * {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#METRICS_REPORT_FILE_NAME
+     * METRICS_REPORT_FILE_NAME} in the result directory, replacing the report of
+     * the last run, or to the standard error stream if the result directory is
+     * not provided or is not a folder. Does nothing if metrics are not
+     * reported.
+     *
+     * @param resultDirectory
+     *                        the folder to create the report in
+     *
+     * @throws IOException
+     */
+    public static void writeReport(String resultDirectory) throws IOException {
+
+        if (!isReported) {
+            return;
+        }
+
+        String json = getReport().toJson();
+
+        if (resultDirectory.isEmpty() || !Files.isDirectory(Paths.get(resultDirectory))) {
+            System.err.println(json);
+            return;
+        }
+
+        // Replace the report in a single step, so it is never read half written
+        Path reportPath = Paths.get(resultDirectory, METRICS_REPORT_FILE_NAME);
+        Path temporaryReportPath = Files.createTempFile(reportPath.toAbsolutePath().getParent(),
+                METRICS_REPORT_FILE_NAME, TEMPORARY_FILE_EXTENSION);
+
+        try {
+
+            Files.write(temporaryReportPath, json.getBytes(StandardCharsets.UTF_8));
+
+            try {
+                Files.move(temporaryReportPath, reportPath, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryReportPath, reportPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+        } finally {
+            Files.deleteIfExists(temporaryReportPath);
+        }
+
+    }
+
+    /*
+     * Gets the metrics of the input file bound to the current thread, or null if
+     * metrics are disabled or there is none.
+     */
+    private static FileMetrics getBoundFileMetrics() {
+
+        return isEnabled() ? BOUND_FILE_METRICS.get() : null;
+
+    }
+
+}
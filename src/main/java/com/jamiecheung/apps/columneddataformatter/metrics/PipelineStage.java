@@ -0,0 +1,61 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import java.util.Locale;
+
+/**
+ * The stages an input file goes through as it is formatted, which are timed
+ * separately by {@link FileMetrics}.
+ *
+ * @author JamieCheung
+ *
+ */
+public enum PipelineStage {
+
+    /**
+     * The input file is opened and memory mapped, or the input String is split
+     * into lines.
+     */
+    READ,
+
+    /**
+     * The lines of the input are split into cells, which also reads the bytes of
+     * a memory mapped input file from the disk, and finds the width of each
+     * column of a table as its lines are split.
+     */
+    TOKENIZE,
+
+    /**
+     * The length of each column is found, which reads and splits every line of
+     * a streamed input file.
+     */
+    WIDTH,
+
+    /**
+     * The cells of each row are padded and joined into formatted lines, which
+     * includes splitting the lines of a streamed input file into cells.
+     */
+    RENDER,
+
+    /**
+     * The formatted lines are encoded and written to the console.
+     */
+    CONSOLE,
+
+    /**
+     * The formatted lines are encoded and written to the resulting file, which
+     * then replaces any previous resulting file.
+     */
+    WRITE;
+
+    /**
+     * Gets the name of the stage used in the metrics report, e.g. "tokenize".
+     *
+     * @return the name of the stage in lower case
+     */
+    public String getName() {
+
+        return name().toLowerCase(Locale.ROOT);
+
+    }
+
+}
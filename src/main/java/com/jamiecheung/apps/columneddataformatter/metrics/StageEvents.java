@@ -0,0 +1,57 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+/**
+ * Emits a JDK Flight Recorder event around each {@link PipelineStage} of an
+ * input file. This is the portable version of the class, which emits nothing,
+ * as Java 8 has no public Flight Recorder API. The multi-release jar also
+ * contains a version of the class for Java 11 or later in
+ * {@code META-INF/versions/11}, which emits an event for each stage.
+ *
+ * @author JamieCheung
+ *
+ */
+class StageEvents {
+
+    /**
+     * Checks whether the Flight Recorder has started, so the events of each
+     * stage can be emitted.
+     *
+     * @return false
+     */
+    static boolean isRecorderStarted() {
+
+        return false;
+
+    }
+
+    /**
+     * Begins the event of a stage started on the current thread.
+     *
+     * @param stage
+     *                    the stage started
+     * @param fileMetrics
+     *                    the metrics of the input file the stage runs for
+     *
+     * @return null, as no event is emitted
+     */
+    static Object begin(PipelineStage stage, FileMetrics fileMetrics) {
+
+        return null;
+
+    }
+
+    /**
+     * Ends the event of a stage and emits it.
+     *
+     * @param event
+     *                    the event returned when the stage started
+     * @param fileMetrics
+     *                    the metrics of the input file the stage runs for
+     */
+    static void end(Object event, FileMetrics fileMetrics) {
+
+        // No event is emitted on Java 8
+
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+/**
+ * The latencies of a single {@link PipelineStage}, kept in a
+ * {@link LatencyHistogram} and read through JMX.
+ *
+ * @author JamieCheung
+ *
+ */
+public class StageLatency implements StageLatencyMXBean {
+
+    private static final double P50 = 0.5;
+    private static final double P99 = 0.99;
+    private static final double P999 = 0.999;
+
+    private final PipelineStage stage;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    /**
+     * Creates the latencies of a stage, before any are recorded.
+     *
+     * @param stage
+     *              the stage
+     */
+    public StageLatency(PipelineStage stage) {
+
+        this.stage = stage;
+
+    }
+
+    /**
+     * Records the time an input file spent in the stage.
+     *
+     * @param nanos
+     *              the time in nanoseconds
+     */
+    public void record(long nanos) {
+
+        histogram.record(nanos);
+
+    }
+
+    @Override
+    public String getStage() {
+        return stage.getName();
+    }
+
+    @Override
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return histogram.getPercentile(P50);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return histogram.getPercentile(P99);
+    }
+
+    @Override
+    public long getP999Nanos() {
+        return histogram.getPercentile(P999);
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return histogram.getMaximum();
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+/**
+ * Management interface of the latencies of a single {@link PipelineStage},
+ * i.e. the time each input file spent in the stage, for every input file
+ * finished since the statistics were registered.
+ *
+ * @author JamieCheung
+ *
+ */
+public interface StageLatencyMXBean {
+
+    /**
+     * Gets the name of the stage, e.g. "tokenize".
+     *
+     * @return the name of the stage
+     */
+    String getStage();
+
+    /**
+     * Gets the number of input files that spent time in the stage.
+     *
+     * @return the number of input files
+     */
+    long getCount();
+
+    /**
+     * Gets the median time an input file spent in the stage.
+     *
+     * @return the time in nanoseconds
+     */
+    long getP50Nanos();
+
+    /**
+     * Gets the time 99% of input files spent no longer than in the stage.
+     *
+     * @return the time in nanoseconds
+     */
+    long getP99Nanos();
+
+    /**
+     * Gets the time 99.9% of input files spent no longer than in the stage.
+     *
+     * @return the time in nanoseconds
+     */
+    long getP999Nanos();
+
+    /**
+     * Gets the longest time an input file spent in the stage.
+     *
+     * @return the time in nanoseconds
+     */
+    long getMaxNanos();
+
+}
@@ -0,0 +1,230 @@
+package com.jamiecheung.apps.columneddataformatter.model;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.ELLIPSIS;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SPACE_CHARACTER;
+
+import java.util.Arrays;
+
+import com.jamiecheung.apps.columneddataformatter.utils.DisplayWidthUtils;
+
+/**
+ * Class representing the maximum width of each column of the formatted data
+ * contents. Each column may have its own maximum width, with every column
+ * after them limited to a single maximum width shared by all of them. Entries
+ * longer than the maximum width of their column are cut short, ending in an
+ * ellipsis if there is room for one.
+ *
+ * <p>
+ * If the column widths are fixed, every column is exactly its maximum width
+ * however long its entries are, so lines can be formatted without first
+ * finding the longest entry of each column. Columns with no maximum width are
+ * as wide as each entry in them.
+ *
+ * @author JamieCheung
+ *
+ */
+public class ColumnWidthLimits {
+
+    /**
+     * The ColumnWidthLimits of columns without a maximum width.
+     */
+    public static final ColumnWidthLimits UNBOUNDED = new ColumnWidthLimits(new int[0], Integer.MAX_VALUE, false,
+            false);
+
+    private final int[] maxWidths;
+    private final int defaultMaxWidth;
+    private final boolean isFixed;
+    private final boolean isEllipsis;
+
+    /**
+     * Creates a ColumnWidthLimits.
+     *
+     * @param maxWidths
+     *                        the maximum width of each of the first columns in
+     *                        turn
+     * @param defaultMaxWidth
+     *                        the maximum width of every column after them, or
+     *                        {@link Integer#MAX_VALUE} if they have none
+     * @param isFixed
+     *                        whether every column is exactly its maximum width
+     * @param isEllipsis
+     *                        whether entries cut short end in an ellipsis
+     */
+    public ColumnWidthLimits(int[] maxWidths, int defaultMaxWidth, boolean isFixed, boolean isEllipsis) {
+
+        this.maxWidths = maxWidths.clone();
+        this.defaultMaxWidth = defaultMaxWidth;
+        this.isFixed = isFixed;
+        this.isEllipsis = isEllipsis;
+
+    }
+
+    /**
+     * Gets the maximum width of a column.
+     *
+     * @param column
+     *               the index of the column
+     *
+     * @return the maximum width of the column, or {@link Integer#MAX_VALUE} if it
+     *         has none
+     */
+    public int getMaxWidth(int column) {
+
+        return column < maxWidths.length ? maxWidths[column] : defaultMaxWidth;
+
+    }
+
+    /**
+     * Checks whether any column has a maximum width.
+     *
+     * @return true iff at least one column has a maximum width, otherwise false.
+     */
+    public boolean isBounded() {
+
+        return maxWidths.length > 0 || defaultMaxWidth != Integer.MAX_VALUE;
+
+    }
+
+    /**
+     * Checks whether every column is exactly its maximum width, so lines can be
+     * formatted without first finding the longest entry of each column.
+     *
+     * @return true iff the column widths are fixed, otherwise false.
+     */
+    public boolean isFixed() {
+
+        return isFixed;
+
+    }
+
+    /**
+     * Checks whether entries cut short to fit their column end in an ellipsis.
+     *
+     * @return true iff entries cut short end in an ellipsis, otherwise false.
+     */
+    public boolean isEllipsis() {
+
+        return isEllipsis;
+
+    }
+
+    /**
+     * Limits the length of each column to its maximum width.
+     *
+     * @param columnLengths
+     *                      the length of the longest entry in each column
+     *
+     * @return the length of each column once limited, which is columnLengths
+     *         itself if no column has a maximum width
+     */
+    public int[] limitColumnLengths(int[] columnLengths) {
+
+        if (!isBounded()) {
+            return columnLengths;
+        }
+
+        int[] limitedColumnLengths = new int[columnLengths.length];
+
+        for (int column = 0; column < columnLengths.length; column++) {
+            limitedColumnLengths[column] = Math.min(columnLengths[column], getMaxWidth(column));
+        }
+
+        return limitedColumnLengths;
+
+    }
+
+    /**
+     * Gets the length of each column when the column widths are fixed, i.e. the
+     * maximum width of each of the first columns. Lines with fewer cells are
+     * completed with empty cells up to this many columns.
+     *
+     * @return the length of each of the first columns
+     */
+    public int[] getFixedColumnLengths() {
+
+        return maxWidths.clone();
+
+    }
+
+    /**
+     * Gets the length of a column that is not part of the column lengths used to
+     * format a line, from the length of its entry in that line.
+     *
+     * @param column
+     *                    the index of the column
+     * @param entryLength
+     *                    the display width of the entry in the column
+     *
+     * @return the length of the column in the line
+     */
+    public int getColumnLength(int column, int entryLength) {
+
+        int maxWidth = getMaxWidth(column);
+
+        if (isFixed && maxWidth != Integer.MAX_VALUE) {
+            return maxWidth;
+        }
+
+        // Empty entries still take up a single character in their column
+        return Math.min(Math.max(entryLength, 1), maxWidth);
+
+    }
+
+    /**
+     * Fits the entry at the end of a line to the length of its column, padding
+     * entries of a smaller display width with spaces, and cutting wider entries
+     * short. A surrogate pair is never split, a wide character that does not fit
+     * is replaced by padding, and entries cut short end in an ellipsis if there is
+     * room for one and at least one character of the entry.
+     *
+     * @param formattedLine
+     *                      the line ending in the entry
+     * @param entryStart
+     *                      the index of the first character of the entry in the
+     *                      line
+     * @param columnLength
+     *                      the display width of the column
+     */
+    public void fitEntry(StringBuilder formattedLine, int entryStart, int columnLength) {
+
+        int entryWidth = DisplayWidthUtils.getWidth(formattedLine, entryStart, formattedLine.length());
+
+        if (entryWidth > columnLength) {
+
+            boolean hasEllipsis = isEllipsis && columnLength > ELLIPSIS.length();
+            int keptWidth = columnLength - (hasEllipsis ? ELLIPSIS.length() : 0);
+            int entryEnd = DisplayWidthUtils.getWidthEnd(formattedLine, entryStart, formattedLine.length(),
+                    keptWidth);
+
+            formattedLine.setLength(entryEnd);
+            entryWidth = DisplayWidthUtils.getWidth(formattedLine, entryStart, entryEnd);
+
+            if (hasEllipsis) {
+                formattedLine.append(ELLIPSIS);
+                entryWidth += ELLIPSIS.length();
+            }
+
+        }
+
+        // Pad narrower entries by appending spaces to the end of them
+        for (int i = entryWidth; i < columnLength; i++) {
+            formattedLine.append(SPACE_CHARACTER);
+        }
+
+    }
+
+    /**
+     * Gets a description of the column width limits that is the same for equal
+     * limits, with no commas in it.
+     *
+     * @return the description of the column width limits
+     */
+    @Override
+    public String toString() {
+
+        return "maxWidths=" + Arrays.toString(maxWidths).replace(",", "") + " defaultMaxWidth=" + defaultMaxWidth
+                + " fixed=" + isFixed + " ellipsis=" + isEllipsis;
+
+    }
+
+}
@@ -0,0 +1,318 @@
+package com.jamiecheung.apps.columneddataformatter.model;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.MAXIMUM_ARRAY_LENGTH;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_TABLE_TOO_LARGE;
+
+import java.util.Arrays;
+
+import com.jamiecheung.apps.columneddataformatter.utils.DisplayWidthUtils;
+
+/**
+ * Class representing the tokenized rows of the columned data contents. The text
+ * of every cell is stored back to back in a single char array, with the end
+ * offset of each cell and the end cell of each row stored in int arrays, so
+ * the table holds no objects per row or per cell. The display width of each
+ * column is kept up to date as rows are appended, without measuring cells made
+ * up only of ASCII characters character by character.
+ *
+ * <p>
+ * Rows are built by appending the characters of each cell, ending each cell
+ * with {@link ColumnedTable#endCell()} and each row with
+ * {@link ColumnedTable#endRow()}. Each array doubles in length as it fills, up
+ * to the largest length of an array, beyond which appending throws an
+ * {@link IllegalStateException}.
+ *
+ * @author JamieCheung
+ *
+ */
+public class ColumnedTable {
+
+    private static final int DEFAULT_TEXT_CAPACITY = 1024;
+    private static final int DEFAULT_ROW_CAPACITY = 64;
+    private static final int CELLS_PER_ROW_ESTIMATE = 8;
+
+    private char[] cellText;
+    private int textLength;
+    private int cellCharacterBits;
+    private int[] cellEnds;
+    private int cellCount;
+    private int[] rowEnds;
+    private int rowCount;
+    private int[] columnWidths = new int[0];
+
+    /**
+     * Creates an empty ColumnedTable.
+     */
+    public ColumnedTable() {
+        this(DEFAULT_ROW_CAPACITY, DEFAULT_TEXT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty ColumnedTable with room for the expected number of rows and
+     * characters of cell text before any array needs to grow.
+     *
+     * @param expectedRows
+     *                           the number of rows expected in the table
+     * @param expectedTextLength
+     *                           the number of characters of cell text expected
+     *                           in the table
+     */
+    public ColumnedTable(int expectedRows, int expectedTextLength) {
+        this(expectedRows, (int) Math.min((long) expectedRows * CELLS_PER_ROW_ESTIMATE, MAXIMUM_ARRAY_LENGTH),
+                expectedTextLength);
+    }
+
+    /**
+     * Creates an empty ColumnedTable with room for the expected number of rows,
+     * cells and characters of cell text before any array needs to grow.
+     *
+     * @param expectedRows
+     *                           the number of rows expected in the table
+     * @param expectedCells
+     *                           the number of cells expected in the table
+     * @param expectedTextLength
+     *                           the number of characters of cell text expected
+     *                           in the table
+     */
+    public ColumnedTable(int expectedRows, int expectedCells, int expectedTextLength) {
+
+        this.cellText = new char[Math.max(expectedTextLength, 1)];
+        this.cellEnds = new int[Math.max(expectedCells, 1)];
+        this.rowEnds = new int[Math.max(expectedRows, 1)];
+
+    }
+
+    /**
+     * Appends a character to the cell currently being built.
+     *
+     * @param character
+     *                  the character to append
+     */
+    public void appendCharacter(char character) {
+
+        if (textLength == cellText.length) {
+            cellText = Arrays.copyOf(cellText, getGrownLength(cellText.length, textLength + 1L));
+        }
+
+        cellText[textLength++] = character;
+        cellCharacterBits |= character;
+
+    }
+
+    /**
+     * Appends the characters between start and end to the cell currently being
+     * built.
+     *
+     * @param text
+     *              the text containing the characters
+     * @param start
+     *              the index of the first character to append
+     * @param end
+     *              the index after the last character to append
+     */
+    public void appendCharacters(CharSequence text, int start, int end) {
+
+        long requiredLength = (long) textLength + end - start;
+
+        if (requiredLength > cellText.length) {
+            cellText = Arrays.copyOf(cellText, getGrownLength(cellText.length, requiredLength));
+        }
+
+        for (int i = start; i < end; i++) {
+            char character = text.charAt(i);
+            cellText[textLength++] = character;
+            cellCharacterBits |= character;
+        }
+
+    }
+
+    /**
+     * Ends the cell currently being built, widening its column if the cell is the
+     * widest in it so far. Empty cells still take up a single column of their
+     * own.
+     */
+    public void endCell() {
+
+        if (cellCount == cellEnds.length) {
+            cellEnds = Arrays.copyOf(cellEnds, getGrownLength(cellEnds.length, cellCount + 1L));
+        }
+
+        int cellStart = cellCount == 0 ? 0 : cellEnds[cellCount - 1];
+        int column = cellCount - getRowStart(rowCount);
+
+        cellEnds[cellCount++] = textLength;
+
+        if (column == columnWidths.length) {
+            columnWidths = Arrays.copyOf(columnWidths, column + 1);
+            columnWidths[column] = 1;
+        }
+
+        // Cells with no character outside of ASCII are as wide as their length
+        int cellWidth = cellCharacterBits < 0x80 ? textLength - cellStart
+                : DisplayWidthUtils.getWidth(cellText, cellStart, textLength);
+        cellCharacterBits = 0;
+
+        columnWidths[column] = Math.max(columnWidths[column], cellWidth);
+
+    }
+
+    /**
+     * Ends the row currently being built. A row may have no cells at all.
+     */
+    public void endRow() {
+
+        if (rowCount == rowEnds.length) {
+            rowEnds = Arrays.copyOf(rowEnds, getGrownLength(rowEnds.length, rowCount + 1L));
+        }
+
+        rowEnds[rowCount++] = cellCount;
+
+    }
+
+    /**
+     * Appends a whole row, taking each cell from the line between the boundaries
+     * found by a tokenizer.
+     *
+     * @param line
+     *                   the line containing the cells
+     * @param boundaries
+     *                   the start and end index in line of each cell, stored in
+     *                   pairs
+     */
+    public void appendRow(CharSequence line, int[] boundaries) {
+
+        for (int i = 0; i < boundaries.length; i += 2) {
+            appendCharacters(line, boundaries[i], boundaries[i + 1]);
+            endCell();
+        }
+
+        endRow();
+
+    }
+
+    /**
+     * Removes every row from the table, keeping its arrays so the table can be
+     * filled again without growing them.
+     */
+    public void clear() {
+
+        textLength = 0;
+        cellCharacterBits = 0;
+        cellCount = 0;
+        rowCount = 0;
+        columnWidths = new int[0];
+
+    }
+
+    /**
+     * Gets the number of rows in the table.
+     *
+     * @return the number of rows
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Gets the number of columns in the table, i.e. the number of cells in its
+     * longest row.
+     *
+     * @return the number of columns
+     */
+    public int getColumnCount() {
+        return columnWidths.length;
+    }
+
+    /**
+     * Gets the number of cells in a row, which may be fewer than the number of
+     * columns.
+     *
+     * @param row
+     *            the index of the row
+     *
+     * @return the number of cells in the row
+     */
+    public int getCellCount(int row) {
+        return rowEnds[row] - getRowStart(row);
+    }
+
+    /**
+     * Gets a copy of the width of each column, i.e. the display width of the
+     * widest cell in each column, as measured by
+     * {@link DisplayWidthUtils#getWidth(char[], int, int)}.
+     *
+     * @return a copy of the width of each column
+     */
+    public int[] getColumnWidths() {
+        return columnWidths.clone();
+    }
+
+    /**
+     * Gets the index in {@link ColumnedTable#getCellText()} of the first character
+     * of a cell.
+     *
+     * @param row
+     *               the index of the row
+     * @param column
+     *               the index of the column, less than the number of cells in
+     *               the row
+     *
+     * @return the index of the first character of the cell
+     */
+    public int getCellStart(int row, int column) {
+
+        int cell = getRowStart(row) + column;
+
+        return cell == 0 ? 0 : cellEnds[cell - 1];
+
+    }
+
+    /**
+     * Gets the index in {@link ColumnedTable#getCellText()} after the last
+     * character of a cell.
+     *
+     * @param row
+     *               the index of the row
+     * @param column
+     *               the index of the column, less than the number of cells in
+     *               the row
+     *
+     * @return the index after the last character of the cell
+     */
+    public int getCellEnd(int row, int column) {
+        return cellEnds[getRowStart(row) + column];
+    }
+
+    /**
+     * Gets the text of every cell stored back to back. The array is not copied, so
+     * must not be modified, and may be longer than the text it holds.
+     *
+     * @return the text of every cell
+     */
+    public char[] getCellText() {
+        return cellText;
+    }
+
+    /*
+     * Gets the length to grow an array to so it holds at least requiredLength
+     * elements, doubling its length where that is no more than the largest length
+     * of an array.
+     */
+    private static int getGrownLength(int length, long requiredLength) {
+
+        if (requiredLength > MAXIMUM_ARRAY_LENGTH) {
+            throw new IllegalStateException(String.format(ERROR_MESSAGE_TABLE_TOO_LARGE, MAXIMUM_ARRAY_LENGTH));
+        }
+
+        return (int) Math.min(Math.max(2L * length, requiredLength), MAXIMUM_ARRAY_LENGTH);
+
+    }
+
+    /*
+     * Gets the index of the first cell of a row.
+     */
+    private int getRowStart(int row) {
+        return row == 0 ? 0 : rowEnds[row - 1];
+    }
+
+}
@@ -0,0 +1,370 @@
+package com.jamiecheung.apps.columneddataformatter.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.jamiecheung.apps.columneddataformatter.utils.ByteScannerUtils;
+
+/**
+ * Class for finding a delimiter of one or more characters in a line, either in
+ * its characters or directly in its UTF-8 encoded bytes. The delimiter is
+ * compiled once, and each match is found by scanning for its first character
+ * and only then checking the rest of it, so a long delimiter costs about the
+ * same to find as a single character. In bytes, the first byte is found eight
+ * bytes at a time by {@link ByteScannerUtils}.
+ *
+ * <p>
+ * UTF-8 never encodes the first byte of a character in the middle of another
+ * character, so the delimiter is only ever matched in the bytes of a line where
+ * it would be matched in its characters. Matches never overlap, and are found
+ * from left to right. At the start and end of a line, which have already had
+ * their white spaces removed, the delimiter is matched without the white spaces
+ * around it, so a delimiter such as {@code " :: "} is still found there.
+ *
+ * @author JamieCheung
+ *
+ */
+public class DelimiterMatcher {
+
+    private static volatile DelimiterMatcher lastCompiled;
+
+    private final String delimiter;
+    private final char[] characters;
+    private final byte[] bytes;
+    private final boolean isSingleByte;
+    private final char[] trimmedCharacters;
+    private final byte[] trimmedBytes;
+
+    /*
+     * Creates a DelimiterMatcher for the delimiter.
+     */
+    private DelimiterMatcher(String delimiter) {
+
+        this.delimiter = delimiter;
+        this.characters = delimiter.toCharArray();
+        this.bytes = delimiter.getBytes(StandardCharsets.UTF_8);
+        this.isSingleByte = bytes.length == characters.length;
+        this.trimmedCharacters = delimiter.trim().toCharArray();
+        this.trimmedBytes = delimiter.trim().getBytes(StandardCharsets.UTF_8);
+
+    }
+
+    /**
+     * Compiles a DelimiterMatcher for the delimiter. The last DelimiterMatcher
+     * compiled is reused for the same delimiter, so it is cheap to call once per
+     * line.
+     *
+     * @param delimiter
+     *                  the characters that form the columns of the data
+     *
+     * @return the DelimiterMatcher for the delimiter
+     */
+    public static DelimiterMatcher compile(String delimiter) {
+
+        DelimiterMatcher matcher = lastCompiled;
+
+        if (matcher == null || !matcher.delimiter.equals(delimiter)) {
+            matcher = new DelimiterMatcher(delimiter);
+            lastCompiled = matcher;
+        }
+
+        return matcher;
+
+    }
+
+    /**
+     * Gets the number of characters in the delimiter.
+     *
+     * @return the character length of the delimiter
+     */
+    public int length() {
+        return characters.length;
+    }
+
+    /**
+     * Gets the number of bytes in the delimiter when it is encoded in UTF-8.
+     *
+     * @return the byte length of the delimiter
+     */
+    public int byteLength() {
+        return bytes.length;
+    }
+
+    /**
+     * Checks whether every character of the delimiter is a single byte character
+     * in UTF-8, so its length is the same in characters and in bytes.
+     *
+     * @return true iff the delimiter is made up of single byte characters,
+     *         otherwise false.
+     */
+    public boolean isSingleByte() {
+        return isSingleByte;
+    }
+
+    /**
+     * Checks whether the delimiter is found in the line starting at position.
+     *
+     * @param line
+     *                 the characters of the line
+     * @param position
+     *                 the index to check, from which the rest of the line is at
+     *                 least as long as the delimiter
+     *
+     * @return true iff the delimiter starts at position, otherwise false.
+     */
+    public boolean matchesAt(CharSequence line, int position) {
+
+        return matchesAt(line, position, characters);
+
+    }
+
+    /**
+     * Checks whether the delimiter is found in the bytes starting at position.
+     *
+     * @param input
+     *                 the UTF-8 encoded bytes of the line
+     * @param position
+     *                 the position to check, from which the rest of the line is
+     *                 at least as long as the delimiter
+     *
+     * @return true iff the delimiter starts at position, otherwise false.
+     */
+    public boolean matchesAt(ByteBuffer input, int position) {
+
+        return matchesAt(input, position, bytes);
+
+    }
+
+    /**
+     * Finds the first delimiter in the line between from and to.
+     *
+     * @param line
+     *             the characters of the line
+     * @param from
+     *             the index to start looking from
+     * @param to
+     *             the index after the last character the delimiter may end on
+     *
+     * @return the index of the first character of the delimiter, or -1 if there
+     *         is none
+     */
+    public int indexIn(CharSequence line, int from, int to) {
+
+        char firstCharacter = characters[0];
+        int last = to - characters.length;
+
+        for (int i = from; i <= last; i++) {
+            if (line.charAt(i) == firstCharacter && matchesAt(line, i)) {
+                return i;
+            }
+        }
+
+        return -1;
+
+    }
+
+    /**
+     * Finds the first delimiter in the bytes between from and to.
+     *
+     * @param input
+     *              the UTF-8 encoded bytes of the line
+     * @param from
+     *              the position to start looking from
+     * @param to
+     *              the position after the last byte the delimiter may end on
+     *
+     * @return the position of the first byte of the delimiter, or -1 if there is
+     *         none
+     */
+    public int indexIn(ByteBuffer input, int from, int to) {
+
+        byte firstByte = bytes[0];
+        int firstByteEnd = to - bytes.length + 1;
+
+        for (int i = ByteScannerUtils.indexOf(input, from, firstByteEnd, firstByte); i >= 0; i = ByteScannerUtils
+                .indexOf(input, i + 1, firstByteEnd, firstByte)) {
+            if (matchesAt(input, i)) {
+                return i;
+            }
+        }
+
+        return -1;
+
+    }
+
+    /**
+     * Counts the delimiters in the bytes between from and to, in the same way as
+     * finding each of them in turn with
+     * {@link DelimiterMatcher#indexIn(ByteBuffer, int, int)}.
+     *
+     * @param input
+     *              the UTF-8 encoded bytes of the line
+     * @param from
+     *              the position to start counting from
+     * @param to
+     *              the position after the last byte a delimiter may end on
+     *
+     * @return the number of delimiters
+     */
+    public int countIn(ByteBuffer input, int from, int to) {
+
+        // A delimiter of a single byte never overlaps itself, so every byte equal to
+        // it is a delimiter
+        if (bytes.length == 1) {
+            return ByteScannerUtils.count(input, from, to, bytes[0]);
+        }
+
+        int delimiterCount = 0;
+        for (int i = indexIn(input, from, to); i >= 0; i = indexIn(input, i + bytes.length, to)) {
+            delimiterCount++;
+        }
+
+        return delimiterCount;
+
+    }
+
+    /**
+     * Skips over the delimiter at the start of a line, if it has one.
+     *
+     * @param line
+     *                  the characters of the line
+     * @param lineStart
+     *                  the index of the first character of the line, which is not
+     *                  a white space
+     * @param lineEnd
+     *                  the index after the last character of the line
+     *
+     * @return the index after the delimiter, or lineStart if the line does not
+     *         start with one
+     */
+    public int skipLeading(CharSequence line, int lineStart, int lineEnd) {
+
+        if (trimmedCharacters.length > 0 && lineEnd - lineStart >= trimmedCharacters.length
+                && matchesAt(line, lineStart, trimmedCharacters)) {
+            return lineStart + trimmedCharacters.length;
+        }
+
+        return lineStart;
+
+    }
+
+    /**
+     * Skips over the delimiter at the start of the bytes of a line, if it has one.
+     *
+     * @param input
+     *                  the UTF-8 encoded bytes of the line
+     * @param lineStart
+     *                  the position of the first byte of the line, which is not a
+     *                  white space
+     * @param lineEnd
+     *                  the position after the last byte of the line
+     *
+     * @return the position after the delimiter, or lineStart if the line does not
+     *         start with one
+     */
+    public int skipLeading(ByteBuffer input, int lineStart, int lineEnd) {
+
+        if (trimmedBytes.length > 0 && lineEnd - lineStart >= trimmedBytes.length
+                && matchesAt(input, lineStart, trimmedBytes)) {
+            return lineStart + trimmedBytes.length;
+        }
+
+        return lineStart;
+
+    }
+
+    /**
+     * Removes every delimiter from the end of a line, dropping the empty entries
+     * after the last non-empty entry.
+     *
+     * @param line
+     *                  the characters of the line
+     * @param lineStart
+     *                  the index of the first character of the line
+     * @param lineEnd
+     *                  the index after the last character of the line, which is
+     *                  not a white space
+     *
+     * @return the index after the last character of the line once its delimiters
+     *         are removed
+     */
+    public int skipTrailing(CharSequence line, int lineStart, int lineEnd) {
+
+        while (trimmedCharacters.length > 0 && lineEnd - lineStart >= trimmedCharacters.length
+                && matchesAt(line, lineEnd - trimmedCharacters.length, trimmedCharacters)) {
+            lineEnd -= trimmedCharacters.length;
+        }
+
+        return lineEnd;
+
+    }
+
+    /**
+     * Removes every delimiter from the end of the bytes of a line, dropping the
+     * empty entries after the last non-empty entry.
+     *
+     * @param input
+     *                  the UTF-8 encoded bytes of the line
+     * @param lineStart
+     *                  the position of the first byte of the line
+     * @param lineEnd
+     *                  the position after the last byte of the line, which is not
+     *                  a white space
+     *
+     * @return the position after the last byte of the line once its delimiters are
+     *         removed
+     */
+    public int skipTrailing(ByteBuffer input, int lineStart, int lineEnd) {
+
+        while (trimmedBytes.length > 0 && lineEnd - lineStart >= trimmedBytes.length
+                && matchesAt(input, lineEnd - trimmedBytes.length, trimmedBytes)) {
+            lineEnd -= trimmedBytes.length;
+        }
+
+        return lineEnd;
+
+    }
+
+    /**
+     * Gets the delimiter itself.
+     *
+     * @return the delimiter
+     */
+    @Override
+    public String toString() {
+
+        return delimiter;
+
+    }
+
+    /*
+     * Checks whether the characters are found in the line starting at position.
+     */
+    private static boolean matchesAt(CharSequence line, int position, char[] characters) {
+
+        for (int i = 0; i < characters.length; i++) {
+            if (line.charAt(position + i) != characters[i]) {
+                return false;
+            }
+        }
+
+        return true;
+
+    }
+
+    /*
+     * Checks whether the bytes are found in the input starting at position.
+     */
+    private static boolean matchesAt(ByteBuffer input, int position, byte[] bytes) {
+
+        for (int i = 0; i < bytes.length; i++) {
+            if (input.get(position + i) != bytes[i]) {
+                return false;
+            }
+        }
+
+        return true;
+
+    }
+
+}
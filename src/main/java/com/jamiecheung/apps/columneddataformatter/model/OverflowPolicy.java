@@ -0,0 +1,30 @@
+package com.jamiecheung.apps.columneddataformatter.model;
+
+/**
+ * The ways of formatting an entry that is longer than the column length
+ * sampled for its column.
+ *
+ * @author JamieCheung
+ *
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The entry is cut short to the column length, and any cells past the sampled
+     * columns are left out, so every line stays aligned.
+     */
+    TRUNCATE,
+
+    /**
+     * The column length grows to fit the entry, and the header is output again
+     * with the new column lengths before the line.
+     */
+    WIDEN,
+
+    /**
+     * The entry is output in full, pushing the rest of its line out of
+     * alignment, while later lines keep the sampled column lengths.
+     */
+    SPILL
+
+}
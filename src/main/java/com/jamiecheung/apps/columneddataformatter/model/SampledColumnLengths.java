@@ -0,0 +1,201 @@
+package com.jamiecheung.apps.columneddataformatter.model;
+
+import java.util.Arrays;
+
+/**
+ * Class representing the column lengths of an input file estimated from a
+ * sample of its rows, so the file can be formatted and written out without
+ * first reading every line. Lines with an entry longer than the sampled length
+ * of its column, or with more cells than the sampled rows, overflow the column
+ * lengths and are formatted according to the {@link OverflowPolicy}.
+ *
+ * <p>
+ * The number of lines formatted and the number of those that overflowed are
+ * counted, so the size of the sample can be tuned.
+ *
+ * @author JamieCheung
+ *
+ */
+public class SampledColumnLengths {
+
+    private final OverflowPolicy overflowPolicy;
+    private final int sampledRows;
+    private int[] columnLengths;
+    private String headerLine;
+    private boolean isWidened;
+    private long rowCount;
+    private long overflowedRowCount;
+
+    /**
+     * Creates a SampledColumnLengths.
+     *
+     * @param columnLengths
+     *                       the length of each column in the sampled rows
+     * @param sampledRows
+     *                       the number of rows sampled
+     * @param overflowPolicy
+     *                       how lines that overflow the column lengths are
+     *                       formatted
+     */
+    public SampledColumnLengths(int[] columnLengths, int sampledRows, OverflowPolicy overflowPolicy) {
+
+        this.columnLengths = columnLengths;
+        this.sampledRows = sampledRows;
+        this.overflowPolicy = overflowPolicy;
+
+    }
+
+    /**
+     * Gets the current length of each column, which grows as lines overflow it
+     * if the overflow policy is {@link OverflowPolicy#WIDEN}.
+     *
+     * @return the length of each column
+     */
+    public int[] getColumnLengths() {
+        return columnLengths;
+    }
+
+    /**
+     * Gets how lines that overflow the column lengths are formatted.
+     *
+     * @return the overflow policy
+     */
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Gets the number of rows the column lengths were sampled from.
+     *
+     * @return the number of rows sampled
+     */
+    public int getSampledRows() {
+        return sampledRows;
+    }
+
+    /**
+     * Gets the first line formatted, which is output again whenever the column
+     * lengths are widened.
+     *
+     * @return the header line, or null if no line has been formatted
+     */
+    public String getHeaderLine() {
+        return headerLine;
+    }
+
+    /**
+     * Gets the number of lines formatted.
+     *
+     * @return the number of lines formatted
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Gets the number of lines formatted that overflowed the column lengths.
+     *
+     * @return the number of lines that overflowed
+     */
+    public long getOverflowedRowCount() {
+        return overflowedRowCount;
+    }
+
+    /**
+     * Sets the first line formatted, which is output again whenever the column
+     * lengths are widened.
+     *
+     * @param headerLine
+     *                   the header line
+     */
+    public void setHeaderLine(String headerLine) {
+        this.headerLine = headerLine;
+    }
+
+    /**
+     * Records a line about to be formatted, given the length of each of its
+     * entries, and gets the column lengths to format it with.
+     *
+     * @param entryLengths
+     *                     the length of each entry in the line, limited to the
+     *                     maximum width of its column
+     *
+     * @return the length of each column to format the line with
+     */
+    public int[] fitRow(int[] entryLengths) {
+
+        rowCount++;
+
+        if (!isOverflowing(entryLengths)) {
+            return columnLengths;
+        }
+
+        overflowedRowCount++;
+
+        switch (overflowPolicy) {
+        case WIDEN:
+            columnLengths = widen(columnLengths, entryLengths);
+            // The header only needs outputting again if it has already been output
+            isWidened = rowCount > 1;
+            return columnLengths;
+        case SPILL:
+            return widen(columnLengths, entryLengths);
+        default:
+            return columnLengths;
+        }
+
+    }
+
+    /**
+     * Checks whether the column lengths were widened by the last line recorded,
+     * so the header needs to be output again before it, and clears the check.
+     *
+     * @return true iff the column lengths were widened by the last line,
+     *         otherwise false.
+     */
+    public boolean takeWidened() {
+
+        boolean wasWidened = isWidened;
+        isWidened = false;
+
+        return wasWidened;
+
+    }
+
+    /*
+     * Checks whether any entry is longer than its column, or the line has more
+     * cells than there are columns.
+     */
+    private boolean isOverflowing(int[] entryLengths) {
+
+        if (entryLengths.length > columnLengths.length) {
+            return true;
+        }
+
+        for (int column = 0; column < entryLengths.length; column++) {
+            if (entryLengths[column] > columnLengths[column]) {
+                return true;
+            }
+        }
+
+        return false;
+
+    }
+
+    /*
+     * Gets the longer of the column length and entry length of each column.
+     */
+    private static int[] widen(int[] columnLengths, int[] entryLengths) {
+
+        int[] widenedColumnLengths = Arrays.copyOf(columnLengths,
+                Math.max(columnLengths.length, entryLengths.length));
+
+        for (int column = 0; column < entryLengths.length; column++) {
+            widenedColumnLengths[column] = Math.max(widenedColumnLengths[column], entryLengths[column]);
+        }
+
+        return widenedColumnLengths;
+
+    }
+
+}
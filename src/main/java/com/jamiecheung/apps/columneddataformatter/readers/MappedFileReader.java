@@ -0,0 +1,305 @@
+package com.jamiecheung.apps.columneddataformatter.readers;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.MAXIMUM_MAPPED_REGION_SIZE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineMetrics;
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineStage;
+import com.jamiecheung.apps.columneddataformatter.utils.ByteTokenizerUtils;
+
+/**
+ * Class for reading the lines of an input file through a read-only memory
+ * mapping of the file. The file is paged in by the operating system as it is
+ * scanned, rather than being read and copied into memory up front.
+ *
+ * <p>
+ * Lines are terminated the same way as
+ * {@link java.io.BufferedReader#readLine()}, by a line feed, a carriage return,
+ * or a carriage return followed by a line feed, and are decoded as UTF-8.
+ *
+ * @author JamieCheung
+ *
+ */
+public class MappedFileReader implements Closeable {
+
+    private FileChannel fileChannel;
+    private long fileSize;
+    private long maximumRegionSize;
+    private long regionStart;
+    private MappedByteBuffer region;
+    private int position;
+    private int lineStart;
+    private int lineEnd;
+    private CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    private CharBuffer lineCharacters = CharBuffer.allocate(0);
+
+    /**
+     * Creates a MappedFileReader over the specified file.
+     *
+     * @param inputFile
+     *                  the file containing the input text
+     *
+     * @throws IOException
+     */
+    public MappedFileReader(String inputFile) throws IOException {
+        this(inputFile, MAXIMUM_MAPPED_REGION_SIZE);
+    }
+
+    /*
+     * Creates a MappedFileReader over the specified file, mapping at most
+     * maximumRegionSize bytes of it at a time. Every line, including its line
+     * terminator, must fit within maximumRegionSize bytes.
+     */
+    MappedFileReader(String inputFile, long maximumRegionSize) throws IOException {
+
+        PipelineMetrics.startStage(PipelineStage.READ);
+
+        try {
+            this.fileChannel = FileChannel.open(Paths.get(inputFile), StandardOpenOption.READ);
+            this.fileSize = fileChannel.size();
+            this.maximumRegionSize = maximumRegionSize;
+            mapRegion(0);
+            PipelineMetrics.setBytesIn(fileSize);
+        } finally {
+            PipelineMetrics.endStage();
+        }
+
+    }
+
+    /**
+     * Moves on to the next line of the file, whose bytes can then be found in
+     * {@link MappedFileReader#getRegion()} between
+     * {@link MappedFileReader#getLineStart()} and
+     * {@link MappedFileReader#getLineEnd()}.
+     *
+     * @return true iff there is a next line, otherwise false
+     *
+     * @throws IOException
+     */
+    public boolean nextLine() throws IOException {
+
+        int lineEnd = findLineEnd();
+
+        // A line, or a carriage return and line feed, that may run past the end of the
+        // mapped region is found again in a region starting at the line
+        if (lineEnd >= region.limit() - 1 && regionStart + region.limit() < fileSize) {
+            mapRegion(regionStart + position);
+            lineEnd = findLineEnd();
+        }
+
+        if (position == region.limit()) {
+            return false;
+        }
+
+        this.lineStart = position;
+        this.lineEnd = lineEnd;
+
+        // Skip over the line terminator
+        position = ByteTokenizerUtils.skipLineTerminator(region, lineEnd, region.limit());
+
+        return true;
+
+    }
+
+    /**
+     * Moves on to the next block of whole lines, starting at the next line of the
+     * file and running up to the last line terminator in the largest region that
+     * can be mapped. The bytes of the block, including its line terminators, can
+     * then be found in {@link MappedFileReader#getRegion()} between
+     * {@link MappedFileReader#getLineStart()} and
+     * {@link MappedFileReader#getLineEnd()}.
+     *
+     * @return true iff there are more lines, otherwise false
+     *
+     * @throws IOException
+     */
+    public boolean nextLines() throws IOException {
+
+        // Map a region starting at the next line, so the block is as large as possible
+        if (position > 0) {
+            mapRegion(regionStart + position);
+        }
+
+        if (position == region.limit()) {
+            return false;
+        }
+
+        int linesEnd = region.limit();
+
+        // Unless the rest of the file has been mapped, end the block after the last
+        // line terminator in the region
+        if (regionStart + region.limit() < fileSize) {
+
+            while (linesEnd > position && !ByteTokenizerUtils.isLineTerminator(region.get(linesEnd - 1))) {
+                linesEnd--;
+            }
+
+            if (linesEnd == position) {
+                linesEnd = region.limit();
+            }
+
+        }
+
+        this.lineStart = position;
+        this.lineEnd = linesEnd;
+        position = linesEnd;
+
+        return true;
+
+    }
+
+    /**
+     * Reads the next line of the file.
+     *
+     * @return the next line, not including its line terminator, or null if the end
+     *         of the file has been reached
+     *
+     * @throws IOException
+     *                     if the line is not valid UTF-8
+     */
+    public String readLine() throws IOException {
+
+        if (!nextLine()) {
+            return null;
+        }
+
+        return getLine();
+
+    }
+
+    /**
+     * Gets the current line of the file.
+     *
+     * @return the current line, not including its line terminator
+     *
+     * @throws IOException
+     *                     if the line is not valid UTF-8
+     */
+    public String getLine() throws IOException {
+        return decodeLine(lineStart, lineEnd);
+    }
+
+    /**
+     * Gets the mapped region of the file containing the current line. The region
+     * is read-only and is only ever read by absolute position, so it stays valid
+     * after the reader moves on to later lines.
+     *
+     * @return the mapped region containing the current line
+     */
+    public ByteBuffer getRegion() {
+        return region;
+    }
+
+    /**
+     * Gets the position in {@link MappedFileReader#getRegion()} of the first byte
+     * of the current line.
+     *
+     * @return the start of the current line
+     */
+    public int getLineStart() {
+        return lineStart;
+    }
+
+    /**
+     * Gets the position in {@link MappedFileReader#getRegion()} after the last
+     * byte of the current line, not including its line terminator.
+     *
+     * @return the end of the current line
+     */
+    public int getLineEnd() {
+        return lineEnd;
+    }
+
+    /**
+     * Moves back to the start of the file, so it can be read again.
+     *
+     * @throws IOException
+     */
+    public void rewind() throws IOException {
+        mapRegion(0);
+    }
+
+    /**
+     * Gets the size of the file in bytes.
+     *
+     * @return the size of the file
+     */
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Releases the file channel backing the mapping.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        fileChannel.close();
+    }
+
+    /*
+     * Maps the region of the file starting at regionStart.
+     */
+    private void mapRegion(long regionStart) throws IOException {
+
+        this.regionStart = regionStart;
+        this.region = fileChannel.map(MapMode.READ_ONLY, regionStart,
+                Math.min(fileSize - regionStart, maximumRegionSize));
+        this.position = 0;
+
+    }
+
+    /*
+     * Finds the position of the line terminator ending the line at the current
+     * position, or the end of the region if there is none.
+     */
+    private int findLineEnd() {
+        return ByteTokenizerUtils.findLineEnd(region, position, region.limit());
+    }
+
+    /*
+     * Decodes the UTF-8 bytes between lineStart and lineEnd into a String,
+     * reporting malformed input in the same way as
+     * java.nio.file.Files#readAllLines.
+     */
+    private String decodeLine(int lineStart, int lineEnd) throws IOException {
+
+        ByteBuffer lineBytes = region.duplicate();
+        ((Buffer) lineBytes).limit(lineEnd);
+        ((Buffer) lineBytes).position(lineStart);
+
+        // A UTF-8 line never decodes into more characters than it has bytes
+        if (lineCharacters.capacity() < lineEnd - lineStart) {
+            lineCharacters = CharBuffer.allocate(lineEnd - lineStart);
+        }
+
+        decoder.reset();
+        ((Buffer) lineCharacters).clear();
+
+        CoderResult result = decoder.decode(lineBytes, lineCharacters, true);
+        if (result.isError()) {
+            result.throwException();
+        }
+        decoder.flush(lineCharacters);
+
+        ((Buffer) lineCharacters).flip();
+
+        return lineCharacters.toString();
+
+    }
+
+}
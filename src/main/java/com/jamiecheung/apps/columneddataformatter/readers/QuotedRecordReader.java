@@ -0,0 +1,466 @@
+package com.jamiecheung.apps.columneddataformatter.readers;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.CARRIAGE_RETURN_BYTE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.LINE_FEED_BYTE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.NEW_LINE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SPACE_CHARACTER;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_QUOTE_NOT_CLOSED;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import com.jamiecheung.apps.columneddataformatter.exceptions.MalformedRecordException;
+import com.jamiecheung.apps.columneddataformatter.model.ColumnedTable;
+import com.jamiecheung.apps.columneddataformatter.model.DelimiterMatcher;
+import com.jamiecheung.apps.columneddataformatter.utils.ByteTokenizerUtils;
+
+/**
+ * Class for splitting quoted input into records, and each record into its
+ * entries, in a single pass over the UTF-8 encoded bytes of the input. The
+ * input is read by a state machine, which looks up the action to take and the
+ * state to move to for each token of the input in a single table.
+ *
+ * <p>
+ * An entry starting with the quote character runs until the next quote
+ * character on its own, so it may contain delimiters and line terminators,
+ * with two quote characters in a row standing for a single quote character.
+ * The escape character, if it is not the quote character, stands for the
+ * character or delimiter after it both inside and outside quoted entries. Each
+ * line terminator inside an entry is replaced by a single space, so every
+ * record is formatted as a single line.
+ *
+ * <p>
+ * Entries outside quotes are split in exactly the same way as
+ * {@link com.jamiecheung.apps.columneddataformatter.utils.FormatInputUtils#formatInputFile(List, String)}
+ * splits them: the white spaces around each entry are removed, blank records
+ * are dropped, each record is treated as starting with a delimiter, and empty
+ * entries after the last non-empty entry are dropped. A quoted entry is never
+ * empty, even if there is nothing between its quotes.
+ *
+ * @author JamieCheung
+ *
+ */
+public class QuotedRecordReader {
+
+    private static final int DEFAULT_ENTRY_CAPACITY = 256;
+
+    /* The classes of token read from the input */
+    private static final byte OTHER = 0;
+    private static final byte WHITE_SPACE = 1;
+    private static final byte DELIMITER = 2;
+    private static final byte QUOTE = 3;
+    private static final byte ESCAPE = 4;
+    private static final byte LINE_END = 5;
+
+    /* The states of the state machine */
+    private static final int ENTRY_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int UNQUOTED_ESCAPE = 2;
+    private static final int QUOTED = 3;
+    private static final int QUOTED_ESCAPE = 4;
+    private static final int QUOTE_IN_QUOTED = 5;
+
+    /* The actions taken on each token */
+    private static final int SKIP = 0;
+    private static final int APPEND = 1;
+    private static final int APPEND_WHITE_SPACE = 2;
+    private static final int APPEND_QUOTED = 3;
+    private static final int OPEN_QUOTE = 4;
+    private static final int END_ENTRY = 5;
+    private static final int END_RECORD = 6;
+
+    private static final int STATE_BITS = 3;
+    private static final int STATE_MASK = (1 << STATE_BITS) - 1;
+
+    /*
+     * The action to take and the state to move to for each state, and each class
+     * of token in the order OTHER, WHITE_SPACE, DELIMITER, QUOTE, ESCAPE and
+     * LINE_END.
+     */
+    private static final int[][] TRANSITIONS = {
+            /* ENTRY_START */
+            { to(APPEND, UNQUOTED), to(SKIP, ENTRY_START), to(END_ENTRY, ENTRY_START), to(OPEN_QUOTE, QUOTED),
+                    to(SKIP, UNQUOTED_ESCAPE), to(END_RECORD, ENTRY_START) },
+            /* UNQUOTED */
+            { to(APPEND, UNQUOTED), to(APPEND_WHITE_SPACE, UNQUOTED), to(END_ENTRY, ENTRY_START),
+                    to(APPEND, UNQUOTED), to(SKIP, UNQUOTED_ESCAPE), to(END_RECORD, ENTRY_START) },
+            /* UNQUOTED_ESCAPE */
+            { to(APPEND_QUOTED, UNQUOTED), to(APPEND_QUOTED, UNQUOTED), to(APPEND_QUOTED, UNQUOTED),
+                    to(APPEND_QUOTED, UNQUOTED), to(APPEND_QUOTED, UNQUOTED), to(APPEND_QUOTED, UNQUOTED) },
+            /* QUOTED */
+            { to(APPEND_QUOTED, QUOTED), to(APPEND_QUOTED, QUOTED), to(APPEND_QUOTED, QUOTED),
+                    to(SKIP, QUOTE_IN_QUOTED), to(SKIP, QUOTED_ESCAPE), to(APPEND_QUOTED, QUOTED) },
+            /* QUOTED_ESCAPE */
+            { to(APPEND_QUOTED, QUOTED), to(APPEND_QUOTED, QUOTED), to(APPEND_QUOTED, QUOTED),
+                    to(APPEND_QUOTED, QUOTED), to(APPEND_QUOTED, QUOTED), to(APPEND_QUOTED, QUOTED) },
+            /* QUOTE_IN_QUOTED */
+            { to(APPEND, UNQUOTED), to(APPEND_WHITE_SPACE, UNQUOTED), to(END_ENTRY, ENTRY_START),
+                    to(APPEND_QUOTED, QUOTED), to(SKIP, UNQUOTED_ESCAPE), to(END_RECORD, ENTRY_START) } };
+
+    private final MappedFileReader reader;
+    private final DelimiterMatcher delimiter;
+    private final byte delimiterFirstByte;
+    private final int delimiterLength;
+    private final boolean isWhiteSpaceDelimiter;
+    private final byte[] tokenClasses = new byte[256];
+    private ByteBuffer input;
+    private int position;
+    private int limit;
+    private int state = ENTRY_START;
+    private int lineNumber = 1;
+    private int quoteLineNumber;
+
+    private byte[] entryBytes = new byte[DEFAULT_ENTRY_CAPACITY];
+    private ByteBuffer entryBuffer = ByteBuffer.wrap(entryBytes);
+    private int entryLength;
+    private int contentLength;
+    private int quotedLength;
+    private int entryInputLength;
+    private boolean isEntryQuoted;
+    private int entryIndex;
+    private int pendingEmptyEntries;
+    private int keptEmptyEntries;
+
+    /**
+     * Creates a QuotedRecordReader over an input file, reading it one block of
+     * lines at a time from the reader.
+     *
+     * @param reader
+     *                        the reader over the file that needs formatting
+     * @param delimiter
+     *                        the characters that form the columns of the data
+     * @param quoteCharacter
+     *                        the character quoted entries start and end with
+     * @param escapeCharacter
+     *                        the character escaping the character after it,
+     *                        which may be the quote character
+     */
+    public QuotedRecordReader(MappedFileReader reader, String delimiter, char quoteCharacter, char escapeCharacter) {
+        this(reader, null, delimiter, quoteCharacter, escapeCharacter);
+    }
+
+    /**
+     * Creates a QuotedRecordReader over lines of input, which are read as if they
+     * were the lines of a file.
+     *
+     * @param linesAsStrings
+     *                        the list of lines that needs formatting
+     * @param delimiter
+     *                        the characters that form the columns of the data
+     * @param quoteCharacter
+     *                        the character quoted entries start and end with
+     * @param escapeCharacter
+     *                        the character escaping the character after it,
+     *                        which may be the quote character
+     */
+    public QuotedRecordReader(List<String> linesAsStrings, String delimiter, char quoteCharacter,
+            char escapeCharacter) {
+
+        this(null, ByteBuffer.wrap(String.join(NEW_LINE, linesAsStrings).getBytes(StandardCharsets.UTF_8)),
+                delimiter, quoteCharacter, escapeCharacter);
+
+    }
+
+    /*
+     * Creates a QuotedRecordReader over either the reader or the input.
+     */
+    private QuotedRecordReader(MappedFileReader reader, ByteBuffer input, String delimiter, char quoteCharacter,
+            char escapeCharacter) {
+
+        this.reader = reader;
+        this.input = input;
+        this.limit = input == null ? 0 : input.limit();
+        this.delimiter = DelimiterMatcher.compile(delimiter);
+        this.delimiterFirstByte = delimiter.getBytes(StandardCharsets.UTF_8)[0];
+        this.delimiterLength = this.delimiter.byteLength();
+        this.isWhiteSpaceDelimiter = delimiter.trim().isEmpty();
+
+        // The delimiter is matched as a whole, so it has no class of its own here
+        for (int character = 0; character <= SPACE_CHARACTER; character++) {
+            tokenClasses[character] = WHITE_SPACE;
+        }
+        tokenClasses[LINE_FEED_BYTE] = LINE_END;
+        tokenClasses[CARRIAGE_RETURN_BYTE] = LINE_END;
+        tokenClasses[escapeCharacter] = ESCAPE;
+        tokenClasses[quoteCharacter] = QUOTE;
+
+    }
+
+    /**
+     * Splits the next non-blank record of the input into its entries, appending
+     * them to the table as a whole row.
+     *
+     * @param table
+     *              the table to append the row to
+     *
+     * @return true iff a row was appended, otherwise false at the end of the
+     *         input
+     *
+     * @throws IOException
+     *                     if an entry is not valid UTF-8, or a quoted entry is
+     *                     not closed by the end of the input
+     */
+    public boolean nextRecord(ColumnedTable table) throws IOException {
+
+        int rowCount = table.getRowCount();
+
+        while (table.getRowCount() == rowCount) {
+
+            if (position == limit && !nextBlock()) {
+
+                if (state == QUOTED || state == QUOTED_ESCAPE) {
+                    throw new MalformedRecordException(String.format(ERROR_MESSAGE_QUOTE_NOT_CLOSED, quoteLineNumber));
+                }
+
+                // The last record need not end with a line terminator
+                endRecord(table);
+
+                return table.getRowCount() > rowCount;
+
+            }
+
+            readToken(table);
+
+        }
+
+        return true;
+
+    }
+
+    /*
+     * Reads the token at the current position, taking the action and moving to
+     * the state given for it by the transition table.
+     */
+    private void readToken(ColumnedTable table) throws IOException {
+
+        byte character = input.get(position);
+        int tokenClass = tokenClasses[character & 0xFF];
+        int tokenLength = 1;
+
+        if (character == delimiterFirstByte && limit - position >= delimiterLength
+                && delimiter.matchesAt(input, position)) {
+
+            // A delimiter of white spaces at the start of a record is removed with them
+            tokenClass = isWhiteSpaceDelimiter && state == ENTRY_START && entryIndex == 0 ? WHITE_SPACE : DELIMITER;
+            tokenLength = delimiterLength;
+
+        } else if (state == ENTRY_START && entryIndex == 0 && tokenClass == OTHER) {
+
+            // The delimiter is also found at the start of a record without its white spaces
+            int leadingEnd = delimiter.skipLeading(input, position, limit);
+
+            if (leadingEnd > position) {
+                tokenClass = DELIMITER;
+                tokenLength = leadingEnd - position;
+            }
+
+        } else if (character == CARRIAGE_RETURN_BYTE && limit - position > 1
+                && input.get(position + 1) == LINE_FEED_BYTE) {
+            tokenLength = 2;
+        }
+
+        int transition = TRANSITIONS[state][tokenClass];
+        int action = transition >>> STATE_BITS;
+        state = transition & STATE_MASK;
+
+        switch (action) {
+        case APPEND:
+            appendToken(tokenClass, tokenLength);
+            contentLength = entryLength;
+            break;
+        case APPEND_WHITE_SPACE:
+            appendToken(tokenClass, tokenLength);
+            break;
+        case APPEND_QUOTED:
+            appendToken(tokenClass, tokenLength);
+            contentLength = entryLength;
+            quotedLength = entryLength;
+            break;
+        case OPEN_QUOTE:
+            isEntryQuoted = true;
+            quoteLineNumber = lineNumber;
+            break;
+        case END_ENTRY:
+            endEntry(table);
+            break;
+        case END_RECORD:
+            endRecord(table);
+            break;
+        default:
+            break;
+        }
+
+        if (action < END_ENTRY) {
+            entryInputLength += tokenLength;
+        }
+
+        if (tokenClass == LINE_END) {
+            lineNumber++;
+        }
+
+        position += tokenLength;
+
+    }
+
+    /*
+     * Appends the token to the entry, with a line terminator appended as a single
+     * space.
+     */
+    private void appendToken(int tokenClass, int tokenLength) {
+
+        if (entryLength + tokenLength > entryBytes.length) {
+            entryBytes = Arrays.copyOf(entryBytes, Math.max(2 * entryBytes.length, entryLength + tokenLength));
+            entryBuffer = ByteBuffer.wrap(entryBytes);
+        }
+
+        if (tokenClass == LINE_END) {
+            entryBytes[entryLength++] = SPACE_CHARACTER;
+            return;
+        }
+
+        for (int i = 0; i < tokenLength; i++) {
+            entryBytes[entryLength++] = input.get(position + i);
+        }
+
+    }
+
+    /*
+     * Ends the current entry at a delimiter. Empty entries are held back until a
+     * non-empty entry follows them, as they are dropped at the end of the record,
+     * and an empty first entry is always dropped.
+     */
+    private void endEntry(ColumnedTable table) throws IOException {
+
+        if (isEmptyEntry()) {
+
+            if (entryIndex > 0) {
+
+                pendingEmptyEntries++;
+
+                // An empty entry of white spaces is kept at the end of the record
+                // if a delimiter follows it
+                if (entryInputLength > 0) {
+                    keptEmptyEntries = pendingEmptyEntries;
+                }
+
+            }
+
+        } else {
+            appendEntry(table, pendingEmptyEntries);
+        }
+
+        entryIndex++;
+        resetEntry();
+
+    }
+
+    /*
+     * Ends the current record at a line terminator, appending it to the table as a
+     * whole row unless it is blank.
+     */
+    private void endRecord(ColumnedTable table) throws IOException {
+
+        // The delimiter is also found at the end of a record without its white spaces
+        int trailingEnd = delimiter.skipTrailing(entryBuffer, quotedLength, contentLength);
+        while (trailingEnd > quotedLength && entryBytes[trailingEnd - 1] >= 0
+                && entryBytes[trailingEnd - 1] <= SPACE_CHARACTER) {
+            trailingEnd--;
+        }
+        contentLength = trailingEnd;
+
+        if (!isEmptyEntry()) {
+            appendEntry(table, pendingEmptyEntries);
+            table.endRow();
+        } else if (entryIndex > 0) {
+            appendEmptyEntries(table, keptEmptyEntries);
+            table.endRow();
+        }
+
+        entryIndex = 0;
+        pendingEmptyEntries = 0;
+        keptEmptyEntries = 0;
+        state = ENTRY_START;
+        resetEntry();
+
+    }
+
+    /*
+     * Appends the empty entries held back before the current entry, followed by
+     * the current entry.
+     */
+    private void appendEntry(ColumnedTable table, int emptyEntries) throws IOException {
+
+        appendEmptyEntries(table, emptyEntries);
+
+        ByteTokenizerUtils.appendEntry(table, entryBuffer, 0, contentLength);
+        table.endCell();
+
+    }
+
+    /*
+     * Appends the empty entries held back, which are no longer held back.
+     */
+    private void appendEmptyEntries(ColumnedTable table, int emptyEntries) {
+
+        for (int i = 0; i < emptyEntries; i++) {
+            table.endCell();
+        }
+
+        pendingEmptyEntries = 0;
+        keptEmptyEntries = 0;
+
+    }
+
+    /*
+     * Checks whether the current entry is empty, i.e. it is not quoted and has
+     * nothing but white spaces in it.
+     */
+    private boolean isEmptyEntry() {
+
+        return !isEntryQuoted && contentLength == 0;
+
+    }
+
+    /*
+     * Starts a new entry.
+     */
+    private void resetEntry() {
+
+        entryLength = 0;
+        contentLength = 0;
+        quotedLength = 0;
+        entryInputLength = 0;
+        isEntryQuoted = false;
+
+    }
+
+    /*
+     * Moves on to the next block of lines of the reader, if there is one.
+     */
+    private boolean nextBlock() throws IOException {
+
+        if (reader == null || !reader.nextLines()) {
+            return false;
+        }
+
+        input = reader.getRegion();
+        position = reader.getLineStart();
+        limit = reader.getLineEnd();
+
+        return true;
+
+    }
+
+    /*
+     * Packs an action and the state to move to into a single transition.
+     */
+    private static int to(int action, int nextState) {
+
+        return action << STATE_BITS | nextState;
+
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.jamiecheung.apps.columneddataformatter.tasks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.RecursiveTask;
+
+import com.jamiecheung.apps.columneddataformatter.model.DelimiterMatcher;
+import com.jamiecheung.apps.columneddataformatter.utils.ByteTokenizerUtils;
+import com.jamiecheung.apps.columneddataformatter.utils.FormatInputUtils;
+
+/**
+ * Fork/join task that gets the longest character count in each column of a
+ * block of lines. Blocks larger than the threshold are split in two at a line
+ * boundary, and the column lengths of each half are merged by taking the larger
+ * length of each column.
+ *
+ * @author JamieCheung
+ *
+ */
+public class ColumnLengthsTask extends RecursiveTask<int[]> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ByteBuffer input;
+    private final int linesStart;
+    private final int linesEnd;
+    private final transient DelimiterMatcher delimiter;
+    private final int threshold;
+
+    /**
+     * Creates a task to get the column lengths of the lines between linesStart and
+     * linesEnd.
+     *
+     * @param input
+     *                      the bytes containing the lines
+     * @param linesStart
+     *                      the position of the first byte of the first line
+     * @param linesEnd
+     *                      the position after the last byte of the last line
+     * @param delimiter
+     *                      the compiled delimiter, made up of single byte
+     *                      characters, that forms the columns of the data
+     * @param threshold
+     *                      the size in bytes at or below which a block of lines
+     *                      is no longer split
+     */
+    public ColumnLengthsTask(ByteBuffer input, int linesStart, int linesEnd, DelimiterMatcher delimiter,
+            int threshold) {
+
+        this.input = input;
+        this.linesStart = linesStart;
+        this.linesEnd = linesEnd;
+        this.delimiter = delimiter;
+        this.threshold = threshold;
+
+    }
+
+    @Override
+    protected int[] compute() {
+
+        if (linesEnd - linesStart <= threshold) {
+            return FormatInputUtils.getColumnLengths(input, linesStart, linesEnd, delimiter);
+        }
+
+        // Split after the line terminator ending the line that runs through the middle
+        int middle = ByteTokenizerUtils.findNextLineStart(input, linesStart + (linesEnd - linesStart) / 2, linesEnd);
+
+        if (middle == linesEnd) {
+            return FormatInputUtils.getColumnLengths(input, linesStart, linesEnd, delimiter);
+        }
+
+        ColumnLengthsTask firstHalf = new ColumnLengthsTask(input, linesStart, middle, delimiter, threshold);
+        ColumnLengthsTask secondHalf = new ColumnLengthsTask(input, middle, linesEnd, delimiter, threshold);
+
+        firstHalf.fork();
+        int[] secondHalfColumnLengths = secondHalf.compute();
+
+        return FormatInputUtils.mergeColumnLengths(firstHalf.join(), secondHalfColumnLengths);
+
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.jamiecheung.apps.columneddataformatter.tasks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+import com.jamiecheung.apps.columneddataformatter.utils.ByteTokenizerUtils;
+import com.jamiecheung.apps.columneddataformatter.utils.FormatInputUtils;
+
+/**
+ * Fork/join task that formats a block of lines, given the lengths of every
+ * column. Blocks larger than the threshold are split in two at a line
+ * boundary, and the formatted lines of the second half are appended to those of
+ * the first, so the lines are always returned in the order they appear in the
+ * input.
+ *
+ * @author JamieCheung
+ *
+ */
+public class FormatLinesTask extends RecursiveTask<List<StringBuilder>> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ByteBuffer input;
+    private final int linesStart;
+    private final int linesEnd;
+    private final String delimiter;
+    private final int[] columnLengths;
+    private final int threshold;
+
+    /**
+     * Creates a task to format the lines between linesStart and linesEnd.
+     *
+     * @param input
+     *                      the bytes containing the lines
+     * @param linesStart
+     *                      the position of the first byte of the first line
+     * @param linesEnd
+     *                      the position after the last byte of the last line
+     * @param delimiter
+     *                      the single byte character that forms the columns of
+     *                      the data
+     * @param columnLengths
+     *                      the length of each column across the whole input
+     * @param threshold
+     *                      the size in bytes at or below which a block of lines
+     *                      is no longer split
+     */
+    public FormatLinesTask(ByteBuffer input, int linesStart, int linesEnd, String delimiter, int[] columnLengths,
+            int threshold) {
+
+        this.input = input;
+        this.linesStart = linesStart;
+        this.linesEnd = linesEnd;
+        this.delimiter = delimiter;
+        this.columnLengths = columnLengths;
+        this.threshold = threshold;
+
+    }
+
+    /**
+     * Formats the block of lines.
+     *
+     * @throws UncheckedIOException
+     *                              wrapping the IOException thrown if an entry
+     *                              is not valid UTF-8
+     */
+    @Override
+    protected List<StringBuilder> compute() {
+
+        // Split after the line terminator ending the line that runs through the middle
+        int middle = linesEnd - linesStart <= threshold ? linesEnd
+                : ByteTokenizerUtils.findNextLineStart(input, linesStart + (linesEnd - linesStart) / 2, linesEnd);
+
+        if (middle == linesEnd) {
+
+            try {
+                return FormatInputUtils.formatLines(input, linesStart, linesEnd, delimiter, columnLengths);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+        }
+
+        FormatLinesTask firstHalf = new FormatLinesTask(input, linesStart, middle, delimiter, columnLengths,
+                threshold);
+        FormatLinesTask secondHalf = new FormatLinesTask(input, middle, linesEnd, delimiter, columnLengths,
+                threshold);
+
+        firstHalf.fork();
+        List<StringBuilder> secondHalfLines = secondHalf.compute();
+        List<StringBuilder> lines = firstHalf.join();
+
+        lines.addAll(secondHalfLines);
+
+        return lines;
+
+    }
+
+}
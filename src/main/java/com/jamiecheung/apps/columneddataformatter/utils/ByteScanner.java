@@ -0,0 +1,199 @@
+package com.jamiecheung.apps.columneddataformatter.utils;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.CARRIAGE_RETURN_BYTE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.LINE_FEED_BYTE;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Finds and counts single bytes, such as delimiters and line terminators, in
+ * input eight bytes at a time. Each eight bytes are read as a single long, and
+ * the bytes in it equal to the byte searched for are found at once with SIMD
+ * within a register (SWAR) bit operations, so only the bytes at the start and
+ * end of the input are ever compared one at a time. This scanner runs on every
+ * Java version, and is the one used when {@link ByteScanners} has no faster
+ * scanner for the running JVM.
+ *
+ * <p>
+ * A byte of the long is matched by XORing the long with the byte repeated eight
+ * times, which leaves a zero byte wherever the bytes are equal. The zero bytes
+ * are then marked without carrying from one byte into the next, so every
+ * marked byte is a match, and the first one can be found from the leading or
+ * trailing zeros of the long, depending on the byte order of the input.
+ *
+ * @author JamieCheung
+ *
+ */
+class ByteScanner {
+
+    private static final String NAME = "scalar, %d bytes at a time";
+    private static final int BYTES_PER_WORD = Long.BYTES;
+    private static final long LOW_BYTES = 0x0101010101010101L;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long LINE_FEEDS = repeat(LINE_FEED_BYTE);
+    private static final long CARRIAGE_RETURNS = repeat(CARRIAGE_RETURN_BYTE);
+
+    /**
+     * Gets the name of the scanner, as reported by
+     * {@link ByteScannerUtils#getScannerName()}.
+     *
+     * @return the name of the scanner, including the number of bytes it compares
+     *         at a time
+     */
+    String getName() {
+
+        return String.format(NAME, BYTES_PER_WORD);
+
+    }
+
+    /**
+     * Finds the first position of a byte in the input between from and to.
+     *
+     * @param input
+     *               the bytes to search
+     * @param from
+     *               the position to start searching from
+     * @param to
+     *               the position after the last byte to search
+     * @param target
+     *               the byte to find
+     *
+     * @return the position of the first byte equal to target, or -1 if there is
+     *         none
+     */
+    int indexOf(ByteBuffer input, int from, int to, byte target) {
+
+        long targets = repeat(target);
+        boolean isBigEndian = input.order() == ByteOrder.BIG_ENDIAN;
+        int i = from;
+
+        for (; i <= to - BYTES_PER_WORD; i += BYTES_PER_WORD) {
+
+            long matches = markZeroBytes(input.getLong(i) ^ targets);
+
+            if (matches != 0) {
+                return i + getFirstMarkedByte(matches, isBigEndian);
+            }
+
+        }
+
+        for (; i < to; i++) {
+            if (input.get(i) == target) {
+                return i;
+            }
+        }
+
+        return -1;
+
+    }
+
+    /**
+     * Finds the first line feed or carriage return in the input between from and
+     * to.
+     *
+     * @param input
+     *              the bytes to search
+     * @param from
+     *              the position to start searching from
+     * @param to
+     *              the position after the last byte to search
+     *
+     * @return the position of the first line terminator, or -1 if there is none
+     */
+    int indexOfLineTerminator(ByteBuffer input, int from, int to) {
+
+        boolean isBigEndian = input.order() == ByteOrder.BIG_ENDIAN;
+        int i = from;
+
+        for (; i <= to - BYTES_PER_WORD; i += BYTES_PER_WORD) {
+
+            long word = input.getLong(i);
+            long matches = markZeroBytes(word ^ LINE_FEEDS) | markZeroBytes(word ^ CARRIAGE_RETURNS);
+
+            if (matches != 0) {
+                return i + getFirstMarkedByte(matches, isBigEndian);
+            }
+
+        }
+
+        for (; i < to; i++) {
+
+            byte character = input.get(i);
+
+            if (character == LINE_FEED_BYTE || character == CARRIAGE_RETURN_BYTE) {
+                return i;
+            }
+
+        }
+
+        return -1;
+
+    }
+
+    /**
+     * Counts the bytes in the input between from and to that are equal to a byte.
+     *
+     * @param input
+     *               the bytes to search
+     * @param from
+     *               the position to start counting from
+     * @param to
+     *               the position after the last byte to count
+     * @param target
+     *               the byte to count
+     *
+     * @return the number of bytes equal to target
+     */
+    int count(ByteBuffer input, int from, int to, byte target) {
+
+        long targets = repeat(target);
+        int count = 0;
+        int i = from;
+
+        for (; i <= to - BYTES_PER_WORD; i += BYTES_PER_WORD) {
+            count += Long.bitCount(markZeroBytes(input.getLong(i) ^ targets));
+        }
+
+        for (; i < to; i++) {
+            if (input.get(i) == target) {
+                count++;
+            }
+        }
+
+        return count;
+
+    }
+
+    /*
+     * Repeats the byte in every byte of a long.
+     */
+    private static long repeat(byte value) {
+
+        return (value & 0xFFL) * LOW_BYTES;
+
+    }
+
+    /*
+     * Marks every zero byte of the word by setting its highest bit, leaving every
+     * other bit clear. Adding 0x7F to the low seven bits of a byte never carries
+     * into the next byte, and only sets the highest bit if any of them are set.
+     */
+    private static long markZeroBytes(long word) {
+
+        return ~((word & LOW_SEVEN_BITS) + LOW_SEVEN_BITS | word | LOW_SEVEN_BITS);
+
+    }
+
+    /*
+     * Gets the index of the first marked byte of the word in the input, where the
+     * first byte is the most significant byte of a big-endian word and the least
+     * significant byte of a little-endian word.
+     */
+    private static int getFirstMarkedByte(long matches, boolean isBigEndian) {
+
+        return (isBigEndian ? Long.numberOfLeadingZeros(matches) : Long.numberOfTrailingZeros(matches)) >>> 3;
+
+    }
+
+}
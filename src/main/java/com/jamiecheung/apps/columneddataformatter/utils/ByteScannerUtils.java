@@ -0,0 +1,112 @@
+package com.jamiecheung.apps.columneddataformatter.utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Utility class for finding and counting single bytes, such as delimiters and
+ * line terminators, in input many bytes at a time. The bytes are compared by
+ * the fastest {@link ByteScanner} the running JVM supports: on Java 21 or later
+ * with the {@code jdk.incubator.vector} module added, a scanner comparing 32 or
+ * 64 bytes at a time with the Vector API, otherwise the portable scanner
+ * comparing eight bytes at a time within a long. Every scanner finds exactly
+ * the same bytes, so the scalar scanner can be forced with
+ * {@link ByteScannerUtils#setScalarScanning(boolean)} without changing any
+ * output.
+ *
+ * @author JamieCheung
+ *
+ */
+public class ByteScannerUtils {
+
+    private static final ByteScanner SCALAR_SCANNER = new ByteScanner();
+    private static final ByteScanner FASTEST_SCANNER = ByteScanners.getFastestScanner();
+
+    private static volatile ByteScanner scanner = FASTEST_SCANNER;
+
+    /**
+     * Sets whether bytes are always compared by the portable scalar scanner, even
+     * if the running JVM supports a faster one.
+     *
+     * @param isScalarScanning
+     *                         true to force the scalar scanner, false to use the
+     *                         fastest scanner the running JVM supports
+     */
+    public static void setScalarScanning(boolean isScalarScanning) {
+
+        scanner = isScalarScanning ? SCALAR_SCANNER : FASTEST_SCANNER;
+
+    }
+
+    /**
+     * Gets the name of the scanner comparing the bytes, for example
+     * {@code "scalar, 8 bytes at a time"}.
+     *
+     * @return the name of the scanner in use
+     */
+    public static String getScannerName() {
+
+        return scanner.getName();
+
+    }
+
+    /**
+     * Finds the first position of a byte in the input between from and to.
+     *
+     * @param input
+     *               the bytes to search
+     * @param from
+     *               the position to start searching from
+     * @param to
+     *               the position after the last byte to search
+     * @param target
+     *               the byte to find
+     *
+     * @return the position of the first byte equal to target, or -1 if there is
+     *         none
+     */
+    public static int indexOf(ByteBuffer input, int from, int to, byte target) {
+
+        return scanner.indexOf(input, from, to, target);
+
+    }
+
+    /**
+     * Finds the first line feed or carriage return in the input between from and
+     * to.
+     *
+     * @param input
+     *              the bytes to search
+     * @param from
+     *              the position to start searching from
+     * @param to
+     *              the position after the last byte to search
+     *
+     * @return the position of the first line terminator, or -1 if there is none
+     */
+    public static int indexOfLineTerminator(ByteBuffer input, int from, int to) {
+
+        return scanner.indexOfLineTerminator(input, from, to);
+
+    }
+
+    /**
+     * Counts the bytes in the input between from and to that are equal to a byte.
+     *
+     * @param input
+     *               the bytes to search
+     * @param from
+     *               the position to start counting from
+     * @param to
+     *               the position after the last byte to count
+     * @param target
+     *               the byte to count
+     *
+     * @return the number of bytes equal to target
+     */
+    public static int count(ByteBuffer input, int from, int to, byte target) {
+
+        return scanner.count(input, from, to, target);
+
+    }
+
+}
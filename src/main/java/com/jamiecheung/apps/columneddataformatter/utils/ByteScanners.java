@@ -0,0 +1,26 @@
+package com.jamiecheung.apps.columneddataformatter.utils;
+
+/**
+ * Chooses the fastest {@link ByteScanner} the running JVM supports. This is the
+ * portable version of the class, which always chooses the scalar scanner. The
+ * multi-release jar also contains a version of the class for Java 21 or later
+ * in {@code META-INF/versions/21}, which chooses a scanner using the Vector API
+ * whenever the {@code jdk.incubator.vector} module is available.
+ *
+ * @author JamieCheung
+ *
+ */
+class ByteScanners {
+
+    /**
+     * Gets the fastest scanner the running JVM supports.
+     *
+     * @return the scalar scanner
+     */
+    static ByteScanner getFastestScanner() {
+
+        return new ByteScanner();
+
+    }
+
+}
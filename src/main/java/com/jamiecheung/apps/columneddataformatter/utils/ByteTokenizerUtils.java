@@ -0,0 +1,345 @@
+package com.jamiecheung.apps.columneddataformatter.utils;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.CARRIAGE_RETURN_BYTE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.LINE_FEED_BYTE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SPACE_CHARACTER;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.jamiecheung.apps.columneddataformatter.model.ColumnedTable;
+import com.jamiecheung.apps.columneddataformatter.model.DelimiterMatcher;
+
+/**
+ * Utility class for tokenizing lines of UTF-8 encoded input directly from their
+ * bytes. Delimiters and the white spaces around each entry are always made up
+ * of single byte characters, so they can be found without decoding the line.
+ * Only the entries themselves are ever decoded.
+ *
+ * @author JamieCheung
+ *
+ */
+public class ByteTokenizerUtils {
+
+    /**
+     * Checks whether the delimiter can be found in the bytes of the input without
+     * decoding it, i.e. every character of it is a single byte character in
+     * UTF-8.
+     *
+     * @param delimiter
+     *                  the characters that form the columns of the data
+     *
+     * @return true iff the delimiter is made up of single byte characters,
+     *         otherwise false.
+     */
+    public static boolean isSingleByteDelimiter(String delimiter) {
+
+        return DelimiterMatcher.compile(delimiter).isSingleByte();
+
+    }
+
+    /**
+     * Finds the position of the line terminator ending the line that starts at
+     * position.
+     *
+     * @param input
+     *                 the bytes containing the line
+     * @param position
+     *                 the position of the first byte of the line
+     * @param limit
+     *                 the position after the last byte that may be read
+     *
+     * @return the position of the line terminator, or limit if there is none
+     */
+    public static int findLineEnd(ByteBuffer input, int position, int limit) {
+
+        int lineEnd = ByteScannerUtils.indexOfLineTerminator(input, position, limit);
+
+        return lineEnd < 0 ? limit : lineEnd;
+
+    }
+
+    /**
+     * Skips over the line terminator at position, treating a carriage return
+     * followed by a line feed as a single line terminator.
+     *
+     * @param input
+     *                 the bytes containing the line terminator
+     * @param position
+     *                 the position of the line terminator, as returned by
+     *                 {@link ByteTokenizerUtils#findLineEnd(ByteBuffer, int, int)}
+     * @param limit
+     *                 the position after the last byte that may be read
+     *
+     * @return the position of the first byte of the next line
+     */
+    public static int skipLineTerminator(ByteBuffer input, int position, int limit) {
+
+        if (position < limit) {
+
+            byte lineTerminator = input.get(position++);
+
+            if (lineTerminator == CARRIAGE_RETURN_BYTE && position < limit && input.get(position) == LINE_FEED_BYTE) {
+                position++;
+            }
+
+        }
+
+        return position;
+
+    }
+
+    /**
+     * Finds the start of the line after the line running through position, e.g.
+     * to split a block of lines in two at a line boundary.
+     *
+     * @param input
+     *                 the bytes containing the lines
+     * @param position
+     *                 any position within a line
+     * @param limit
+     *                 the position after the last byte that may be read
+     *
+     * @return the position of the first byte of the next line, or limit if there
+     *         is none
+     */
+    public static int findNextLineStart(ByteBuffer input, int position, int limit) {
+
+        return skipLineTerminator(input, findLineEnd(input, position, limit), limit);
+
+    }
+
+    /**
+     * Checks whether the byte is a line feed or a carriage return.
+     *
+     * @param character
+     *                  the byte to check
+     *
+     * @return true iff the byte terminates a line, otherwise false.
+     */
+    public static boolean isLineTerminator(byte character) {
+
+        return character == LINE_FEED_BYTE || character == CARRIAGE_RETURN_BYTE;
+
+    }
+
+    /**
+     * Checks whether a line is made up of white spaces only, so it is not part of
+     * the formatted contents, without tokenizing it.
+     *
+     * @param input
+     *                  the bytes containing the line
+     * @param lineStart
+     *                  the position of the first byte of the line
+     * @param lineEnd
+     *                  the position after the last byte of the line
+     *
+     * @return true iff the line is blank, otherwise false.
+     */
+    public static boolean isBlankLine(ByteBuffer input, int lineStart, int lineEnd) {
+
+        for (int position = lineStart; position < lineEnd; position++) {
+            if (!isWhiteSpace(input.get(position))) {
+                return false;
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Finds the start and end positions of every entry in the line, with white
+     * spaces before and after each entry excluded. Lines are split in exactly the
+     * same way as {@link FormatInputUtils#formatInputFile(java.util.List, String)}
+     * splits them.
+     *
+     * @param input
+     *                  the bytes containing the line
+     * @param lineStart
+     *                  the position of the first byte of the line
+     * @param lineEnd
+     *                  the position after the last byte of the line
+     * @param delimiter
+     *                  the compiled delimiter that forms the columns of the data
+     *
+     * @return the start and end positions in input of each entry, stored in
+     *         pairs, or null if the line is blank
+     */
+    public static int[] tokenizeLine(ByteBuffer input, int lineStart, int lineEnd, DelimiterMatcher delimiter) {
+
+        // Ignore white spaces before first and after last non-space character
+        while (lineStart < lineEnd && isWhiteSpace(input.get(lineStart))) {
+            lineStart++;
+        }
+        while (lineEnd > lineStart && isWhiteSpace(input.get(lineEnd - 1))) {
+            lineEnd--;
+        }
+
+        if (lineStart == lineEnd) {
+            return null;
+        }
+
+        // The line is treated as starting with a delimiter whether or not it has one,
+        // and empty entries after the last non-empty entry are dropped
+        lineStart = delimiter.skipLeading(input, lineStart, lineEnd);
+        lineEnd = delimiter.skipTrailing(input, lineStart, lineEnd);
+
+        if (lineStart == lineEnd) {
+            return new int[0];
+        }
+
+        int delimiterLength = delimiter.byteLength();
+        int delimiterCount = delimiter.countIn(input, lineStart, lineEnd);
+
+        int[] boundaries = new int[2 * (delimiterCount + 1)];
+        int cellStart = lineStart;
+
+        for (int cell = 0; cell <= delimiterCount; cell++) {
+
+            int cellEnd = cell < delimiterCount ? delimiter.indexIn(input, cellStart, lineEnd) : lineEnd;
+
+            // Remove white spaces before and after each entry
+            int start = cellStart;
+            int end = cellEnd;
+            while (start < end && isWhiteSpace(input.get(start))) {
+                start++;
+            }
+            while (end > start && isWhiteSpace(input.get(end - 1))) {
+                end--;
+            }
+
+            boundaries[2 * cell] = start;
+            boundaries[2 * cell + 1] = end;
+            cellStart = cellEnd + delimiterLength;
+
+        }
+
+        return boundaries;
+
+    }
+
+    /**
+     * Appends an entry to the line being formatted. Entries made up of single byte
+     * characters are copied across without being decoded.
+     *
+     * @param formattedLine
+     *                      the line being formatted
+     * @param input
+     *                      the bytes containing the entry
+     * @param start
+     *                      the position of the first byte of the entry
+     * @param end
+     *                      the position after the last byte of the entry
+     *
+     * @throws IOException
+     *                     if the entry is not valid UTF-8
+     */
+    public static void appendEntry(StringBuilder formattedLine, ByteBuffer input, int start, int end)
+            throws IOException {
+
+        for (int i = start; i < end; i++) {
+
+            byte character = input.get(i);
+
+            if (character < 0) {
+                formattedLine.append(decode(input, i, end));
+                return;
+            }
+
+            formattedLine.append((char) character);
+
+        }
+
+    }
+
+    /**
+     * Appends a line tokenized from its bytes to the table as a whole row. Entries
+     * made up of single byte characters are copied across without being decoded.
+     *
+     * @param table
+     *                   the table to append the row to
+     * @param input
+     *                   the bytes containing the line
+     * @param boundaries
+     *                   the start and end positions in input of each entry, as
+     *                   returned by
+     *                   {@link ByteTokenizerUtils#tokenizeLine(ByteBuffer, int, int, DelimiterMatcher)}
+     *
+     * @throws IOException
+     *                     if an entry is not valid UTF-8
+     */
+    public static void appendRow(ColumnedTable table, ByteBuffer input, int[] boundaries) throws IOException {
+
+        for (int cell = 0; cell < boundaries.length; cell += 2) {
+            appendEntry(table, input, boundaries[cell], boundaries[cell + 1]);
+            table.endCell();
+        }
+
+        table.endRow();
+
+    }
+
+    /**
+     * Appends an entry to the cell of the table currently being built. Entries
+     * made up of single byte characters are copied across without being decoded.
+     *
+     * @param table
+     *              the table to append the entry to
+     * @param input
+     *              the bytes containing the entry
+     * @param start
+     *              the position of the first byte of the entry
+     * @param end
+     *              the position after the last byte of the entry
+     *
+     * @throws IOException
+     *                     if the entry is not valid UTF-8
+     */
+    public static void appendEntry(ColumnedTable table, ByteBuffer input, int start, int end) throws IOException {
+
+        for (int i = start; i < end; i++) {
+
+            byte character = input.get(i);
+
+            if (character < 0) {
+                CharBuffer remainingEntry = decode(input, i, end);
+                table.appendCharacters(remainingEntry, 0, remainingEntry.length());
+                return;
+            }
+
+            table.appendCharacter((char) character);
+
+        }
+
+    }
+
+    /*
+     * Checks whether the byte is a white space character, as removed by
+     * String#trim. The bytes of multi-byte characters are all negative, so are
+     * never white space.
+     */
+    private static boolean isWhiteSpace(byte character) {
+
+        return character >= 0 && character <= SPACE_CHARACTER;
+
+    }
+
+    /*
+     * Decodes the UTF-8 bytes between start and end, reporting malformed input in
+     * the same way as java.nio.file.Files#readAllLines.
+     */
+    private static CharBuffer decode(ByteBuffer input, int start, int end) throws IOException {
+
+        ByteBuffer entryBytes = input.duplicate();
+        ((Buffer) entryBytes).limit(end);
+        ((Buffer) entryBytes).position(start);
+
+        return StandardCharsets.UTF_8.newDecoder().decode(entryBytes);
+
+    }
+
+}
@@ -0,0 +1,339 @@
+package com.jamiecheung.apps.columneddataformatter.utils;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DAEMON_STATUS_ERROR;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DAEMON_STATUS_OK;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DAEMON_TOKEN_FILE_NAME;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DAEMON_TOKEN_FILE_PERMISSIONS;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DAEMON_TOKEN_LENGTH;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.MAXIMUM_DAEMON_STRING_LENGTH;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.POSIX_FILE_ATTRIBUTE_VIEW;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_DAEMON_INVALID_MESSAGE;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_DAEMON_STRING_TOO_LONG;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_DAEMON_TOKEN_NOT_FOUND;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_DAEMON_UNAUTHORISED;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import com.jamiecheung.apps.columneddataformatter.exceptions.DaemonRequestException;
+
+/**
+ * Utility class for the messages sent to and from the
+ * {@link com.jamiecheung.apps.columneddataformatter.daemon.FormatterDaemon
+ * FormatterDaemon}. Every String is sent as its length in UTF-8 bytes followed
+ * by the bytes themselves, and no String may be longer than
+ * {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#MAXIMUM_DAEMON_STRING_LENGTH
+ * MAXIMUM_DAEMON_STRING_LENGTH} bytes, so a message cannot make either side
+ * allocate more than that for a single String.
+ *
+ * <p>
+ * A request is four Strings: the token of the formatter daemon, the delimiter,
+ * the input file or input String, and the result directory. The token is a
+ * random String the formatter daemon writes to a file only the user running it
+ * can read, so only that user can send it requests, even though any local user
+ * can connect to the loopback address. A response is a status, followed by the number of
+ * formatted lines and each formatted line if the status is
+ * {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#DAEMON_STATUS_OK
+ * DAEMON_STATUS_OK}, or by an error message otherwise.
+ *
+ * @author JamieCheung
+ *
+ */
+public class DaemonProtocolUtils {
+
+    /**
+     * Gets the default token file of the formatter daemon listening on a port, in
+     * the home directory of the user.
+     *
+     * @param port
+     *             the port the formatter daemon listens on
+     *
+     * @return the path of the token file
+     */
+    public static Path getDefaultTokenFile(int port) {
+
+        return Paths.get(System.getProperty("user.home"), String.format(DAEMON_TOKEN_FILE_NAME, port));
+
+    }
+
+    /**
+     * Creates a new random token, and writes it to the token file. On file systems
+     * with POSIX permissions, the token file is created readable and writable by
+     * its owner only. Any token file left behind by an earlier formatter daemon is
+     * replaced.
+     *
+     * @param tokenFile
+     *                  the path of the token file
+     *
+     * @return the token
+     *
+     * @throws IOException
+     *                     if the token file cannot be created, e.g. because
+     *                     another process created it at the same time
+     */
+    public static String createTokenFile(Path tokenFile) throws IOException {
+
+        byte[] tokenBytes = new byte[DAEMON_TOKEN_LENGTH];
+        new SecureRandom().nextBytes(tokenBytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes);
+
+        // Create the file afresh with its permissions, so the token is never readable
+        // by anyone else, even for a moment
+        Files.deleteIfExists(tokenFile);
+
+        if (tokenFile.getFileSystem().supportedFileAttributeViews().contains(POSIX_FILE_ATTRIBUTE_VIEW)) {
+            Files.createFile(tokenFile, PosixFilePermissions
+                    .asFileAttribute(PosixFilePermissions.fromString(DAEMON_TOKEN_FILE_PERMISSIONS)));
+        } else {
+            Files.createFile(tokenFile);
+        }
+
+        Files.write(tokenFile, token.getBytes(StandardCharsets.UTF_8));
+
+        return token;
+
+    }
+
+    /**
+     * Reads the token from the token file written by the formatter daemon.
+     *
+     * @param tokenFile
+     *                  the path of the token file
+     *
+     * @return the token
+     *
+     * @throws DaemonRequestException
+     *                                if there is no token file
+     * @throws IOException
+     */
+    public static String readTokenFile(Path tokenFile) throws IOException {
+
+        if (!Files.isRegularFile(tokenFile)) {
+            throw new DaemonRequestException(String.format(ERROR_MESSAGE_DAEMON_TOKEN_NOT_FOUND, tokenFile));
+        }
+
+        return new String(Files.readAllBytes(tokenFile), StandardCharsets.UTF_8).trim();
+
+    }
+
+    /**
+     * Writes a request to format some contents.
+     *
+     * @param output
+     *                        the stream to the formatter daemon
+     * @param token
+     *                        the token of the formatter daemon
+     * @param delimiter
+     *                        the character that forms the columns of the data
+     * @param contents
+     *                        the input file or input String to be formatted
+     * @param resultDirectory
+     *                        the folder to create the resulting file in, or an
+     *                        empty String for no resulting file
+     *
+     * @throws DaemonRequestException
+     *                                if a String is too long to be sent
+     * @throws IOException
+     */
+    public static void writeRequest(DataOutputStream output, String token, String delimiter, String contents,
+            String resultDirectory) throws IOException {
+
+        writeString(output, token);
+        writeString(output, delimiter);
+        writeString(output, contents);
+        writeString(output, resultDirectory);
+        output.flush();
+
+    }
+
+    /**
+     * Reads a request to format some contents, checking it sends the token of the
+     * formatter daemon before reading the rest of it.
+     *
+     * @param input
+     *              the stream from the client
+     * @param token
+     *              the token of the formatter daemon
+     *
+     * @return the delimiter, input file or input String, and result directory of
+     *         the request
+     *
+     * @throws DaemonRequestException
+     *                                if the request does not send the token, or a
+     *                                String of the request is not valid
+     * @throws IOException
+     */
+    public static String[] readRequest(DataInputStream input, String token) throws IOException {
+
+        byte[] tokenBytes = token.getBytes(StandardCharsets.UTF_8);
+
+        if (input.readInt() != tokenBytes.length) {
+            throw new DaemonRequestException(ERROR_MESSAGE_DAEMON_UNAUTHORISED);
+        }
+
+        byte[] requestTokenBytes = new byte[tokenBytes.length];
+        input.readFully(requestTokenBytes);
+
+        // Compare in constant time, so the token cannot be guessed from how long each
+        // request takes to be rejected
+        if (!MessageDigest.isEqual(tokenBytes, requestTokenBytes)) {
+            throw new DaemonRequestException(ERROR_MESSAGE_DAEMON_UNAUTHORISED);
+        }
+
+        return new String[] { readString(input), readString(input), readString(input) };
+
+    }
+
+    /**
+     * Writes the formatted lines in response to a request.
+     *
+     * @param output
+     *                              the stream to the client
+     * @param linesAsStringBuilders
+     *                              the formatted lines
+     *
+     * @throws DaemonRequestException
+     *                                if a formatted line is too long to be sent,
+     *                                in which case nothing is written
+     * @throws IOException
+     */
+    public static void writeResponse(DataOutputStream output, List<StringBuilder> linesAsStringBuilders)
+            throws IOException {
+
+        // Check every line before writing any of them, so the error can still be sent
+        // in place of the response
+        for (StringBuilder line : linesAsStringBuilders) {
+            checkLength(line);
+        }
+
+        output.writeInt(DAEMON_STATUS_OK);
+        output.writeInt(linesAsStringBuilders.size());
+
+        for (StringBuilder line : linesAsStringBuilders) {
+            writeString(output, line.toString());
+        }
+
+        output.flush();
+
+    }
+
+    /**
+     * Writes an error in response to a request.
+     *
+     * @param output
+     *                     the stream to the client
+     * @param errorMessage
+     *                     the reason the request could not be formatted
+     *
+     * @throws IOException
+     */
+    public static void writeErrorResponse(DataOutputStream output, String errorMessage) throws IOException {
+
+        output.writeInt(DAEMON_STATUS_ERROR);
+        writeString(output, String.valueOf(errorMessage));
+        output.flush();
+
+    }
+
+    /**
+     * Reads the response to a request.
+     *
+     * @param input
+     *              the stream from the formatter daemon
+     *
+     * @return the formatted lines
+     *
+     * @throws DaemonRequestException
+     *                                if the formatter daemon could not format the
+     *                                request
+     * @throws IOException
+     */
+    public static List<StringBuilder> readResponse(DataInputStream input) throws IOException {
+
+        int status = input.readInt();
+
+        if (status == DAEMON_STATUS_ERROR) {
+            throw new DaemonRequestException(readString(input));
+        } else if (status != DAEMON_STATUS_OK) {
+            throw new DaemonRequestException(ERROR_MESSAGE_DAEMON_INVALID_MESSAGE);
+        }
+
+        int lineCount = input.readInt();
+
+        if (lineCount < 0) {
+            throw new DaemonRequestException(ERROR_MESSAGE_DAEMON_INVALID_MESSAGE);
+        }
+
+        List<StringBuilder> linesAsStringBuilders = new ArrayList<>(lineCount);
+
+        for (int i = 0; i < lineCount; i++) {
+            linesAsStringBuilders.add(new StringBuilder(readString(input)));
+        }
+
+        return linesAsStringBuilders;
+
+    }
+
+    /*
+     * Writes the String as its length in UTF-8 bytes followed by the bytes.
+     */
+    private static void writeString(DataOutputStream output, String string) throws IOException {
+
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+        if (bytes.length > MAXIMUM_DAEMON_STRING_LENGTH) {
+            throw new DaemonRequestException(String.format(ERROR_MESSAGE_DAEMON_STRING_TOO_LONG,
+                    MAXIMUM_DAEMON_STRING_LENGTH));
+        }
+
+        output.writeInt(bytes.length);
+        output.write(bytes);
+
+    }
+
+    /*
+     * Checks the String is not too long to be written by writeString. Only Strings
+     * long enough to possibly be too long are encoded, as each character takes up
+     * at most three bytes.
+     */
+    private static void checkLength(CharSequence string) throws DaemonRequestException {
+
+        if (string.length() > MAXIMUM_DAEMON_STRING_LENGTH / 3
+                && string.toString().getBytes(StandardCharsets.UTF_8).length > MAXIMUM_DAEMON_STRING_LENGTH) {
+            throw new DaemonRequestException(String.format(ERROR_MESSAGE_DAEMON_STRING_TOO_LONG,
+                    MAXIMUM_DAEMON_STRING_LENGTH));
+        }
+
+    }
+
+    /*
+     * Reads a String written by writeString.
+     */
+    private static String readString(DataInputStream input) throws IOException {
+
+        int length = input.readInt();
+
+        // Check the length before allocating for it, as it comes from the other side
+        if (length < 0 || length > MAXIMUM_DAEMON_STRING_LENGTH) {
+            throw new DaemonRequestException(ERROR_MESSAGE_DAEMON_INVALID_MESSAGE);
+        }
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+
+    }
+
+}
@@ -0,0 +1,294 @@
+package com.jamiecheung.apps.columneddataformatter.utils;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Utility class for measuring text by the number of columns it takes up in a
+ * terminal, rather than by its number of chars. East Asian wide and full-width
+ * characters take up two columns, combining and other zero width characters
+ * take up none, and every other character, including a surrogate pair, takes
+ * up one.
+ *
+ * <p>
+ * The width of every code point is looked up in a table loaded once, the first
+ * time a character outside of ASCII is measured. The table is split into
+ * blocks of 256 code points with two bits per code point, and blocks that are
+ * the same are only stored once, so the whole table takes up a few kilobytes.
+ * It is generated ahead of time from Unicode 15 by DisplayWidthTableGenerator,
+ * so widths are the same on every JDK. ASCII characters are always one column
+ * wide, and are measured without the table.
+ *
+ * @author JamieCheung
+ *
+ */
+public class DisplayWidthUtils {
+
+    private static final int ASCII_LIMIT = 0x80;
+    private static final int REPLACEMENT_WIDTH = 1;
+
+    /* The resource holding the width table, generated by DisplayWidthTableGenerator */
+    static final String WIDTH_TABLE_RESOURCE = "display_widths.bin";
+    static final int BLOCK_SHIFT = 8;
+    static final int CODE_POINTS_PER_WORD = 16;
+    static final int WORDS_PER_BLOCK = (1 << BLOCK_SHIFT) / CODE_POINTS_PER_WORD;
+
+    /**
+     * Gets the number of columns a code point takes up in a terminal.
+     *
+     * @param codePoint
+     *                  the code point to measure
+     *
+     * @return 0, 1 or 2
+     */
+    public static int getWidth(int codePoint) {
+
+        if (codePoint < ASCII_LIMIT) {
+            return 1;
+        }
+
+        return WidthTable.getWidth(codePoint);
+
+    }
+
+    /**
+     * Gets the number of columns the characters between start and end take up in
+     * a terminal.
+     *
+     * @param text
+     *              the text containing the characters
+     * @param start
+     *              the index of the first character to measure
+     * @param end
+     *              the index after the last character to measure
+     *
+     * @return the display width of the characters
+     */
+    public static int getWidth(CharSequence text, int start, int end) {
+
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) >= ASCII_LIMIT) {
+                return i - start + getNonAsciiWidth(text, i, end);
+            }
+        }
+
+        return end - start;
+
+    }
+
+    /**
+     * Gets the number of columns the characters between start and end take up in
+     * a terminal.
+     *
+     * @param text
+     *              the array containing the characters
+     * @param start
+     *              the index of the first character to measure
+     * @param end
+     *              the index after the last character to measure
+     *
+     * @return the display width of the characters
+     */
+    public static int getWidth(char[] text, int start, int end) {
+
+        int width = 0;
+
+        for (int i = start; i < end; i++) {
+
+            char character = text[i];
+
+            if (character < ASCII_LIMIT) {
+                width++;
+            } else if (Character.isHighSurrogate(character) && i + 1 < end
+                    && Character.isLowSurrogate(text[i + 1])) {
+                width += WidthTable.getWidth(Character.toCodePoint(character, text[++i]));
+            } else {
+                width += WidthTable.getWidth(character);
+            }
+
+        }
+
+        return width;
+
+    }
+
+    /**
+     * Gets the number of columns the UTF-8 encoded characters between start and
+     * end take up in a terminal, without decoding them into chars. Bytes that are
+     * not valid UTF-8 are each measured as a single column.
+     *
+     * @param input
+     *              the bytes containing the characters
+     * @param start
+     *              the position of the first byte to measure
+     * @param end
+     *              the position after the last byte to measure
+     *
+     * @return the display width of the characters
+     */
+    public static int getWidth(ByteBuffer input, int start, int end) {
+
+        int width = 0;
+        int i = start;
+
+        while (i < end) {
+
+            int character = input.get(i++);
+
+            if (character >= 0) {
+                width++;
+                continue;
+            }
+
+            // Work out the number of continuation bytes from the first byte
+            int continuationCount;
+            if ((character & 0xE0) == 0xC0) {
+                continuationCount = 1;
+                character &= 0x1F;
+            } else if ((character & 0xF0) == 0xE0) {
+                continuationCount = 2;
+                character &= 0x0F;
+            } else if ((character & 0xF8) == 0xF0) {
+                continuationCount = 3;
+                character &= 0x07;
+            } else {
+                width += REPLACEMENT_WIDTH;
+                continue;
+            }
+
+            while (continuationCount > 0 && i < end && (input.get(i) & 0xC0) == 0x80) {
+                character = character << 6 | input.get(i++) & 0x3F;
+                continuationCount--;
+            }
+
+            width += continuationCount == 0 && character <= Character.MAX_CODE_POINT
+                    ? WidthTable.getWidth(character)
+                    : REPLACEMENT_WIDTH;
+
+        }
+
+        return width;
+
+    }
+
+    /**
+     * Finds how many of the characters from start fit in a number of columns. A
+     * surrogate pair is never split, and zero width characters are kept with the
+     * character before them.
+     *
+     * @param text
+     *              the text containing the characters
+     * @param start
+     *              the index of the first character
+     * @param end
+     *              the index after the last character
+     * @param width
+     *              the number of columns the characters must fit in
+     *
+     * @return the index after the last character that fits
+     */
+    public static int getWidthEnd(CharSequence text, int start, int end, int width) {
+
+        int i = start;
+
+        while (i < end) {
+
+            int codePoint = Character.codePointAt(text, i);
+            int codePointWidth = getWidth(codePoint);
+
+            if (codePointWidth > width) {
+                break;
+            }
+
+            width -= codePointWidth;
+            i += Character.charCount(codePoint);
+
+        }
+
+        return i;
+
+    }
+
+    /*
+     * Gets the display width of the characters between start and end, the first
+     * of which is not ASCII.
+     */
+    private static int getNonAsciiWidth(CharSequence text, int start, int end) {
+
+        int width = 0;
+
+        for (int i = start; i < end; i++) {
+
+            char character = text.charAt(i);
+
+            if (character < ASCII_LIMIT) {
+                width++;
+            } else if (Character.isHighSurrogate(character) && i + 1 < end
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                width += WidthTable.getWidth(Character.toCodePoint(character, text.charAt(++i)));
+            } else {
+                width += WidthTable.getWidth(character);
+            }
+
+        }
+
+        return width;
+
+    }
+
+    /*
+     * The table of the display width of every code point, loaded the first time
+     * it is used.
+     */
+    private static final class WidthTable {
+
+        private static final char[] BLOCK_INDEXES;
+        private static final int[] BLOCKS;
+
+        static {
+
+            try (DataInputStream input = new DataInputStream(
+                    DisplayWidthUtils.class.getResourceAsStream(WIDTH_TABLE_RESOURCE))) {
+
+                BLOCK_INDEXES = new char[input.readInt()];
+                readBytes(input, Character.BYTES * BLOCK_INDEXES.length).asCharBuffer().get(BLOCK_INDEXES);
+
+                BLOCKS = new int[input.readInt()];
+                readBytes(input, Integer.BYTES * BLOCKS.length).asIntBuffer().get(BLOCKS);
+
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+        }
+
+        /*
+         * Looks up the display width of a code point in the table.
+         */
+        static int getWidth(int codePoint) {
+
+            int word = BLOCKS[BLOCK_INDEXES[codePoint >> BLOCK_SHIFT] * WORDS_PER_BLOCK
+                    + (codePoint & (1 << BLOCK_SHIFT) - 1) / CODE_POINTS_PER_WORD];
+
+            return word >>> 2 * (codePoint % CODE_POINTS_PER_WORD) & 0x3;
+
+        }
+
+        /*
+         * Reads the next length bytes of the table in a single read, rather than a
+         * char or int at a time.
+         */
+        private static ByteBuffer readBytes(DataInputStream input, int length) throws IOException {
+
+            byte[] bytes = new byte[length];
+            input.readFully(bytes);
+
+            return ByteBuffer.wrap(bytes);
+
+        }
+
+    }
+
+}
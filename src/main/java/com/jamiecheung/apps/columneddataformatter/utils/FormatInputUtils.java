@@ -1,18 +1,45 @@
 package com.jamiecheung.apps.columneddataformatter.utils;
 
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_PARALLELISM;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_PARALLEL_THRESHOLD;
 import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.EMPTY_STRING;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.INTERRUPT_CHECK_ROWS;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.LINE_FEED_BYTE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.MAXIMUM_EXPECTED_TEXT_LENGTH;
 import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.NEW_LINE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.NO_QUOTE_CHARACTER;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.QUOTED_STREAM_WINDOW_ROWS;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.RESERVOIR_SAMPLE_SEED;
 import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SPACE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SPACE_CHARACTER;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_FORMATTING_INTERRUPTED;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineMetrics;
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineStage;
+import com.jamiecheung.apps.columneddataformatter.model.ColumnWidthLimits;
+import com.jamiecheung.apps.columneddataformatter.model.ColumnedTable;
+import com.jamiecheung.apps.columneddataformatter.model.DelimiterMatcher;
+import com.jamiecheung.apps.columneddataformatter.model.OverflowPolicy;
+import com.jamiecheung.apps.columneddataformatter.model.SampledColumnLengths;
+import com.jamiecheung.apps.columneddataformatter.readers.MappedFileReader;
+import com.jamiecheung.apps.columneddataformatter.readers.QuotedRecordReader;
+import com.jamiecheung.apps.columneddataformatter.tasks.ColumnLengthsTask;
+import com.jamiecheung.apps.columneddataformatter.tasks.FormatLinesTask;
+
 /**
  * Utility class for transforming the contents of the input file or input
  * String.
@@ -22,6 +49,242 @@ import java.util.stream.Collectors;
  */
 public class FormatInputUtils {
 
+    private static int parallelism = DEFAULT_PARALLELISM;
+    private static int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private static ForkJoinPool forkJoinPool;
+    private static volatile ColumnWidthLimits columnWidthLimits = ColumnWidthLimits.UNBOUNDED;
+    private static int sampleRows;
+    private static boolean isReservoirSample;
+    private static OverflowPolicy overflowPolicy = OverflowPolicy.TRUNCATE;
+    private static int windowRows;
+    private static char quoteCharacter = NO_QUOTE_CHARACTER;
+    private static char escapeCharacter = NO_QUOTE_CHARACTER;
+
+    /**
+     * Sets how large input files are formatted. Files larger than
+     * parallelThreshold bytes are split into blocks of lines of at most
+     * parallelThreshold bytes, and the column lengths of the blocks are computed,
+     * then the lines of the blocks formatted, on parallelism threads.
+     *
+     * @param parallelism
+     *                          the number of threads used to format the file,
+     *                          where 1 formats it on the calling thread only
+     * @param parallelThreshold
+     *                          the size in bytes at or below which the file is
+     *                          formatted on the calling thread
+     */
+    public static synchronized void setParallelism(int parallelism, int parallelThreshold) {
+
+        if (forkJoinPool != null && parallelism != FormatInputUtils.parallelism) {
+            forkJoinPool.shutdown();
+            forkJoinPool = null;
+        }
+
+        FormatInputUtils.parallelism = parallelism;
+        FormatInputUtils.parallelThreshold = parallelThreshold;
+
+    }
+
+    /**
+     * Sets the maximum width of each column. Entries longer than the maximum width
+     * of their column are cut short. If the column widths are fixed, every column
+     * is exactly its maximum width, and
+     * {@link FormatInputUtils#getColumnLengths(String, String)} no longer reads the
+     * input file, so each line can be formatted and written out as soon as it is
+     * read.
+     *
+     * @param columnWidthLimits
+     *                          the maximum width of each column
+     */
+    public static void setColumnWidthLimits(ColumnWidthLimits columnWidthLimits) {
+
+        FormatInputUtils.columnWidthLimits = columnWidthLimits;
+
+    }
+
+    /**
+     * Gets the maximum width of each column, as set by
+     * {@link FormatInputUtils#setColumnWidthLimits(ColumnWidthLimits)}.
+     *
+     * @return the maximum width of each column
+     */
+    public static ColumnWidthLimits getColumnWidthLimits() {
+
+        return columnWidthLimits;
+
+    }
+
+    /**
+     * Checks whether every column is exactly its maximum width, so input files
+     * are formatted in a single pass without holding more than a line in memory.
+     *
+     * @return true iff the column widths are fixed, otherwise false.
+     */
+    public static boolean isColumnWidthFixed() {
+
+        return columnWidthLimits.isFixed();
+
+    }
+
+    /**
+     * Sets whether the column lengths of streamed input files are estimated from
+     * a sample of their rows, rather than found by reading every line first. The
+     * sample is either the first sampleRows non-blank lines, so the first
+     * formatted lines are output straight away, or sampleRows lines picked at
+     * random from across the whole file.
+     *
+     * @param sampleRows
+     *                          the number of rows to sample, where 0 reads every
+     *                          line
+     * @param isReservoirSample
+     *                          whether the rows are sampled from across the whole
+     *                          file rather than from its start
+     * @param overflowPolicy
+     *                          how lines that overflow the sampled column lengths
+     *                          are formatted
+     */
+    public static synchronized void setColumnLengthSampling(int sampleRows, boolean isReservoirSample,
+            OverflowPolicy overflowPolicy) {
+
+        FormatInputUtils.sampleRows = sampleRows;
+        FormatInputUtils.isReservoirSample = isReservoirSample;
+        FormatInputUtils.overflowPolicy = overflowPolicy;
+
+    }
+
+    /**
+     * Checks whether the column lengths of streamed input files are estimated from
+     * a sample of their rows. Fixed column widths, input files formatted in
+     * windows, and quoted input files, whose records may span lines, are never
+     * sampled.
+     *
+     * @return true iff the column lengths are sampled, otherwise false.
+     */
+    public static synchronized boolean isColumnLengthSampled() {
+
+        return sampleRows > 0 && windowRows == 0 && !columnWidthLimits.isFixed() && !isQuoted();
+
+    }
+
+    /**
+     * Sets whether streamed input files are formatted in windows of windowRows
+     * rows, each with the column lengths of its own rows, so each window is
+     * output as soon as its last row is read.
+     *
+     * @param windowRows
+     *                   the number of rows in each window, where 0 formats the
+     *                   whole file with the same column lengths
+     */
+    public static synchronized void setWindowRows(int windowRows) {
+
+        FormatInputUtils.windowRows = windowRows;
+
+    }
+
+    /**
+     * Gets the number of rows in each window, as set by
+     * {@link FormatInputUtils#setWindowRows(int)}.
+     *
+     * @return the number of rows in each window
+     */
+    public static synchronized int getWindowRows() {
+
+        return windowRows;
+
+    }
+
+    /**
+     * Checks whether streamed input files are formatted in windows of rows. Fixed
+     * column widths are never formatted in windows.
+     *
+     * @return true iff input files are formatted in windows, otherwise false.
+     */
+    public static synchronized boolean isWindowed() {
+
+        return windowRows > 0 && !columnWidthLimits.isFixed();
+
+    }
+
+    /**
+     * Sets whether input is quoted, so entries starting with quoteCharacter may
+     * contain delimiters and line terminators, and are split by a
+     * {@link QuotedRecordReader}.
+     *
+     * @param quoteCharacter
+     *                        the character quoted entries start and end with, or
+     *                        {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#NO_QUOTE_CHARACTER
+     *                        NO_QUOTE_CHARACTER} if input is not quoted
+     * @param escapeCharacter
+     *                        the character escaping the character after it, which
+     *                        may be the quote character
+     */
+    public static synchronized void setQuoting(char quoteCharacter, char escapeCharacter) {
+
+        FormatInputUtils.quoteCharacter = quoteCharacter;
+        FormatInputUtils.escapeCharacter = escapeCharacter;
+
+    }
+
+    /**
+     * Checks whether input is quoted, as set by
+     * {@link FormatInputUtils#setQuoting(char, char)}.
+     *
+     * @return true iff input is quoted, otherwise false.
+     */
+    public static synchronized boolean isQuoted() {
+
+        return quoteCharacter != NO_QUOTE_CHARACTER;
+
+    }
+
+    /**
+     * Gets the character quoted entries start and end with.
+     *
+     * @return the quote character
+     */
+    public static synchronized char getQuoteCharacter() {
+
+        return quoteCharacter;
+
+    }
+
+    /**
+     * Gets the character escaping the character after it in quoted input.
+     *
+     * @return the escape character
+     */
+    public static synchronized char getEscapeCharacter() {
+
+        return escapeCharacter;
+
+    }
+
+    /**
+     * Gets a description of every setting that changes how lines are formatted,
+     * i.e. the column width limits, the size of the windows, how column lengths
+     * are sampled, and how entries are quoted, that is the same for the same
+     * settings and has no commas in it.
+     *
+     * @return the description of the formatting settings
+     */
+    public static synchronized String getFormatSettings() {
+
+        String quoting = isQuoted() ? " quote=" + (int) quoteCharacter + " escape=" + (int) escapeCharacter
+                : EMPTY_STRING;
+
+        if (isWindowed()) {
+            return columnWidthLimits + " windowRows=" + windowRows + quoting;
+        }
+
+        if (!isColumnLengthSampled()) {
+            return columnWidthLimits + quoting;
+        }
+
+        return columnWidthLimits + " sampleRows=" + sampleRows + " reservoir=" + isReservoirSample + " overflow="
+                + overflowPolicy;
+
+    }
+
     /**
      * Converts the text in the input file to a String.
      * 
@@ -43,6 +306,26 @@ public class FormatInputUtils {
         return fileContentsAsAString;
     }
 
+    /**
+     * Checks whether the input file will be formatted in parallel by
+     * {@link FormatInputUtils#formatInputFile(MappedFileReader, String)}, i.e.
+     * the input is not quoted, the delimiter is made up of single byte characters
+     * and the file is larger than the parallel threshold.
+     *
+     * @param reader
+     *                  the reader over the file that needs formatting
+     * @param delimiter
+     *                  the character that forms the columns of the data in the
+     *                  file that needs formatting
+     *
+     * @return true iff the file will be formatted in parallel, otherwise false.
+     */
+    public static boolean isFormattedInParallel(MappedFileReader reader, String delimiter) {
+
+        return !isQuoted() && ByteTokenizerUtils.isSingleByteDelimiter(delimiter) && isParallel(reader);
+
+    }
+
     /**
      * Formats the contents of the input.
      *
@@ -53,198 +336,1288 @@ public class FormatInputUtils {
      *                       file that needs formatting
      * 
      * @return the list of formatted lines
+     *
+     * @throws IOException
+     *                     if the input is quoted and a quoted entry is not
+     *                     closed
      */
-    public static List<StringBuilder> formatInputFile(List<String> linesAsStrings, String delimiter) {
+    public static List<StringBuilder> formatInputFile(List<String> linesAsStrings, String delimiter)
+            throws IOException {
 
-        List<StringBuilder> linesAsStringBuilders = new ArrayList<>();
-        List<Integer> columnLengths = new ArrayList<>();
+        return formatTable(
+                PipelineMetrics.measure(PipelineStage.TOKENIZE, () -> tokenizeInputFile(linesAsStrings, delimiter)),
+                delimiter);
+
+    }
+
+    /**
+     * Formats the contents of an input file, tokenizing each line as it is read
+     * from the file. If the delimiter is made up of single byte characters, each
+     * line is tokenized directly from its bytes and only the entries are decoded,
+     * and files larger than the parallel threshold have their column lengths
+     * computed and their lines formatted in parallel, as set by
+     * {@link FormatInputUtils#setParallelism(int, int)}.
+     *
+     * @param reader
+     *                  the reader over the file that needs formatting
+     * @param delimiter
+     *                  the character that forms the columns of the data in the
+     *                  file that needs formatting
+     *
+     * @return the list of formatted lines
+     *
+     * @throws IOException
+     */
+    public static List<StringBuilder> formatInputFile(MappedFileReader reader, String delimiter) throws IOException {
 
-        preProcessLines(linesAsStrings, delimiter, linesAsStringBuilders);
+        if (isFormattedInParallel(reader, delimiter)) {
 
-        int maxDelimiterCountInASingleLine = findMaxDelimitersALine(linesAsStringBuilders, delimiter);
+            ColumnWidthLimits limits = columnWidthLimits;
 
-        rebalanceDelimiter(linesAsStringBuilders, delimiter, maxDelimiterCountInASingleLine);
+            int[] columnLengths;
 
-        insertPlaceholderBetweenConsecutiveDelimiters(linesAsStringBuilders, delimiter);
+            // Fixed column widths need no first pass over the file
+            if (limits.isFixed()) {
+                columnLengths = limits.getFixedColumnLengths();
+            } else {
+                columnLengths = limits.limitColumnLengths(PipelineMetrics.measure(PipelineStage.WIDTH,
+                        () -> getColumnLengthsInParallel(reader, DelimiterMatcher.compile(delimiter))));
+                reader.rewind();
+            }
 
-        getColumnLengths(maxDelimiterCountInASingleLine, linesAsStringBuilders, delimiter, columnLengths);
+            return PipelineMetrics.measure(PipelineStage.RENDER, () -> {
 
-        restructureLines(linesAsStringBuilders, delimiter, columnLengths);
+                List<StringBuilder> linesAsStringBuilders = formatLinesInParallel(reader, delimiter, columnLengths);
+                PipelineMetrics.addRows(linesAsStringBuilders.size(), columnLengths.length);
 
-        return linesAsStringBuilders;
+                return linesAsStringBuilders;
 
-    }
+            });
 
-    /*
-     * Removes excess characters in each line of the input and ensures every line
-     * starts and ends with a delimiter.
-     */
-    private static void preProcessLines(List<String> linesAsStrings, String delimiter,
-            List<StringBuilder> linesAsStringBuilders) {
+        }
 
-        for (String line : linesAsStrings) {
+        return formatTable(PipelineMetrics.measure(PipelineStage.TOKENIZE, () -> tokenizeInputFile(reader, delimiter)),
+                delimiter);
+
+    }
 
-            // Remove white spaces before first and after last non-space character
-            line = line.trim();
+    /**
+     * Splits every non-blank line of the input into its cells, without formatting
+     * them. The white spaces around each entry are removed, and the width of each
+     * column is found as the lines are split. If the input is quoted, it is split
+     * into records by a {@link QuotedRecordReader} instead, each of which may
+     * span several lines.
+     *
+     * @param linesAsStrings
+     *                       the list of lines in the file that needs formatting
+     * @param delimiter
+     *                       the character that forms the columns of the data in the
+     *                       file that needs formatting
+     *
+     * @return the table of cells
+     *
+     * @throws IOException
+     *                     if the input is quoted and a quoted entry is not
+     *                     closed
+     */
+    public static ColumnedTable tokenizeInputFile(List<String> linesAsStrings, String delimiter)
+            throws IOException {
 
-            if (!line.isEmpty()) {
+        if (isQuoted()) {
+            return tokenizeRecords(new QuotedRecordReader(linesAsStrings, delimiter, getQuoteCharacter(),
+                    getEscapeCharacter()), new ColumnedTable());
+        }
 
-                // Insert a delimiter at the start of the line if it is not the first character
-                if (line.charAt(0) != delimiter.charAt(0)) {
-                    line = delimiter + line;
-                }
+        DelimiterMatcher delimiterMatcher = DelimiterMatcher.compile(delimiter);
+        long textLength = 0;
 
-                String[] entries = line.split(Pattern.quote(delimiter));
+        for (String line : linesAsStrings) {
+            textLength += line.length();
+        }
 
-                // Remove white spaces before and after each entry
-                for (int i = 0; i < entries.length; i++) {
-                    entries[i] = entries[i].trim();
-                }
+        ColumnedTable table = new ColumnedTable(linesAsStrings.size(),
+                (int) Math.min(textLength, MAXIMUM_EXPECTED_TEXT_LENGTH));
+        int lineNumber = 0;
 
-                // Clear the line
-                line = EMPTY_STRING;
+        for (String line : linesAsStrings) {
 
-                // Reconstruct the line with cleaned up entries
-                for (String entry : entries) {
-                    line = line.concat(entry + delimiter);
-                }
+            checkInterrupted(lineNumber++);
 
-                // Convert the Strings into StringBuilders
-                linesAsStringBuilders.add(new StringBuilder(line));
+            int[] boundaries = tokenizeLine(line, delimiterMatcher);
 
+            if (boundaries != null) {
+                table.appendRow(line, boundaries);
             }
 
         }
 
+        return table;
+
     }
 
-    /*
-     * Finds the most delimiter occurrences in a single line.
+    /**
+     * Splits every non-blank line of an input file into its cells, without
+     * formatting them. If the delimiter is made up of single byte characters, each
+     * line is tokenized directly from its bytes and only the entries are decoded.
+     * If the input is quoted, it is split into records by a
+     * {@link QuotedRecordReader} instead, in a single pass over its bytes.
+     *
+     * @param reader
+     *                  the reader over the file that needs formatting
+     * @param delimiter
+     *                  the character that forms the columns of the data in the
+     *                  file that needs formatting
+     *
+     * @return the table of cells
+     *
+     * @throws IOException
+     *                     if an entry is not valid UTF-8, or a quoted entry is
+     *                     not closed
      */
-    private static int findMaxDelimitersALine(List<StringBuilder> linesAsStringBuilders, String delimiter) {
+    public static ColumnedTable tokenizeInputFile(MappedFileReader reader, String delimiter) throws IOException {
+
+        // Every character of cell text takes up at least one byte of the file, but
+        // larger files only get room for part of their text up front, growing after
+        int expectedTextLength = (int) Math.min(reader.getFileSize(), MAXIMUM_EXPECTED_TEXT_LENGTH);
 
-        int maxDelimiterCountInASingleLine = 0;
+        if (isQuoted()) {
+            return tokenizeRecords(new QuotedRecordReader(reader, delimiter, getQuoteCharacter(), getEscapeCharacter()),
+                    new ColumnedTable(0, expectedTextLength));
+        }
 
-        for (StringBuilder line : linesAsStringBuilders) {
+        if (!ByteTokenizerUtils.isSingleByteDelimiter(delimiter)) {
 
-            int delimiterOccurrences = (int) line.chars().filter(ch -> ch == delimiter.charAt(0)).count();
+            List<String> linesAsStrings = new ArrayList<>();
 
-            if (delimiterOccurrences > maxDelimiterCountInASingleLine) {
-                maxDelimiterCountInASingleLine = delimiterOccurrences;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                checkInterrupted(linesAsStrings.size());
+                linesAsStrings.add(line);
             }
 
-        }
+            return tokenizeInputFile(linesAsStrings, delimiter);
 
-        return maxDelimiterCountInASingleLine;
+        }
 
-    }
+        DelimiterMatcher delimiterMatcher = DelimiterMatcher.compile(delimiter);
+        ColumnedTable table = createTable(reader.getRegion(), delimiterMatcher, expectedTextLength);
+        int lineNumber = 0;
 
-    /*
-     * Ensures each line has an equal number (maxDelimiterCountInASingleLine) of
-     * delimiter occurrences.
-     */
-    private static void rebalanceDelimiter(List<StringBuilder> linesAsStringBuilders, String delimiter,
-            int maxDelimiterCountInASingleLine) {
+        while (reader.nextLine()) {
 
-        for (StringBuilder line : linesAsStringBuilders) {
+            checkInterrupted(lineNumber++);
 
-            int delimiterOccurrences = (int) line.chars().filter(ch -> ch == delimiter.charAt(0)).count();
+            int[] boundaries = ByteTokenizerUtils.tokenizeLine(reader.getRegion(), reader.getLineStart(),
+                    reader.getLineEnd(), delimiterMatcher);
 
-            while (delimiterOccurrences < maxDelimiterCountInASingleLine) {
-                line.append(delimiter);
-                delimiterOccurrences++;
+            if (boundaries != null) {
+                ByteTokenizerUtils.appendRow(table, reader.getRegion(), boundaries);
             }
 
         }
 
+        return table;
+
     }
 
-    /*
-     * Inserts a space between consecutive delimiter characters in each line (this
-     * is done to to enable String's split API to work as intended).
+    /**
+     * Splits the next window of non-blank lines of an input file into their cells,
+     * replacing the rows of the table, so the window can be formatted with the
+     * column lengths of its own rows.
+     *
+     * @param reader
+     *                   the reader over the file that needs formatting
+     * @param delimiter
+     *                   the character that forms the columns of the data in the
+     *                   file that needs formatting
+     * @param table
+     *                   the table to fill with the rows of the window
+     * @param windowRows
+     *                   the number of rows in each window
+     *
+     * @return true iff the window has any rows, otherwise false at the end of the
+     *         file
+     *
+     * @throws IOException
+     *                     if an entry is not valid UTF-8
      */
-    private static void insertPlaceholderBetweenConsecutiveDelimiters(List<StringBuilder> linesAsStringBuilders,
-            String delimiter) {
+    public static boolean nextWindow(MappedFileReader reader, String delimiter, ColumnedTable table, int windowRows)
+            throws IOException {
+
+        DelimiterMatcher delimiterMatcher = DelimiterMatcher.compile(delimiter);
+
+        table.clear();
+
+        while (table.getRowCount() < windowRows && reader.nextLine()) {
+
+            if (delimiterMatcher.isSingleByte()) {
 
-        for (StringBuilder line : linesAsStringBuilders) {
+                int[] boundaries = ByteTokenizerUtils.tokenizeLine(reader.getRegion(), reader.getLineStart(),
+                        reader.getLineEnd(), delimiterMatcher);
 
-            for (int i = 0; i < line.length() - 1; i++) {
+                if (boundaries != null) {
+                    ByteTokenizerUtils.appendRow(table, reader.getRegion(), boundaries);
+                }
+
+            } else {
 
-                if (line.charAt(i) == delimiter.charAt(0) && line.charAt(i + 1) == delimiter.charAt(0)) {
-                    line.insert(i + 1, SPACE);
+                String line = reader.getLine();
+                int[] boundaries = tokenizeLine(line, delimiterMatcher);
+
+                if (boundaries != null) {
+                    table.appendRow(line, boundaries);
                 }
 
             }
 
         }
 
+        return table.getRowCount() > 0;
+
     }
 
-    /*
-     * Gets the longest character counts in each column and stores them.
+    /**
+     * Splits the next window of non-blank records of quoted input into their
+     * cells, replacing the rows of the table, in the same way as
+     * {@link FormatInputUtils#nextWindow(MappedFileReader, String, ColumnedTable, int)}.
+     *
+     * @param records
+     *                   the reader over the records of the input
+     * @param table
+     *                   the table to fill with the rows of the window
+     * @param windowRows
+     *                   the number of rows in each window
+     *
+     * @return true iff the window has any rows, otherwise false at the end of the
+     *         input
+     *
+     * @throws IOException
+     *                     if an entry is not valid UTF-8, or a quoted entry is
+     *                     not closed
      */
-    private static void getColumnLengths(int maxDelimiterCountInASingleLine, List<StringBuilder> linesAsStringBuilders,
-            String delimiter, List<Integer> columnLengths) {
+    public static boolean nextWindow(QuotedRecordReader records, ColumnedTable table, int windowRows)
+            throws IOException {
 
-        for (int column = 1; column < maxDelimiterCountInASingleLine; column++) {
+        table.clear();
 
-            int longestStringInColumn = 0;
+        while (table.getRowCount() < windowRows && records.nextRecord(table)) {
+            // Each record is appended to the table as it is read
+        }
 
-            for (StringBuilder linesAsStringBuilder : linesAsStringBuilders) {
+        return table.getRowCount() > 0;
 
-                String columnEntry = linesAsStringBuilder.toString().split(Pattern.quote(delimiter))[column];
+    }
 
-                if (columnEntry.length() > longestStringInColumn) {
-                    longestStringInColumn = columnEntry.length();
-                }
+    /**
+     * Formats every row of a table, with each cell padded to the width of its
+     * column.
+     *
+     * @param table
+     *                  the table of cells, as returned by
+     *                  {@link FormatInputUtils#tokenizeInputFile(List, String)}
+     * @param delimiter
+     *                  the character that forms the columns of the data
+     *
+     * @return the list of formatted lines
+     *
+     * @throws InterruptedIOException
+     *                                if the thread formatting the table is
+     *                                interrupted
+     */
+    public static List<StringBuilder> formatTable(ColumnedTable table, String delimiter)
+            throws InterruptedIOException {
 
-            }
+        return formatTable(table, delimiter, getColumnLengths(table));
+
+    }
+
+    /**
+     * Gets the length of each column of a table, i.e. the width of each column
+     * limited to its maximum width, or the fixed column lengths if the column
+     * widths are fixed.
+     *
+     * @param table
+     *              the table of cells, as returned by
+     *              {@link FormatInputUtils#tokenizeInputFile(List, String)}
+     *
+     * @return the length of each column
+     */
+    public static int[] getColumnLengths(ColumnedTable table) {
 
-            columnLengths.add(longestStringInColumn);
+        ColumnWidthLimits limits = columnWidthLimits;
 
+        if (limits.isFixed()) {
+            return limits.getFixedColumnLengths();
         }
 
+        return limits.limitColumnLengths(table.getColumnWidths());
+
     }
 
-    /*
-     * Ensures character lengths between each delimiter are consistent from line to
-     * line (i.e. column formation).
+    /**
+     * Formats every row of a table, given the lengths of every column.
+     *
+     * @param table
+     *                      the table of cells, as returned by
+     *                      {@link FormatInputUtils#tokenizeInputFile(List, String)}
+     * @param delimiter
+     *                      the character that forms the columns of the data
+     * @param columnLengths
+     *                      the length of each column
+     *
+     * @return the list of formatted lines
+     *
+     * @throws InterruptedIOException
+     *                                if the thread formatting the table is
+     *                                interrupted
      */
-    private static void restructureLines(List<StringBuilder> linesAsStringBuilders, String delimiter,
-            List<Integer> columnLengths) {
+    public static List<StringBuilder> formatTable(ColumnedTable table, String delimiter, int[] columnLengths)
+            throws InterruptedIOException {
 
-        for (StringBuilder line : linesAsStringBuilders) {
+        List<StringBuilder> linesAsStringBuilders = new ArrayList<>(table.getRowCount());
+        int lineLength = getFormattedLineLength(delimiter, columnLengths);
 
-            String[] entries = line.toString().split(Pattern.quote(delimiter));
+        PipelineMetrics.startStage(PipelineStage.RENDER);
 
-            // Update the lengths of shorter Strings (after the first delimiter) by
-            // appending spaces to the end of them
-            for (int i = 1; i < entries.length; i++) {
+        try {
 
-                while (entries[i].length() < columnLengths.get(i - 1)) {
-                    entries[i] = entries[i].concat(SPACE);
-                }
+            for (int row = 0; row < table.getRowCount(); row++) {
+
+                checkInterrupted(row);
+
+                StringBuilder formattedLine = new StringBuilder(lineLength);
+                appendFormattedRow(formattedLine, table, row, delimiter, columnLengths);
+                linesAsStringBuilders.add(formattedLine);
 
             }
 
-            // Reset the StringBuilder
-            line.setLength(0);
+            PipelineMetrics.addRows(table.getRowCount(), columnLengths.length);
+
+        } finally {
+            PipelineMetrics.endStage();
+        }
 
-            // Reconstruct the line with cleaned up entries
-            for (int i = 1; i < entries.length; i++) {
+        return linesAsStringBuilders;
 
-                if (i == 1) {
-                    line.append(delimiter);
-                }
-                line.append(SPACE);
-                line.append(entries[i]);
-                line.append(SPACE);
-                line.append(delimiter);
+    }
+
+    /**
+     * Formats a single row of a table onto the end of a line, given the lengths of
+     * every column. Rows with fewer cells are completed with empty cells, and
+     * entries longer than their column are cut short.
+     *
+     * @param formattedLine
+     *                      the line to append the formatted row to
+     * @param table
+     *                      the table of cells
+     * @param row
+     *                      the index of the row in the table
+     * @param delimiter
+     *                      the character that forms the columns of the data
+     * @param columnLengths
+     *                      the length of each column
+     */
+    public static void appendFormattedRow(StringBuilder formattedLine, ColumnedTable table, int row,
+            String delimiter, int[] columnLengths) {
+
+        ColumnWidthLimits limits = columnWidthLimits;
+        char[] cellText = table.getCellText();
+        int cellCount = table.getCellCount(row);
+        int columnCount = Math.max(columnLengths.length, cellCount);
+
+        for (int column = 0; column < columnCount; column++) {
+
+            if (column == 0) {
+                formattedLine.append(delimiter);
+            }
+            formattedLine.append(SPACE);
 
+            int entryStart = formattedLine.length();
+            if (column < cellCount) {
+                int cellStart = table.getCellStart(row, column);
+                formattedLine.append(cellText, cellStart, table.getCellEnd(row, column) - cellStart);
             }
 
+            fitEntry(formattedLine, entryStart, columnLengths, column, limits);
+
+            formattedLine.append(SPACE);
+            formattedLine.append(delimiter);
+
+        }
+
+    }
+
+    /**
+     * Gets the longest character count in each column of the input file, limited
+     * to the maximum width of each column. The file is read one line at a time
+     * through a memory mapping, so only the current line is held in memory. If
+     * the column widths are fixed, the file is not read at all.
+     *
+     * @param inputFile
+     *                  the file containing the input text
+     * @param delimiter
+     *                  the character that forms the columns of the data in the
+     *                  file that needs formatting
+     *
+     * @return the length of each column
+     *
+     * @throws IOException
+     */
+    public static int[] getColumnLengths(String inputFile, String delimiter) throws IOException {
+
+        ColumnWidthLimits limits = columnWidthLimits;
+
+        if (limits.isFixed()) {
+            return limits.getFixedColumnLengths();
         }
 
+        DelimiterMatcher delimiterMatcher = DelimiterMatcher.compile(delimiter);
+        int[] columnLengths = new int[0];
+
+        try (MappedFileReader reader = new MappedFileReader(inputFile)) {
+
+            // Records of quoted input may span lines, so are read a window at a time
+            if (isQuoted()) {
+
+                QuotedRecordReader records = new QuotedRecordReader(reader, delimiter, getQuoteCharacter(),
+                        getEscapeCharacter());
+                ColumnedTable table = new ColumnedTable();
+
+                while (nextWindow(records, table, QUOTED_STREAM_WINDOW_ROWS)) {
+                    columnLengths = mergeColumnLengths(columnLengths, table.getColumnWidths());
+                }
+
+                return limits.limitColumnLengths(columnLengths);
+
+            }
+
+            if (isFormattedInParallel(reader, delimiter)) {
+                return limits.limitColumnLengths(getColumnLengthsInParallel(reader, delimiterMatcher));
+            }
+
+            while (reader.nextLine()) {
+
+                if (delimiterMatcher.isSingleByte()) {
+
+                    int[] boundaries = ByteTokenizerUtils.tokenizeLine(reader.getRegion(), reader.getLineStart(),
+                            reader.getLineEnd(), delimiterMatcher);
+
+                    if (boundaries != null) {
+                        columnLengths = updateColumnLengths(columnLengths, reader.getRegion(), boundaries);
+                    }
+
+                } else {
+
+                    String line = reader.getLine();
+                    int[] boundaries = tokenizeLine(line, delimiterMatcher);
+
+                    if (boundaries != null) {
+                        columnLengths = updateColumnLengths(columnLengths, line, boundaries);
+                    }
+
+                }
+
+            }
+
+        }
+
+        return limits.limitColumnLengths(columnLengths);
+
+    }
+
+    /**
+     * Estimates the column lengths of the input file from a sample of its rows, as
+     * set by
+     * {@link FormatInputUtils#setColumnLengthSampling(int, boolean, OverflowPolicy)}.
+     * By default the first non-blank lines of the file are sampled, and the rest
+     * of the file is not read. With reservoir sampling, rows are instead sampled
+     * from the non-blank lines of the whole file, which reads the line terminators
+     * of every line but only tokenizes the lines picked. The random choices are
+     * seeded, so the same file is always sampled the same way. Either way, the
+     * overflow policy set is returned with the column lengths, to format the
+     * entries longer than them.
+     *
+     * @param inputFile
+     *                  the file containing the input text
+     * @param delimiter
+     *                  the character that forms the columns of the data in the
+     *                  file that needs formatting
+     *
+     * @return the sampled column lengths
+     *
+     * @throws IOException
+     */
+    public static SampledColumnLengths getSampledColumnLengths(String inputFile, String delimiter)
+            throws IOException {
+
+        int rows;
+        boolean isReservoir;
+        OverflowPolicy policy;
+
+        synchronized (FormatInputUtils.class) {
+            rows = sampleRows;
+            isReservoir = isReservoirSample;
+            policy = overflowPolicy;
+        }
+
+        ColumnWidthLimits limits = columnWidthLimits;
+        int[] columnLengths = new int[0];
+        int sampledRows = 0;
+
+        try (MappedFileReader reader = new MappedFileReader(inputFile)) {
+
+            if (!isReservoir) {
+
+                while (sampledRows < rows && reader.nextLine()) {
+
+                    int[] entryLengths = getEntryLengths(reader, delimiter, limits);
+
+                    if (entryLengths != null) {
+                        columnLengths = mergeColumnLengths(columnLengths, entryLengths);
+                        sampledRows++;
+                    }
+
+                }
+
+                return new SampledColumnLengths(columnLengths, sampledRows, policy);
+
+            }
+
+            // Keep each non-blank line with probability rows / non-blank lines read so
+            // far. The reservoir grows as it fills, so it is never larger than the file
+            List<int[]> reservoir = new ArrayList<>();
+            SplittableRandom random = new SplittableRandom(RESERVOIR_SAMPLE_SEED);
+            long lineCount = 0;
+
+            while (reader.nextLine()) {
+
+                if (ByteTokenizerUtils.isBlankLine(reader.getRegion(), reader.getLineStart(), reader.getLineEnd())) {
+                    continue;
+                }
+
+                long slot = lineCount < rows ? lineCount : random.nextLong(lineCount + 1);
+                lineCount++;
+
+                if (slot < reservoir.size()) {
+                    reservoir.set((int) slot, getEntryLengths(reader, delimiter, limits));
+                } else if (slot < rows) {
+                    reservoir.add(getEntryLengths(reader, delimiter, limits));
+                }
+
+            }
+
+            for (int[] entryLengths : reservoir) {
+                columnLengths = mergeColumnLengths(columnLengths, entryLengths);
+            }
+
+            sampledRows = reservoir.size();
+
+        }
+
+        return new SampledColumnLengths(columnLengths, sampledRows, policy);
+
+    }
+
+    /**
+     * Formats the current line of the reader with column lengths sampled by
+     * {@link FormatInputUtils#getSampledColumnLengths(String, String)}. Lines
+     * that overflow the column lengths are formatted according to their overflow
+     * policy, and counted. If the policy is {@link OverflowPolicy#TRUNCATE}, cells
+     * past the sampled columns are left out.
+     *
+     * @param reader
+     *                             the reader positioned at the line that needs
+     *                             formatting
+     * @param delimiter
+     *                             the character that forms the columns of the
+     *                             data in the line
+     * @param sampledColumnLengths
+     *                             the sampled column lengths
+     *
+     * @return the formatted line, or null if the line is blank and is not part of
+     *         the formatted contents
+     *
+     * @throws IOException
+     */
+    public static StringBuilder formatSampledLine(MappedFileReader reader, String delimiter,
+            SampledColumnLengths sampledColumnLengths) throws IOException {
+
+        ColumnWidthLimits limits = columnWidthLimits;
+
+        if (!ByteTokenizerUtils.isSingleByteDelimiter(delimiter)) {
+
+            String line = reader.getLine();
+            int[] boundaries = tokenizeLine(line, DelimiterMatcher.compile(delimiter));
+
+            if (boundaries == null) {
+                return null;
+            }
+
+            if (sampledColumnLengths.getRowCount() == 0) {
+                sampledColumnLengths.setHeaderLine(line);
+            }
+
+            int[] columnLengths = sampledColumnLengths.fitRow(getEntryLengths(line, boundaries, limits));
+            boundaries = getFittedBoundaries(boundaries, columnLengths, sampledColumnLengths.getOverflowPolicy());
+
+            return restructureLine(line, boundaries, delimiter, columnLengths,
+                    getFormattedLineLength(delimiter, columnLengths), limits);
+
+        }
+
+        ByteBuffer input = reader.getRegion();
+        int[] boundaries = ByteTokenizerUtils.tokenizeLine(input, reader.getLineStart(), reader.getLineEnd(),
+                DelimiterMatcher.compile(delimiter));
+
+        if (boundaries == null) {
+            return null;
+        }
+
+        if (sampledColumnLengths.getRowCount() == 0) {
+            sampledColumnLengths.setHeaderLine(reader.getLine());
+        }
+
+        int[] columnLengths = sampledColumnLengths.fitRow(getEntryLengths(input, boundaries, limits));
+        boundaries = getFittedBoundaries(boundaries, columnLengths, sampledColumnLengths.getOverflowPolicy());
+
+        return restructureEncodedLine(input, boundaries, delimiter, columnLengths,
+                getFormattedLineLength(delimiter, columnLengths), limits);
+
+    }
+
+    /**
+     * Gets the longest character count in each column of a block of lines, read
+     * directly from their bytes.
+     *
+     * @param input
+     *                      the bytes containing the lines
+     * @param linesStart
+     *                      the position of the first byte of the first line
+     * @param linesEnd
+     *                      the position after the last byte of the last line
+     * @param delimiter
+     *                      the compiled delimiter, made up of single byte
+     *                      characters, that forms the columns of the data
+     *
+     * @return the length of each column
+     */
+    public static int[] getColumnLengths(ByteBuffer input, int linesStart, int linesEnd, DelimiterMatcher delimiter) {
+
+        int[] columnLengths = new int[0];
+        int position = linesStart;
+
+        while (position < linesEnd) {
+
+            int lineEnd = ByteTokenizerUtils.findLineEnd(input, position, linesEnd);
+            int[] boundaries = ByteTokenizerUtils.tokenizeLine(input, position, lineEnd, delimiter);
+
+            if (boundaries != null) {
+                columnLengths = updateColumnLengths(columnLengths, input, boundaries);
+            }
+
+            position = ByteTokenizerUtils.skipLineTerminator(input, lineEnd, linesEnd);
+
+        }
+
+        return columnLengths;
+
+    }
+
+    /**
+     * Formats a block of lines read directly from their bytes, given the lengths
+     * of every column. Blank lines are not part of the formatted contents.
+     *
+     * @param input
+     *                      the bytes containing the lines
+     * @param linesStart
+     *                      the position of the first byte of the first line
+     * @param linesEnd
+     *                      the position after the last byte of the last line
+     * @param delimiter
+     *                      the single byte character that forms the columns of
+     *                      the data
+     * @param columnLengths
+     *                      the length of each column, as returned by
+     *                      {@link FormatInputUtils#getColumnLengths(String, String)}
+     *
+     * @return the list of formatted lines
+     *
+     * @throws IOException
+     *                     if an entry is not valid UTF-8
+     */
+    public static List<StringBuilder> formatLines(ByteBuffer input, int linesStart, int linesEnd, String delimiter,
+            int[] columnLengths) throws IOException {
+
+        ColumnWidthLimits limits = columnWidthLimits;
+        DelimiterMatcher delimiterMatcher = DelimiterMatcher.compile(delimiter);
+        int lineLength = getFormattedLineLength(delimiter, columnLengths);
+        List<StringBuilder> linesAsStringBuilders = new ArrayList<>();
+        int position = linesStart;
+
+        while (position < linesEnd) {
+
+            int lineEnd = ByteTokenizerUtils.findLineEnd(input, position, linesEnd);
+            int[] boundaries = ByteTokenizerUtils.tokenizeLine(input, position, lineEnd, delimiterMatcher);
+
+            if (boundaries != null) {
+                linesAsStringBuilders
+                        .add(restructureEncodedLine(input, boundaries, delimiter, columnLengths, lineLength, limits));
+            }
+
+            position = ByteTokenizerUtils.skipLineTerminator(input, lineEnd, linesEnd);
+
+        }
+
+        return linesAsStringBuilders;
+
+    }
+
+    /**
+     * Merges the column lengths of two parts of the same input, taking the larger
+     * length of each column.
+     *
+     * @param columnLengths
+     *                           the length of each column in one part of the input
+     * @param otherColumnLengths
+     *                           the length of each column in another part of the
+     *                           input
+     *
+     * @return the length of each column across both parts of the input
+     */
+    public static int[] mergeColumnLengths(int[] columnLengths, int[] otherColumnLengths) {
+
+        if (otherColumnLengths.length > columnLengths.length) {
+            int[] swappedColumnLengths = columnLengths;
+            columnLengths = otherColumnLengths;
+            otherColumnLengths = swappedColumnLengths;
+        }
+
+        int[] mergedColumnLengths = columnLengths.clone();
+
+        for (int column = 0; column < otherColumnLengths.length; column++) {
+            mergedColumnLengths[column] = Math.max(mergedColumnLengths[column], otherColumnLengths[column]);
+        }
+
+        return mergedColumnLengths;
+
+    }
+
+    /**
+     * Formats a single line of the input, given the lengths of every column.
+     *
+     * @param line
+     *                      the line that needs formatting
+     * @param delimiter
+     *                      the character that forms the columns of the data in
+     *                      the line
+     * @param columnLengths
+     *                      the length of each column, as returned by
+     *                      {@link FormatInputUtils#getColumnLengths(String, String)}
+     *
+     * @return the formatted line, or null if the line is blank and is not part of
+     *         the formatted contents
+     */
+    public static StringBuilder formatLine(String line, String delimiter, int[] columnLengths) {
+
+        int[] boundaries = tokenizeLine(line, DelimiterMatcher.compile(delimiter));
+
+        if (boundaries == null) {
+            return null;
+        }
+
+        return restructureLine(line, boundaries, delimiter, columnLengths,
+                getFormattedLineLength(delimiter, columnLengths), columnWidthLimits);
+
+    }
+
+    /**
+     * Formats the current line of the reader, given the lengths of every column.
+     *
+     * @param reader
+     *                      the reader positioned at the line that needs
+     *                      formatting
+     * @param delimiter
+     *                      the character that forms the columns of the data in
+     *                      the line
+     * @param columnLengths
+     *                      the length of each column, as returned by
+     *                      {@link FormatInputUtils#getColumnLengths(String, String)}
+     *
+     * @return the formatted line, or null if the line is blank and is not part of
+     *         the formatted contents
+     *
+     * @throws IOException
+     */
+    public static StringBuilder formatLine(MappedFileReader reader, String delimiter, int[] columnLengths)
+            throws IOException {
+
+        if (!ByteTokenizerUtils.isSingleByteDelimiter(delimiter)) {
+            return formatLine(reader.getLine(), delimiter, columnLengths);
+        }
+
+        int[] boundaries = ByteTokenizerUtils.tokenizeLine(reader.getRegion(), reader.getLineStart(),
+                reader.getLineEnd(), DelimiterMatcher.compile(delimiter));
+
+        if (boundaries == null) {
+            return null;
+        }
+
+        return restructureEncodedLine(reader.getRegion(), boundaries, delimiter, columnLengths,
+                getFormattedLineLength(delimiter, columnLengths), columnWidthLimits);
+
+    }
+
+    /*
+     * Checks whether the file is large enough for its column lengths to be
+     * computed in parallel.
+     */
+    private static synchronized boolean isParallel(MappedFileReader reader) {
+
+        return parallelism > 1 && reader.getFileSize() > parallelThreshold;
+
+    }
+
+    /*
+     * Computes the column lengths of the file one mapped block of lines at a time,
+     * splitting each block across the fork/join pool.
+     */
+    private static int[] getColumnLengthsInParallel(MappedFileReader reader, DelimiterMatcher delimiter)
+            throws IOException {
+
+        ForkJoinPool pool = getForkJoinPool();
+        int threshold = getParallelThreshold();
+        int[] columnLengths = new int[0];
+
+        while (reader.nextLines()) {
+            checkInterrupted();
+            columnLengths = mergeColumnLengths(columnLengths, pool.invoke(new ColumnLengthsTask(reader.getRegion(),
+                    reader.getLineStart(), reader.getLineEnd(), delimiter, threshold)));
+        }
+
+        return columnLengths;
+
+    }
+
+    /*
+     * Formats the lines of the file one mapped block of lines at a time, splitting
+     * each block across the fork/join pool. Each line is rendered into a
+     * StringBuilder sized to the formatted line length, and the lines are kept in
+     * the order they appear in the file.
+     */
+    private static List<StringBuilder> formatLinesInParallel(MappedFileReader reader, String delimiter,
+            int[] columnLengths) throws IOException {
+
+        ForkJoinPool pool = getForkJoinPool();
+        int threshold = getParallelThreshold();
+        List<StringBuilder> linesAsStringBuilders = new ArrayList<>();
+
+        try {
+
+            while (reader.nextLines()) {
+                checkInterrupted();
+                linesAsStringBuilders.addAll(pool.invoke(new FormatLinesTask(reader.getRegion(), reader.getLineStart(),
+                        reader.getLineEnd(), delimiter, columnLengths, threshold)));
+            }
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return linesAsStringBuilders;
+
+    }
+
+    /*
+     * Gets the fork/join pool used to format large input files, creating it with
+     * the configured parallelism on first use.
+     */
+    private static synchronized ForkJoinPool getForkJoinPool() {
+
+        if (forkJoinPool == null) {
+            forkJoinPool = new ForkJoinPool(parallelism);
+        }
+
+        return forkJoinPool;
+
+    }
+
+    /*
+     * Gets the size in bytes at or below which blocks of lines are no longer split.
+     */
+    private static synchronized int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /*
+     * Updates the column lengths with the display width of the entries of a
+     * tokenized line, growing the column lengths if the line has more cells than
+     * any line before it.
+     */
+    private static int[] updateColumnLengths(int[] columnLengths, String line, int[] boundaries) {
+
+        int cellCount = boundaries.length / 2;
+
+        if (cellCount > columnLengths.length) {
+            columnLengths = growColumnLengths(columnLengths, cellCount);
+        }
+
+        for (int column = 0; column < cellCount; column++) {
+
+            // Empty entries still take up a single character in their column
+            int entryLength = Math.max(
+                    DisplayWidthUtils.getWidth(line, boundaries[2 * column], boundaries[2 * column + 1]), 1);
+
+            if (entryLength > columnLengths[column]) {
+                columnLengths[column] = entryLength;
+            }
+
+        }
+
+        return columnLengths;
+
+    }
+
+    /*
+     * Updates the column lengths with the display width of the entries of a line
+     * tokenized from its bytes, measuring each entry without decoding it.
+     */
+    private static int[] updateColumnLengths(int[] columnLengths, ByteBuffer input, int[] boundaries) {
+
+        int cellCount = boundaries.length / 2;
+
+        if (cellCount > columnLengths.length) {
+            columnLengths = growColumnLengths(columnLengths, cellCount);
+        }
+
+        for (int column = 0; column < cellCount; column++) {
+
+            // Empty entries still take up a single character in their column
+            int entryLength = Math.max(
+                    DisplayWidthUtils.getWidth(input, boundaries[2 * column], boundaries[2 * column + 1]), 1);
+
+            if (entryLength > columnLengths[column]) {
+                columnLengths[column] = entryLength;
+            }
+
+        }
+
+        return columnLengths;
+
+    }
+
+    /*
+     * Gets the display width of each entry in the current line of the reader,
+     * limited to the maximum width of its column. Returns null if the line is blank.
+     */
+    private static int[] getEntryLengths(MappedFileReader reader, String delimiter, ColumnWidthLimits limits)
+            throws IOException {
+
+        if (!ByteTokenizerUtils.isSingleByteDelimiter(delimiter)) {
+
+            String line = reader.getLine();
+            int[] boundaries = tokenizeLine(line, DelimiterMatcher.compile(delimiter));
+
+            return boundaries == null ? null : getEntryLengths(line, boundaries, limits);
+
+        }
+
+        int[] boundaries = ByteTokenizerUtils.tokenizeLine(reader.getRegion(), reader.getLineStart(),
+                reader.getLineEnd(), DelimiterMatcher.compile(delimiter));
+
+        return boundaries == null ? null : getEntryLengths(reader.getRegion(), boundaries, limits);
+
+    }
+
+    /*
+     * Gets the display width of each entry of a tokenized line, limited to the
+     * maximum width of its column.
+     */
+    private static int[] getEntryLengths(String line, int[] boundaries, ColumnWidthLimits limits) {
+
+        int[] entryLengths = new int[boundaries.length / 2];
+
+        for (int column = 0; column < entryLengths.length; column++) {
+
+            // Empty entries still take up a single character in their column
+            entryLengths[column] = Math.min(
+                    Math.max(DisplayWidthUtils.getWidth(line, boundaries[2 * column], boundaries[2 * column + 1]), 1),
+                    limits.getMaxWidth(column));
+
+        }
+
+        return entryLengths;
+
+    }
+
+    /*
+     * Gets the display width of each entry of a line tokenized from its bytes,
+     * limited to the maximum width of its column, measuring each entry without
+     * decoding it.
+     */
+    private static int[] getEntryLengths(ByteBuffer input, int[] boundaries, ColumnWidthLimits limits) {
+
+        int[] entryLengths = new int[boundaries.length / 2];
+
+        for (int column = 0; column < entryLengths.length; column++) {
+
+            // Empty entries still take up a single character in their column
+            entryLengths[column] = Math.min(Math.max(
+                    DisplayWidthUtils.getWidth(input, boundaries[2 * column], boundaries[2 * column + 1]), 1),
+                    limits.getMaxWidth(column));
+
+        }
+
+        return entryLengths;
+
+    }
+
+    /*
+     * Finds the start and end offsets of every cell in the line, with white spaces
+     * before and after each entry excluded. The offsets are stored in pairs, one
+     * pair per cell. Returns null if the line is blank.
+     */
+    private static int[] tokenizeLine(String line, DelimiterMatcher delimiter) {
+
+        int lineStart = 0;
+        int lineEnd = line.length();
+
+        // Ignore white spaces before first and after last non-space character
+        while (lineStart < lineEnd && line.charAt(lineStart) <= SPACE_CHARACTER) {
+            lineStart++;
+        }
+        while (lineEnd > lineStart && line.charAt(lineEnd - 1) <= SPACE_CHARACTER) {
+            lineEnd--;
+        }
+
+        if (lineStart == lineEnd) {
+            return null;
+        }
+
+        // The line is treated as starting with a delimiter whether or not it has one,
+        // and empty entries after the last non-empty entry are dropped
+        lineStart = delimiter.skipLeading(line, lineStart, lineEnd);
+        lineEnd = delimiter.skipTrailing(line, lineStart, lineEnd);
+
+        if (lineStart == lineEnd) {
+            return new int[0];
+        }
+
+        int delimiterLength = delimiter.length();
+        int delimiterCount = 0;
+        for (int i = delimiter.indexIn(line, lineStart, lineEnd); i >= 0; i = delimiter.indexIn(line,
+                i + delimiterLength, lineEnd)) {
+            delimiterCount++;
+        }
+
+        int[] boundaries = new int[2 * (delimiterCount + 1)];
+        int cellStart = lineStart;
+
+        for (int cell = 0; cell <= delimiterCount; cell++) {
+
+            int cellEnd = cell < delimiterCount ? delimiter.indexIn(line, cellStart, lineEnd) : lineEnd;
+
+            // Remove white spaces before and after each entry
+            int start = cellStart;
+            int end = cellEnd;
+            while (start < end && line.charAt(start) <= SPACE_CHARACTER) {
+                start++;
+            }
+            while (end > start && line.charAt(end - 1) <= SPACE_CHARACTER) {
+                end--;
+            }
+
+            boundaries[2 * cell] = start;
+            boundaries[2 * cell + 1] = end;
+            cellStart = cellEnd + delimiterLength;
+
+        }
+
+        return boundaries;
+
+    }
+
+    /*
+     * Creates a table with room for every row and cell of the mapped region,
+     * counting its line feeds and delimiters up front. Every row has at most as
+     * many cells as delimiters, unless the delimiters at the start and end of it
+     * are left out.
+     */
+    private static ColumnedTable createTable(ByteBuffer region, DelimiterMatcher delimiter, int expectedTextLength) {
+
+        int expectedRows = ByteScannerUtils.count(region, 0, region.limit(), LINE_FEED_BYTE) + 1;
+        int expectedCells = Math.max(delimiter.countIn(region, 0, region.limit()), expectedRows);
+
+        return new ColumnedTable(expectedRows, expectedCells, expectedTextLength);
+
+    }
+
+    /*
+     * Appends every non-blank record of quoted input to the table.
+     */
+    private static ColumnedTable tokenizeRecords(QuotedRecordReader records, ColumnedTable table) throws IOException {
+
+        while (records.nextRecord(table)) {
+            // Each record is appended to the table as it is read
+            checkInterrupted(table.getRowCount());
+        }
+
+        return table;
+
+    }
+
+    /*
+     * Stops formatting if its thread has been interrupted, e.g. because its request
+     * to the formatter daemon timed out, checking once every so many rows.
+     */
+    private static void checkInterrupted(int row) throws InterruptedIOException {
+
+        if ((row & (INTERRUPT_CHECK_ROWS - 1)) == 0) {
+            checkInterrupted();
+        }
+
+    }
+
+    /*
+     * Stops formatting if its thread has been interrupted, clearing the interrupt.
+     */
+    private static void checkInterrupted() throws InterruptedIOException {
+
+        if (Thread.interrupted()) {
+            throw new InterruptedIOException(ERROR_MESSAGE_FORMATTING_INTERRUPTED);
+        }
+
+    }
+
+    /*
+     * Extends the column lengths to columnCount columns, with each new column at
+     * the minimum length of a single character.
+     */
+    private static int[] growColumnLengths(int[] columnLengths, int columnCount) {
+
+        int[] grownColumnLengths = Arrays.copyOf(columnLengths, columnCount);
+        Arrays.fill(grownColumnLengths, columnLengths.length, columnCount, 1);
+
+        return grownColumnLengths;
+
+    }
+
+    /*
+     * Renders a single tokenized line with every cell fitted to its column length.
+     */
+    private static StringBuilder restructureLine(String line, int[] boundaries, String delimiter, int[] columnLengths,
+            int lineLength, ColumnWidthLimits limits) {
+
+        StringBuilder formattedLine = new StringBuilder(lineLength);
+        int columnCount = Math.max(columnLengths.length, boundaries.length / 2);
+
+        for (int column = 0; column < columnCount; column++) {
+
+            if (column == 0) {
+                formattedLine.append(delimiter);
+            }
+            formattedLine.append(SPACE);
+
+            int entryStart = formattedLine.length();
+            if (2 * column < boundaries.length) {
+                formattedLine.append(line, boundaries[2 * column], boundaries[2 * column + 1]);
+            }
+
+            fitEntry(formattedLine, entryStart, columnLengths, column, limits);
+
+            formattedLine.append(SPACE);
+            formattedLine.append(delimiter);
+
+        }
+
+        return formattedLine;
+
+    }
+
+    /*
+     * Leaves out the cells of a line past the sampled columns if lines are cut
+     * short to the column lengths, so the line stays aligned with the others.
+     * Lines are left as they are if no rows were sampled, as there are no columns
+     * to align them to.
+     */
+    private static int[] getFittedBoundaries(int[] boundaries, int[] columnLengths, OverflowPolicy policy) {
+
+        if (policy != OverflowPolicy.TRUNCATE || columnLengths.length == 0
+                || boundaries.length <= 2 * columnLengths.length) {
+            return boundaries;
+        }
+
+        return Arrays.copyOf(boundaries, 2 * columnLengths.length);
+
+    }
+
+    /*
+     * Renders a single line tokenized from its bytes with every cell fitted to its
+     * column length.
+     */
+    private static StringBuilder restructureEncodedLine(ByteBuffer input, int[] boundaries, String delimiter,
+            int[] columnLengths, int lineLength, ColumnWidthLimits limits) throws IOException {
+
+        StringBuilder formattedLine = new StringBuilder(lineLength);
+        int columnCount = Math.max(columnLengths.length, boundaries.length / 2);
+
+        for (int column = 0; column < columnCount; column++) {
+
+            if (column == 0) {
+                formattedLine.append(delimiter);
+            }
+            formattedLine.append(SPACE);
+
+            int entryStart = formattedLine.length();
+            if (2 * column < boundaries.length) {
+                ByteTokenizerUtils.appendEntry(formattedLine, input, boundaries[2 * column],
+                        boundaries[2 * column + 1]);
+            }
+
+            fitEntry(formattedLine, entryStart, columnLengths, column, limits);
+
+            formattedLine.append(SPACE);
+            formattedLine.append(delimiter);
+
+        }
+
+        return formattedLine;
+
+    }
+
+    /*
+     * Pads or cuts short the entry at the end of the formatted line to the display
+     * width of its column. Columns past the column lengths only appear in lines with
+     * more cells than the column lengths cover, and take their length from the
+     * column width limits.
+     */
+    private static void fitEntry(StringBuilder formattedLine, int entryStart, int[] columnLengths, int column,
+            ColumnWidthLimits limits) {
+
+        int columnLength = column < columnLengths.length ? columnLengths[column]
+                : limits.getColumnLength(column,
+                        DisplayWidthUtils.getWidth(formattedLine, entryStart, formattedLine.length()));
+
+        limits.fitEntry(formattedLine, entryStart, columnLength);
+
+    }
+
+    /*
+     * Gets the character length of every formatted line, given the column lengths.
+     */
+    private static int getFormattedLineLength(String delimiter, int[] columnLengths) {
+
+        if (columnLengths.length == 0) {
+            return 0;
+        }
+
+        int lineLength = delimiter.length();
+
+        for (int columnLength : columnLengths) {
+            lineLength += SPACE.length() + columnLength + SPACE.length() + delimiter.length();
+        }
+
+        return lineLength;
+
     }
 
 }
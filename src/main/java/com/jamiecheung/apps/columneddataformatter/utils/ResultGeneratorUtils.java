@@ -4,17 +4,30 @@ import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstan
 import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.END_OF_FORMATTED_DATA_CONTENTS;
 import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.FILE_EXTENSION_START_CHARACTER;
 import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.FILE_PATH_SEPARATOR_CHARACTERS;
-import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.NEW_LINE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.METRICS_REPORT_FILE_NAME;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.QUOTED_STREAM_WINDOW_ROWS;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.RESULT_CACHE_MANIFEST_FILE_NAME;
 import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.RESULT_FILE_SUFFIX;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SAMPLED_ROWS_OVERFLOWED;
 import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.START_OF_FORMATTED_DATA_CONTENTS;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.stream.Stream;
+
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineMetrics;
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineStage;
+import com.jamiecheung.apps.columneddataformatter.model.ColumnedTable;
+import com.jamiecheung.apps.columneddataformatter.model.SampledColumnLengths;
+import com.jamiecheung.apps.columneddataformatter.readers.MappedFileReader;
+import com.jamiecheung.apps.columneddataformatter.readers.QuotedRecordReader;
+import com.jamiecheung.apps.columneddataformatter.writers.ConsoleWriter;
+import com.jamiecheung.apps.columneddataformatter.writers.ResultFileWriter;
 
 /**
  * Utility class for generating the transformed contents of the input.
@@ -41,7 +54,34 @@ public class ResultGeneratorUtils {
     public static void writeOutFormattedResults(List<StringBuilder> linesAsStringBuilders, String inputFile,
             String resultDirectory, boolean isResultDirectoryValid) throws IOException {
 
-        outputResultsToConsole(linesAsStringBuilders);
+        writeOutFormattedResults(System.out, linesAsStringBuilders, inputFile, resultDirectory,
+                isResultDirectoryValid);
+
+    }
+
+    /**
+     * Outputs the formatted results to the output stream in the same way as to the
+     * console, and generates a file containing the resulting formatted contents.
+     *
+     * @param console
+     *                               the output stream to write the console output
+     *                               to
+     * @param linesAsStringBuilders
+     *                               the formatted lines
+     * @param inputFile
+     *                               the file containing the input text
+     * @param resultDirectory
+     *                               the folder to create the resulting file
+     *                               containing the linesAsStringBuilders
+     * @param isResultDirectoryValid
+     *                               whether the resulting file should be generated
+     *
+     * @throws IOException
+     */
+    public static void writeOutFormattedResults(OutputStream console, List<StringBuilder> linesAsStringBuilders,
+            String inputFile, String resultDirectory, boolean isResultDirectoryValid) throws IOException {
+
+        outputResultsToConsole(console, linesAsStringBuilders);
 
         if (isResultDirectoryValid) {
             generateResultFile(inputFile, resultDirectory, linesAsStringBuilders);
@@ -49,80 +89,653 @@ public class ResultGeneratorUtils {
 
     }
 
-    /*
-     * Outputs the formatted results to the console.
+    /**
+     * Formats each row of the table and outputs it to the console and to the
+     * resulting file as soon as it is formatted. Every row is formatted into the
+     * same StringBuilder, so the formatted lines are never all held in memory.
+     *
+     * @param table
+     *                               the table of cells, as returned by
+     *                               {@link FormatInputUtils#tokenizeInputFile(List, String)}
+     * @param delimiter
+     *                               the character that forms the columns of the
+     *                               data
+     * @param inputFile
+     *                               the file containing the input text
+     * @param resultDirectory
+     *                               the folder to create the resulting file
+     *                               containing the formatted lines
+     * @param isResultDirectoryValid
+     *                               whether the resulting file should be generated
+     *
+     * @throws IOException
      */
-    private static void outputResultsToConsole(List<StringBuilder> linesAsStringBuilders) {
+    public static void writeOutFormattedResults(ColumnedTable table, String delimiter, String inputFile,
+            String resultDirectory, boolean isResultDirectoryValid) throws IOException {
 
-        System.out.println(START_OF_FORMATTED_DATA_CONTENTS);
-        linesAsStringBuilders.stream().forEach(System.out::println);
-        System.out.println(END_OF_FORMATTED_DATA_CONTENTS);
+        writeOutFormattedResults(System.out, table, delimiter, inputFile, resultDirectory, isResultDirectoryValid);
 
     }
 
-    /*
-     * Generates the file containing the resulting formatted contents.
+    /**
+     * Formats each row of the table in the same way as
+     * {@link ResultGeneratorUtils#writeOutFormattedResults(ColumnedTable, String, String, String, boolean)},
+     * outputting it to the output stream in the same way as to the console.
+     *
+     * @param console
+     *                               the output stream to write the console output
+     *                               to
+     * @param table
+     *                               the table of cells, as returned by
+     *                               {@link FormatInputUtils#tokenizeInputFile(List, String)}
+     * @param delimiter
+     *                               the character that forms the columns of the
+     *                               data
+     * @param inputFile
+     *                               the file containing the input text
+     * @param resultDirectory
+     *                               the folder to create the resulting file
+     *                               containing the formatted lines
+     * @param isResultDirectoryValid
+     *                               whether the resulting file should be generated
+     *
+     * @throws IOException
      */
-    private static void generateResultFile(String inputFile, String resultDirectory,
-            List<StringBuilder> linesAsStringBuilders) throws IOException {
+    public static void writeOutFormattedResults(OutputStream console, ColumnedTable table, String delimiter,
+            String inputFile, String resultDirectory, boolean isResultDirectoryValid) throws IOException {
+
+        int[] columnLengths = FormatInputUtils.getColumnLengths(table);
+        StringBuilder formattedLine = new StringBuilder();
+
+        PipelineMetrics.startStage(PipelineStage.RENDER);
+
+        try (ConsoleWriter consoleWriter = new ConsoleWriter(console);
+                ResultFileWriter writer = isResultDirectoryValid
+                        ? new ResultFileWriter(getResultFilePath(inputFile, resultDirectory))
+                        : null) {
 
-        Path inputFilePath = Paths.get(inputFile);
+            consoleWriter.writeLine(START_OF_FORMATTED_DATA_CONTENTS);
 
-        String resultFileName = nameResultFile(inputFilePath);
-        Path resultFilePath = createResultFile(resultDirectory, resultFileName);
+            for (int row = 0; row < table.getRowCount(); row++) {
 
-        writeResultFile(resultFilePath, linesAsStringBuilders);
+                formattedLine.setLength(0);
+                FormatInputUtils.appendFormattedRow(formattedLine, table, row, delimiter, columnLengths);
+
+                consoleWriter.writeLine(formattedLine);
+
+                if (writer != null) {
+                    writer.writeLine(formattedLine);
+                }
+
+            }
+
+            PipelineMetrics.addRows(table.getRowCount(), columnLengths.length);
+            consoleWriter.writeLine(END_OF_FORMATTED_DATA_CONTENTS);
+
+            if (writer != null) {
+                writer.publish();
+            }
+
+        } finally {
+            PipelineMetrics.endStage();
+        }
 
     }
 
-    /*
-     * Names the resulting file by appending a suffix onto the input file name.
+    /**
+     * Formats the input file one line at a time through a memory mapping,
+     * outputting each formatted line to the console and to the resulting file as
+     * soon as it is formatted. Only the current line is held in memory, and the
+     * console is flushed after the first line so it is seen straight away.
+     * Records of quoted input may span lines, so are formatted a window of
+     * records at a time instead, with the same column lengths.
+     *
+     * @param inputFile
+     *                               the file containing the input text
+     * @param delimiter
+     *                               the character that forms the columns of the
+     *                               data in the inputFile
+     * @param columnLengths
+     *                               the length of each column, as returned by
+     *                               {@link FormatInputUtils#getColumnLengths(String, String)}
+     * @param resultDirectory
+     *                               the folder to create the resulting file
+     *                               containing the formatted lines
+     * @param isResultDirectoryValid
+     *                               whether the resulting file should be generated
+     *
+     * @throws IOException
      */
-    private static String nameResultFile(Path inputFilePath) {
+    public static void streamOutFormattedResults(String inputFile, String delimiter, int[] columnLengths,
+            String resultDirectory, boolean isResultDirectoryValid) throws IOException {
 
-        StringBuilder inputFileName = new StringBuilder(inputFilePath.getFileName().toString());
-        int suffixPosition = inputFileName.indexOf(getFileExtension(inputFilePath.getFileName().toString()));
-        inputFileName.insert(suffixPosition, RESULT_FILE_SUFFIX);
+        streamOutFormattedResults(System.out, inputFile, delimiter, columnLengths, resultDirectory,
+                isResultDirectoryValid);
 
-        return inputFileName.toString();
+    }
+
+    /**
+     * Formats the input file one line at a time in the same way as
+     * {@link ResultGeneratorUtils#streamOutFormattedResults(String, String, int[], String, boolean)},
+     * outputting each formatted line to the output stream in the same way as to
+     * the console.
+     *
+     * @param console
+     *                               the output stream to write the console output
+     *                               to
+     * @param inputFile
+     *                               the file containing the input text
+     * @param delimiter
+     *                               the character that forms the columns of the
+     *                               data in the inputFile
+     * @param columnLengths
+     *                               the length of each column, as returned by
+     *                               {@link FormatInputUtils#getColumnLengths(String, String)}
+     * @param resultDirectory
+     *                               the folder to create the resulting file
+     *                               containing the formatted lines
+     * @param isResultDirectoryValid
+     *                               whether the resulting file should be generated
+     *
+     * @throws IOException
+     */
+    public static void streamOutFormattedResults(OutputStream console, String inputFile, String delimiter,
+            int[] columnLengths, String resultDirectory, boolean isResultDirectoryValid) throws IOException {
+
+        if (FormatInputUtils.isQuoted()) {
+            streamOutWindowedResults(console, inputFile, delimiter, QUOTED_STREAM_WINDOW_ROWS, columnLengths,
+                    resultDirectory, isResultDirectoryValid);
+            return;
+        }
+
+        streamOutFormattedResults(console, inputFile, delimiter, columnLengths, null, resultDirectory,
+                isResultDirectoryValid);
+
+    }
+
+    /**
+     * Formats the input file one window of rows at a time, with each window
+     * formatted with the column lengths of its own rows, in the same way as
+     * {@link ResultGeneratorUtils#writeOutFormattedResults(ColumnedTable, String, String, String, boolean)}.
+     * Each window is output to the console as soon as it is formatted, so only a
+     * single window is held in memory.
+     *
+     * @param inputFile
+     *                               the file containing the input text
+     * @param delimiter
+     *                               the character that forms the columns of the
+     *                               data in the inputFile
+     * @param windowRows
+     *                               the number of rows in each window
+     * @param resultDirectory
+     *                               the folder to create the resulting file
+     *                               containing the formatted lines
+     * @param isResultDirectoryValid
+     *                               whether the resulting file should be generated
+     *
+     * @throws IOException
+     */
+    public static void streamOutWindowedResults(String inputFile, String delimiter, int windowRows,
+            String resultDirectory, boolean isResultDirectoryValid) throws IOException {
+
+        streamOutWindowedResults(System.out, inputFile, delimiter, windowRows, null, resultDirectory,
+                isResultDirectoryValid);
+
+    }
+
+    /**
+     * Formats the input file one window of rows at a time in the same way as
+     * {@link ResultGeneratorUtils#streamOutWindowedResults(String, String, int, String, boolean)},
+     * outputting each window to the output stream in the same way as to the
+     * console.
+     *
+     * @param console
+     *                               the output stream to write the console output
+     *                               to
+     * @param inputFile
+     *                               the file containing the input text
+     * @param delimiter
+     *                               the character that forms the columns of the
+     *                               data in the inputFile
+     * @param windowRows
+     *                               the number of rows in each window
+     * @param resultDirectory
+     *                               the folder to create the resulting file
+     *                               containing the formatted lines
+     * @param isResultDirectoryValid
+     *                               whether the resulting file should be generated
+     *
+     * @throws IOException
+     */
+    public static void streamOutWindowedResults(OutputStream console, String inputFile, String delimiter,
+            int windowRows, String resultDirectory, boolean isResultDirectoryValid) throws IOException {
+
+        streamOutWindowedResults(console, inputFile, delimiter, windowRows, null, resultDirectory,
+                isResultDirectoryValid);
 
     }
 
     /*
-     * Creates the resulting file on the file system if it does not already exist.
+     * Formats and outputs the input file one window of rows at a time, with
+     * either the column lengths of each window or the same column lengths for
+     * every window.
      */
-    private static Path createResultFile(String resultDirectory, String resultFileName) throws IOException {
+    private static void streamOutWindowedResults(OutputStream console, String inputFile, String delimiter,
+            int windowRows, int[] columnLengths, String resultDirectory, boolean isResultDirectoryValid)
+            throws IOException {
+
+        ColumnedTable table = new ColumnedTable();
+        StringBuilder formattedLine = new StringBuilder();
+
+        PipelineMetrics.startStage(PipelineStage.RENDER);
+
+        try (ConsoleWriter consoleWriter = new ConsoleWriter(console);
+                MappedFileReader reader = new MappedFileReader(inputFile);
+                ResultFileWriter writer = isResultDirectoryValid
+                        ? new ResultFileWriter(getResultFilePath(inputFile, resultDirectory))
+                        : null) {
+
+            consoleWriter.writeLine(START_OF_FORMATTED_DATA_CONTENTS);
+
+            QuotedRecordReader records = FormatInputUtils.isQuoted()
+                    ? new QuotedRecordReader(reader, delimiter, FormatInputUtils.getQuoteCharacter(),
+                            FormatInputUtils.getEscapeCharacter())
+                    : null;
+
+            while (PipelineMetrics.measure(PipelineStage.TOKENIZE,
+                    () -> records != null ? FormatInputUtils.nextWindow(records, table, windowRows)
+                            : FormatInputUtils.nextWindow(reader, delimiter, table, windowRows))) {
+
+                int[] windowColumnLengths = columnLengths != null ? columnLengths
+                        : FormatInputUtils.getColumnLengths(table);
+
+                for (int row = 0; row < table.getRowCount(); row++) {
+
+                    formattedLine.setLength(0);
+                    FormatInputUtils.appendFormattedRow(formattedLine, table, row, delimiter, windowColumnLengths);
+
+                    consoleWriter.writeLine(formattedLine);
+
+                    if (writer != null) {
+                        writer.writeLine(formattedLine);
+                    }
+
+                }
+
+                PipelineMetrics.addRows(table.getRowCount(), windowColumnLengths.length);
+                consoleWriter.flush();
 
-        Path resultFilePath = Paths.get(resultDirectory, resultFileName);
+            }
+
+            consoleWriter.writeLine(END_OF_FORMATTED_DATA_CONTENTS);
 
-        if (!Files.exists(resultFilePath)) {
-            Files.createFile(resultFilePath);
+            if (writer != null) {
+                writer.publish();
+            }
+
+        } finally {
+            PipelineMetrics.endStage();
         }
 
-        return resultFilePath;
+    }
+
+    /**
+     * Formats the input file one line at a time with sampled column lengths, in
+     * the same way as
+     * {@link ResultGeneratorUtils#streamOutFormattedResults(String, String, int[], String, boolean)}.
+     * Whenever the column lengths are widened by a line that overflows them, the
+     * first line is output again with the new column lengths before it. Once
+     * every line is formatted, the number of lines that overflowed is reported.
+     *
+     * @param inputFile
+     *                               the file containing the input text
+     * @param delimiter
+     *                               the character that forms the columns of the
+     *                               data in the inputFile
+     * @param sampledColumnLengths
+     *                               the column lengths, as returned by
+     *                               {@link FormatInputUtils#getSampledColumnLengths(String, String)}
+     * @param resultDirectory
+     *                               the folder to create the resulting file
+     *                               containing the formatted lines
+     * @param isResultDirectoryValid
+     *                               whether the resulting file should be generated
+     *
+     * @throws IOException
+     */
+    public static void streamOutSampledResults(String inputFile, String delimiter,
+            SampledColumnLengths sampledColumnLengths, String resultDirectory, boolean isResultDirectoryValid)
+            throws IOException {
+
+        streamOutSampledResults(System.out, inputFile, delimiter, sampledColumnLengths, resultDirectory,
+                isResultDirectoryValid);
+        reportOverflowedRows(inputFile, sampledColumnLengths);
 
     }
 
-    /*
-     * Writes out the formatted lines onto the resulting file.
+    /**
+     * Formats the input file one line at a time with sampled column lengths in the
+     * same way as
+     * {@link ResultGeneratorUtils#streamOutSampledResults(String, String, SampledColumnLengths, String, boolean)},
+     * outputting each formatted line to the output stream in the same way as to
+     * the console. The lines that overflowed are left to be reported by
+     * {@link ResultGeneratorUtils#reportOverflowedRows(String, SampledColumnLengths)}.
+     *
+     * @param console
+     *                               the output stream to write the console output
+     *                               to
+     * @param inputFile
+     *                               the file containing the input text
+     * @param delimiter
+     *                               the character that forms the columns of the
+     *                               data in the inputFile
+     * @param sampledColumnLengths
+     *                               the column lengths, as returned by
+     *                               {@link FormatInputUtils#getSampledColumnLengths(String, String)}
+     * @param resultDirectory
+     *                               the folder to create the resulting file
+     *                               containing the formatted lines
+     * @param isResultDirectoryValid
+     *                               whether the resulting file should be generated
+     *
+     * @throws IOException
      */
-    private static void writeResultFile(Path resultFilePath, List<StringBuilder> linesAsStringBuilders)
+    public static void streamOutSampledResults(OutputStream console, String inputFile, String delimiter,
+            SampledColumnLengths sampledColumnLengths, String resultDirectory, boolean isResultDirectoryValid)
             throws IOException {
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(resultFilePath.toFile()))) {
+        streamOutFormattedResults(console, inputFile, delimiter, null, sampledColumnLengths, resultDirectory,
+                isResultDirectoryValid);
 
-            for (int i = 0; i < linesAsStringBuilders.size(); i++) {
+    }
+
+    /**
+     * Reports the number of lines of the input file that overflowed the sampled
+     * column lengths, once every line has been formatted.
+     *
+     * @param inputFile
+     *                             the file containing the input text
+     * @param sampledColumnLengths
+     *                             the column lengths the input file was
+     *                             formatted with
+     */
+    public static void reportOverflowedRows(String inputFile, SampledColumnLengths sampledColumnLengths) {
+
+        System.err.println(String.format(SAMPLED_ROWS_OVERFLOWED, sampledColumnLengths.getOverflowedRowCount(),
+                sampledColumnLengths.getRowCount(), inputFile, sampledColumnLengths.getSampledRows()));
+        System.err.println();
+
+    }
+
+    /*
+     * Formats and outputs the input file one line at a time, with either the
+     * column lengths or the sampled column lengths.
+     */
+    private static void streamOutFormattedResults(OutputStream console, String inputFile, String delimiter,
+            int[] columnLengths, SampledColumnLengths sampledColumnLengths, String resultDirectory,
+            boolean isResultDirectoryValid) throws IOException {
 
-                writer.write(linesAsStringBuilders.get(i).toString());
+        long rows = 0;
 
-                // Insert a new line for the next row of data, but do not add a new line after
-                // the last row of data
-                if (i != linesAsStringBuilders.size() - 1) {
-                    writer.write(NEW_LINE);
+        PipelineMetrics.startStage(PipelineStage.RENDER);
+
+        try (ConsoleWriter consoleWriter = new ConsoleWriter(console);
+                MappedFileReader reader = new MappedFileReader(inputFile);
+                ResultFileWriter writer = isResultDirectoryValid
+                        ? new ResultFileWriter(getResultFilePath(inputFile, resultDirectory))
+                        : null) {
+
+            consoleWriter.writeLine(START_OF_FORMATTED_DATA_CONTENTS);
+
+            boolean isFirstLine = true;
+
+            while (reader.nextLine()) {
+
+                StringBuilder formattedLine = sampledColumnLengths == null
+                        ? FormatInputUtils.formatLine(reader, delimiter, columnLengths)
+                        : FormatInputUtils.formatSampledLine(reader, delimiter, sampledColumnLengths);
+
+                if (formattedLine == null) {
+                    continue;
+                }
+
+                // Realign the header with the columns widened by this line
+                if (sampledColumnLengths != null && sampledColumnLengths.takeWidened()) {
+
+                    StringBuilder formattedHeaderLine = FormatInputUtils.formatLine(
+                            sampledColumnLengths.getHeaderLine(), delimiter, sampledColumnLengths.getColumnLengths());
+
+                    consoleWriter.writeLine(formattedHeaderLine);
+
+                    if (writer != null) {
+                        writer.writeLine(formattedHeaderLine);
+                    }
+
+                }
+
+                consoleWriter.writeLine(formattedLine);
+
+                if (writer != null) {
+                    writer.writeLine(formattedLine);
+                }
+
+                rows++;
+
+                if (isFirstLine) {
+                    consoleWriter.flush();
+                    isFirstLine = false;
                 }
 
             }
 
+            PipelineMetrics.addRows(rows, sampledColumnLengths == null ? columnLengths.length
+                    : sampledColumnLengths.getColumnLengths().length);
+            consoleWriter.writeLine(END_OF_FORMATTED_DATA_CONTENTS);
+
+            if (writer != null) {
+                writer.publish();
+            }
+
+        } finally {
+            PipelineMetrics.endStage();
+        }
+
+    }
+
+    /**
+     * Outputs the formatted results to the console, between the lines marking the
+     * start and end of the formatted contents.
+     *
+     * @param linesAsStringBuilders
+     *                              the formatted lines
+     *
+     * @throws IOException
+     */
+    public static void outputResultsToConsole(List<StringBuilder> linesAsStringBuilders) throws IOException {
+
+        outputResultsToConsole(System.out, linesAsStringBuilders);
+
+    }
+
+    /**
+     * Outputs the formatted results to the output stream in the same way as
+     * {@link ResultGeneratorUtils#outputResultsToConsole(List)} outputs them to the
+     * console.
+     *
+     * @param console
+     *                              the output stream to write the console output
+     *                              to
+     * @param linesAsStringBuilders
+     *                              the formatted lines
+     *
+     * @throws IOException
+     */
+    public static void outputResultsToConsole(OutputStream console, List<StringBuilder> linesAsStringBuilders)
+            throws IOException {
+
+        try (ConsoleWriter consoleWriter = new ConsoleWriter(console)) {
+
+            consoleWriter.writeLine(START_OF_FORMATTED_DATA_CONTENTS);
+
+            for (StringBuilder formattedLine : linesAsStringBuilders) {
+                consoleWriter.writeLine(formattedLine);
+            }
+
+            consoleWriter.writeLine(END_OF_FORMATTED_DATA_CONTENTS);
+
+        }
+
+    }
+
+    /**
+     * Outputs the formatted results already in the resulting file to the console,
+     * in the same way as
+     * {@link ResultGeneratorUtils#outputResultsToConsole(List)}, without
+     * formatting the input file again.
+     *
+     * @param inputFile
+     *                        the file containing the input text, used to name the
+     *                        resulting file
+     * @param resultDirectory
+     *                        the folder containing the resulting file
+     *
+     * @throws IOException
+     */
+    public static void outputCachedResultsToConsole(String inputFile, String resultDirectory) throws IOException {
+
+        outputCachedResultsToConsole(System.out, inputFile, resultDirectory);
+
+    }
+
+    /**
+     * Outputs the formatted results already in the resulting file to the output
+     * stream in the same way as
+     * {@link ResultGeneratorUtils#outputCachedResultsToConsole(String, String)}
+     * outputs them to the console.
+     *
+     * @param console
+     *                        the output stream to write the console output to
+     * @param inputFile
+     *                        the file containing the input text, used to name the
+     *                        resulting file
+     * @param resultDirectory
+     *                        the folder containing the resulting file
+     *
+     * @throws IOException
+     */
+    public static void outputCachedResultsToConsole(OutputStream console, String inputFile, String resultDirectory)
+            throws IOException {
+
+        // The resulting file is written in the default charset
+        try (ConsoleWriter consoleWriter = new ConsoleWriter(console);
+                Stream<String> formattedLines = Files.lines(getResultFilePath(inputFile, resultDirectory),
+                        Charset.defaultCharset())) {
+
+            consoleWriter.writeLine(START_OF_FORMATTED_DATA_CONTENTS);
+
+            for (String formattedLine : (Iterable<String>) formattedLines::iterator) {
+                consoleWriter.writeLine(formattedLine);
+            }
+
+            consoleWriter.writeLine(END_OF_FORMATTED_DATA_CONTENTS);
+
+        }
+
+    }
+
+    /**
+     * Gets the path of the resulting file generated for the input file.
+     *
+     * @param inputFile
+     *                        the file containing the input text, used to name the
+     *                        resulting file
+     * @param resultDirectory
+     *                        the folder containing the resulting file
+     *
+     * @return the path of the resulting file
+     */
+    public static Path getResultFilePath(String inputFile, String resultDirectory) {
+
+        return Paths.get(resultDirectory, nameResultFile(Paths.get(inputFile)));
+
+    }
+
+    /**
+     * Checks whether the file is one generated in the result directory, rather
+     * than an input file: a resulting file, the manifest of the result cache, the
+     * metrics report, or a temporary file written while replacing any of them.
+     *
+     * @param path
+     *                            the path of the file
+     * @param resultDirectoryPath
+     *                            the absolute, normalized path of the result
+     *                            directory, or null if there is none
+     *
+     * @return whether the file was generated in the result directory
+     */
+    public static boolean isGeneratedFile(Path path, Path resultDirectoryPath) {
+
+        if (resultDirectoryPath == null
+                || !resultDirectoryPath.equals(path.toAbsolutePath().normalize().getParent())) {
+            return false;
+        }
+
+        String fileName = path.getFileName().toString();
+
+        return fileName.startsWith(RESULT_CACHE_MANIFEST_FILE_NAME) || fileName.startsWith(METRICS_REPORT_FILE_NAME)
+                || fileName.contains(RESULT_FILE_SUFFIX + FILE_EXTENSION_START_CHARACTER);
+
+    }
+
+    /**
+     * Generates the file containing the resulting formatted contents, without
+     * outputting them to the console.
+     *
+     * @param inputFile
+     *                              the file containing the input text, used to
+     *                              name the resulting file
+     * @param resultDirectory
+     *                              the folder to create the resulting file in
+     * @param linesAsStringBuilders
+     *                              the formatted lines
+     *
+     * @throws IOException
+     */
+    public static void generateResultFile(String inputFile, String resultDirectory,
+            List<StringBuilder> linesAsStringBuilders) throws IOException {
+
+        writeResultFile(getResultFilePath(inputFile, resultDirectory), linesAsStringBuilders);
+
+    }
+
+    /*
+     * Names the resulting file by appending a suffix onto the input file name.
+     */
+    private static String nameResultFile(Path inputFilePath) {
+
+        StringBuilder inputFileName = new StringBuilder(inputFilePath.getFileName().toString());
+        int suffixPosition = inputFileName.indexOf(getFileExtension(inputFilePath.getFileName().toString()));
+        inputFileName.insert(suffixPosition, RESULT_FILE_SUFFIX);
+
+        return inputFileName.toString();
+
+    }
+
+    /*
+     * Writes out the formatted lines onto the resulting file, replacing it once
+     * every line has been written.
+     */
+    private static void writeResultFile(Path resultFilePath, List<StringBuilder> linesAsStringBuilders)
+            throws IOException {
+
+        try (ResultFileWriter writer = new ResultFileWriter(resultFilePath)) {
+
+            for (StringBuilder formattedLine : linesAsStringBuilders) {
+                writer.writeLine(formattedLine);
+            }
+
+            writer.publish();
+
         }
 
     }
@@ -9,14 +9,33 @@ import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstan
 import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.EXPECTED_ARG_1;
 import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.EXPECTED_ARG_2;
 import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.EXPECTED_ARG_3;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.ELLIPSIS_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.FIXED_WIDTHS_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.LAST_VISIBLE_ASCII_CHARACTER;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.MAX_WIDTHS_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.MAX_WIDTH_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.METRICS_FORMAT_JSON;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.METRICS_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.OPTION_VALUE_SEPARATOR;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.OVERFLOW_OPTION;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SPACE_CHARACTER;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_FIXED_WIDTHS_NOT_PROVIDED;
 import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_NOT_ENOUGH_ARGS;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_OPTION_NOT_A_CHARACTER;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_OPTION_NOT_A_POSITIVE_INTEGER;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_OPTION_NOT_A_POSITIVE_INTEGER_LIST;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_OPTION_NOT_ONE_OF;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
 
 import com.jamiecheung.apps.columneddataformatter.exceptions.ProgramArgumentException;
+import com.jamiecheung.apps.columneddataformatter.model.ColumnWidthLimits;
+import com.jamiecheung.apps.columneddataformatter.model.OverflowPolicy;
 
 /**
  * Class to validate the arguments of the program.
@@ -78,4 +97,428 @@ public class ArgumentsValidator {
 
     }
 
+    /**
+     * Checks whether an optional argument has been provided after the
+     * {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#EXPECTED_ARGS_LENGTH
+     * EXPECTED_ARGS_LENGTH} required arguments.
+     *
+     * @param args
+     *               the array of arguments
+     * @param option
+     *               the optional argument to look for
+     *
+     * @return true iff option is one of the optional arguments, otherwise false.
+     */
+    public static boolean isOptionProvided(String[] args, String option) {
+
+        return isOptionProvided(args, EXPECTED_ARGS_LENGTH, option);
+
+    }
+
+    /**
+     * Checks whether an optional argument has been provided at or after
+     * firstOptionIndex, for programs taking fewer required arguments than
+     * {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#EXPECTED_ARGS_LENGTH
+     * EXPECTED_ARGS_LENGTH}.
+     *
+     * @param args
+     *                         the array of arguments
+     * @param firstOptionIndex
+     *                         the index of the first optional argument
+     * @param option
+     *                         the optional argument to look for
+     *
+     * @return true iff option is one of the optional arguments, otherwise false.
+     */
+    public static boolean isOptionProvided(String[] args, int firstOptionIndex, String option) {
+
+        for (int i = firstOptionIndex; i < args.length; i++) {
+            if (args[i].equals(option)) {
+                return true;
+            }
+        }
+
+        return false;
+
+    }
+
+    /**
+     * Gets the positive whole number given to an optional argument of the form
+     * option followed by its value, e.g. {@code --parallelism=4}, provided after
+     * the
+     * {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#EXPECTED_ARGS_LENGTH
+     * EXPECTED_ARGS_LENGTH} required arguments.
+     *
+     * @param args
+     *                     the array of arguments
+     * @param option
+     *                     the optional argument to look for, including the
+     *                     trailing "="
+     * @param defaultValue
+     *                     the value to use if the option is not provided
+     *
+     * @return the value of the option, or defaultValue if it is not provided
+     *
+     * @throws ProgramArgumentException
+     *                                  if the value of the option is not a
+     *                                  positive whole number
+     */
+    public static int getIntegerOption(String[] args, String option, int defaultValue)
+            throws ProgramArgumentException {
+
+        return getIntegerOption(args, EXPECTED_ARGS_LENGTH, option, defaultValue);
+
+    }
+
+    /**
+     * Gets the positive whole number given to an optional argument of the form
+     * option followed by its value, provided at or after firstOptionIndex, for
+     * programs taking fewer required arguments than
+     * {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#EXPECTED_ARGS_LENGTH
+     * EXPECTED_ARGS_LENGTH}.
+     *
+     * @param args
+     *                         the array of arguments
+     * @param firstOptionIndex
+     *                         the index of the first optional argument
+     * @param option
+     *                         the optional argument to look for, including the
+     *                         trailing "="
+     * @param defaultValue
+     *                         the value to use if the option is not provided
+     *
+     * @return the value of the option, or defaultValue if it is not provided
+     *
+     * @throws ProgramArgumentException
+     *                                  if the value of the option is not a
+     *                                  positive whole number
+     */
+    public static int getIntegerOption(String[] args, int firstOptionIndex, String option, int defaultValue)
+            throws ProgramArgumentException {
+
+        for (int i = firstOptionIndex; i < args.length; i++) {
+
+            if (!args[i].startsWith(option)) {
+                continue;
+            }
+
+            String value = args[i].substring(option.length());
+
+            try {
+
+                int optionValue = Integer.parseInt(value);
+
+                if (optionValue > 0) {
+                    return optionValue;
+                }
+
+            } catch (NumberFormatException e) {
+                // Reported below along with non-positive values
+            }
+
+            throw new ProgramArgumentException(String.format(ERROR_MESSAGE_OPTION_NOT_A_POSITIVE_INTEGER, option, value));
+
+        }
+
+        return defaultValue;
+
+    }
+
+    /**
+     * Gets the positive whole numbers given to an optional argument of the form
+     * option followed by its values separated by commas, e.g.
+     * {@code --max-widths=10,20,5}, provided at or after firstOptionIndex.
+     *
+     * @param args
+     *                         the array of arguments
+     * @param firstOptionIndex
+     *                         the index of the first optional argument
+     * @param option
+     *                         the optional argument to look for, including the
+     *                         trailing "="
+     *
+     * @return the values of the option, or an empty array if it is not provided
+     *
+     * @throws ProgramArgumentException
+     *                                  if any value of the option is not a
+     *                                  positive whole number
+     */
+    public static int[] getIntegerListOption(String[] args, int firstOptionIndex, String option)
+            throws ProgramArgumentException {
+
+        for (int i = firstOptionIndex; i < args.length; i++) {
+
+            if (!args[i].startsWith(option)) {
+                continue;
+            }
+
+            String value = args[i].substring(option.length());
+            String[] listValues = value.split(OPTION_VALUE_SEPARATOR, -1);
+            int[] optionValues = new int[listValues.length];
+
+            for (int j = 0; j < listValues.length; j++) {
+
+                try {
+                    optionValues[j] = Integer.parseInt(listValues[j].trim());
+                } catch (NumberFormatException e) {
+                    // Reported below along with non-positive values
+                }
+
+                if (optionValues[j] <= 0) {
+                    throw new ProgramArgumentException(
+                            String.format(ERROR_MESSAGE_OPTION_NOT_A_POSITIVE_INTEGER_LIST, option, value));
+                }
+
+            }
+
+            return optionValues;
+
+        }
+
+        return new int[0];
+
+    }
+
+    /**
+     * Gets the maximum width of each column from the optional arguments provided
+     * after the
+     * {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#EXPECTED_ARGS_LENGTH
+     * EXPECTED_ARGS_LENGTH} required arguments.
+     *
+     * @param args
+     *             the array of arguments
+     *
+     * @return the maximum width of each column
+     *
+     * @throws ProgramArgumentException
+     *                                  if a maximum width is not a positive
+     *                                  whole number, or the column widths are
+     *                                  fixed without a maximum width for every
+     *                                  column
+     */
+    public static ColumnWidthLimits getColumnWidthLimits(String[] args) throws ProgramArgumentException {
+
+        return getColumnWidthLimits(args, EXPECTED_ARGS_LENGTH);
+
+    }
+
+    /**
+     * Gets the maximum width of each column from the optional arguments provided
+     * at or after firstOptionIndex. The maximum widths given by
+     * {@code --max-widths=} apply to the first columns in turn, and the maximum
+     * width given by {@code --max-width=} to every column after them. Fixed
+     * column widths need {@code --max-width=}, as the columns after those given
+     * by {@code --max-widths=} would otherwise have no width to be fixed at.
+     *
+     * @param args
+     *                         the array of arguments
+     * @param firstOptionIndex
+     *                         the index of the first optional argument
+     *
+     * @return the maximum width of each column
+     *
+     * @throws ProgramArgumentException
+     *                                  if a maximum width is not a positive
+     *                                  whole number, or the column widths are
+     *                                  fixed without a maximum width for every
+     *                                  column
+     */
+    public static ColumnWidthLimits getColumnWidthLimits(String[] args, int firstOptionIndex)
+            throws ProgramArgumentException {
+
+        int[] maxWidths = getIntegerListOption(args, firstOptionIndex, MAX_WIDTHS_OPTION);
+        int defaultMaxWidth = getIntegerOption(args, firstOptionIndex, MAX_WIDTH_OPTION, Integer.MAX_VALUE);
+        boolean isFixed = isOptionProvided(args, firstOptionIndex, FIXED_WIDTHS_OPTION);
+
+        if (isFixed && defaultMaxWidth == Integer.MAX_VALUE) {
+            throw new ProgramArgumentException(
+                    String.format(ERROR_MESSAGE_FIXED_WIDTHS_NOT_PROVIDED, FIXED_WIDTHS_OPTION, MAX_WIDTH_OPTION));
+        }
+
+        return new ColumnWidthLimits(maxWidths, defaultMaxWidth, isFixed,
+                isOptionProvided(args, firstOptionIndex, ELLIPSIS_OPTION));
+
+    }
+
+    /**
+     * Gets the single character given to an optional argument of the form option
+     * followed by its value, e.g. {@code --quote="}, provided after the
+     * {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#EXPECTED_ARGS_LENGTH
+     * EXPECTED_ARGS_LENGTH} required arguments.
+     *
+     * @param args
+     *                     the array of arguments
+     * @param option
+     *                     the optional argument to look for, including the
+     *                     trailing "="
+     * @param defaultValue
+     *                     the value to use if the option is not provided
+     *
+     * @return the value of the option, or defaultValue if it is not provided
+     *
+     * @throws ProgramArgumentException
+     *                                  if the value of the option is not a
+     *                                  single visible ASCII character
+     */
+    public static char getCharacterOption(String[] args, String option, char defaultValue)
+            throws ProgramArgumentException {
+
+        return getCharacterOption(args, EXPECTED_ARGS_LENGTH, option, defaultValue);
+
+    }
+
+    /**
+     * Gets the single character given to an optional argument of the form option
+     * followed by its value, provided at or after firstOptionIndex. Only visible
+     * ASCII characters are allowed, so the character is always a single byte of
+     * the input and never a white space.
+     *
+     * @param args
+     *                         the array of arguments
+     * @param firstOptionIndex
+     *                         the index of the first optional argument
+     * @param option
+     *                         the optional argument to look for, including the
+     *                         trailing "="
+     * @param defaultValue
+     *                         the value to use if the option is not provided
+     *
+     * @return the value of the option, or defaultValue if it is not provided
+     *
+     * @throws ProgramArgumentException
+     *                                  if the value of the option is not a
+     *                                  single visible ASCII character
+     */
+    public static char getCharacterOption(String[] args, int firstOptionIndex, String option, char defaultValue)
+            throws ProgramArgumentException {
+
+        for (int i = firstOptionIndex; i < args.length; i++) {
+
+            if (!args[i].startsWith(option)) {
+                continue;
+            }
+
+            String value = args[i].substring(option.length());
+
+            if (value.length() == 1 && value.charAt(0) > SPACE_CHARACTER
+                    && value.charAt(0) <= LAST_VISIBLE_ASCII_CHARACTER) {
+                return value.charAt(0);
+            }
+
+            throw new ProgramArgumentException(String.format(ERROR_MESSAGE_OPTION_NOT_A_CHARACTER, option, value));
+
+        }
+
+        return defaultValue;
+
+    }
+
+    /**
+     * Gets the text given to an optional argument of the form option followed by
+     * its value, e.g. {@code --token-file=./daemon.token}, provided at or after
+     * firstOptionIndex.
+     *
+     * @param args
+     *                         the array of arguments
+     * @param firstOptionIndex
+     *                         the index of the first optional argument
+     * @param option
+     *                         the optional argument to look for, including the
+     *                         trailing "="
+     * @param defaultValue
+     *                         the value to use if the option is not provided
+     *
+     * @return the value of the option, or defaultValue if it is not provided
+     */
+    public static String getStringOption(String[] args, int firstOptionIndex, String option, String defaultValue) {
+
+        for (int i = firstOptionIndex; i < args.length; i++) {
+            if (args[i].startsWith(option)) {
+                return args[i].substring(option.length());
+            }
+        }
+
+        return defaultValue;
+
+    }
+
+    /**
+     * Gets how lines overflowing the sampled column lengths are formatted, from
+     * the optional argument {@code --overflow=} provided after the
+     * {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#EXPECTED_ARGS_LENGTH
+     * EXPECTED_ARGS_LENGTH} required arguments, e.g. {@code --overflow=widen}.
+     *
+     * @param args
+     *             the array of arguments
+     *
+     * @return the overflow policy, or {@link OverflowPolicy#TRUNCATE} if the
+     *         option is not provided
+     *
+     * @throws ProgramArgumentException
+     *                                  if the value of the option is not the name
+     *                                  of an overflow policy
+     */
+    public static OverflowPolicy getOverflowPolicy(String[] args) throws ProgramArgumentException {
+
+        for (int i = EXPECTED_ARGS_LENGTH; i < args.length; i++) {
+
+            if (!args[i].startsWith(OVERFLOW_OPTION)) {
+                continue;
+            }
+
+            String value = args[i].substring(OVERFLOW_OPTION.length());
+
+            for (OverflowPolicy overflowPolicy : OverflowPolicy.values()) {
+                if (overflowPolicy.name().equalsIgnoreCase(value)) {
+                    return overflowPolicy;
+                }
+            }
+
+            throw new ProgramArgumentException(String.format(ERROR_MESSAGE_OPTION_NOT_ONE_OF, OVERFLOW_OPTION, value,
+                    Arrays.toString(OverflowPolicy.values()).toLowerCase(Locale.ROOT)));
+
+        }
+
+        return OverflowPolicy.TRUNCATE;
+
+    }
+
+    /**
+     * Checks whether the metrics of each input file should be reported, from the
+     * optional argument {@code --metrics=} provided after the
+     * {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#EXPECTED_ARGS_LENGTH
+     * EXPECTED_ARGS_LENGTH} required arguments, e.g. {@code --metrics=json}.
+     *
+     * @param args
+     *             the array of arguments
+     *
+     * @return true iff the option is provided, otherwise false.
+     *
+     * @throws ProgramArgumentException
+     *                                  if the value of the option is not a
+     *                                  supported format of the metrics report
+     */
+    public static boolean isMetricsReported(String[] args) throws ProgramArgumentException {
+
+        for (int i = EXPECTED_ARGS_LENGTH; i < args.length; i++) {
+
+            if (!args[i].startsWith(METRICS_OPTION)) {
+                continue;
+            }
+
+            String value = args[i].substring(METRICS_OPTION.length());
+
+            if (METRICS_FORMAT_JSON.equalsIgnoreCase(value)) {
+                return true;
+            }
+
+            throw new ProgramArgumentException(String.format(ERROR_MESSAGE_OPTION_NOT_ONE_OF, METRICS_OPTION, value,
+                    Arrays.toString(new String[] { METRICS_FORMAT_JSON })));
+
+        }
+
+        return false;
+
+    }
+
 }
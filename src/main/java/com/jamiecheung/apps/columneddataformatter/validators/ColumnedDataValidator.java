@@ -1,7 +1,13 @@
 package com.jamiecheung.apps.columneddataformatter.validators;
 
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.CARRIAGE_RETURN_CHARACTER;
 import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DELIMITER_LENGTH_LIMIT;
-import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_DELIMITER_NOT_A_SINGLE_CHARACTER;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.LINE_FEED_CHARACTER;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.NO_QUOTE_CHARACTER;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_DELIMITER_HAS_QUOTE;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_DELIMITER_NOT_VALID;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_INPUT_DIRECTORY_DOES_NOT_EXIST;
+import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_INPUT_DIRECTORY_NOT_A_DIRECTORY;
 import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_INPUT_FILE_DOES_NOT_EXIST;
 import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_INPUT_FILE_NOT_A_FILE;
 import static com.jamiecheung.apps.columneddataformatter.constants.ErrorMessageConstants.ERROR_MESSAGE_RESULT_DIRECTORY_DOES_NOT_EXIST;
@@ -24,20 +30,52 @@ import com.jamiecheung.apps.columneddataformatter.exceptions.ColumnedDataPropert
 public class ColumnedDataValidator {
 
     /**
-     * Checks the delimiter character is a single character.
+     * Checks the delimiter is between 1 and {@value
+     * com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#DELIMITER_LENGTH_LIMIT}
+     * characters in length, with no line terminator in it.
      *
      * @param delimiter
-     *                  the character separating each entry
+     *                  the characters separating each entry
      *
      * @throws ColumnedDataPropertyException
-     *                                       if delimiter is more than 1 character
-     *                                       in length
+     *                                       if delimiter is empty, too long, or
+     *                                       has a line terminator in it
      */
     public static void validateDelimiter(String delimiter) throws ColumnedDataPropertyException {
 
-        if (delimiter.length() > DELIMITER_LENGTH_LIMIT) {
+        if (delimiter.isEmpty() || delimiter.length() > DELIMITER_LENGTH_LIMIT
+                || delimiter.indexOf(LINE_FEED_CHARACTER) >= 0
+                || delimiter.indexOf(CARRIAGE_RETURN_CHARACTER) >= 0) {
             throw new ColumnedDataPropertyException(
-                    String.format(ERROR_MESSAGE_DELIMITER_NOT_A_SINGLE_CHARACTER, delimiter));
+                    String.format(ERROR_MESSAGE_DELIMITER_NOT_VALID, delimiter, DELIMITER_LENGTH_LIMIT));
+        }
+
+    }
+
+    /**
+     * Checks the delimiter has neither the quote character nor the escape
+     * character in it, if the input is quoted.
+     *
+     * @param delimiter
+     *                        the characters separating each entry
+     * @param quoteCharacter
+     *                        the character quoted entries start and end with, or
+     *                        {@link com.jamiecheung.apps.columneddataformatter.constants.CommonConstants#NO_QUOTE_CHARACTER
+     *                        NO_QUOTE_CHARACTER} if the input is not quoted
+     * @param escapeCharacter
+     *                        the character escaping the character after it
+     *
+     * @throws ColumnedDataPropertyException
+     *                                       if delimiter has the quote or escape
+     *                                       character in it
+     */
+    public static void validateQuoting(String delimiter, char quoteCharacter, char escapeCharacter)
+            throws ColumnedDataPropertyException {
+
+        if (quoteCharacter != NO_QUOTE_CHARACTER
+                && (delimiter.indexOf(quoteCharacter) >= 0 || delimiter.indexOf(escapeCharacter) >= 0)) {
+            throw new ColumnedDataPropertyException(
+                    String.format(ERROR_MESSAGE_DELIMITER_HAS_QUOTE, delimiter, quoteCharacter, escapeCharacter));
         }
 
     }
@@ -65,6 +103,32 @@ public class ColumnedDataValidator {
 
     }
 
+    /**
+     * Checks the inputDirectory String corresponds to an existing file system
+     * location and is a folder.
+     *
+     * @param inputDirectory
+     *                       the path to the folder containing the files that need
+     *                       formatting
+     *
+     * @throws ColumnedDataPropertyException
+     *                                       if inputDirectory does not exist or is
+     *                                       not a folder
+     */
+    public static void validateInputDirectory(String inputDirectory) throws ColumnedDataPropertyException {
+
+        Path inputDirectoryPath = Paths.get(inputDirectory);
+
+        if (!Files.exists(inputDirectoryPath)) {
+            throw new ColumnedDataPropertyException(
+                    String.format(ERROR_MESSAGE_INPUT_DIRECTORY_DOES_NOT_EXIST, inputDirectory));
+        } else if (!Files.isDirectory(inputDirectoryPath)) {
+            throw new ColumnedDataPropertyException(
+                    String.format(ERROR_MESSAGE_INPUT_DIRECTORY_NOT_A_DIRECTORY, inputDirectory));
+        }
+
+    }
+
     /**
      * Checks the resultDirectory String corresponds to an existing file system
      * location and is a folder.
@@ -0,0 +1,313 @@
+package com.jamiecheung.apps.columneddataformatter.watchers;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.FILE_EXTENSION_START_CHARACTER;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import com.jamiecheung.apps.columneddataformatter.utils.ResultGeneratorUtils;
+
+/**
+ * Watches an input directory and its sub-directories, handing each input file
+ * that is created or modified to a pool of workers to be formatted.
+ *
+ * <p>
+ * An input file is only handed to the workers once no event has been seen for
+ * it for the debounce time, so a file that is still being written is formatted
+ * once, after its last write. An input file is never formatted by two workers
+ * at once; an event for a file that is being formatted is handled once the
+ * worker has finished with it. Result files, the result cache manifest and the
+ * metrics report written into a watched directory are ignored, so formatting
+ * an input file never triggers another event.
+ *
+ * @author JamieCheung
+ *
+ */
+public class InputDirectoryWatcher implements Closeable {
+
+    private final Path inputDirectoryPath;
+    private final Path resultDirectoryPath;
+    private final long debounce;
+    private final Consumer<String> formatInputFile;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+    private final Map<Path, ScheduledFuture<?>> debouncedInputFiles = new ConcurrentHashMap<>();
+    private final Set<Path> formattingInputFiles = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService debouncer;
+    private final ThreadPoolExecutor workerPool;
+    private final Thread watcherThread;
+
+    /**
+     * Creates the watcher for the input directory. Events are not handled until
+     * {@link InputDirectoryWatcher#start()} is called.
+     *
+     * @param inputDirectory
+     *                        the folder containing the input files to format
+     * @param resultDirectory
+     *                        the folder the result files are written to, whose
+     *                        result files are ignored, or empty if there is none
+     * @param workers
+     *                        the number of input files formatted at once
+     * @param debounce
+     *                        the time in milliseconds without an event before an
+     *                        input file is formatted
+     * @param formatInputFile
+     *                        formats an input file, given its path
+     *
+     * @throws IOException
+     *                     if the file system cannot be watched
+     */
+    public InputDirectoryWatcher(String inputDirectory, String resultDirectory, int workers, int debounce,
+            Consumer<String> formatInputFile) throws IOException {
+
+        this.inputDirectoryPath = Paths.get(inputDirectory);
+        this.resultDirectoryPath = resultDirectory.isEmpty() ? null
+                : Paths.get(resultDirectory).toAbsolutePath().normalize();
+        this.debounce = debounce;
+        this.formatInputFile = formatInputFile;
+        this.watchService = inputDirectoryPath.getFileSystem().newWatchService();
+        this.debouncer = Executors.newSingleThreadScheduledExecutor();
+        this.workerPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>());
+        this.watcherThread = new Thread(this::watchEvents, InputDirectoryWatcher.class.getSimpleName());
+
+    }
+
+    /**
+     * Starts watching the input directory and its sub-directories on a separate
+     * thread. Input files already in the input directory are not formatted.
+     *
+     * @throws IOException
+     */
+    public void start() throws IOException {
+
+        watchDirectories(inputDirectoryPath);
+        watcherThread.start();
+
+    }
+
+    /**
+     * Waits until the watcher has been closed.
+     *
+     * @throws InterruptedException
+     */
+    public void join() throws InterruptedException {
+
+        watcherThread.join();
+
+    }
+
+    /**
+     * Gets the number of changed input files waiting for a worker.
+     *
+     * @return the number of waiting input files
+     */
+    public int getQueuedInputFileCount() {
+
+        return workerPool.getQueue().size();
+
+    }
+
+    /**
+     * Gets the number of changed input files being formatted by a worker.
+     *
+     * @return the number of input files being formatted
+     */
+    public int getActiveInputFileCount() {
+
+        return workerPool.getActiveCount();
+
+    }
+
+    /**
+     * Stops watching the input directory, and stops any input files being
+     * formatted.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+
+        watchService.close();
+        debouncer.shutdownNow();
+        workerPool.shutdownNow();
+
+    }
+
+    /*
+     * Handles events until the watch service is closed.
+     */
+    private void watchEvents() {
+
+        while (true) {
+
+            WatchKey watchKey;
+
+            try {
+                watchKey = watchService.take();
+            } catch (ClosedWatchServiceException | InterruptedException e) {
+                // The watcher has been closed
+                return;
+            }
+
+            Path directoryPath = watchedDirectories.get(watchKey);
+
+            for (WatchEvent<?> event : watchKey.pollEvents()) {
+
+                try {
+
+                    if (event.kind() == OVERFLOW) {
+                        // Events have been lost, so every input file may have changed
+                        scheduleInputFiles(inputDirectoryPath);
+                    } else if (directoryPath != null) {
+                        handleEvent(event.kind(), directoryPath.resolve((Path) event.context()));
+                    }
+
+                } catch (IOException e) {
+                    // The path has gone since the event, so a later event will follow if it returns
+                }
+
+            }
+
+            if (!watchKey.reset()) {
+                watchedDirectories.remove(watchKey);
+            }
+
+        }
+
+    }
+
+    /*
+     * Handles an event for a path in a watched directory. A new sub-directory is
+     * watched, and every input file already in it is formatted, as they may have
+     * been created before it was watched.
+     */
+    private void handleEvent(WatchEvent.Kind<?> kind, Path path) throws IOException {
+
+        if (Files.isDirectory(path)) {
+
+            if (kind == ENTRY_CREATE) {
+                watchDirectories(path);
+                scheduleInputFiles(path);
+            }
+
+        } else if (isInputFile(path)) {
+            scheduleInputFile(path);
+        }
+
+    }
+
+    /*
+     * Watches the directory and all of its sub-directories.
+     */
+    private void watchDirectories(Path directoryPath) throws IOException {
+
+        try (Stream<Path> paths = Files.walk(directoryPath)) {
+
+            for (Path path : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+                watchedDirectories.put(path.register(watchService, ENTRY_CREATE, ENTRY_MODIFY), path);
+            }
+
+        }
+
+    }
+
+    /*
+     * Schedules every input file in the directory and its sub-directories to be
+     * formatted.
+     */
+    private void scheduleInputFiles(Path directoryPath) throws IOException {
+
+        try (Stream<Path> paths = Files.walk(directoryPath)) {
+            paths.filter(Files::isRegularFile).filter(this::isInputFile).forEach(this::scheduleInputFile);
+        }
+
+    }
+
+    /*
+     * Schedules the input file to be formatted once the debounce time has passed,
+     * replacing any time already scheduled for it.
+     */
+    private void scheduleInputFile(Path inputFilePath) {
+
+        debouncedInputFiles.compute(inputFilePath, (path, scheduledFormat) -> {
+
+            if (scheduledFormat != null) {
+                scheduledFormat.cancel(false);
+            }
+
+            try {
+                return debouncer.schedule(() -> submitInputFile(path), debounce, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // The watcher has been closed
+                return null;
+            }
+
+        });
+
+    }
+
+    /*
+     * Hands the input file to the workers, unless it is still being formatted
+     * from an earlier event, in which case it is scheduled again.
+     */
+    private void submitInputFile(Path inputFilePath) {
+
+        debouncedInputFiles.remove(inputFilePath);
+
+        if (!formattingInputFiles.add(inputFilePath)) {
+            scheduleInputFile(inputFilePath);
+            return;
+        }
+
+        try {
+
+            workerPool.execute(() -> {
+                try {
+                    formatInputFile.accept(inputFilePath.toString());
+                } finally {
+                    formattingInputFiles.remove(inputFilePath);
+                }
+            });
+
+        } catch (RejectedExecutionException e) {
+            // The watcher has been closed
+            formattingInputFiles.remove(inputFilePath);
+        }
+
+    }
+
+    /*
+     * Checks whether the path is an input file, i.e. it has a file extension and
+     * is not a file written by the application into the result directory.
+     */
+    private boolean isInputFile(Path path) {
+
+        return path.getFileName().toString().indexOf(FILE_EXTENSION_START_CHARACTER) >= 0
+                && !ResultGeneratorUtils.isGeneratedFile(path, resultDirectoryPath);
+
+    }
+
+}
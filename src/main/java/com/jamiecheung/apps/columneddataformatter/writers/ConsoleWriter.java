@@ -0,0 +1,229 @@
+package com.jamiecheung.apps.columneddataformatter.writers;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.CONSOLE_BUFFER_SIZE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.STDOUT_ENCODING_PROPERTY;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineMetrics;
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineStage;
+
+/**
+ * Class for writing lines of text to the console in bulk. Lines are copied into
+ * a reusable character buffer, encoded into a reusable byte buffer, and written
+ * to the console a whole buffer at a time, rather than encoding, locking and
+ * flushing the console once per line as {@link java.io.PrintStream#println}
+ * does.
+ *
+ * <p>
+ * Lines are written in the same way as {@link System#out}, with the line
+ * separator of the platform after each line, and encoded in the charset named
+ * by the {@code stdout.encoding} system property, or the default charset
+ * before Java 18, where there is no such property. Nothing reaches the console until
+ * the buffer fills, or the ConsoleWriter is flushed or closed.
+ *
+ * <p>
+ * The buffers of a ConsoleWriter writing to {@link System#out}, or to an output
+ * stream holding console output, are reused by the next one on the same thread,
+ * so outputting many input files one after another does not allocate new
+ * buffers for each.
+ *
+ * @author JamieCheung
+ *
+ */
+public class ConsoleWriter extends EncodingLineWriter {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final Charset CONSOLE_CHARSET = getConsoleCharset(System.getProperty(STDOUT_ENCODING_PROPERTY));
+    private static final ThreadLocal<Buffers> THREAD_BUFFERS = new ThreadLocal<>();
+
+    private final OutputStream console;
+    private final Buffers reusedBuffers;
+
+    /**
+     * Creates a ConsoleWriter that writes to {@link System#out}, with the buffers
+     * left by the last ConsoleWriter on this thread.
+     */
+    public ConsoleWriter() {
+        this(System.out);
+    }
+
+    /**
+     * Creates a ConsoleWriter that writes to the output stream in the same way as
+     * to the console, with the buffers left by the last ConsoleWriter on this
+     * thread. This lets a worker encode its console output ahead of time, to be
+     * copied to the console later.
+     *
+     * @param console
+     *                the output stream to write to
+     */
+    public ConsoleWriter(OutputStream console) {
+        this(console, takeBuffers());
+    }
+
+    /*
+     * Creates a ConsoleWriter that writes to the console bufferSize characters at a
+     * time, with buffers of its own.
+     */
+    ConsoleWriter(OutputStream console, int bufferSize) {
+
+        super(bufferSize, CONSOLE_CHARSET, ByteBuffer.allocate(getByteBufferSize(bufferSize, CONSOLE_CHARSET)),
+                PipelineStage.CONSOLE);
+        this.console = console;
+        this.reusedBuffers = null;
+
+    }
+
+    /*
+     * Creates a ConsoleWriter that writes to the console with the buffers, which
+     * are given back to the thread when it is closed.
+     */
+    private ConsoleWriter(OutputStream console, Buffers buffers) {
+
+        super(buffers.characters, CONSOLE_CHARSET, buffers.byteBuffer, PipelineStage.CONSOLE);
+        this.console = console;
+        this.reusedBuffers = buffers;
+
+    }
+
+    /**
+     * Writes a line of text, followed by the line separator.
+     *
+     * @param line
+     *             the line of text
+     *
+     * @throws IOException
+     */
+    @Override
+    public void writeLine(CharSequence line) throws IOException {
+
+        write(line);
+        write(LINE_SEPARATOR);
+
+    }
+
+    /**
+     * Writes everything buffered so far to the console.
+     *
+     * @throws IOException
+     */
+    public void flush() throws IOException {
+
+        PipelineMetrics.startStage(PipelineStage.CONSOLE);
+
+        try {
+            writeCharacters();
+            console.flush();
+        } finally {
+            PipelineMetrics.endStage();
+        }
+
+    }
+
+    /**
+     * Writes everything buffered so far to the console, and gives the buffers back
+     * to the thread. The console itself is left open.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+
+        try {
+            flush();
+        } finally {
+
+            if (reusedBuffers != null) {
+                reusedBuffers.byteBuffer.clear();
+                THREAD_BUFFERS.set(reusedBuffers);
+            }
+
+        }
+
+    }
+
+    /*
+     * Writes the full byte buffer to the console, so it can be reused.
+     */
+    @Override
+    protected ByteBuffer nextByteBuffer(ByteBuffer fullByteBuffer) throws IOException {
+
+        return writeByteBuffers(fullByteBuffer);
+
+    }
+
+    /*
+     * Writes the byte buffer to the console in a single write, so it can be
+     * reused.
+     */
+    @Override
+    protected ByteBuffer writeByteBuffers(ByteBuffer lastByteBuffer) throws IOException {
+
+        console.write(lastByteBuffer.array(), 0, lastByteBuffer.position());
+        PipelineMetrics.addBytesOut(PipelineStage.CONSOLE, lastByteBuffer.position());
+        lastByteBuffer.clear();
+
+        return lastByteBuffer;
+
+    }
+
+    /*
+     * Gets the charset named by the encoding, or the default charset if it is not
+     * set or not supported.
+     */
+    static Charset getConsoleCharset(String encoding) {
+
+        if (encoding != null) {
+
+            try {
+                return Charset.forName(encoding);
+            } catch (IllegalArgumentException e) {
+                // Encode in the default charset instead
+            }
+
+        }
+
+        return Charset.defaultCharset();
+
+    }
+
+    /*
+     * Takes the buffers left by the last ConsoleWriter on this thread, or allocates
+     * new ones if there are none.
+     */
+    private static Buffers takeBuffers() {
+
+        Buffers buffers = THREAD_BUFFERS.get();
+        THREAD_BUFFERS.remove();
+
+        if (buffers == null) {
+            buffers = new Buffers(new char[CONSOLE_BUFFER_SIZE],
+                    ByteBuffer.allocate(getByteBufferSize(CONSOLE_BUFFER_SIZE, CONSOLE_CHARSET)));
+        }
+
+        return buffers;
+
+    }
+
+    /*
+     * The character buffer and byte buffer of a ConsoleWriter, kept together so they
+     * can be reused.
+     */
+    private static final class Buffers {
+
+        private final char[] characters;
+        private final ByteBuffer byteBuffer;
+
+        private Buffers(char[] characters, ByteBuffer byteBuffer) {
+
+            this.characters = characters;
+            this.byteBuffer = byteBuffer;
+
+        }
+
+    }
+
+}
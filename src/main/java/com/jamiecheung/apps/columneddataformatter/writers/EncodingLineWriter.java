@@ -0,0 +1,227 @@
+package com.jamiecheung.apps.columneddataformatter.writers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineMetrics;
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineStage;
+
+/**
+ * Base class for writing lines of text in bulk. Text is copied into a reusable
+ * character buffer, and encoded in the charset of the subclass into byte
+ * buffers provided by the subclass, which decides when and where the bytes are
+ * written.
+ * Characters that cannot be encoded are replaced, in the same way as
+ * {@link java.io.PrintStream} and {@link java.io.FileWriter}. The time spent
+ * encoding and writing out bytes is recorded as the writer's
+ * {@link PipelineStage}.
+ *
+ * @author JamieCheung
+ *
+ */
+public abstract class EncodingLineWriter implements Closeable {
+
+    private final CharsetEncoder encoder;
+    private final char[] characters;
+    private final CharBuffer characterBuffer;
+    private final PipelineStage stage;
+    private ByteBuffer byteBuffer;
+    private int characterCount;
+
+    /**
+     * Creates an EncodingLineWriter that encodes bufferSize characters at a time
+     * into byteBuffer.
+     *
+     * @param bufferSize
+     *                   the number of characters copied before they are encoded
+     * @param charset
+     *                   the charset the characters are encoded in
+     * @param byteBuffer
+     *                   the empty byte buffer to encode into first
+     * @param stage
+     *                   the stage the encoding and writing is recorded as
+     */
+    protected EncodingLineWriter(int bufferSize, Charset charset, ByteBuffer byteBuffer, PipelineStage stage) {
+
+        this(new char[bufferSize], charset, byteBuffer, stage);
+
+    }
+
+    /**
+     * Creates an EncodingLineWriter that copies characters into a character buffer
+     * reused from an earlier writer, encoding them into byteBuffer once it fills.
+     *
+     * @param characters
+     *                   the character buffer, whose contents are ignored
+     * @param charset
+     *                   the charset the characters are encoded in
+     * @param byteBuffer
+     *                   the empty byte buffer to encode into first
+     * @param stage
+     *                   the stage the encoding and writing is recorded as
+     */
+    protected EncodingLineWriter(char[] characters, Charset charset, ByteBuffer byteBuffer, PipelineStage stage) {
+
+        this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.characters = characters;
+        this.characterBuffer = CharBuffer.wrap(characters);
+        this.byteBuffer = byteBuffer;
+        this.stage = stage;
+
+    }
+
+    /**
+     * Gets the size of a byte buffer large enough to hold bufferSize characters
+     * encoded in the charset.
+     *
+     * @param bufferSize
+     *                   the number of characters
+     * @param charset
+     *                   the charset the characters are encoded in
+     *
+     * @return the size of the byte buffer
+     */
+    protected static int getByteBufferSize(int bufferSize, Charset charset) {
+
+        return (int) Math.ceil(bufferSize * charset.newEncoder().maxBytesPerChar());
+
+    }
+
+    /**
+     * Writes a line of text.
+     *
+     * @param line
+     *             the line of text
+     *
+     * @throws IOException
+     */
+    public abstract void writeLine(CharSequence line) throws IOException;
+
+    /**
+     * Called once the byte buffer being encoded into is full. Gets the empty byte
+     * buffer to carry on encoding into, writing out the bytes encoded so far if
+     * there is no room left for more.
+     *
+     * @param fullByteBuffer
+     *                       the full byte buffer
+     *
+     * @return the empty byte buffer to carry on encoding into
+     *
+     * @throws IOException
+     */
+    protected abstract ByteBuffer nextByteBuffer(ByteBuffer fullByteBuffer) throws IOException;
+
+    /**
+     * Writes out every byte encoded so far, up to and including those in the byte
+     * buffer being encoded into.
+     *
+     * @param lastByteBuffer
+     *                       the byte buffer being encoded into, which may be
+     *                       partly full
+     *
+     * @return the empty byte buffer to carry on encoding into
+     *
+     * @throws IOException
+     */
+    protected abstract ByteBuffer writeByteBuffers(ByteBuffer lastByteBuffer) throws IOException;
+
+    /**
+     * Copies the text into the character buffer, encoding the character buffer
+     * whenever it fills.
+     *
+     * @param text
+     *             the text to write
+     *
+     * @throws IOException
+     */
+    protected void write(CharSequence text) throws IOException {
+
+        int textLength = text.length();
+        int copied = 0;
+
+        while (copied < textLength) {
+
+            if (characterCount == characters.length) {
+
+                PipelineMetrics.startStage(stage);
+
+                try {
+                    encodeCharacters(false);
+                } finally {
+                    PipelineMetrics.endStage();
+                }
+
+            }
+
+            int end = Math.min(textLength, copied + characters.length - characterCount);
+
+            if (text instanceof String) {
+                ((String) text).getChars(copied, end, characters, characterCount);
+            } else if (text instanceof StringBuilder) {
+                ((StringBuilder) text).getChars(copied, end, characters, characterCount);
+            } else {
+                for (int i = copied; i < end; i++) {
+                    characters[characterCount + i - copied] = text.charAt(i);
+                }
+            }
+
+            characterCount += end - copied;
+            copied = end;
+
+        }
+
+    }
+
+    /**
+     * Encodes every character copied so far, and writes out every byte encoded.
+     *
+     * @throws IOException
+     */
+    protected void writeCharacters() throws IOException {
+
+        PipelineMetrics.startStage(stage);
+
+        try {
+
+            encodeCharacters(true);
+
+            while (encoder.flush(byteBuffer) == CoderResult.OVERFLOW) {
+                byteBuffer = nextByteBuffer(byteBuffer);
+            }
+
+            byteBuffer = writeByteBuffers(byteBuffer);
+            encoder.reset();
+
+        } finally {
+            PipelineMetrics.endStage();
+        }
+
+    }
+
+    /*
+     * Encodes the character buffer into the byte buffers. Unless it is the end of
+     * the input, a surrogate pair split across the end of the character buffer is
+     * kept for the next call.
+     */
+    private void encodeCharacters(boolean isEndOfInput) throws IOException {
+
+        characterBuffer.clear();
+        characterBuffer.limit(characterCount);
+
+        while (encoder.encode(characterBuffer, byteBuffer, isEndOfInput) == CoderResult.OVERFLOW) {
+            byteBuffer = nextByteBuffer(byteBuffer);
+        }
+
+        characterCount = characterBuffer.remaining();
+        System.arraycopy(characters, characterBuffer.position(), characters, 0, characterCount);
+
+    }
+
+}
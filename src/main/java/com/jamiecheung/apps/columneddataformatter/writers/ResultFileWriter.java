@@ -0,0 +1,250 @@
+package com.jamiecheung.apps.columneddataformatter.writers;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.FILE_EXTENSION_START_CHARACTER;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.NEW_LINE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.RESULT_FILE_BUFFER_COUNT;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.RESULT_FILE_BUFFER_SIZE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.TEMPORARY_FILE_EXTENSION;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineMetrics;
+import com.jamiecheung.apps.columneddataformatter.metrics.PipelineStage;
+
+/**
+ * Class for writing the formatted lines of a resulting file. Lines are encoded
+ * into several large direct byte buffers, which are written to the file
+ * together in a single gathering write once they are all full.
+ *
+ * <p>
+ * Lines are written to a hidden temporary file in the same folder as the
+ * resulting file, which only replaces the resulting file once every line has
+ * been written and {@link ResultFileWriter#publish()} is called, so the
+ * resulting file is never seen partly written. Closing a ResultFileWriter that
+ * has not been published deletes the temporary file, leaving any previous
+ * resulting file in place.
+ *
+ * <p>
+ * Lines are separated by a new line, with no new line after the last line, and
+ * encoded in the default charset, in the same way as {@link java.io.FileWriter}.
+ * The byte buffers are reused by the next ResultFileWriter on the same thread.
+ *
+ * @author JamieCheung
+ *
+ */
+public class ResultFileWriter extends EncodingLineWriter {
+
+    private static final ThreadLocal<ByteBuffer[]> THREAD_BYTE_BUFFERS = new ThreadLocal<>();
+
+    private final Path resultFilePath;
+    private final Path temporaryFilePath;
+    private final FileChannel fileChannel;
+    private final ByteBuffer[] byteBuffers;
+    private int byteBufferIndex;
+    private boolean isFirstLine = true;
+    private boolean isPublished;
+
+    /**
+     * Creates a ResultFileWriter for the resulting file, creating its temporary
+     * file.
+     *
+     * @param resultFilePath
+     *                       the path of the resulting file
+     *
+     * @throws IOException
+     */
+    public ResultFileWriter(Path resultFilePath) throws IOException {
+        this(resultFilePath, takeByteBuffers());
+    }
+
+    /*
+     * Creates a ResultFileWriter that encodes into the byte buffers.
+     */
+    private ResultFileWriter(Path resultFilePath, ByteBuffer[] byteBuffers) throws IOException {
+
+        super(RESULT_FILE_BUFFER_SIZE, Charset.defaultCharset(), byteBuffers[0], PipelineStage.WRITE);
+
+        this.resultFilePath = resultFilePath;
+        this.byteBuffers = byteBuffers;
+
+        FileChannel temporaryFileChannel = null;
+        Path temporaryPath = null;
+
+        // Create a temporary file no other writer is using, with the default permissions
+        while (temporaryFileChannel == null) {
+
+            temporaryPath = resultFilePath.resolveSibling(FILE_EXTENSION_START_CHARACTER
+                    + resultFilePath.getFileName().toString() + FILE_EXTENSION_START_CHARACTER
+                    + Long.toHexString(ThreadLocalRandom.current().nextLong()) + TEMPORARY_FILE_EXTENSION);
+
+            try {
+                temporaryFileChannel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE);
+            } catch (FileAlreadyExistsException e) {
+                // Try again with another name
+            }
+
+        }
+
+        this.temporaryFilePath = temporaryPath;
+        this.fileChannel = temporaryFileChannel;
+
+    }
+
+    /**
+     * Writes a line of text, after a new line if it is not the first line.
+     *
+     * @param line
+     *             the line of text
+     *
+     * @throws IOException
+     */
+    @Override
+    public void writeLine(CharSequence line) throws IOException {
+
+        if (!isFirstLine) {
+            write(NEW_LINE);
+        }
+
+        write(line);
+        isFirstLine = false;
+
+    }
+
+    /**
+     * Writes out every line written so far, and replaces the resulting file with
+     * the temporary file in a single step.
+     *
+     * @throws IOException
+     */
+    public void publish() throws IOException {
+
+        PipelineMetrics.startStage(PipelineStage.WRITE);
+
+        try {
+
+            writeCharacters();
+            fileChannel.close();
+
+            try {
+                Files.move(temporaryFilePath, resultFilePath, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFilePath, resultFilePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            isPublished = true;
+
+        } finally {
+            PipelineMetrics.endStage();
+        }
+
+    }
+
+    /**
+     * Closes the temporary file, deleting it if the ResultFileWriter has not been
+     * published, and gives the byte buffers back to the thread.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+
+        try {
+
+            fileChannel.close();
+
+            if (!isPublished) {
+                Files.deleteIfExists(temporaryFilePath);
+            }
+
+        } finally {
+
+            for (ByteBuffer byteBuffer : byteBuffers) {
+                byteBuffer.clear();
+            }
+            THREAD_BYTE_BUFFERS.set(byteBuffers);
+
+        }
+
+    }
+
+    /*
+     * Moves on to the next byte buffer, writing out all of the byte buffers once
+     * they are all full.
+     */
+    @Override
+    protected ByteBuffer nextByteBuffer(ByteBuffer fullByteBuffer) throws IOException {
+
+        if (byteBufferIndex < byteBuffers.length - 1) {
+            return byteBuffers[++byteBufferIndex];
+        }
+
+        return writeByteBuffers(fullByteBuffer);
+
+    }
+
+    /*
+     * Writes out the byte buffers filled so far in a single gathering write, so
+     * they can be reused.
+     */
+    @Override
+    protected ByteBuffer writeByteBuffers(ByteBuffer lastByteBuffer) throws IOException {
+
+        for (int i = 0; i <= byteBufferIndex; i++) {
+            byteBuffers[i].flip();
+        }
+
+        long bytesWritten = 0;
+
+        while (byteBuffers[byteBufferIndex].hasRemaining()) {
+            bytesWritten += fileChannel.write(byteBuffers, 0, byteBufferIndex + 1);
+        }
+
+        PipelineMetrics.addBytesOut(PipelineStage.WRITE, bytesWritten);
+
+        for (int i = 0; i <= byteBufferIndex; i++) {
+            byteBuffers[i].clear();
+        }
+
+        byteBufferIndex = 0;
+
+        return byteBuffers[0];
+
+    }
+
+    /*
+     * Takes the byte buffers left by the last ResultFileWriter on this thread, or
+     * allocates new ones if there are none.
+     */
+    private static ByteBuffer[] takeByteBuffers() {
+
+        ByteBuffer[] byteBuffers = THREAD_BYTE_BUFFERS.get();
+        THREAD_BYTE_BUFFERS.remove();
+
+        if (byteBuffers == null) {
+
+            byteBuffers = new ByteBuffer[RESULT_FILE_BUFFER_COUNT];
+
+            for (int i = 0; i < byteBuffers.length; i++) {
+                byteBuffers[i] = ByteBuffer.allocateDirect(
+                        getByteBufferSize(RESULT_FILE_BUFFER_SIZE, Charset.defaultCharset()));
+            }
+
+        }
+
+        return byteBuffers;
+
+    }
+
+}
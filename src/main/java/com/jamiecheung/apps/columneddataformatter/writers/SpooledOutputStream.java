@@ -0,0 +1,152 @@
+package com.jamiecheung.apps.columneddataformatter.writers;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SPOOL_FILE_PREFIX;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.SPOOL_INITIAL_CAPACITY;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.TEMPORARY_FILE_EXTENSION;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Output stream that holds the bytes written to it until they are copied to
+ * another output stream, so output can be produced on one thread and written
+ * out later on another. Bytes are held in memory up to the memory limit, and
+ * every byte after that is spilled to a temporary file, so output of any size
+ * can be held without running out of memory.
+ *
+ * <p>
+ * The temporary file is deleted when the SpooledOutputStream is closed, or
+ * when the JVM stops if it is never closed.
+ *
+ * @author JamieCheung
+ *
+ */
+public class SpooledOutputStream extends OutputStream {
+
+    private final int memoryLimit;
+    private byte[] bytes;
+    private int byteCount;
+    private FileChannel spillChannel;
+
+    /**
+     * Creates an empty SpooledOutputStream.
+     *
+     * @param memoryLimit
+     *                    the number of bytes held in memory before the rest are
+     *                    spilled to a temporary file
+     */
+    public SpooledOutputStream(int memoryLimit) {
+
+        this.memoryLimit = memoryLimit;
+        this.bytes = new byte[Math.min(memoryLimit, SPOOL_INITIAL_CAPACITY)];
+
+    }
+
+    /**
+     * Writes a single byte.
+     *
+     * @param b
+     *          the byte, in the lowest eight bits
+     *
+     * @throws IOException
+     */
+    @Override
+    public void write(int b) throws IOException {
+
+        write(new byte[] { (byte) b }, 0, 1);
+
+    }
+
+    /**
+     * Writes length bytes of the array, starting at offset.
+     *
+     * @param b
+     *               the array of bytes
+     * @param offset
+     *               the index of the first byte to write
+     * @param length
+     *               the number of bytes to write
+     *
+     * @throws IOException
+     *                     if the temporary file cannot be written
+     */
+    @Override
+    public void write(byte[] b, int offset, int length) throws IOException {
+
+        if (spillChannel == null && length <= memoryLimit - byteCount) {
+
+            if (byteCount + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(Math.max(2L * bytes.length, byteCount + length),
+                        memoryLimit));
+            }
+
+            System.arraycopy(b, offset, bytes, byteCount, length);
+            byteCount += length;
+
+            return;
+
+        }
+
+        if (spillChannel == null) {
+            spillChannel = FileChannel.open(Files.createTempFile(SPOOL_FILE_PREFIX, TEMPORARY_FILE_EXTENSION),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        ByteBuffer byteBuffer = ByteBuffer.wrap(b, offset, length);
+
+        while (byteBuffer.hasRemaining()) {
+            spillChannel.write(byteBuffer);
+        }
+
+    }
+
+    /**
+     * Copies every byte written so far to the output stream, in the order they
+     * were written.
+     *
+     * @param output
+     *               the output stream to copy to
+     *
+     * @throws IOException
+     */
+    public void writeTo(OutputStream output) throws IOException {
+
+        output.write(bytes, 0, byteCount);
+
+        if (spillChannel == null) {
+            return;
+        }
+
+        byte[] spilledBytes = new byte[SPOOL_INITIAL_CAPACITY];
+        ByteBuffer byteBuffer = ByteBuffer.wrap(spilledBytes);
+        long position = 0;
+        int bytesRead;
+
+        while ((bytesRead = spillChannel.read(byteBuffer, position)) > 0) {
+            output.write(spilledBytes, 0, bytesRead);
+            position += bytesRead;
+            byteBuffer.clear();
+        }
+
+    }
+
+    /**
+     * Deletes the temporary file, if any bytes were spilled.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (spillChannel != null) {
+            spillChannel.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event lasting as long as the {@link PipelineStage#CONSOLE}
+ * stage of an input file.
+ *
+ * @author JamieCheung
+ *
+ */
+@Name("com.jamiecheung.apps.columneddataformatter.Console")
+@Label("Console Output")
+@Description("Writing the formatted lines to the console")
+class ConsoleEvent extends StageEvent {
+
+    /**
+     * Creates the event.
+     */
+    ConsoleEvent() {
+
+        super(PipelineStage.CONSOLE);
+
+    }
+
+}
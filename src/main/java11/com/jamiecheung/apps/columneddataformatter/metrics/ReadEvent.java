@@ -0,0 +1,28 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event lasting as long as the {@link PipelineStage#READ}
+ * stage of an input file.
+ *
+ * @author JamieCheung
+ *
+ */
+@Name("com.jamiecheung.apps.columneddataformatter.Read")
+@Label("Read Input")
+@Description("Opening and memory mapping the input file, or splitting the input text into lines")
+class ReadEvent extends StageEvent {
+
+    /**
+     * Creates the event.
+     */
+    ReadEvent() {
+
+        super(PipelineStage.READ);
+
+    }
+
+}
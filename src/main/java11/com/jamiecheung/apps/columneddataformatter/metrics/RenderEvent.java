@@ -0,0 +1,28 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event lasting as long as the {@link PipelineStage#RENDER}
+ * stage of an input file.
+ *
+ * @author JamieCheung
+ *
+ */
+@Name("com.jamiecheung.apps.columneddataformatter.Render")
+@Label("Render")
+@Description("Padding the cells of each row into formatted lines")
+class RenderEvent extends StageEvent {
+
+    /**
+     * Creates the event.
+     */
+    RenderEvent() {
+
+        super(PipelineStage.RENDER);
+
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event lasting as long as a {@link PipelineStage} of an
+ * input file, including the stages started inside it. Each stage has its own
+ * subclass, so the stages can be enabled and given thresholds separately. The
+ * sizes of the input file are read from its {@link FileMetrics} when the stage
+ * ends.
+ *
+ * <p>
+ * Stack traces are not recorded, as every event of a stage is emitted from the
+ * same place.
+ *
+ * @author JamieCheung
+ *
+ */
+@Category({ "Columned Data Formatter", "Pipeline" })
+@StackTrace(false)
+abstract class StageEvent extends Event {
+
+    @Label("Input File")
+    @Description("The file containing the input text")
+    String inputFile;
+
+    @Label("Bytes")
+    @Description("The size of the input, or the bytes written out by the stage")
+    @DataAmount
+    long bytes;
+
+    @Label("Rows")
+    @Description("The number of rows formatted so far")
+    long rows;
+
+    @Label("Columns")
+    @Description("The largest number of columns rows have been formatted with so far")
+    int columns;
+
+    private final transient PipelineStage stage;
+    private transient long startBytesOut;
+
+    /**
+     * Creates the event of a stage.
+     *
+     * @param stage
+     *              the stage
+     */
+    StageEvent(PipelineStage stage) {
+
+        this.stage = stage;
+
+    }
+
+    /**
+     * Starts timing the stage.
+     *
+     * @param fileMetrics
+     *                    the metrics of the input file the stage runs for
+     */
+    void start(FileMetrics fileMetrics) {
+
+        startBytesOut = getBytesOut(fileMetrics);
+        begin();
+
+    }
+
+    /**
+     * Stops timing the stage, and emits the event with the sizes of the input
+     * file if it lasted longer than the threshold of its type.
+     *
+     * @param fileMetrics
+     *                    the metrics of the input file the stage runs for
+     */
+    void finish(FileMetrics fileMetrics) {
+
+        end();
+
+        if (!shouldCommit()) {
+            return;
+        }
+
+        inputFile = fileMetrics.getInputFile();
+        bytes = stage == PipelineStage.CONSOLE || stage == PipelineStage.WRITE
+                ? getBytesOut(fileMetrics) - startBytesOut
+                : fileMetrics.getBytesIn();
+        rows = fileMetrics.getRows();
+        columns = fileMetrics.getColumns();
+        commit();
+
+    }
+
+    /*
+     * Gets the bytes written out so far by the stage, or 0 if it writes nothing
+     * out.
+     */
+    private long getBytesOut(FileMetrics fileMetrics) {
+
+        switch (stage) {
+        case CONSOLE:
+            return fileMetrics.getConsoleBytesOut();
+        case WRITE:
+            return fileMetrics.getBytesOut();
+        default:
+            return 0;
+        }
+
+    }
+
+}
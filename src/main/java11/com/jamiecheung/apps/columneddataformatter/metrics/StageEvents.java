@@ -0,0 +1,107 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Emits a JDK Flight Recorder event around each {@link PipelineStage} of an
+ * input file. This is the version of the class for Java 11 or later, kept in
+ * {@code META-INF/versions/11} of the multi-release jar. Each stage has its own
+ * {@link StageEvent}, which is enabled by default, so it is recorded by any
+ * flight recording, e.g. one started with
+ * {@code -XX:StartFlightRecording}.
+ *
+ * <p>
+ * Loading the first event class starts the Flight Recorder, which takes longer
+ * than formatting a small input file, so no event is created until a recording
+ * has started it, either when the JVM started or later with
+ * {@code jcmd <pid> JFR.start}. After that, while no recording is running, an
+ * event is only created to check whether its type is enabled, and is dropped
+ * straight away.
+ *
+ * @author JamieCheung
+ *
+ */
+class StageEvents {
+
+    /**
+     * Checks whether the Flight Recorder has started, so the events of each
+     * stage can be emitted.
+     *
+     * @return true iff the Flight Recorder has started, otherwise false.
+     */
+    static boolean isRecorderStarted() {
+
+        return FlightRecorder.isInitialized();
+
+    }
+
+    /**
+     * Begins the event of a stage started on the current thread.
+     *
+     * @param stage
+     *                    the stage started
+     * @param fileMetrics
+     *                    the metrics of the input file the stage runs for
+     *
+     * @return the event, or null if the Flight Recorder has not started or the
+     *         type of the event is not enabled in any recording
+     */
+    static Object begin(PipelineStage stage, FileMetrics fileMetrics) {
+
+        if (!isRecorderStarted()) {
+            return null;
+        }
+
+        StageEvent event = createEvent(stage);
+
+        if (!event.isEnabled()) {
+            return null;
+        }
+
+        event.start(fileMetrics);
+
+        return event;
+
+    }
+
+    /**
+     * Ends the event of a stage and emits it, if it lasted longer than the
+     * threshold of its type.
+     *
+     * @param event
+     *                    the event returned when the stage started, or null if
+     *                    there is none
+     * @param fileMetrics
+     *                    the metrics of the input file the stage runs for
+     */
+    static void end(Object event, FileMetrics fileMetrics) {
+
+        if (event != null) {
+            ((StageEvent) event).finish(fileMetrics);
+        }
+
+    }
+
+    /*
+     * Creates the event of the stage.
+     */
+    private static StageEvent createEvent(PipelineStage stage) {
+
+        switch (stage) {
+        case READ:
+            return new ReadEvent();
+        case TOKENIZE:
+            return new TokenizeEvent();
+        case WIDTH:
+            return new WidthEvent();
+        case RENDER:
+            return new RenderEvent();
+        case CONSOLE:
+            return new ConsoleEvent();
+        default:
+            return new WriteEvent();
+        }
+
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event lasting as long as the {@link PipelineStage#TOKENIZE}
+ * stage of an input file.
+ *
+ * @author JamieCheung
+ *
+ */
+@Name("com.jamiecheung.apps.columneddataformatter.Tokenize")
+@Label("Tokenize")
+@Description("Splitting the input into rows and cells")
+class TokenizeEvent extends StageEvent {
+
+    /**
+     * Creates the event.
+     */
+    TokenizeEvent() {
+
+        super(PipelineStage.TOKENIZE);
+
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event lasting as long as the {@link PipelineStage#WIDTH}
+ * stage of an input file.
+ *
+ * @author JamieCheung
+ *
+ */
+@Name("com.jamiecheung.apps.columneddataformatter.Width")
+@Label("Compute Column Widths")
+@Description("Finding the width of each column of a streamed input file")
+class WidthEvent extends StageEvent {
+
+    /**
+     * Creates the event.
+     */
+    WidthEvent() {
+
+        super(PipelineStage.WIDTH);
+
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JDK Flight Recorder event lasting as long as the {@link PipelineStage#WRITE}
+ * stage of an input file.
+ *
+ * @author JamieCheung
+ *
+ */
+@Name("com.jamiecheung.apps.columneddataformatter.Write")
+@Label("Write Result File")
+@Description("Writing the formatted lines to the resulting file")
+class WriteEvent extends StageEvent {
+
+    /**
+     * Creates the event.
+     */
+    WriteEvent() {
+
+        super(PipelineStage.WRITE);
+
+    }
+
+}
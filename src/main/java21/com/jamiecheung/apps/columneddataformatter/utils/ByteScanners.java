@@ -0,0 +1,36 @@
+package com.jamiecheung.apps.columneddataformatter.utils;
+
+/**
+ * Chooses the fastest {@link ByteScanner} the running JVM supports. This is the
+ * version of the class for Java 21 or later, kept in
+ * {@code META-INF/versions/21} of the multi-release jar. It chooses the
+ * {@link VectorByteScanner} whenever the {@code jdk.incubator.vector} module
+ * has been added to the JVM (with {@code --add-modules jdk.incubator.vector})
+ * and the JVM's preferred vectors are wider than a long, otherwise the scalar
+ * scanner.
+ *
+ * @author JamieCheung
+ *
+ */
+class ByteScanners {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * Gets the fastest scanner the running JVM supports.
+     *
+     * @return the vector scanner if the Vector API is available and wider than
+     *         the scalar scanner, otherwise the scalar scanner
+     */
+    static ByteScanner getFastestScanner() {
+
+        // The vector scanner cannot even be loaded without the incubator module
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return new ByteScanner();
+        }
+
+        return VectorByteScanner.isWiderThanScalar() ? new VectorByteScanner() : new ByteScanner();
+
+    }
+
+}
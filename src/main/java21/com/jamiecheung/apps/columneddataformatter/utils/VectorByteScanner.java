@@ -0,0 +1,182 @@
+package com.jamiecheung.apps.columneddataformatter.utils;
+
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.CARRIAGE_RETURN_BYTE;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.LINE_FEED_BYTE;
+
+import java.nio.ByteBuffer;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Finds and counts single bytes, such as delimiters and line terminators, in
+ * input as many bytes at a time as the JVM's preferred vectors hold, which is
+ * 32 bytes with AVX2 and 64 bytes with AVX-512. Each vector of bytes is
+ * compared with the byte searched for in a single operation, giving a mask of
+ * the matching bytes, so the first match is the first set lane of the mask and
+ * the number of matches its number of set lanes. The incubating Vector API of
+ * Java 21 can only load vectors from a {@link ByteBuffer} through the preview
+ * {@code MemorySegment} API, so the input is copied a chunk of vectors at a
+ * time into an array kept by each thread, and the vectors are loaded from the
+ * array. The bytes after the last whole vector are left to the scalar scanner,
+ * as are the first few vectors' worth of bytes of each search and count, so
+ * short lines, which are scanned long before the vector operations are
+ * compiled, never pay for loading a vector.
+ *
+ * <p>
+ * Bytes are compared one at a time, so the byte order of the input has no
+ * effect on the bytes found.
+ *
+ * @author JamieCheung
+ *
+ */
+final class VectorByteScanner extends ByteScanner {
+
+    private static final String NAME = "vector, %d bytes at a time";
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final int BYTES_PER_VECTOR = SPECIES.length();
+    private static final int SCALAR_BYTES = 4 * BYTES_PER_VECTOR;
+    private static final int BYTES_PER_CHUNK = 16 * BYTES_PER_VECTOR;
+    private static final ThreadLocal<byte[]> CHUNK = ThreadLocal.withInitial(() -> new byte[BYTES_PER_CHUNK]);
+
+    /**
+     * Checks whether the JVM's preferred vectors hold more bytes than the long
+     * compared by the scalar scanner, which is not the case on hardware without
+     * vector registers.
+     *
+     * @return true if each vector holds more than eight bytes
+     */
+    static boolean isWiderThanScalar() {
+
+        return BYTES_PER_VECTOR > Long.BYTES;
+
+    }
+
+    @Override
+    String getName() {
+
+        return String.format(NAME, BYTES_PER_VECTOR);
+
+    }
+
+    @Override
+    int indexOf(ByteBuffer input, int from, int to, byte target) {
+
+        // Most lines end within a few words, so the scalar scanner looks for the
+        // first match before any vector is loaded
+        int leadInEnd = to - from > SCALAR_BYTES ? from + SCALAR_BYTES : to;
+        int leadInIndex = super.indexOf(input, from, leadInEnd, target);
+
+        if (leadInIndex >= 0 || leadInEnd == to) {
+            return leadInIndex;
+        }
+
+        int vectorEnd = getVectorEnd(leadInEnd, to);
+        byte[] chunk = CHUNK.get();
+
+        for (int chunkStart = leadInEnd; chunkStart < vectorEnd; chunkStart += BYTES_PER_CHUNK) {
+
+            int chunkLength = copyChunk(input, chunkStart, vectorEnd, chunk);
+
+            for (int i = 0; i < chunkLength; i += BYTES_PER_VECTOR) {
+
+                VectorMask<Byte> matches = ByteVector.fromArray(SPECIES, chunk, i).eq(target);
+
+                if (matches.anyTrue()) {
+                    return chunkStart + i + matches.firstTrue();
+                }
+
+            }
+
+        }
+
+        return super.indexOf(input, vectorEnd, to, target);
+
+    }
+
+    @Override
+    int indexOfLineTerminator(ByteBuffer input, int from, int to) {
+
+        // Most lines end within a few words, so the scalar scanner looks for the
+        // first match before any vector is loaded
+        int leadInEnd = to - from > SCALAR_BYTES ? from + SCALAR_BYTES : to;
+        int leadInIndex = super.indexOfLineTerminator(input, from, leadInEnd);
+
+        if (leadInIndex >= 0 || leadInEnd == to) {
+            return leadInIndex;
+        }
+
+        int vectorEnd = getVectorEnd(leadInEnd, to);
+        byte[] chunk = CHUNK.get();
+
+        for (int chunkStart = leadInEnd; chunkStart < vectorEnd; chunkStart += BYTES_PER_CHUNK) {
+
+            int chunkLength = copyChunk(input, chunkStart, vectorEnd, chunk);
+
+            for (int i = 0; i < chunkLength; i += BYTES_PER_VECTOR) {
+
+                ByteVector bytes = ByteVector.fromArray(SPECIES, chunk, i);
+                VectorMask<Byte> matches = bytes.eq(LINE_FEED_BYTE).or(bytes.eq(CARRIAGE_RETURN_BYTE));
+
+                if (matches.anyTrue()) {
+                    return chunkStart + i + matches.firstTrue();
+                }
+
+            }
+
+        }
+
+        return super.indexOfLineTerminator(input, vectorEnd, to);
+
+    }
+
+    @Override
+    int count(ByteBuffer input, int from, int to, byte target) {
+
+        // Counting the bytes of a short line is over before loading vectors pays off
+        if (to - from <= SCALAR_BYTES) {
+            return super.count(input, from, to, target);
+        }
+
+        int count = 0;
+        int vectorEnd = getVectorEnd(from, to);
+        byte[] chunk = CHUNK.get();
+
+        for (int chunkStart = from; chunkStart < vectorEnd; chunkStart += BYTES_PER_CHUNK) {
+
+            int chunkLength = copyChunk(input, chunkStart, vectorEnd, chunk);
+
+            for (int i = 0; i < chunkLength; i += BYTES_PER_VECTOR) {
+                count += ByteVector.fromArray(SPECIES, chunk, i).eq(target).trueCount();
+            }
+
+        }
+
+        return count + super.count(input, vectorEnd, to, target);
+
+    }
+
+    /*
+     * Gets the end of the last whole vector of the bytes from the start.
+     */
+    private static int getVectorEnd(int from, int to) {
+
+        return from + (to - from) / BYTES_PER_VECTOR * BYTES_PER_VECTOR;
+
+    }
+
+    /*
+     * Copies the bytes of the input from the start of the chunk, up to a whole
+     * chunk or the end, into the chunk, and returns the number of bytes copied.
+     */
+    private static int copyChunk(ByteBuffer input, int chunkStart, int end, byte[] chunk) {
+
+        int chunkLength = Math.min(BYTES_PER_CHUNK, end - chunkStart);
+        input.get(chunkStart, chunk, 0, chunkLength);
+
+        return chunkLength;
+
+    }
+
+}
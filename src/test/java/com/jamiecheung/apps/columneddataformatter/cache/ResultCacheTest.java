@@ -0,0 +1,218 @@
+package com.jamiecheung.apps.columneddataformatter.cache;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jamiecheung.apps.columneddataformatter.readers.MappedFileReader;
+import com.jamiecheung.apps.columneddataformatter.utils.FormatInputUtils;
+import com.jamiecheung.apps.columneddataformatter.utils.ResultGeneratorUtils;
+
+/**
+ * Class to unit test the {@link ResultCache} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class ResultCacheTest {
+
+    private static final String TEST_RESOURCE_DIRECTORY = "src/test/resources/cache_resources/";
+    private static final String TEST_DELIMITER = "|";
+    private static final String TEST_OTHER_DELIMITER = ",";
+    private static final Path TEST_INPUT_FILE_PATH = Paths.get(TEST_RESOURCE_DIRECTORY, "testInputFile.txt");
+    private static final String TEST_GENERATED_INPUT_FILE = TEST_RESOURCE_DIRECTORY + "testGeneratedInputFile.txt";
+    private static final Path TEST_GENERATED_INPUT_FILE_PATH = Paths.get(TEST_GENERATED_INPUT_FILE);
+    private static final Path TEST_RESULT_FILE_PATH = Paths.get(TEST_RESOURCE_DIRECTORY,
+            "testGeneratedInputFile_formatted.txt");
+    private static final Path TEST_MANIFEST_PATH = Paths.get(TEST_RESOURCE_DIRECTORY, ".columned-data-formatter-cache");
+    private static final String TEST_CHANGED_ENTRY = "Changed";
+    private static final long TEST_LATER_MODIFIED_TIME_OFFSET = 60000;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+
+        // Generate the input file and its result file
+        Files.copy(TEST_INPUT_FILE_PATH, TEST_GENERATED_INPUT_FILE_PATH, StandardCopyOption.REPLACE_EXISTING);
+        generateResultFile();
+
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+
+        // Delete the generated input file, result file and manifest
+        Files.deleteIfExists(TEST_GENERATED_INPUT_FILE_PATH);
+        Files.deleteIfExists(TEST_RESULT_FILE_PATH);
+        Files.deleteIfExists(TEST_MANIFEST_PATH);
+
+    }
+
+    /**
+     * Unit tests the {@link ResultCache#isUpToDate(String inputFile, String delimiter)}
+     * function for input files and result files that have not changed.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testIsUpToDate() throws IOException {
+
+        ResultCache testResultCache = ResultCache.load(TEST_RESOURCE_DIRECTORY);
+
+        // Check an input file is not up to date until it is recorded
+        assertFalse(testResultCache.isUpToDate(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER));
+
+        testResultCache.update(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER,
+                testResultCache.snapshot(TEST_GENERATED_INPUT_FILE));
+
+        // Check the input file is up to date for the same delimiter only
+        assertTrue(testResultCache.isUpToDate(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER));
+        assertFalse(testResultCache.isUpToDate(TEST_GENERATED_INPUT_FILE, TEST_OTHER_DELIMITER));
+
+        // Check an input file that has been touched but not changed is still up to date
+        touch(TEST_GENERATED_INPUT_FILE_PATH);
+        assertTrue(testResultCache.isUpToDate(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER));
+
+    }
+
+    /**
+     * Unit tests the {@link ResultCache#isUpToDate(String inputFile, String delimiter)}
+     * function for input files and result files that have changed.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testIsUpToDateChanged() throws IOException {
+
+        ResultCache testResultCache = ResultCache.load(TEST_RESOURCE_DIRECTORY);
+        testResultCache.update(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER,
+                testResultCache.snapshot(TEST_GENERATED_INPUT_FILE));
+
+        // Check a result file that has been changed since it was generated is not up to
+        // date
+        Files.write(TEST_RESULT_FILE_PATH, TEST_CHANGED_ENTRY.getBytes(StandardCharsets.UTF_8));
+        assertFalse(testResultCache.isUpToDate(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER));
+
+        // Check a result file that has been deleted is not up to date
+        generateResultFile();
+        testResultCache.update(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER,
+                testResultCache.snapshot(TEST_GENERATED_INPUT_FILE));
+        Files.delete(TEST_RESULT_FILE_PATH);
+        assertFalse(testResultCache.isUpToDate(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER));
+
+        // Check an input file whose content has changed, but not its size, is not up to
+        // date
+        generateResultFile();
+        testResultCache.update(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER,
+                testResultCache.snapshot(TEST_GENERATED_INPUT_FILE));
+        byte[] inputFileBytes = Files.readAllBytes(TEST_GENERATED_INPUT_FILE_PATH);
+        inputFileBytes[2] = 'f';
+        Files.write(TEST_GENERATED_INPUT_FILE_PATH, inputFileBytes);
+        touch(TEST_GENERATED_INPUT_FILE_PATH);
+        assertFalse(testResultCache.isUpToDate(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER));
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link ResultCache#update(String inputFile, String delimiter, ResultCache.InputSnapshot snapshot)}
+     * function leaves out an input file that changed while it was being
+     * formatted.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testUpdateChangedWhileFormatting() throws IOException {
+
+        ResultCache testResultCache = ResultCache.load(TEST_RESOURCE_DIRECTORY);
+        testResultCache.update(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER,
+                testResultCache.snapshot(TEST_GENERATED_INPUT_FILE));
+
+        // Take the snapshot, then change the input file before its result file is
+        // generated
+        ResultCache.InputSnapshot snapshot = testResultCache.snapshot(TEST_GENERATED_INPUT_FILE);
+        Files.write(TEST_GENERATED_INPUT_FILE_PATH, TEST_CHANGED_ENTRY.getBytes(StandardCharsets.UTF_8));
+        touch(TEST_GENERATED_INPUT_FILE_PATH);
+        generateResultFile();
+        testResultCache.update(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER, snapshot);
+
+        // Check the input file is formatted again, rather than matched to a result
+        // file generated from content the manifest does not describe
+        assertFalse(testResultCache.isUpToDate(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER));
+
+    }
+
+    /**
+     * Unit tests the {@link ResultCache#save()} function, and that the saved
+     * manifest is loaded by {@link ResultCache#load(String resultDirectory)}.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testSave() throws IOException {
+
+        ResultCache testResultCache = ResultCache.load(TEST_RESOURCE_DIRECTORY);
+        testResultCache.update(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER,
+                testResultCache.snapshot(TEST_GENERATED_INPUT_FILE));
+
+        // Save the manifest
+        testResultCache.save();
+
+        // Check only the manifest is left in the result directory
+        assertTrue(Files.exists(TEST_MANIFEST_PATH));
+        try (Stream<Path> paths = Files.list(Paths.get(TEST_RESOURCE_DIRECTORY))) {
+            assertFalse(paths.anyMatch(path -> path.getFileName().toString().endsWith(".tmp")));
+        }
+
+        // Check the loaded manifest has the same entry, however the input file is
+        // written
+        ResultCache loadedResultCache = ResultCache.load(TEST_RESOURCE_DIRECTORY);
+        assertTrue(loadedResultCache.isUpToDate(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER));
+        assertTrue(loadedResultCache
+                .isUpToDate(TEST_GENERATED_INPUT_FILE_PATH.toAbsolutePath().toString(), TEST_DELIMITER));
+
+        // Check a manifest that cannot be read is treated as empty
+        Files.write(TEST_MANIFEST_PATH, "\\u00".getBytes(StandardCharsets.UTF_8));
+        assertFalse(ResultCache.load(TEST_RESOURCE_DIRECTORY).isUpToDate(TEST_GENERATED_INPUT_FILE, TEST_DELIMITER));
+
+    }
+
+    /*
+     * Generates the result file of the generated input file
+     */
+    private static void generateResultFile() throws IOException {
+
+        List<StringBuilder> linesAsStringBuilders;
+
+        try (MappedFileReader reader = new MappedFileReader(TEST_GENERATED_INPUT_FILE)) {
+            linesAsStringBuilders = FormatInputUtils.formatInputFile(reader, TEST_DELIMITER);
+        }
+
+        ResultGeneratorUtils.generateResultFile(TEST_GENERATED_INPUT_FILE, TEST_RESOURCE_DIRECTORY,
+                linesAsStringBuilders);
+
+    }
+
+    /*
+     * Moves the last modified time of a file later, without changing its content
+     */
+    private static void touch(Path path) throws IOException {
+
+        Files.setLastModifiedTime(path, FileTime
+                .fromMillis(Files.getLastModifiedTime(path).toMillis() + TEST_LATER_MODIFIED_TIME_OFFSET));
+
+    }
+
+}
@@ -0,0 +1,317 @@
+package com.jamiecheung.apps.columneddataformatter.daemon;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jamiecheung.apps.columneddataformatter.exceptions.DaemonRequestException;
+import com.jamiecheung.apps.columneddataformatter.executors.DaemonClientExecutor;
+import com.jamiecheung.apps.columneddataformatter.utils.DaemonProtocolUtils;
+
+/**
+ * Class to unit test the {@link FormatterDaemon} class, along with the
+ * {@link DaemonClientExecutor} that sends it requests.
+ *
+ * @author JamieCheung
+ *
+ */
+class FormatterDaemonTest {
+
+    private static final String NEW_LINE = "\n";
+    private static final String START_OF_FORMATTED_DATA_CONTENTS = "---START OF FORMATTED DATA CONTENTS---";
+    private static final String END_OF_FORMATTED_DATA_CONTENTS = "---END OF FORMATTED DATA CONTENTS---";
+
+    private static final String EXPECTED_ERROR_MESSAGE_INVALID_DELIMITER = "Delimiter |,|,|,|,|,|,|,|,| is not 1 to 16 characters on a single line.";
+    private static final String EXPECTED_ERROR_MESSAGE_BUSY = "Formatter daemon is busy, try again later.";
+    private static final String EXPECTED_ERROR_MESSAGE_TIMEOUT = "Request timed out after 500 ms.";
+    private static final String EXPECTED_ERROR_MESSAGE_INVALID_MESSAGE = "Invalid formatter daemon message.";
+    private static final String EXPECTED_ERROR_MESSAGE_UNAUTHORISED = "Request does not have the token of the formatter daemon.";
+    private static final String EXPECTED_TOKEN_FILE_PERMISSIONS = "rw-------";
+
+    private static final String TEST_RESOURCE_DIRECTORY = "src/test/resources/daemon_resources/";
+    private static final String TEST_DELIMITER = "|";
+    private static final String TEST_INVALID_DELIMITER = "|,|,|,|,|,|,|,|,|";
+    private static final String TEST_INPUT_FILE = TEST_RESOURCE_DIRECTORY + "testInputFile.txt";
+    private static final Path TEST_RESULT_FILE_PATH = Paths.get(TEST_RESOURCE_DIRECTORY,
+            "testInputFile_formatted.txt");
+    private static final Path TEST_OUTPUT_PATH = Paths.get(TEST_RESOURCE_DIRECTORY, "testOutput.txt");
+    private static final String TEST_NO_RESULT_DIRECTORY = "";
+    private static final Path TEST_TOKEN_FILE_PATH = Paths.get(TEST_RESOURCE_DIRECTORY, "testDaemon.token");
+    private static final String TEST_TOKEN_FILE_OPTION = "--token-file=" + TEST_TOKEN_FILE_PATH;
+    private static final String TEST_WRONG_TOKEN = "not-the-token";
+    private static final int TEST_WORKERS = 1;
+    private static final int TEST_QUEUE_SIZE = 1;
+    private static final int TEST_TIMEOUT = 500;
+    private static final int TEST_SLOW_REQUEST_INTERVAL = 50;
+
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+    private final PrintStream originalErr = System.err;
+
+    private FormatterDaemon formatterDaemon;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+
+        System.setOut(new PrintStream(outContent));
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+
+        // Start the formatter daemon on any free port
+        formatterDaemon = new FormatterDaemon(0, TEST_WORKERS, TEST_QUEUE_SIZE, TEST_TIMEOUT, TEST_TOKEN_FILE_PATH);
+        formatterDaemon.start();
+
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+
+        formatterDaemon.close();
+
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+
+        // Delete any result file generated by the test
+        Files.deleteIfExists(TEST_RESULT_FILE_PATH);
+
+    }
+
+    /**
+     * Unit tests formatting an input file through the {@link FormatterDaemon}.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testFormatInputFile() throws IOException {
+
+        // Run the client's main function
+        DaemonClientExecutor.main(new String[] { TEST_DELIMITER, TEST_INPUT_FILE, TEST_RESOURCE_DIRECTORY,
+                "--port=" + formatterDaemon.getPort(), TEST_TOKEN_FILE_OPTION });
+
+        // Check result file with correct contents is created
+        assertArrayEquals(Files.readAllBytes(TEST_OUTPUT_PATH), Files.readAllBytes(TEST_RESULT_FILE_PATH));
+
+        // Check the console output
+        String expectedConsoleOutput = START_OF_FORMATTED_DATA_CONTENTS + NEW_LINE + Files
+                .readAllLines(TEST_OUTPUT_PATH).stream().map(Object::toString).collect(Collectors.joining(NEW_LINE))
+                + NEW_LINE + END_OF_FORMATTED_DATA_CONTENTS + NEW_LINE;
+        assertEquals(expectedConsoleOutput, outContent.toString());
+
+    }
+
+    /**
+     * Unit tests formatting an input String through the {@link FormatterDaemon}.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testFormatInputString() throws IOException {
+
+        String testInputString = Files.readAllLines(Paths.get(TEST_INPUT_FILE)).stream().map(Object::toString)
+                .collect(Collectors.joining(NEW_LINE));
+
+        // Run the client's main function without a result directory
+        DaemonClientExecutor.main(new String[] { TEST_DELIMITER, testInputString, TEST_NO_RESULT_DIRECTORY,
+                "--port=" + formatterDaemon.getPort(), TEST_TOKEN_FILE_OPTION });
+
+        // Check the console output
+        String expectedConsoleOutput = START_OF_FORMATTED_DATA_CONTENTS + NEW_LINE + Files
+                .readAllLines(TEST_OUTPUT_PATH).stream().map(Object::toString).collect(Collectors.joining(NEW_LINE))
+                + NEW_LINE + END_OF_FORMATTED_DATA_CONTENTS + NEW_LINE;
+        assertEquals(expectedConsoleOutput, outContent.toString());
+
+    }
+
+    /**
+     * Unit tests the error response of the {@link FormatterDaemon} to a request
+     * that cannot be formatted.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testFormatInvalidDelimiter() throws IOException {
+
+        try (Socket socket = connect()) {
+
+            DaemonProtocolUtils.writeRequest(new DataOutputStream(socket.getOutputStream()),
+                    DaemonProtocolUtils.readTokenFile(TEST_TOKEN_FILE_PATH), TEST_INVALID_DELIMITER, TEST_INPUT_FILE,
+                    TEST_NO_RESULT_DIRECTORY);
+
+            // Check the validation error is sent back to the client
+            DaemonRequestException exceptionInvalidDelimiter = assertThrows(DaemonRequestException.class,
+                    () -> DaemonProtocolUtils.readResponse(new DataInputStream(socket.getInputStream())));
+            assertEquals(EXPECTED_ERROR_MESSAGE_INVALID_DELIMITER, exceptionInvalidDelimiter.getMessage());
+
+        }
+
+    }
+
+    /**
+     * Unit tests the error response of the {@link FormatterDaemon} to a request
+     * with a String longer than any it accepts, without allocating for it.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testRequestStringTooLong() throws IOException {
+
+        try (Socket socket = connect()) {
+
+            // Send the token and a valid delimiter followed by the largest possible length
+            String token = DaemonProtocolUtils.readTokenFile(TEST_TOKEN_FILE_PATH);
+            DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+            output.writeInt(token.length());
+            output.writeBytes(token);
+            output.writeInt(TEST_DELIMITER.length());
+            output.writeBytes(TEST_DELIMITER);
+            output.writeInt(Integer.MAX_VALUE);
+            output.flush();
+
+            // Check the request is rejected as not valid
+            DaemonRequestException exceptionInvalidMessage = assertThrows(DaemonRequestException.class,
+                    () -> DaemonProtocolUtils.readResponse(new DataInputStream(socket.getInputStream())));
+            assertEquals(EXPECTED_ERROR_MESSAGE_INVALID_MESSAGE, exceptionInvalidMessage.getMessage());
+
+        }
+
+    }
+
+    /**
+     * Unit tests the {@link FormatterDaemon} only formats requests with its token,
+     * which only its owner can read, and deletes the token file when it is closed.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testToken() throws IOException {
+
+        // Check only the owner can read or write the token file
+        if (TEST_TOKEN_FILE_PATH.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            assertEquals(EXPECTED_TOKEN_FILE_PERMISSIONS,
+                    PosixFilePermissions.toString(Files.getPosixFilePermissions(TEST_TOKEN_FILE_PATH)));
+        }
+
+        try (Socket socket = connect()) {
+
+            // Send the request all at once, as the formatter daemon stops reading it as
+            // soon as it finds the token is wrong
+            DaemonProtocolUtils.writeRequest(new DataOutputStream(new BufferedOutputStream(socket.getOutputStream())),
+                    TEST_WRONG_TOKEN, TEST_DELIMITER, TEST_INPUT_FILE, TEST_NO_RESULT_DIRECTORY);
+
+            // Check the request with the wrong token is rejected
+            DaemonRequestException exceptionUnauthorised = assertThrows(DaemonRequestException.class,
+                    () -> DaemonProtocolUtils.readResponse(new DataInputStream(socket.getInputStream())));
+            assertEquals(EXPECTED_ERROR_MESSAGE_UNAUTHORISED, exceptionUnauthorised.getMessage());
+
+        }
+
+        // Check the token file is deleted
+        formatterDaemon.close();
+        assertFalse(Files.exists(TEST_TOKEN_FILE_PATH));
+
+    }
+
+    /**
+     * Unit tests the {@link FormatterDaemon} rejects requests once its queue is
+     * full, and times out requests that are not sent in time.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testBusyAndTimeout() throws IOException {
+
+        // Open connections that never send their request, so the only worker and the
+        // only place in the queue are both taken
+        try (Socket handledSocket = connect(); Socket queuedSocket = connect(); Socket rejectedSocket = connect()) {
+
+            // Check the connection beyond the queue is rejected straight away
+            DaemonRequestException exceptionBusy = assertThrows(DaemonRequestException.class,
+                    () -> DaemonProtocolUtils.readResponse(new DataInputStream(rejectedSocket.getInputStream())));
+            assertEquals(EXPECTED_ERROR_MESSAGE_BUSY, exceptionBusy.getMessage());
+
+            // Check the handled connection is timed out
+            DaemonRequestException exceptionTimeout = assertThrows(DaemonRequestException.class,
+                    () -> DaemonProtocolUtils.readResponse(new DataInputStream(handledSocket.getInputStream())));
+            assertEquals(EXPECTED_ERROR_MESSAGE_TIMEOUT, exceptionTimeout.getMessage());
+
+        }
+
+    }
+
+    /**
+     * Unit tests the {@link FormatterDaemon} times out a request sent a little at a
+     * time, with each part arriving well within the timeout, once the whole request
+     * has taken longer than the timeout.
+     *
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testSlowRequestTimeout() throws IOException, InterruptedException {
+
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+        DaemonProtocolUtils.writeRequest(new DataOutputStream(request),
+                DaemonProtocolUtils.readTokenFile(TEST_TOKEN_FILE_PATH), TEST_DELIMITER, TEST_INPUT_FILE,
+                TEST_NO_RESULT_DIRECTORY);
+
+        try (Socket socket = connect()) {
+
+            // Send the request a byte at a time, until it is sent or the connection is
+            // closed
+            Thread sender = new Thread(() -> {
+                try {
+                    for (byte requestByte : request.toByteArray()) {
+                        socket.getOutputStream().write(requestByte);
+                        Thread.sleep(TEST_SLOW_REQUEST_INTERVAL);
+                    }
+                } catch (IOException | InterruptedException e) {
+                    // The formatter daemon has stopped reading the request
+                }
+            });
+            sender.start();
+
+            long start = System.nanoTime();
+
+            // Check the request is timed out, without waiting for the rest of it
+            DaemonRequestException exceptionTimeout = assertThrows(DaemonRequestException.class,
+                    () -> DaemonProtocolUtils.readResponse(new DataInputStream(socket.getInputStream())));
+            assertEquals(EXPECTED_ERROR_MESSAGE_TIMEOUT, exceptionTimeout.getMessage());
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2 * TEST_TIMEOUT);
+
+            sender.interrupt();
+            sender.join();
+
+        }
+
+    }
+
+    /*
+     * Opens a connection to the formatter daemon
+     */
+    private Socket connect() throws IOException {
+
+        return new Socket(InetAddress.getLoopbackAddress(), formatterDaemon.getPort());
+
+    }
+
+}
@@ -0,0 +1,236 @@
+package com.jamiecheung.apps.columneddataformatter.executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.jamiecheung.apps.columneddataformatter.exceptions.ColumnedDataPropertyException;
+
+/**
+ * Class to unit test the {@link BatchExecutor} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class BatchExecutorTest {
+
+    private static final String NEW_LINE = "\n";
+    private static final String START_OF_FORMATTED_DATA_CONTENTS = "---START OF FORMATTED DATA CONTENTS---";
+    private static final String END_OF_FORMATTED_DATA_CONTENTS = "---END OF FORMATTED DATA CONTENTS---";
+    private static final String BATCH_INPUT_FILE_HEADER = "Formatting input file ";
+
+    private static final String TEST_RESOURCE_DIRECTORY = "src/test/resources/executors_resources/";
+    private static final String TEST_DELIMITER = "|";
+    private static final String TEST_INPUT_DIRECTORY = TEST_RESOURCE_DIRECTORY + "testInputDirectory";
+    private static final String TEST_INPUT_FILE_A = TEST_INPUT_DIRECTORY + "/testInputFileA.txt";
+    private static final String TEST_INPUT_FILE_B = TEST_INPUT_DIRECTORY + "/testInputFileB.txt";
+    private static final String TEST_INPUT_FILE_C = TEST_INPUT_DIRECTORY + "/testSubDirectory/testInputFileC.txt";
+    private static final String[] TEST_ARGS = { TEST_DELIMITER, TEST_INPUT_DIRECTORY, TEST_RESOURCE_DIRECTORY,
+            "--workers=2" };
+    private static final String[] TEST_ARGS_STREAMED = { TEST_DELIMITER, TEST_INPUT_DIRECTORY,
+            TEST_RESOURCE_DIRECTORY, "--workers=2", "--stream" };
+    private static final String[] TEST_ARGS_CACHED = { TEST_DELIMITER, TEST_INPUT_DIRECTORY, TEST_RESOURCE_DIRECTORY,
+            "--workers=2", "--cache" };
+    private static final String[] TEST_ARGS_INPUT_FILE = { TEST_DELIMITER, TEST_INPUT_FILE_A,
+            TEST_RESOURCE_DIRECTORY };
+    private static final Path TEST_RESULT_FILE_A_PATH = Paths.get(TEST_RESOURCE_DIRECTORY,
+            "testInputFileA_formatted.txt");
+    private static final Path TEST_RESULT_FILE_B_PATH = Paths.get(TEST_RESOURCE_DIRECTORY,
+            "testInputFileB_formatted.txt");
+    private static final Path TEST_RESULT_FILE_C_PATH = Paths.get(TEST_RESOURCE_DIRECTORY,
+            "testInputFileC_formatted.txt");
+    private static final Path TEST_OUTPUT_PATH = Paths.get(TEST_RESOURCE_DIRECTORY, "testOutput.txt");
+    private static final Path TEST_CACHE_MANIFEST_PATH = Paths.get(TEST_RESOURCE_DIRECTORY,
+            ".columned-data-formatter-cache");
+    private static final byte TEST_MALFORMED_BYTE = (byte) 0xFF;
+
+    private static final String EXPECTED_CONSOLE_ERROR = "Input file " + TEST_INPUT_FILE_B
+            + " could not be formatted: Input length = 1" + NEW_LINE + NEW_LINE;
+    private static final String EXPECTED_CONSOLE_ERROR_CACHED = "Input file " + TEST_INPUT_FILE_A
+            + " could not be formatted: Input length = 1" + NEW_LINE + NEW_LINE + EXPECTED_CONSOLE_ERROR;
+    private static final String EXPECTED_ERROR_MESSAGE_INPUT_DIRECTORY_NOT_A_DIRECTORY = "Input directory "
+            + TEST_INPUT_FILE_A + " is not a directory.";
+
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream errContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+    private final PrintStream originalErr = System.err;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+
+        System.setOut(new PrintStream(outContent));
+        System.setErr(new PrintStream(errContent));
+
+        // Delete any result file before the test begins
+        deleteGeneratedResultFiles();
+
+    }
+
+    @AfterEach
+    public void afterEach() {
+
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+
+    }
+
+    @AfterAll
+    public static void afterAll() throws IOException {
+
+        // Delete any result file created by the last test case
+        deleteGeneratedResultFiles();
+
+    }
+
+    /**
+     * Unit tests the {@link BatchExecutor#main(String[] args)} function.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testMain() throws IOException {
+
+        // Run the main function
+        BatchExecutor.main(TEST_ARGS);
+
+        checkBatchResults();
+
+    }
+
+    /**
+     * Unit tests the {@link BatchExecutor#main(String[] args)} function with the
+     * optional argument to format each input file one line at a time.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testMainStreamed() throws IOException {
+
+        // Run the main function
+        BatchExecutor.main(TEST_ARGS_STREAMED);
+
+        byte[] expectedFileBytes = Files.readAllBytes(TEST_OUTPUT_PATH);
+
+        // Check result files with correct contents are created for the valid input files
+        assertArrayEquals(expectedFileBytes, Files.readAllBytes(TEST_RESULT_FILE_A_PATH));
+        assertArrayEquals(expectedFileBytes, Files.readAllBytes(TEST_RESULT_FILE_C_PATH));
+
+        // Check the console error, as the malformed input file is only found once its
+        // lines are being written out
+        assertEquals(EXPECTED_CONSOLE_ERROR, errContent.toString());
+
+    }
+
+    /**
+     * Unit tests the {@link BatchExecutor#main(String[] args)} function carries on
+     * with the rest of the batch when writing out an input file throws an unchecked
+     * exception, here from reading a cached result file that is no longer valid.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testMainWriteOutFails() throws IOException {
+
+        // Run the main function once to cache the result files
+        BatchExecutor.main(TEST_ARGS_CACHED);
+
+        // Replace the result file of the first input file with malformed bytes,
+        // without the result cache noticing
+        FileTime resultModified = Files.getLastModifiedTime(TEST_RESULT_FILE_A_PATH);
+        byte[] malformedBytes = new byte[(int) Files.size(TEST_RESULT_FILE_A_PATH)];
+        Arrays.fill(malformedBytes, TEST_MALFORMED_BYTE);
+        Files.write(TEST_RESULT_FILE_A_PATH, malformedBytes);
+        Files.setLastModifiedTime(TEST_RESULT_FILE_A_PATH, resultModified);
+
+        outContent.reset();
+        errContent.reset();
+
+        // Run the main function again
+        BatchExecutor.main(TEST_ARGS_CACHED);
+
+        // Check both failed input files are reported
+        assertEquals(EXPECTED_CONSOLE_ERROR_CACHED, errContent.toString());
+
+        // Check the input file after the failed one is still written out
+        String expectedFormattedContents = START_OF_FORMATTED_DATA_CONTENTS + NEW_LINE + Files
+                .readAllLines(TEST_OUTPUT_PATH).stream().map(Object::toString).collect(Collectors.joining(NEW_LINE))
+                + NEW_LINE + END_OF_FORMATTED_DATA_CONTENTS + NEW_LINE;
+        assertTrue(outContent.toString().endsWith(BATCH_INPUT_FILE_HEADER + TEST_INPUT_FILE_C + NEW_LINE + NEW_LINE
+                + expectedFormattedContents + NEW_LINE));
+
+    }
+
+    /**
+     * Unit tests the {@link BatchExecutor#main(String[] args)} function with an
+     * input file in place of the input directory.
+     */
+    @Test
+    public void testMainInputFile() {
+
+        // Run the main function and ensure the correct exception is thrown
+        ColumnedDataPropertyException exceptionNotADirectory = assertThrows(ColumnedDataPropertyException.class,
+                () -> BatchExecutor.main(TEST_ARGS_INPUT_FILE));
+        assertEquals(EXPECTED_ERROR_MESSAGE_INPUT_DIRECTORY_NOT_A_DIRECTORY, exceptionNotADirectory.getMessage());
+
+    }
+
+    /*
+     * Checks every valid input file in the batch is formatted in order of its path,
+     * and the malformed input file is reported without stopping the batch
+     */
+    private void checkBatchResults() throws IOException {
+
+        byte[] expectedFileBytes = Files.readAllBytes(TEST_OUTPUT_PATH);
+
+        // Check result files with correct contents are created for the valid input files
+        assertArrayEquals(expectedFileBytes, Files.readAllBytes(TEST_RESULT_FILE_A_PATH));
+        assertArrayEquals(expectedFileBytes, Files.readAllBytes(TEST_RESULT_FILE_C_PATH));
+        assertFalse(Files.exists(TEST_RESULT_FILE_B_PATH));
+
+        // Check the console error
+        assertEquals(EXPECTED_CONSOLE_ERROR, errContent.toString());
+
+        // Check the console output
+        String expectedFormattedContents = START_OF_FORMATTED_DATA_CONTENTS + NEW_LINE + Files
+                .readAllLines(TEST_OUTPUT_PATH).stream().map(Object::toString).collect(Collectors.joining(NEW_LINE))
+                + NEW_LINE + END_OF_FORMATTED_DATA_CONTENTS + NEW_LINE;
+        String expectedConsoleOutput = BATCH_INPUT_FILE_HEADER + TEST_INPUT_FILE_A + NEW_LINE + NEW_LINE
+                + expectedFormattedContents + NEW_LINE + BATCH_INPUT_FILE_HEADER + TEST_INPUT_FILE_B + NEW_LINE
+                + NEW_LINE + NEW_LINE + BATCH_INPUT_FILE_HEADER + TEST_INPUT_FILE_C + NEW_LINE + NEW_LINE
+                + expectedFormattedContents + NEW_LINE;
+        assertEquals(expectedConsoleOutput, outContent.toString());
+
+    }
+
+    /*
+     * Deletes result files and the result cache manifest generated when calling
+     * BatchExecutor's main method
+     */
+    private static void deleteGeneratedResultFiles() throws IOException {
+
+        Files.deleteIfExists(TEST_RESULT_FILE_A_PATH);
+        Files.deleteIfExists(TEST_RESULT_FILE_B_PATH);
+        Files.deleteIfExists(TEST_RESULT_FILE_C_PATH);
+        Files.deleteIfExists(TEST_CACHE_MANIFEST_PATH);
+
+    }
+
+}
@@ -2,6 +2,7 @@ package com.jamiecheung.apps.columneddataformatter.executors;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -9,6 +10,7 @@ import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.AfterAll;
@@ -41,10 +43,16 @@ class ExecutorTest {
     private static final String TEST_INPUT_FILE_NAME = "testInputFile.txt";
     private static final String TEST_INPUT_FILE = TEST_RESOURCE_DIRECTORY + TEST_INPUT_FILE_NAME;
     private static final String[] TEST_ARGS = { TEST_DELIMITER, TEST_INPUT_FILE, TEST_RESOURCE_DIRECTORY };
+    private static final String[] TEST_ARGS_STREAMED = { TEST_DELIMITER, TEST_INPUT_FILE, TEST_RESOURCE_DIRECTORY,
+            "--stream" };
+    private static final String[] TEST_ARGS_CACHED = { TEST_DELIMITER, TEST_INPUT_FILE, TEST_RESOURCE_DIRECTORY,
+            "--cache" };
     private static final String[] TEST_ARGS_NO_RESULT_DIRECTORY = { TEST_DELIMITER, TEST_INPUT_FILE, EMPTY_STRING };
     private static final String TEST_RESULT_FILE = TEST_RESOURCE_DIRECTORY + EXPECTED_RESULTS_FILE_NAME;
     private static final Path TEST_RESULT_FILE_PATH = Paths.get(TEST_RESULT_FILE);
     private static final Path TEST_OUTPUT_PATH = Paths.get(TEST_RESOURCE_DIRECTORY, "testOutput.txt");
+    private static final Path TEST_RESULT_CACHE_MANIFEST_PATH = Paths.get(TEST_RESOURCE_DIRECTORY,
+            ".columned-data-formatter-cache");
 
     private static String[] testArgsInputString;
     private static String[] testArgsInputStringNoResultDirectory;
@@ -119,6 +127,63 @@ class ExecutorTest {
 
     }
 
+    /**
+     * Unit tests the {@link Executor#main(String[] args)} function with input
+     * parameters containing an input file, result directory and the optional
+     * argument to format the input file one line at a time.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testMainInputFileStreamed() throws IOException {
+
+        // Run the main function
+        Executor.main(TEST_ARGS_STREAMED);
+
+        byte[] resultFileBytes = Files.readAllBytes(TEST_RESULT_FILE_PATH);
+        byte[] expectedFileBytes = Files.readAllBytes(TEST_OUTPUT_PATH);
+
+        // Check result file with correct contents is created
+        assertArrayEquals(expectedFileBytes, resultFileBytes);
+
+        // Check the console output
+        String expectedConsoleOutput = START_OF_FORMATTED_DATA_CONTENTS + NEW_LINE + Files
+                .readAllLines(TEST_OUTPUT_PATH).stream().map(Object::toString).collect(Collectors.joining(NEW_LINE))
+                + NEW_LINE + END_OF_FORMATTED_DATA_CONTENTS + NEW_LINE;
+        assertEquals(expectedConsoleOutput, outContent.toString());
+
+    }
+
+    /**
+     * Unit tests the {@link Executor#main(String[] args)} function with the
+     * optional argument to skip formatting an input file whose result file is
+     * already up to date.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testMainInputFileCached() throws IOException {
+
+        // Run the main function to generate the result file and the manifest
+        Executor.main(TEST_ARGS_CACHED);
+
+        FileTime resultFileLastModifiedTime = Files.getLastModifiedTime(TEST_RESULT_FILE_PATH);
+        assertTrue(Files.exists(TEST_RESULT_CACHE_MANIFEST_PATH));
+
+        // Run the main function again, which should leave the result file untouched
+        Executor.main(TEST_ARGS_CACHED);
+
+        assertEquals(resultFileLastModifiedTime, Files.getLastModifiedTime(TEST_RESULT_FILE_PATH));
+        assertArrayEquals(Files.readAllBytes(TEST_OUTPUT_PATH), Files.readAllBytes(TEST_RESULT_FILE_PATH));
+
+        // Check the console output is the same for both runs
+        String expectedConsoleOutput = START_OF_FORMATTED_DATA_CONTENTS + NEW_LINE + Files
+                .readAllLines(TEST_OUTPUT_PATH).stream().map(Object::toString).collect(Collectors.joining(NEW_LINE))
+                + NEW_LINE + END_OF_FORMATTED_DATA_CONTENTS + NEW_LINE;
+        assertEquals(expectedConsoleOutput + expectedConsoleOutput, outContent.toString());
+
+    }
+
     /**
      * Unit tests the {@link Executor#main(String[] args)} function with input
      * parameters containing an input file and result directory.
@@ -211,8 +276,10 @@ class ExecutorTest {
      */
     private static void deleteGeneratedResultFiles() throws IOException {
 
-        // Delete result file with path TEST_RESULT_FILE
+        // Delete result file with path TEST_RESULT_FILE, and the manifest of the cached
+        // result files
         Files.deleteIfExists(TEST_RESULT_FILE_PATH);
+        Files.deleteIfExists(TEST_RESULT_CACHE_MANIFEST_PATH);
 
         // Delete time-stamped result files
         Files.find(TEST_RESOURCE_DIRECTORY_PATH, 1,
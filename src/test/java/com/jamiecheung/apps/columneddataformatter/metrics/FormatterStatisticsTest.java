@@ -0,0 +1,98 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class to unit test the {@link FormatterStatistics} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class FormatterStatisticsTest {
+
+    private static final String TEST_INPUT_FILE = "input_files/a.txt";
+    private static final String TEST_OTHER_INPUT_FILE = "input_files/b.txt";
+    private static final long TEST_BYTES_IN = 1000;
+    private static final long TEST_ROWS = 10;
+    private static final int TEST_QUEUE_DEPTH = 3;
+    private static final int TEST_IN_FLIGHT_JOBS = 2;
+    private static final String TEST_STATISTICS_OBJECT_NAME = "com.jamiecheung.apps.columneddataformatter:type=FormatterStatistics";
+    private static final String TEST_RENDER_LATENCY_OBJECT_NAME = "com.jamiecheung.apps.columneddataformatter:type=StageLatency,stage=render";
+
+    @AfterEach
+    public void afterEach() {
+
+        FormatterStatistics.unregister();
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link FormatterStatistics#register(java.util.function.IntSupplier queueDepth, java.util.function.IntSupplier inFlightJobs)}
+     * function registers the statistics and the latencies of each stage, which
+     * count every input file finished.
+     *
+     * @throws JMException
+     */
+    @Test
+    public void testRegister() throws JMException {
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName statisticsName = new ObjectName(TEST_STATISTICS_OBJECT_NAME);
+        ObjectName renderLatencyName = new ObjectName(TEST_RENDER_LATENCY_OBJECT_NAME);
+
+        FormatterStatistics.register(() -> TEST_QUEUE_DEPTH, () -> TEST_IN_FLIGHT_JOBS);
+        assertTrue(PipelineMetrics.isEnabled());
+
+        // Format one input file, and fail another
+        PipelineMetrics.startFile(TEST_INPUT_FILE);
+        PipelineMetrics.setBytesIn(TEST_BYTES_IN);
+        PipelineMetrics.startStage(PipelineStage.RENDER);
+        PipelineMetrics.addRows(TEST_ROWS, 1);
+        PipelineMetrics.endStage();
+        PipelineMetrics.finishFile();
+
+        PipelineMetrics.startFile(TEST_OTHER_INPUT_FILE);
+        PipelineMetrics.setFailed();
+        PipelineMetrics.finishFile();
+        PipelineMetrics.countRejectedRequest();
+
+        // Check the statistics are read through the platform MBean server
+        assertEquals(2L, mBeanServer.getAttribute(statisticsName, "FilesProcessed"));
+        assertEquals(TEST_BYTES_IN, mBeanServer.getAttribute(statisticsName, "BytesProcessed"));
+        assertEquals(TEST_ROWS, mBeanServer.getAttribute(statisticsName, "RowsProcessed"));
+        assertEquals(1L, mBeanServer.getAttribute(statisticsName, "FailedFiles"));
+        assertEquals(1L, mBeanServer.getAttribute(statisticsName, "RejectedRequests"));
+        assertEquals(0L, mBeanServer.getAttribute(statisticsName, "TimedOutRequests"));
+        assertEquals(TEST_QUEUE_DEPTH, mBeanServer.getAttribute(statisticsName, "QueueDepth"));
+        assertEquals(TEST_IN_FLIGHT_JOBS, mBeanServer.getAttribute(statisticsName, "InFlightJobs"));
+        assertTrue((Double) mBeanServer.getAttribute(statisticsName, "RowsPerSecond") > 0);
+
+        // Check only the stage the input file spent time in has a latency
+        assertEquals(1L, mBeanServer.getAttribute(renderLatencyName, "Count"));
+        assertTrue((Long) mBeanServer.getAttribute(renderLatencyName, "P999Nanos") > 0);
+
+        // Check registering again replaces the statistics, and unregistering stops
+        // recording metrics
+        FormatterStatistics.register(() -> 0, () -> 0);
+        assertEquals(0L, mBeanServer.getAttribute(statisticsName, "FilesProcessed"));
+
+        FormatterStatistics.unregister();
+        assertFalse(mBeanServer.isRegistered(statisticsName));
+        assertFalse(mBeanServer.isRegistered(renderLatencyName));
+        assertFalse(PipelineMetrics.isEnabled());
+
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class to unit test the {@link LatencyHistogram} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class LatencyHistogramTest {
+
+    private static final int TEST_LATENCY_COUNT = 100000;
+    private static final long[] TEST_EXACT_LATENCIES = { 0, 1, 7, 8, 15 };
+    private static final double TEST_MAXIMUM_ERROR = 1.0 / 8;
+
+    /**
+     * Unit tests the {@link LatencyHistogram#getPercentile(double fraction)}
+     * function is never less than the exact percentile, and at most an eighth
+     * more, over latencies from a nanosecond to a minute.
+     */
+    @Test
+    public void testGetPercentile() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Record latencies spread evenly on a log scale, so the exact percentile is
+        // known
+        long[] latencies = new long[TEST_LATENCY_COUNT];
+
+        for (int i = 0; i < TEST_LATENCY_COUNT; i++) {
+            latencies[i] = (long) Math.pow(60_000_000_000.0, (i + 1) / (double) TEST_LATENCY_COUNT);
+            histogram.record(latencies[i]);
+        }
+
+        assertEquals(TEST_LATENCY_COUNT, histogram.getCount());
+
+        for (double fraction : new double[] { 0.5, 0.99, 0.999, 1 }) {
+
+            long exactPercentile = latencies[(int) Math.ceil(fraction * TEST_LATENCY_COUNT) - 1];
+            long percentile = histogram.getPercentile(fraction);
+
+            assertTrue(percentile >= exactPercentile);
+            assertTrue(percentile <= exactPercentile * (1 + TEST_MAXIMUM_ERROR));
+
+        }
+
+        assertEquals(histogram.getPercentile(1), histogram.getMaximum());
+
+    }
+
+    /**
+     * Unit tests the {@link LatencyHistogram#record(long nanos)} function keeps
+     * small latencies exact, and counts the largest latencies.
+     */
+    @Test
+    public void testRecord() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Check an empty histogram has no percentiles
+        assertEquals(0, histogram.getPercentile(0.5));
+        assertEquals(0, histogram.getMaximum());
+
+        // Check small latencies each have their own bucket
+        for (long latency : TEST_EXACT_LATENCIES) {
+
+            LatencyHistogram exactHistogram = new LatencyHistogram();
+            exactHistogram.record(latency);
+            assertEquals(latency, exactHistogram.getPercentile(0.5));
+
+        }
+
+        // Check the largest latencies are counted, and negative latencies as 0
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(0.5));
+        assertEquals(Long.MAX_VALUE, histogram.getMaximum());
+
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class to unit test the {@link PipelineMetrics} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class PipelineMetricsTest {
+
+    private static final String TEST_RESOURCE_DIRECTORY = "src/test/resources/metrics_resources/";
+    private static final Path TEST_RESOURCE_DIRECTORY_PATH = Paths.get(TEST_RESOURCE_DIRECTORY);
+    private static final Path TEST_REPORT_PATH = Paths.get(TEST_RESOURCE_DIRECTORY,
+            "columned-data-formatter-metrics.json");
+    private static final String TEST_INPUT_FILE = "input_files/b.txt";
+    private static final String TEST_OTHER_INPUT_FILE = "input_files/a \"1\".txt";
+    private static final long TEST_BYTES_IN = 1000;
+    private static final long TEST_BYTES_OUT = 600;
+    private static final long TEST_CONSOLE_BYTES_OUT = 700;
+    private static final long EXPECTED_ROWS = 4;
+    private static final int EXPECTED_COLUMNS = 4;
+    private static final long EXPECTED_CELLS = 10;
+    private static final String EXPECTED_OTHER_INPUT_FILE_JSON = "\"inputFile\": \"input_files/a \\\"1\\\".txt\"";
+    private static final String EXPECTED_TOTALS_FILES_JSON = "\"files\": 2,";
+    private static final String EXPECTED_TOTALS_FAILED_FILES_JSON = "\"failedFiles\": 1,";
+    private static final String EXPECTED_TOTALS_BYTES_IN_JSON = "\"bytesIn\": 1000,";
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+
+        Files.createDirectories(TEST_RESOURCE_DIRECTORY_PATH);
+
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+
+        PipelineMetrics.unbind();
+        PipelineMetrics.setReported(false);
+
+        // Delete the resource directory and every file created in it
+        try (Stream<Path> paths = Files.walk(TEST_RESOURCE_DIRECTORY_PATH)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+
+    }
+
+    /**
+     * Unit tests the {@link PipelineMetrics#startFile(String inputFile)} function
+     * records nothing while metrics are not reported.
+     */
+    @Test
+    public void testStartFile() {
+
+        // Check no metrics are recorded while metrics are not reported
+        PipelineMetrics.setReported(false);
+        assertNull(PipelineMetrics.startFile(TEST_INPUT_FILE));
+        assertTrue(PipelineMetrics.getReport().getFileMetrics().isEmpty());
+
+        // Check the metrics of the input file are recorded once metrics are reported
+        PipelineMetrics.setReported(true);
+        FileMetrics fileMetrics = PipelineMetrics.startFile(TEST_INPUT_FILE);
+        assertNotNull(fileMetrics);
+        assertEquals(TEST_INPUT_FILE, fileMetrics.getInputFile());
+        assertEquals(1, PipelineMetrics.getReport().getFileMetrics().size());
+
+    }
+
+    /**
+     * Unit tests the {@link PipelineMetrics#startStage(PipelineStage stage)} and
+     * {@link PipelineMetrics#endStage()} functions, with a stage started inside
+     * another, and the sizes recorded for the input file bound to the thread.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testStages() throws IOException {
+
+        PipelineMetrics.setReported(true);
+        FileMetrics fileMetrics = PipelineMetrics.startFile(TEST_INPUT_FILE);
+
+        PipelineMetrics.startStage(PipelineStage.RENDER);
+        PipelineMetrics.measure(PipelineStage.CONSOLE, () -> new byte[1024]);
+        PipelineMetrics.endStage();
+
+        PipelineMetrics.setBytesIn(TEST_BYTES_IN);
+        PipelineMetrics.addBytesOut(PipelineStage.WRITE, TEST_BYTES_OUT);
+        PipelineMetrics.addBytesOut(PipelineStage.CONSOLE, TEST_CONSOLE_BYTES_OUT);
+        PipelineMetrics.addRows(3, 2);
+        PipelineMetrics.addRows(1, EXPECTED_COLUMNS);
+
+        // Check the stages add up to the whole time spent on the input file, with the
+        // allocations of the inner stage only counted towards it
+        long stageNanos = 0;
+
+        for (PipelineStage stage : PipelineStage.values()) {
+            stageNanos += fileMetrics.getStageNanos(stage);
+        }
+
+        assertEquals(stageNanos, fileMetrics.getTotalNanos());
+        assertEquals(0, fileMetrics.getStageNanos(PipelineStage.READ));
+
+        if (FileMetrics.isAllocationMeasured()) {
+            assertTrue(fileMetrics.getStageAllocatedBytes(PipelineStage.CONSOLE) >= 1024);
+        }
+
+        // Check the sizes of the input and output
+        assertEquals(TEST_BYTES_IN, fileMetrics.getBytesIn());
+        assertEquals(TEST_BYTES_OUT, fileMetrics.getBytesOut());
+        assertEquals(TEST_CONSOLE_BYTES_OUT, fileMetrics.getConsoleBytesOut());
+        assertEquals(EXPECTED_ROWS, fileMetrics.getRows());
+        assertEquals(EXPECTED_COLUMNS, fileMetrics.getColumns());
+        assertEquals(EXPECTED_CELLS, fileMetrics.getCells());
+
+        // Check nothing is recorded once the input file is unbound from the thread
+        PipelineMetrics.unbind();
+        PipelineMetrics.addRows(1, 1);
+        assertEquals(EXPECTED_ROWS, fileMetrics.getRows());
+
+    }
+
+    /**
+     * Unit tests the {@link PipelineMetrics#writeReport(String resultDirectory)}
+     * function writes the metrics of each input file in order of their paths,
+     * followed by their totals.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testWriteReport() throws IOException {
+
+        // Check nothing is written while metrics are not reported
+        PipelineMetrics.writeReport(TEST_RESOURCE_DIRECTORY);
+        assertFalse(Files.exists(TEST_REPORT_PATH));
+
+        PipelineMetrics.setReported(true);
+        PipelineMetrics.startFile(TEST_INPUT_FILE);
+        PipelineMetrics.setBytesIn(TEST_BYTES_IN);
+        PipelineMetrics.startFile(TEST_OTHER_INPUT_FILE);
+        PipelineMetrics.setFailed();
+        PipelineMetrics.unbind();
+
+        PipelineMetrics.writeReport(TEST_RESOURCE_DIRECTORY);
+
+        // Check the input files are reported in order, with their totals
+        String report = new String(Files.readAllBytes(TEST_REPORT_PATH), StandardCharsets.UTF_8);
+        assertTrue(report.indexOf(EXPECTED_OTHER_INPUT_FILE_JSON) >= 0);
+        assertTrue(report.indexOf(EXPECTED_OTHER_INPUT_FILE_JSON) < report.indexOf(TEST_INPUT_FILE));
+        assertTrue(report.indexOf(EXPECTED_TOTALS_FILES_JSON) > report.indexOf(TEST_INPUT_FILE));
+        assertTrue(report.contains(EXPECTED_TOTALS_FAILED_FILES_JSON));
+        assertTrue(report.contains(EXPECTED_TOTALS_BYTES_IN_JSON));
+
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.jamiecheung.apps.columneddataformatter.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class to unit test the {@link ColumnWidthLimits} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class ColumnWidthLimitsTest {
+
+    private static final int[] TEST_MAX_WIDTHS = { 5, 2 };
+    private static final int TEST_DEFAULT_MAX_WIDTH = 8;
+    private static final int[] TEST_COLUMN_LENGTHS = { 10, 1, 12, 3 };
+    private static final String TEST_LINE_START = "| ";
+    private static final String TEST_SURROGATE_PAIR_ENTRY = "ab\ud83d\ude00cdef";
+    private static final String TEST_WIDE_ENTRY = "\u4e2d\u6587\u5b57";
+
+    private static final int[] EXPECTED_LIMITED_COLUMN_LENGTHS = { 5, 1, 8, 3 };
+
+    /**
+     * Unit tests the
+     * {@link ColumnWidthLimits#limitColumnLengths(int[] columnLengths)} function.
+     */
+    @Test
+    public void testLimitColumnLengths() {
+
+        ColumnWidthLimits testLimits = new ColumnWidthLimits(TEST_MAX_WIDTHS, TEST_DEFAULT_MAX_WIDTH, false, false);
+
+        // Check each column is limited to its own maximum width, or the default one
+        assertArrayEquals(EXPECTED_LIMITED_COLUMN_LENGTHS, testLimits.limitColumnLengths(TEST_COLUMN_LENGTHS));
+
+        // Check column lengths are left as they are without any maximum width
+        assertSame(TEST_COLUMN_LENGTHS, ColumnWidthLimits.UNBOUNDED.limitColumnLengths(TEST_COLUMN_LENGTHS));
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link ColumnWidthLimits#getColumnLength(int column, int entryLength)}
+     * function, with and without fixed column widths.
+     */
+    @Test
+    public void testGetColumnLength() {
+
+        ColumnWidthLimits testLimits = new ColumnWidthLimits(TEST_MAX_WIDTHS, TEST_DEFAULT_MAX_WIDTH, false, false);
+        ColumnWidthLimits testFixedLimits = new ColumnWidthLimits(TEST_MAX_WIDTHS, TEST_DEFAULT_MAX_WIDTH, true,
+                false);
+        ColumnWidthLimits testFixedLimitsNoDefault = new ColumnWidthLimits(TEST_MAX_WIDTHS, Integer.MAX_VALUE, true,
+                false);
+
+        // Check a column is as wide as its entry, up to its maximum width
+        assertEquals(3, testLimits.getColumnLength(2, 3));
+        assertEquals(1, testLimits.getColumnLength(2, 0));
+        assertEquals(TEST_DEFAULT_MAX_WIDTH, testLimits.getColumnLength(2, 20));
+
+        // Check a fixed column is always its maximum width
+        assertEquals(TEST_DEFAULT_MAX_WIDTH, testFixedLimits.getColumnLength(2, 3));
+
+        // Check a fixed column without a maximum width is as wide as its entry
+        assertEquals(20, testFixedLimitsNoDefault.getColumnLength(2, 20));
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link ColumnWidthLimits#fitEntry(StringBuilder formattedLine, int entryStart, int columnLength)}
+     * function, with and without an ellipsis, and with wide characters.
+     */
+    @Test
+    public void testFitEntry() {
+
+        ColumnWidthLimits testLimits = new ColumnWidthLimits(TEST_MAX_WIDTHS, TEST_DEFAULT_MAX_WIDTH, false, false);
+        ColumnWidthLimits testEllipsisLimits = new ColumnWidthLimits(TEST_MAX_WIDTHS, TEST_DEFAULT_MAX_WIDTH, false,
+                true);
+
+        // Check shorter entries are padded
+        assertEquals("| abc   ", fitEntry(testLimits, "abc", 6));
+
+        // Check longer entries are cut short, without splitting a surrogate pair
+        assertEquals("| abcd", fitEntry(testLimits, "abcdef", 4));
+        assertEquals("| ab ", fitEntry(testLimits, TEST_SURROGATE_PAIR_ENTRY, 3));
+
+        // Check longer entries end in an ellipsis only if there is room for one
+        assertEquals("| a...", fitEntry(testEllipsisLimits, "abcdef", 4));
+        assertEquals("| abc", fitEntry(testEllipsisLimits, "abcdef", 3));
+        assertEquals("| ab\ud83d\ude00...", fitEntry(testEllipsisLimits, TEST_SURROGATE_PAIR_ENTRY, 7));
+        assertEquals("| ab... ", fitEntry(testEllipsisLimits, TEST_SURROGATE_PAIR_ENTRY, 6));
+
+        // Check entries are padded and cut short by their display width
+        assertEquals("| \u4e2d\u6587\u5b57 ", fitEntry(testLimits, TEST_WIDE_ENTRY, 7));
+        assertEquals("| \u4e2d\u6587 ", fitEntry(testLimits, TEST_WIDE_ENTRY, 5));
+        assertEquals("| \u4e2d...", fitEntry(testEllipsisLimits, TEST_WIDE_ENTRY, 5));
+
+    }
+
+    /*
+     * Fits the entry to the column length at the end of a line.
+     */
+    private String fitEntry(ColumnWidthLimits limits, String entry, int columnLength) {
+
+        StringBuilder formattedLine = new StringBuilder(TEST_LINE_START).append(entry);
+        limits.fitEntry(formattedLine, TEST_LINE_START.length(), columnLength);
+
+        return formattedLine.toString();
+
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.jamiecheung.apps.columneddataformatter.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class to unit test the {@link ColumnedTable} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class ColumnedTableTest {
+
+    private static final String TEST_FIRST_LINE = "|First Name|Surname|";
+    private static final int[] TEST_FIRST_LINE_BOUNDARIES = { 1, 11, 12, 19 };
+    private static final String TEST_SECOND_LINE = "|Some1||999|";
+    private static final int[] TEST_SECOND_LINE_BOUNDARIES = { 1, 6, 7, 7, 8, 11 };
+    private static final String TEST_THIRD_LINE = "";
+    private static final int[] TEST_THIRD_LINE_BOUNDARIES = {};
+
+    private static final int[] EXPECTED_COLUMN_WIDTHS = { 10, 7, 3 };
+    private static final int[] EXPECTED_CELL_COUNTS = { 2, 3, 0 };
+    private static final String[][] EXPECTED_CELLS = { { "First Name", "Surname" }, { "Some1", "", "999" }, {} };
+    private static final String GET_GROWN_LENGTH_METHOD_NAME = "getGrownLength";
+    private static final int TEST_MAXIMUM_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+    private static final String EXPECTED_ERROR_MESSAGE_TABLE_TOO_LARGE = "Input has more than 2147483639 characters, cells or rows to format in memory, stream it instead.";
+
+    /**
+     * Unit tests the
+     * {@link ColumnedTable#appendRow(CharSequence line, int[] boundaries)}
+     * function, with a table small enough that every array has to grow.
+     */
+    @Test
+    public void testAppendRow() {
+
+        ColumnedTable testTable = new ColumnedTable(1, 1);
+
+        // Append the rows
+        testTable.appendRow(TEST_FIRST_LINE, TEST_FIRST_LINE_BOUNDARIES);
+        testTable.appendRow(TEST_SECOND_LINE, TEST_SECOND_LINE_BOUNDARIES);
+        testTable.appendRow(TEST_THIRD_LINE, TEST_THIRD_LINE_BOUNDARIES);
+
+        // Check the shape of the table, with empty cells a single character wide
+        assertEquals(EXPECTED_CELLS.length, testTable.getRowCount());
+        assertEquals(EXPECTED_COLUMN_WIDTHS.length, testTable.getColumnCount());
+        assertArrayEquals(EXPECTED_COLUMN_WIDTHS, testTable.getColumnWidths());
+
+        // Check the text of every cell
+        for (int row = 0; row < EXPECTED_CELLS.length; row++) {
+
+            assertEquals(EXPECTED_CELL_COUNTS[row], testTable.getCellCount(row));
+
+            for (int column = 0; column < EXPECTED_CELLS[row].length; column++) {
+
+                int cellStart = testTable.getCellStart(row, column);
+                assertEquals(EXPECTED_CELLS[row][column], new String(testTable.getCellText(), cellStart,
+                        testTable.getCellEnd(row, column) - cellStart));
+
+            }
+
+        }
+
+    }
+
+    /**
+     * Unit tests the {@link ColumnedTable#clear()} function, with the table filled
+     * again after it is cleared.
+     */
+    @Test
+    public void testClear() {
+
+        ColumnedTable testTable = new ColumnedTable(1, 1);
+        testTable.appendRow(TEST_SECOND_LINE, TEST_SECOND_LINE_BOUNDARIES);
+
+        // Clear the table and check it is empty
+        testTable.clear();
+
+        assertEquals(0, testTable.getRowCount());
+        assertEquals(0, testTable.getColumnCount());
+
+        // Fill the table again and check it only has the new row
+        testTable.appendRow(TEST_FIRST_LINE, TEST_FIRST_LINE_BOUNDARIES);
+
+        assertEquals(1, testTable.getRowCount());
+        assertArrayEquals(new int[] { EXPECTED_COLUMN_WIDTHS[0], EXPECTED_COLUMN_WIDTHS[1] },
+                testTable.getColumnWidths());
+
+        int cellStart = testTable.getCellStart(0, 1);
+        assertEquals(EXPECTED_CELLS[0][1],
+                new String(testTable.getCellText(), cellStart, testTable.getCellEnd(0, 1) - cellStart));
+
+    }
+
+    /**
+     * Unit tests the {@link ColumnedTable#getGrownLength(int, long)} function
+     * doubles the length of an array without overflowing, stopping at the largest
+     * length of an array.
+     *
+     * @throws NoSuchMethodException
+     * @throws IllegalAccessException
+     * @throws InvocationTargetException
+     */
+    @Test
+    public void testGetGrownLength()
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+
+        Method getGrownLengthMethod = ColumnedTable.class.getDeclaredMethod(GET_GROWN_LENGTH_METHOD_NAME, int.class,
+                long.class);
+        getGrownLengthMethod.setAccessible(true);
+
+        // Check the length is doubled, or grown to the required length if that is more
+        assertEquals(8, getGrownLengthMethod.invoke(null, 4, 5L));
+        assertEquals(20, getGrownLengthMethod.invoke(null, 4, 20L));
+
+        // Check a length that cannot be doubled is grown to the largest length
+        assertEquals(TEST_MAXIMUM_ARRAY_LENGTH, getGrownLengthMethod.invoke(null, Integer.MAX_VALUE / 2 + 1,
+                Integer.MAX_VALUE / 2 + 2L));
+
+        // Check growing beyond the largest length throws the correct exception
+        InvocationTargetException exceptionTooLarge = assertThrows(InvocationTargetException.class,
+                () -> getGrownLengthMethod.invoke(null, TEST_MAXIMUM_ARRAY_LENGTH, TEST_MAXIMUM_ARRAY_LENGTH + 1L));
+        assertEquals(IllegalStateException.class, exceptionTooLarge.getCause().getClass());
+        assertEquals(EXPECTED_ERROR_MESSAGE_TABLE_TOO_LARGE, exceptionTooLarge.getCause().getMessage());
+
+        getGrownLengthMethod.setAccessible(false);
+
+    }
+
+    /**
+     * Unit tests the {@link ColumnedTable#getColumnWidths()} function. Test the
+     * {@link ColumnedTable#columnWidths} property is immutable.
+     */
+    @Test
+    public void testGetColumnWidths() {
+
+        ColumnedTable testTable = new ColumnedTable();
+        testTable.appendRow(TEST_FIRST_LINE, TEST_FIRST_LINE_BOUNDARIES);
+
+        // Get columnWidths and change its first entry
+        testTable.getColumnWidths()[0] = 0;
+
+        // Check it did not change the original property
+        assertEquals(EXPECTED_COLUMN_WIDTHS[0], testTable.getColumnWidths()[0]);
+
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.jamiecheung.apps.columneddataformatter.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class to unit test the {@link DelimiterMatcher} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class DelimiterMatcherTest {
+
+    private static final String TEST_DELIMITER = " :: ";
+    private static final String TEST_MULTI_BYTE_DELIMITER = "\u00a7\u00a7";
+    private static final String TEST_LINE = ":: a :: b::c :: ::";
+    private static final String TEST_MULTI_BYTE_LINE = "\u00e9\u00a7\u00a7\u4e2d\u00a7\u00a7";
+
+    private static final int[] EXPECTED_DELIMITER_INDEXES = { 4, 12 };
+    private static final int EXPECTED_LEADING_END = 2;
+    private static final int EXPECTED_TRAILING_END = 16;
+    private static final int[] EXPECTED_MULTI_BYTE_DELIMITER_POSITIONS = { 2, 9 };
+
+    /**
+     * Unit tests the {@link DelimiterMatcher#indexIn(CharSequence, int, int)},
+     * {@link DelimiterMatcher#skipLeading(CharSequence, int, int)} and
+     * {@link DelimiterMatcher#skipTrailing(CharSequence, int, int)} functions with
+     * a delimiter that has white spaces around it.
+     */
+    @Test
+    public void testIndexIn() {
+
+        DelimiterMatcher testMatcher = DelimiterMatcher.compile(TEST_DELIMITER);
+
+        // Check the same matcher is reused for the same delimiter
+        assertSame(testMatcher, DelimiterMatcher.compile(new String(TEST_DELIMITER)));
+        assertTrue(testMatcher.isSingleByte());
+
+        // Check every delimiter is found, and the delimiter without its spaces is not
+        int from = 0;
+        for (int expectedIndex : EXPECTED_DELIMITER_INDEXES) {
+            from = testMatcher.indexIn(TEST_LINE, from, TEST_LINE.length());
+            assertEquals(expectedIndex, from);
+            from += testMatcher.length();
+        }
+        assertEquals(-1, testMatcher.indexIn(TEST_LINE, from, TEST_LINE.length()));
+
+        // Check the delimiter is found at the ends of the line without its spaces
+        assertEquals(EXPECTED_LEADING_END, testMatcher.skipLeading(TEST_LINE, 0, TEST_LINE.length()));
+        assertEquals(EXPECTED_TRAILING_END, testMatcher.skipTrailing(TEST_LINE, 0, TEST_LINE.length()));
+
+    }
+
+    /**
+     * Unit tests the {@link DelimiterMatcher#indexIn(ByteBuffer, int, int)} and
+     * {@link DelimiterMatcher#countIn(ByteBuffer, int, int)} functions with a
+     * delimiter made up of multi-byte characters.
+     */
+    @Test
+    public void testIndexInBytes() {
+
+        DelimiterMatcher testMatcher = DelimiterMatcher.compile(TEST_MULTI_BYTE_DELIMITER);
+        ByteBuffer input = ByteBuffer.wrap(TEST_MULTI_BYTE_LINE.getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(testMatcher.isSingleByte());
+        assertEquals(TEST_MULTI_BYTE_DELIMITER.getBytes(StandardCharsets.UTF_8).length, testMatcher.byteLength());
+
+        // Check every delimiter is found in the bytes of the line
+        int from = 0;
+        for (int expectedPosition : EXPECTED_MULTI_BYTE_DELIMITER_POSITIONS) {
+            from = testMatcher.indexIn(input, from, input.limit());
+            assertEquals(expectedPosition, from);
+            from += testMatcher.byteLength();
+        }
+        assertEquals(-1, testMatcher.indexIn(input, from, input.limit()));
+        assertEquals(EXPECTED_MULTI_BYTE_DELIMITER_POSITIONS.length, testMatcher.countIn(input, 0, input.limit()));
+
+        // Check the trailing delimiter is removed from the bytes of the line
+        assertEquals(EXPECTED_MULTI_BYTE_DELIMITER_POSITIONS[1],
+                testMatcher.skipTrailing(input, 0, input.limit()));
+
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.jamiecheung.apps.columneddataformatter.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class to unit test the {@link SampledColumnLengths} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class SampledColumnLengthsTest {
+
+    private static final int[] TEST_COLUMN_LENGTHS = { 4, 3 };
+    private static final int TEST_SAMPLED_ROWS = 2;
+    private static final int[] TEST_FITTING_ENTRY_LENGTHS = { 2, 3 };
+    private static final int[] TEST_OVERFLOWING_ENTRY_LENGTHS = { 11, 1, 5 };
+
+    private static final int[] EXPECTED_WIDENED_COLUMN_LENGTHS = { 11, 3, 5 };
+
+    /**
+     * Unit tests the {@link SampledColumnLengths#fitRow(int[] entryLengths)}
+     * function with the {@link OverflowPolicy#TRUNCATE} policy.
+     */
+    @Test
+    public void testFitRowTruncate() {
+
+        SampledColumnLengths testSampledColumnLengths = new SampledColumnLengths(TEST_COLUMN_LENGTHS,
+                TEST_SAMPLED_ROWS, OverflowPolicy.TRUNCATE);
+
+        // Check every line keeps the sampled column lengths, with overflowing lines
+        // counted
+        assertArrayEquals(TEST_COLUMN_LENGTHS, testSampledColumnLengths.fitRow(TEST_FITTING_ENTRY_LENGTHS));
+        assertArrayEquals(TEST_COLUMN_LENGTHS, testSampledColumnLengths.fitRow(TEST_OVERFLOWING_ENTRY_LENGTHS));
+        assertFalse(testSampledColumnLengths.takeWidened());
+        assertEquals(2, testSampledColumnLengths.getRowCount());
+        assertEquals(1, testSampledColumnLengths.getOverflowedRowCount());
+
+    }
+
+    /**
+     * Unit tests the {@link SampledColumnLengths#fitRow(int[] entryLengths)}
+     * function with the {@link OverflowPolicy#WIDEN} policy.
+     */
+    @Test
+    public void testFitRowWiden() {
+
+        SampledColumnLengths testSampledColumnLengths = new SampledColumnLengths(TEST_COLUMN_LENGTHS,
+                TEST_SAMPLED_ROWS, OverflowPolicy.WIDEN);
+
+        testSampledColumnLengths.fitRow(TEST_FITTING_ENTRY_LENGTHS);
+
+        // Check the column lengths grow to fit the overflowing line, and the header is
+        // to be output again once
+        assertArrayEquals(EXPECTED_WIDENED_COLUMN_LENGTHS,
+                testSampledColumnLengths.fitRow(TEST_OVERFLOWING_ENTRY_LENGTHS));
+        assertArrayEquals(EXPECTED_WIDENED_COLUMN_LENGTHS, testSampledColumnLengths.getColumnLengths());
+        assertTrue(testSampledColumnLengths.takeWidened());
+        assertFalse(testSampledColumnLengths.takeWidened());
+
+        // Check the widened column lengths are kept for later lines
+        assertArrayEquals(EXPECTED_WIDENED_COLUMN_LENGTHS,
+                testSampledColumnLengths.fitRow(TEST_FITTING_ENTRY_LENGTHS));
+        assertEquals(1, testSampledColumnLengths.getOverflowedRowCount());
+
+    }
+
+    /**
+     * Unit tests the {@link SampledColumnLengths#fitRow(int[] entryLengths)}
+     * function with the {@link OverflowPolicy#SPILL} policy.
+     */
+    @Test
+    public void testFitRowSpill() {
+
+        SampledColumnLengths testSampledColumnLengths = new SampledColumnLengths(TEST_COLUMN_LENGTHS,
+                TEST_SAMPLED_ROWS, OverflowPolicy.SPILL);
+
+        // Check only the overflowing line is formatted with wider columns
+        assertArrayEquals(EXPECTED_WIDENED_COLUMN_LENGTHS,
+                testSampledColumnLengths.fitRow(TEST_OVERFLOWING_ENTRY_LENGTHS));
+        assertArrayEquals(TEST_COLUMN_LENGTHS, testSampledColumnLengths.getColumnLengths());
+        assertFalse(testSampledColumnLengths.takeWidened());
+        assertEquals(1, testSampledColumnLengths.getOverflowedRowCount());
+
+    }
+
+}
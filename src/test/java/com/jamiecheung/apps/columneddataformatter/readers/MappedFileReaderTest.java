@@ -0,0 +1,235 @@
+package com.jamiecheung.apps.columneddataformatter.readers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class to unit test the {@link MappedFileReader} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class MappedFileReaderTest {
+
+    private static final String TEST_RESOURCE_DIRECTORY = "src/test/resources/readers_resources/";
+    private static final String TEST_INPUT_FILE = TEST_RESOURCE_DIRECTORY + "testInputFile.txt";
+    private static final Path TEST_GENERATED_INPUT_FILE_PATH = Paths
+            .get(TEST_RESOURCE_DIRECTORY + "testGeneratedInputFile.txt");
+    private static final String TEST_LINE_TERMINATORS_CONTENTS = "| a | b |\r\n| c |\r| d |\n\n|\u00e9|\u4e2d|\r\n";
+    private static final byte[] TEST_MALFORMED_CONTENTS = { '|', (byte) 0xC3, '|' };
+    private static final long TEST_MAXIMUM_REGION_SIZE = 12;
+
+    @AfterEach
+    public void afterEach() throws IOException {
+
+        // Delete any input file generated by the test
+        Files.deleteIfExists(TEST_GENERATED_INPUT_FILE_PATH);
+
+    }
+
+    /**
+     * Unit tests the {@link MappedFileReader#readLine()} function.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testReadLine() throws IOException {
+
+        // Check every line is read the same as Files.readAllLines
+        try (MappedFileReader reader = new MappedFileReader(TEST_INPUT_FILE)) {
+            assertEquals(Files.readAllLines(Paths.get(TEST_INPUT_FILE)), readAllLines(reader));
+        }
+
+    }
+
+    /**
+     * Unit tests the {@link MappedFileReader#nextLine()} function.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testNextLine() throws IOException {
+
+        String testInputFile = writeTestInputFile(TEST_LINE_TERMINATORS_CONTENTS.getBytes(StandardCharsets.UTF_8));
+        List<String> expectedLines = Files.readAllLines(Paths.get(testInputFile));
+
+        try (MappedFileReader reader = new MappedFileReader(testInputFile)) {
+
+            // Check the bytes of each line are found in the mapped region
+            for (String expectedLine : expectedLines) {
+
+                assertTrue(reader.nextLine());
+
+                byte[] lineBytes = new byte[reader.getLineEnd() - reader.getLineStart()];
+                for (int i = 0; i < lineBytes.length; i++) {
+                    lineBytes[i] = reader.getRegion().get(reader.getLineStart() + i);
+                }
+
+                assertEquals(expectedLine, new String(lineBytes, StandardCharsets.UTF_8));
+                assertEquals(expectedLine, reader.getLine());
+
+            }
+
+            // Check there are no more lines
+            assertFalse(reader.nextLine());
+
+        }
+
+    }
+
+    /**
+     * Unit tests the {@link MappedFileReader#readLine()} function with each kind of
+     * line terminator.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testReadLineLineTerminators() throws IOException {
+
+        String testInputFile = writeTestInputFile(TEST_LINE_TERMINATORS_CONTENTS.getBytes(StandardCharsets.UTF_8));
+
+        // Check every line is read the same as Files.readAllLines
+        try (MappedFileReader reader = new MappedFileReader(testInputFile)) {
+            assertEquals(Files.readAllLines(Paths.get(testInputFile)), readAllLines(reader));
+        }
+
+    }
+
+    /**
+     * Unit tests the {@link MappedFileReader#readLine()} function when the file is
+     * mapped in regions that its lines run across.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testReadLineAcrossRegions() throws IOException {
+
+        String testInputFile = writeTestInputFile(TEST_LINE_TERMINATORS_CONTENTS.getBytes(StandardCharsets.UTF_8));
+
+        // Run the readLine function with lines running across the mapped regions and
+        // check every line is read the same as Files.readAllLines
+        try (MappedFileReader reader = new MappedFileReader(testInputFile, TEST_MAXIMUM_REGION_SIZE)) {
+            assertEquals(Files.readAllLines(Paths.get(testInputFile)), readAllLines(reader));
+        }
+
+    }
+
+    /**
+     * Unit tests the {@link MappedFileReader#nextLines()} and
+     * {@link MappedFileReader#rewind()} functions.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testNextLines() throws IOException {
+
+        byte[] contents = TEST_LINE_TERMINATORS_CONTENTS.getBytes(StandardCharsets.UTF_8);
+        String testInputFile = writeTestInputFile(contents);
+
+        try (MappedFileReader reader = new MappedFileReader(testInputFile, TEST_MAXIMUM_REGION_SIZE)) {
+
+            // Run the nextLines function over several mapped regions and check the blocks
+            // hold the whole file, each block ending at a line terminator
+            StringBuilder blocks = new StringBuilder();
+
+            while (reader.nextLines()) {
+
+                byte[] blockBytes = new byte[reader.getLineEnd() - reader.getLineStart()];
+                for (int i = 0; i < blockBytes.length; i++) {
+                    blockBytes[i] = reader.getRegion().get(reader.getLineStart() + i);
+                }
+
+                String block = new String(blockBytes, StandardCharsets.UTF_8);
+                assertTrue(block.endsWith("\n") || block.endsWith("\r"));
+                blocks.append(block);
+
+            }
+
+            assertEquals(TEST_LINE_TERMINATORS_CONTENTS, blocks.toString());
+
+            // Run the rewind function and check the file is read again from the start
+            reader.rewind();
+            assertEquals(Files.readAllLines(Paths.get(testInputFile)), readAllLines(reader));
+
+        }
+
+    }
+
+    /**
+     * Unit tests the {@link MappedFileReader#readLine()} function on an empty file.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testReadLineEmptyFile() throws IOException {
+
+        String testInputFile = writeTestInputFile(new byte[0]);
+
+        // Check there are no lines
+        try (MappedFileReader reader = new MappedFileReader(testInputFile)) {
+            assertNull(reader.readLine());
+        }
+
+    }
+
+    /**
+     * Unit tests the {@link MappedFileReader#readLine()} function on a file that is
+     * not valid UTF-8.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testReadLineMalformedInput() throws IOException {
+
+        String testInputFile = writeTestInputFile(TEST_MALFORMED_CONTENTS);
+
+        // Check the malformed input is reported
+        try (MappedFileReader reader = new MappedFileReader(testInputFile)) {
+            assertThrows(MalformedInputException.class, () -> reader.readLine());
+        }
+
+    }
+
+    /*
+     * Reads every remaining line with the reader
+     */
+    private List<String> readAllLines(MappedFileReader reader) throws IOException {
+
+        List<String> lines = new ArrayList<>();
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+
+        return lines;
+
+    }
+
+    /*
+     * Writes the contents to a generated test input file
+     */
+    private String writeTestInputFile(byte[] contents) throws IOException {
+
+        Files.write(TEST_GENERATED_INPUT_FILE_PATH, contents);
+
+        return TEST_GENERATED_INPUT_FILE_PATH.toString();
+
+    }
+
+}
@@ -0,0 +1,170 @@
+package com.jamiecheung.apps.columneddataformatter.readers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.jamiecheung.apps.columneddataformatter.exceptions.MalformedRecordException;
+import com.jamiecheung.apps.columneddataformatter.model.ColumnedTable;
+
+/**
+ * Class to unit test the {@link QuotedRecordReader} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class QuotedRecordReaderTest {
+
+    private static final String TEST_RESOURCE_DIRECTORY = "src/test/resources/readers_resources/";
+    private static final Path TEST_GENERATED_INPUT_FILE_PATH = Paths
+            .get(TEST_RESOURCE_DIRECTORY + "testGeneratedInputFile.txt");
+    private static final String TEST_DELIMITER = ",";
+    private static final char TEST_QUOTE_CHARACTER = '"';
+    private static final char TEST_ESCAPE_CHARACTER = '\\';
+    private static final List<String> TEST_LINES = Arrays.asList("name, quote ,n",
+            "\"Smith, J\",\"He said \"\"hi\"\"\",1", "  \"multi", "line\" , plain text ,2", "", "   ",
+            ",\"\",3,,", "\"\u00e9\u4e2d\" ,  , ,");
+    private static final List<String> TEST_ESCAPED_LINES = Arrays.asList("a\\,b,\"c\\\"d\"", "e\\", "f,g\\\\");
+    private static final String TEST_NOT_CLOSED_CONTENTS = "a,b\r\n\"c,d\r\ne\r\n";
+    private static final long TEST_MAXIMUM_REGION_SIZE = 12;
+
+    private static final List<List<String>> EXPECTED_RECORDS = Arrays.asList(Arrays.asList("name", "quote", "n"),
+            Arrays.asList("Smith, J", "He said \"hi\"", "1"), Arrays.asList("multi line", "plain text", "2"),
+            Arrays.asList("", "3"), Arrays.asList("\u00e9\u4e2d", "", ""));
+    private static final List<List<String>> EXPECTED_ESCAPED_RECORDS = Arrays.asList(
+            Arrays.asList("a,b", "c\"d"), Arrays.asList("e f", "g\\"));
+    private static final String EXPECTED_NOT_CLOSED_MESSAGE = "Quoted entry starting on line 2 is not closed.";
+
+    @AfterEach
+    public void afterEach() throws IOException {
+
+        // Delete any input file generated by the test
+        Files.deleteIfExists(TEST_GENERATED_INPUT_FILE_PATH);
+
+    }
+
+    /**
+     * Unit tests the {@link QuotedRecordReader#nextRecord(ColumnedTable)} function
+     * with quoted entries containing delimiters, quote characters and line
+     * terminators, and with blank records and empty entries.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testNextRecord() throws IOException {
+
+        QuotedRecordReader reader = new QuotedRecordReader(TEST_LINES, TEST_DELIMITER, TEST_QUOTE_CHARACTER,
+                TEST_QUOTE_CHARACTER);
+
+        assertEquals(EXPECTED_RECORDS, readAllRecords(reader));
+
+    }
+
+    /**
+     * Unit tests the {@link QuotedRecordReader#nextRecord(ColumnedTable)} function
+     * with an escape character that is not the quote character.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testNextRecordEscaped() throws IOException {
+
+        QuotedRecordReader reader = new QuotedRecordReader(TEST_ESCAPED_LINES, TEST_DELIMITER, TEST_QUOTE_CHARACTER,
+                TEST_ESCAPE_CHARACTER);
+
+        assertEquals(EXPECTED_ESCAPED_RECORDS, readAllRecords(reader));
+
+    }
+
+    /**
+     * Unit tests the {@link QuotedRecordReader#nextRecord(ColumnedTable)} function
+     * on an input file mapped in regions that its quoted entries run across.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testNextRecordAcrossRegions() throws IOException {
+
+        Files.write(TEST_GENERATED_INPUT_FILE_PATH,
+                String.join("\r\n", TEST_LINES).getBytes(StandardCharsets.UTF_8));
+
+        // Check the records are read the same as from the lines themselves
+        try (MappedFileReader mappedFileReader = new MappedFileReader(TEST_GENERATED_INPUT_FILE_PATH.toString(),
+                TEST_MAXIMUM_REGION_SIZE)) {
+
+            QuotedRecordReader reader = new QuotedRecordReader(mappedFileReader, TEST_DELIMITER,
+                    TEST_QUOTE_CHARACTER, TEST_QUOTE_CHARACTER);
+
+            assertEquals(EXPECTED_RECORDS, readAllRecords(reader));
+
+        }
+
+    }
+
+    /**
+     * Unit tests the {@link QuotedRecordReader#nextRecord(ColumnedTable)} function
+     * on an input file with a quoted entry that is never closed.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testNextRecordQuoteNotClosed() throws IOException {
+
+        Files.write(TEST_GENERATED_INPUT_FILE_PATH, TEST_NOT_CLOSED_CONTENTS.getBytes(StandardCharsets.UTF_8));
+
+        // Check the line the quoted entry starts on is reported
+        try (MappedFileReader mappedFileReader = new MappedFileReader(TEST_GENERATED_INPUT_FILE_PATH.toString())) {
+
+            QuotedRecordReader reader = new QuotedRecordReader(mappedFileReader, TEST_DELIMITER,
+                    TEST_QUOTE_CHARACTER, TEST_QUOTE_CHARACTER);
+
+            MalformedRecordException exception = assertThrows(MalformedRecordException.class,
+                    () -> readAllRecords(reader));
+            assertEquals(EXPECTED_NOT_CLOSED_MESSAGE, exception.getMessage());
+
+        }
+
+    }
+
+    /*
+     * Reads every remaining record with the reader, as the entries of each record
+     */
+    private List<List<String>> readAllRecords(QuotedRecordReader reader) throws IOException {
+
+        ColumnedTable table = new ColumnedTable();
+
+        while (reader.nextRecord(table)) {
+            // Each record is appended to the table as it is read
+        }
+
+        List<List<String>> records = new ArrayList<>();
+
+        for (int row = 0; row < table.getRowCount(); row++) {
+
+            List<String> record = new ArrayList<>();
+
+            for (int column = 0; column < table.getCellCount(row); column++) {
+                int cellStart = table.getCellStart(row, column);
+                record.add(new String(table.getCellText(), cellStart, table.getCellEnd(row, column) - cellStart));
+            }
+
+            records.add(record);
+
+        }
+
+        return records;
+
+    }
+
+}
@@ -0,0 +1,225 @@
+package com.jamiecheung.apps.columneddataformatter.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class to unit test the {@link ByteScanner} class, checking it finds and
+ * counts exactly the same bytes as comparing one byte at a time. The checks are
+ * shared with the tests of the scanners of newer Java versions.
+ *
+ * @author JamieCheung
+ *
+ */
+class ByteScannerTest {
+
+    private static final byte[] TEST_TARGETS = { '|', (byte) 0xC3 };
+    private static final byte[] TEST_LINE_TERMINATORS = { '\n', '\r' };
+    // Bytes that differ from the targets and line terminators by a single bit,
+    // including the highest, so a scanner that carries between bytes finds them
+    private static final byte[] TEST_OTHER_BYTES = { (byte) 0xFC, 0x7D, 0x7B, (byte) 0xFF, 0x00, (byte) 0x8A,
+            (byte) 0x8D, 0x0B, (byte) 0x80, 0x43, (byte) 0xC2, (byte) 0xC4, 'a' };
+    private static final int[] TEST_FROM_OFFSETS = { 0, 1, 7 };
+    private static final int[] TEST_TARGET_ODDS = { 0, 1000, 50, 4 };
+    private static final long TEST_SEED = 42;
+    private static final int TEST_RANDOM_BUFFERS = 200;
+    private static final int TEST_EDGE_CASE_LENGTH = 4 * Long.BYTES;
+    private static final int TEST_RANDOM_LENGTH = 1 << 12;
+
+    /**
+     * Unit tests the {@link ByteScanner#indexOf(ByteBuffer, int, int, byte)},
+     * {@link ByteScanner#indexOfLineTerminator(ByteBuffer, int, int)} and
+     * {@link ByteScanner#count(ByteBuffer, int, int, byte)} functions against
+     * comparing one byte at a time.
+     */
+    @Test
+    public void testSameAsScalar() {
+
+        assertSameAsScalar(new ByteScanner(), TEST_EDGE_CASE_LENGTH, TEST_RANDOM_LENGTH);
+
+    }
+
+    /**
+     * Checks the scanner finds and counts the same bytes as comparing one byte at
+     * a time: in every buffer up to the edge case length with a target or line
+     * terminator at every offset, and in random buffers up to the random length,
+     * in both byte orders and in heap and direct buffers.
+     *
+     * @param scanner
+     *                         the scanner to check
+     * @param edgeCaseLength
+     *                         the length of the longest buffer with a target at
+     *                         every offset
+     * @param randomLength
+     *                         the length of the longest random buffer
+     */
+    static void assertSameAsScalar(ByteScanner scanner, int edgeCaseLength, int randomLength) {
+
+        Random random = new Random(TEST_SEED);
+
+        for (int length = 0; length <= edgeCaseLength; length++) {
+
+            byte[] bytes = new byte[length];
+            ByteBuffer direct = ByteBuffer.allocateDirect(length);
+
+            for (int offset = 0; offset <= length; offset++) {
+
+                fillWithOtherBytes(bytes, random);
+
+                // An offset of the length leaves the buffer without a match
+                for (byte target : TEST_TARGETS) {
+
+                    if (offset < length) {
+                        bytes[offset] = target;
+                    }
+
+                    for (ByteBuffer input : wrap(bytes, direct)) {
+                        for (int from : TEST_FROM_OFFSETS) {
+                            if (from <= length) {
+                                assertSameIndexAndCount(scanner, input, from, length, target);
+                            }
+                        }
+                    }
+
+                }
+
+                if (offset < length) {
+                    bytes[offset] = TEST_LINE_TERMINATORS[offset % TEST_LINE_TERMINATORS.length];
+                }
+
+                for (ByteBuffer input : wrap(bytes, direct)) {
+                    for (int from : TEST_FROM_OFFSETS) {
+                        if (from <= length) {
+                            assertEquals(indexOfLineTerminator(input, from, length),
+                                    scanner.indexOfLineTerminator(input, from, length));
+                        }
+                    }
+                }
+
+            }
+
+        }
+
+        for (int i = 0; i < TEST_RANDOM_BUFFERS; i++) {
+
+            byte[] bytes = new byte[random.nextInt(randomLength + 1)];
+            int odds = TEST_TARGET_ODDS[i % TEST_TARGET_ODDS.length];
+
+            fillWithOtherBytes(bytes, random);
+
+            // Scatter the targets and line terminators through the buffer
+            for (int j = 0; odds > 0 && j < bytes.length; j++) {
+                if (random.nextInt(odds) == 0) {
+                    bytes[j] = random.nextBoolean() ? TEST_TARGETS[random.nextInt(TEST_TARGETS.length)]
+                            : TEST_LINE_TERMINATORS[random.nextInt(TEST_LINE_TERMINATORS.length)];
+                }
+            }
+
+            int from = random.nextInt(bytes.length + 1);
+            int to = from + random.nextInt(bytes.length - from + 1);
+
+            for (ByteBuffer input : wrap(bytes, ByteBuffer.allocateDirect(bytes.length))) {
+
+                for (byte target : TEST_TARGETS) {
+                    assertSameIndexAndCount(scanner, input, from, to, target);
+                }
+
+                assertEquals(indexOfLineTerminator(input, from, to), scanner.indexOfLineTerminator(input, from, to));
+
+            }
+
+        }
+
+    }
+
+    /*
+     * Checks the scanner finds and counts the same target bytes as comparing one
+     * byte at a time
+     */
+    private static void assertSameIndexAndCount(ByteScanner scanner, ByteBuffer input, int from, int to,
+            byte target) {
+
+        assertEquals(indexOf(input, from, to, target), scanner.indexOf(input, from, to, target));
+        assertEquals(count(input, from, to, target), scanner.count(input, from, to, target));
+
+    }
+
+    /*
+     * Fills the bytes with bytes that are neither targets nor line terminators
+     */
+    private static void fillWithOtherBytes(byte[] bytes, Random random) {
+
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = TEST_OTHER_BYTES[random.nextInt(TEST_OTHER_BYTES.length)];
+        }
+
+    }
+
+    /*
+     * Wraps the bytes in a heap buffer and copies them into the direct buffer of
+     * the same length, giving each in both byte orders
+     */
+    private static ByteBuffer[] wrap(byte[] bytes, ByteBuffer direct) {
+
+        direct.clear();
+        direct.put(bytes).clear();
+
+        return new ByteBuffer[] { ByteBuffer.wrap(bytes).order(ByteOrder.BIG_ENDIAN),
+                ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN), direct.order(ByteOrder.BIG_ENDIAN),
+                direct.duplicate().order(ByteOrder.LITTLE_ENDIAN) };
+
+    }
+
+    /*
+     * Finds the first position of the byte one byte at a time
+     */
+    private static int indexOf(ByteBuffer input, int from, int to, byte target) {
+
+        for (int i = from; i < to; i++) {
+            if (input.get(i) == target) {
+                return i;
+            }
+        }
+
+        return -1;
+
+    }
+
+    /*
+     * Finds the first line feed or carriage return one byte at a time
+     */
+    private static int indexOfLineTerminator(ByteBuffer input, int from, int to) {
+
+        for (int i = from; i < to; i++) {
+            if (input.get(i) == '\n' || input.get(i) == '\r') {
+                return i;
+            }
+        }
+
+        return -1;
+
+    }
+
+    /*
+     * Counts the bytes equal to the byte one byte at a time
+     */
+    private static int count(ByteBuffer input, int from, int to, byte target) {
+
+        int count = 0;
+
+        for (int i = from; i < to; i++) {
+            if (input.get(i) == target) {
+                count++;
+            }
+        }
+
+        return count;
+
+    }
+
+}
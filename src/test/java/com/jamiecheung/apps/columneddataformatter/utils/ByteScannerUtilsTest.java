@@ -0,0 +1,170 @@
+package com.jamiecheung.apps.columneddataformatter.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class to unit test the {@link ByteScannerUtils} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class ByteScannerUtilsTest {
+
+    private static final String TEST_INPUT = "| a | bb |\u00e9\u00e9\u00e9\u00e9 | \u4e2d\u4e2d |\r\n|cc|\n| d";
+    private static final byte TEST_DELIMITER = '|';
+    private static final byte TEST_MISSING_BYTE = '#';
+
+    private static final String EXPECTED_SCALAR_SCANNER_NAME = "scalar, 8 bytes at a time";
+
+    /**
+     * Unit tests the
+     * {@link ByteScannerUtils#indexOf(ByteBuffer input, int from, int to, byte target)}
+     * function from every position, in both byte orders.
+     */
+    @Test
+    public void testIndexOf() {
+
+        for (ByteBuffer input : encode(TEST_INPUT)) {
+
+            // Check the kernel finds the same bytes as a loop over every byte
+            for (int from = 0; from <= input.limit(); from++) {
+                for (int to = from; to <= input.limit(); to++) {
+                    assertEquals(indexOf(input, from, to, TEST_DELIMITER),
+                            ByteScannerUtils.indexOf(input, from, to, TEST_DELIMITER));
+                }
+            }
+
+            assertEquals(-1, ByteScannerUtils.indexOf(input, 0, input.limit(), TEST_MISSING_BYTE));
+
+            // Check bytes above 0x7F, which have their highest bit set, are found
+            byte multiByteCharacterByte = input.get(TEST_INPUT.indexOf('\u00e9') + 1);
+            assertEquals(TEST_INPUT.indexOf('\u00e9') + 1,
+                    ByteScannerUtils.indexOf(input, 0, input.limit(), multiByteCharacterByte));
+
+        }
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link ByteScannerUtils#indexOfLineTerminator(ByteBuffer input, int from, int to)}
+     * function, in both byte orders.
+     */
+    @Test
+    public void testIndexOfLineTerminator() {
+
+        for (ByteBuffer input : encode(TEST_INPUT)) {
+
+            int carriageReturn = indexOf(input, 0, input.limit(), (byte) '\r');
+
+            assertEquals(carriageReturn, ByteScannerUtils.indexOfLineTerminator(input, 0, input.limit()));
+            assertEquals(carriageReturn + 1,
+                    ByteScannerUtils.indexOfLineTerminator(input, carriageReturn + 1, input.limit()));
+            assertEquals(indexOf(input, carriageReturn + 2, input.limit(), (byte) '\n'),
+                    ByteScannerUtils.indexOfLineTerminator(input, carriageReturn + 2, input.limit()));
+            assertEquals(-1, ByteScannerUtils.indexOfLineTerminator(input, input.limit() - 3, input.limit()));
+
+        }
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link ByteScannerUtils#count(ByteBuffer input, int from, int to, byte target)}
+     * function from every position, in both byte orders.
+     */
+    @Test
+    public void testCount() {
+
+        for (ByteBuffer input : encode(TEST_INPUT)) {
+
+            for (int from = 0; from <= input.limit(); from++) {
+                assertEquals(count(input, from, input.limit(), TEST_DELIMITER),
+                        ByteScannerUtils.count(input, from, input.limit(), TEST_DELIMITER));
+            }
+
+            assertEquals(0, ByteScannerUtils.count(input, 0, input.limit(), TEST_MISSING_BYTE));
+
+        }
+
+    }
+
+    /**
+     * Unit tests the {@link ByteScannerUtils#setScalarScanning(boolean)}
+     * function, checking the scalar scanner finds the same bytes as the fastest
+     * scanner the JVM supports.
+     */
+    @Test
+    public void testSetScalarScanning() {
+
+        ByteBuffer input = encode(TEST_INPUT)[0];
+        int expectedIndex = ByteScannerUtils.indexOf(input, 1, input.limit(), TEST_DELIMITER);
+        int expectedLineTerminatorIndex = ByteScannerUtils.indexOfLineTerminator(input, 0, input.limit());
+        int expectedCount = ByteScannerUtils.count(input, 0, input.limit(), TEST_DELIMITER);
+
+        try {
+
+            ByteScannerUtils.setScalarScanning(true);
+
+            assertEquals(EXPECTED_SCALAR_SCANNER_NAME, ByteScannerUtils.getScannerName());
+            assertEquals(expectedIndex, ByteScannerUtils.indexOf(input, 1, input.limit(), TEST_DELIMITER));
+            assertEquals(expectedLineTerminatorIndex, ByteScannerUtils.indexOfLineTerminator(input, 0, input.limit()));
+            assertEquals(expectedCount, ByteScannerUtils.count(input, 0, input.limit(), TEST_DELIMITER));
+
+        } finally {
+            ByteScannerUtils.setScalarScanning(false);
+        }
+
+    }
+
+    /*
+     * Encodes the String as UTF-8 bytes, once in each byte order
+     */
+    private ByteBuffer[] encode(String string) {
+
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+
+        return new ByteBuffer[] { ByteBuffer.wrap(bytes).order(ByteOrder.BIG_ENDIAN),
+                ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN) };
+
+    }
+
+    /*
+     * Finds the first position of the byte one byte at a time
+     */
+    private int indexOf(ByteBuffer input, int from, int to, byte target) {
+
+        for (int i = from; i < to; i++) {
+            if (input.get(i) == target) {
+                return i;
+            }
+        }
+
+        return -1;
+
+    }
+
+    /*
+     * Counts the bytes equal to the byte one byte at a time
+     */
+    private int count(ByteBuffer input, int from, int to, byte target) {
+
+        int count = 0;
+
+        for (int i = from; i < to; i++) {
+            if (input.get(i) == target) {
+                count++;
+            }
+        }
+
+        return count;
+
+    }
+
+}
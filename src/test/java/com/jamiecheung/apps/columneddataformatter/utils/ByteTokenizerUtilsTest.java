@@ -0,0 +1,155 @@
+package com.jamiecheung.apps.columneddataformatter.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.jamiecheung.apps.columneddataformatter.model.DelimiterMatcher;
+
+/**
+ * Class to unit test the {@link ByteTokenizerUtils} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class ByteTokenizerUtilsTest {
+
+    private static final String TEST_RESOURCE_DIRECTORY = "src/test/resources/utils_resources/";
+    private static final Path TEST_TOKENIZE_LINE_INPUT_FILE = Paths
+            .get(TEST_RESOURCE_DIRECTORY + "testTokenizeLineInputFile.txt");
+    private static final Path TEST_TOKENIZE_LINE_EXPECTED_OUTPUT = Paths
+            .get(TEST_RESOURCE_DIRECTORY + "testTokenizeLineExpectedOutput.txt");
+    private static final String TEST_VALID_DELIMITER = "|";
+    private static final String TEST_MULTI_BYTE_DELIMITER = "\u00a7";
+    private static final String TEST_MULTI_CHARACTER_DELIMITER = "||";
+    private static final String TEST_BLANK_LINE = " \t ";
+    private static final String TEST_DELIMITERS_ONLY_LINE = " ||| ";
+    private static final String TEST_ASCII_ENTRY = "Some one";
+    private static final String TEST_MULTI_BYTE_ENTRY = "S\u00e9 \u4e2d \ud83d\ude00";
+    private static final byte[] TEST_MALFORMED_ENTRY = { 'a', (byte) 0xC3, 'b' };
+
+    /**
+     * Unit tests the
+     * {@link ByteTokenizerUtils#isSingleByteDelimiter(String delimiter)} function.
+     */
+    @Test
+    public void testIsSingleByteDelimiter() {
+
+        // Check delimiters of single byte characters are accepted
+        assertTrue(ByteTokenizerUtils.isSingleByteDelimiter(TEST_VALID_DELIMITER));
+        assertTrue(ByteTokenizerUtils.isSingleByteDelimiter(TEST_MULTI_CHARACTER_DELIMITER));
+
+        // Check a delimiter encoded as more than one byte is rejected
+        assertFalse(ByteTokenizerUtils.isSingleByteDelimiter(TEST_MULTI_BYTE_DELIMITER));
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link ByteTokenizerUtils#isBlankLine(ByteBuffer input, int lineStart, int lineEnd)}
+     * function.
+     */
+    @Test
+    public void testIsBlankLine() {
+
+        // Check a line of white spaces is blank, and a line of delimiters is not
+        ByteBuffer blankLine = encode(TEST_BLANK_LINE);
+        assertTrue(ByteTokenizerUtils.isBlankLine(blankLine, 0, blankLine.limit()));
+
+        ByteBuffer delimitersOnlyLine = encode(TEST_DELIMITERS_ONLY_LINE);
+        assertFalse(ByteTokenizerUtils.isBlankLine(delimitersOnlyLine, 0, delimitersOnlyLine.limit()));
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link ByteTokenizerUtils#tokenizeLine(ByteBuffer input, int lineStart, int lineEnd, DelimiterMatcher delimiter)}
+     * function.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testTokenizeLine() throws IOException {
+
+        List<String> testLinesAsStrings = Files.readAllLines(TEST_TOKENIZE_LINE_INPUT_FILE);
+        List<String> expectedLinesAsStrings = Files.readAllLines(TEST_TOKENIZE_LINE_EXPECTED_OUTPUT);
+
+        for (int lineNumber = 0; lineNumber < testLinesAsStrings.size(); lineNumber++) {
+
+            ByteBuffer input = encode(testLinesAsStrings.get(lineNumber));
+
+            // Run the tokenizeLine function and rebuild the line from its cells
+            int[] boundaries = ByteTokenizerUtils.tokenizeLine(input, 0, input.limit(),
+                    DelimiterMatcher.compile(TEST_VALID_DELIMITER));
+            StringBuilder lineFromCells = new StringBuilder(TEST_VALID_DELIMITER);
+
+            for (int i = 0; i < boundaries.length; i += 2) {
+                ByteTokenizerUtils.appendEntry(lineFromCells, input, boundaries[i], boundaries[i + 1]);
+                lineFromCells.append(TEST_VALID_DELIMITER);
+            }
+
+            assertEquals(expectedLinesAsStrings.get(lineNumber), lineFromCells.toString());
+
+        }
+
+        // Check blank lines and lines of only delimiters
+        ByteBuffer blankLine = encode(TEST_BLANK_LINE);
+        assertNull(ByteTokenizerUtils.tokenizeLine(blankLine, 0, blankLine.limit(),
+                DelimiterMatcher.compile(TEST_VALID_DELIMITER)));
+        ByteBuffer delimitersOnlyLine = encode(TEST_DELIMITERS_ONLY_LINE);
+        assertEquals(0, ByteTokenizerUtils.tokenizeLine(delimitersOnlyLine, 0, delimitersOnlyLine.limit(),
+                DelimiterMatcher.compile(TEST_VALID_DELIMITER)).length);
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link ByteTokenizerUtils#appendEntry(StringBuilder formattedLine, ByteBuffer input, int start, int end)}
+     * function.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testAppendEntry() throws IOException {
+
+        StringBuilder testFormattedLine = new StringBuilder();
+
+        // Run the appendEntry function on single and multi-byte entries
+        ByteBuffer asciiEntry = encode(TEST_ASCII_ENTRY);
+        ByteTokenizerUtils.appendEntry(testFormattedLine, asciiEntry, 0, asciiEntry.limit());
+        ByteBuffer multiByteEntry = encode(TEST_MULTI_BYTE_ENTRY);
+        ByteTokenizerUtils.appendEntry(testFormattedLine, multiByteEntry, 0, multiByteEntry.limit());
+
+        // Check the entries are decoded
+        assertEquals(TEST_ASCII_ENTRY + TEST_MULTI_BYTE_ENTRY, testFormattedLine.toString());
+
+        // Check malformed input is reported
+        ByteBuffer malformedEntry = ByteBuffer.wrap(TEST_MALFORMED_ENTRY);
+        assertThrows(MalformedInputException.class, () -> ByteTokenizerUtils.appendEntry(testFormattedLine,
+                malformedEntry, 0, malformedEntry.limit()));
+
+    }
+
+    /*
+     * Encodes the String as UTF-8 bytes
+     */
+    private ByteBuffer encode(String string) {
+
+        return ByteBuffer.wrap(string.getBytes(StandardCharsets.UTF_8));
+
+    }
+
+}
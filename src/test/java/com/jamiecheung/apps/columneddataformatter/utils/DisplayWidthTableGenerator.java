@@ -0,0 +1,168 @@
+package com.jamiecheung.apps.columneddataformatter.utils;
+
+import static com.jamiecheung.apps.columneddataformatter.utils.DisplayWidthUtils.BLOCK_SHIFT;
+import static com.jamiecheung.apps.columneddataformatter.utils.DisplayWidthUtils.CODE_POINTS_PER_WORD;
+import static com.jamiecheung.apps.columneddataformatter.utils.DisplayWidthUtils.WIDTH_TABLE_RESOURCE;
+import static com.jamiecheung.apps.columneddataformatter.utils.DisplayWidthUtils.WORDS_PER_BLOCK;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Generates the table of the display width of every code point that
+ * {@link DisplayWidthUtils} loads, so the table does not have to be worked out
+ * from the Unicode data of the JDK each time it is used, and is the same on
+ * every JDK.
+ *
+ * <p>
+ * The table is generated with the Unicode data of the JDK it is run with, which
+ * must be at least as new as the wide ranges below, currently Unicode 15 of
+ * Java 21. Run it from the project directory once the test classes are
+ * compiled, and check in the table it writes:
+ *
+ * <pre>
+ * java -cp target/test-classes:target/classes com.jamiecheung.apps.columneddataformatter.utils.DisplayWidthTableGenerator
+ * </pre>
+ *
+ * @author JamieCheung
+ *
+ */
+public class DisplayWidthTableGenerator {
+
+    private static final Path WIDTH_TABLE_PATH = Paths.get("src/main/resources",
+            DisplayWidthUtils.class.getPackage().getName().replace('.', '/'), WIDTH_TABLE_RESOURCE);
+
+    /*
+     * The first and last code point of each range of East Asian wide and
+     * full-width characters, from the East Asian Width property of Unicode
+     */
+    private static final int[] WIDE_RANGES = { 0x1100, 0x115F, 0x231A, 0x231B, 0x2329, 0x232A, 0x23E9, 0x23EC,
+            0x23F0, 0x23F0, 0x23F3, 0x23F3, 0x25FD, 0x25FE, 0x2614, 0x2615, 0x2648, 0x2653, 0x267F, 0x267F, 0x2693,
+            0x2693, 0x26A1, 0x26A1, 0x26AA, 0x26AB, 0x26BD, 0x26BE, 0x26C4, 0x26C5, 0x26CE, 0x26CE, 0x26D4, 0x26D4,
+            0x26EA, 0x26EA, 0x26F2, 0x26F3, 0x26F5, 0x26F5, 0x26FA, 0x26FA, 0x26FD, 0x26FD, 0x2705, 0x2705, 0x270A,
+            0x270B, 0x2728, 0x2728, 0x274C, 0x274C, 0x274E, 0x274E, 0x2753, 0x2755, 0x2757, 0x2757, 0x2795, 0x2797,
+            0x27B0, 0x27B0, 0x27BF, 0x27BF, 0x2B1B, 0x2B1C, 0x2B50, 0x2B50, 0x2B55, 0x2B55, 0x2E80, 0x303E, 0x3041,
+            0x33FF, 0x3400, 0x4DBF, 0x4E00, 0x9FFF, 0xA000, 0xA4CF, 0xA960, 0xA97F, 0xAC00, 0xD7A3, 0xF900, 0xFAFF,
+            0xFE10, 0xFE19, 0xFE30, 0xFE6F, 0xFF00, 0xFF60, 0xFFE0, 0xFFE6, 0x16FE0, 0x16FE4, 0x16FF0, 0x16FF1,
+            0x17000, 0x18CFF, 0x18D00, 0x18D08, 0x1AFF0, 0x1B2FF, 0x1F004, 0x1F004, 0x1F0CF, 0x1F0CF, 0x1F18E,
+            0x1F18E, 0x1F191, 0x1F19A, 0x1F200, 0x1F202, 0x1F210, 0x1F23B, 0x1F240, 0x1F248, 0x1F250, 0x1F251,
+            0x1F260, 0x1F265, 0x1F300, 0x1F320, 0x1F32D, 0x1F335, 0x1F337, 0x1F37C, 0x1F37E, 0x1F393, 0x1F3A0,
+            0x1F3CA, 0x1F3CF, 0x1F3D3, 0x1F3E0, 0x1F3F0, 0x1F3F4, 0x1F3F4, 0x1F3F8, 0x1F43E, 0x1F440, 0x1F440,
+            0x1F442, 0x1F4FC, 0x1F4FF, 0x1F53D, 0x1F54B, 0x1F54E, 0x1F550, 0x1F567, 0x1F57A, 0x1F57A, 0x1F595,
+            0x1F596, 0x1F5A4, 0x1F5A4, 0x1F5FB, 0x1F64F, 0x1F680, 0x1F6C5, 0x1F6CC, 0x1F6CC, 0x1F6D0, 0x1F6D2,
+            0x1F6D5, 0x1F6D7, 0x1F6DC, 0x1F6DF, 0x1F6EB, 0x1F6EC, 0x1F6F4, 0x1F6FC, 0x1F7E0, 0x1F7EB, 0x1F7F0,
+            0x1F7F0, 0x1F90C, 0x1F93A, 0x1F93C, 0x1F945, 0x1F947, 0x1F9FF, 0x1FA70, 0x1FA7C, 0x1FA80, 0x1FA88,
+            0x1FA90, 0x1FABD, 0x1FABF, 0x1FAC5, 0x1FACE, 0x1FADB, 0x1FAE0, 0x1FAE8, 0x1FAF0, 0x1FAF8, 0x20000,
+            0x2FFFD, 0x30000, 0x3FFFD };
+
+    /*
+     * The first and last code point of each range of zero width characters that
+     * are not combining or format characters
+     */
+    private static final int[] ZERO_WIDTH_RANGES = { 0x1160, 0x11FF, 0xD7B0, 0xD7FF };
+
+    /**
+     * Generates the table and writes it to the resources of
+     * {@link DisplayWidthUtils}, replacing the table already there.
+     *
+     * @param args
+     *             Not used
+     *
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+
+        int blockCount = (Character.MAX_CODE_POINT + 1) >> BLOCK_SHIFT;
+        byte[] widths = getWidths();
+
+        // Pack the widths of each block and store each distinct block once
+        char[] blockIndexes = new char[blockCount];
+        Map<IntBuffer, Character> distinctBlocks = new HashMap<>();
+        IntBuffer blocks = IntBuffer.allocate(blockCount * WORDS_PER_BLOCK);
+
+        for (int block = 0; block < blockCount; block++) {
+
+            int[] words = new int[WORDS_PER_BLOCK];
+            for (int offset = 0; offset < 1 << BLOCK_SHIFT; offset++) {
+                words[offset / CODE_POINTS_PER_WORD] |= widths[(block << BLOCK_SHIFT) + offset] << 2
+                        * (offset % CODE_POINTS_PER_WORD);
+            }
+
+            // IntBuffers are equal when their remaining ints are
+            Character blockIndex = distinctBlocks.get(IntBuffer.wrap(words));
+            if (blockIndex == null) {
+                blockIndex = (char) distinctBlocks.size();
+                distinctBlocks.put(IntBuffer.wrap(words), blockIndex);
+                blocks.put(words);
+            }
+
+            blockIndexes[block] = blockIndex;
+
+        }
+
+        Files.createDirectories(WIDTH_TABLE_PATH.getParent());
+
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(WIDTH_TABLE_PATH)))) {
+
+            output.writeInt(blockIndexes.length);
+            for (char blockIndex : blockIndexes) {
+                output.writeChar(blockIndex);
+            }
+
+            output.writeInt(blocks.position());
+            for (int i = 0; i < blocks.position(); i++) {
+                output.writeInt(blocks.get(i));
+            }
+
+        }
+
+        System.out.println(String.format("Wrote %d distinct blocks from the Unicode data of Java %s to %s", distinctBlocks.size(),
+                System.getProperty("java.version"), WIDTH_TABLE_PATH));
+
+    }
+
+    /*
+     * Works out the display width of every code point.
+     */
+    private static byte[] getWidths() {
+
+        byte[] widths = new byte[Character.MAX_CODE_POINT + 1];
+
+        for (int codePoint = 0; codePoint <= Character.MAX_CODE_POINT; codePoint++) {
+
+            int type = Character.getType(codePoint);
+
+            // The soft hyphen is a format character that is still displayed
+            widths[codePoint] = (byte) (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+                    || type == Character.FORMAT && codePoint != 0xAD ? 0 : 1);
+
+        }
+
+        for (int i = 0; i < WIDE_RANGES.length; i += 2) {
+            for (int codePoint = WIDE_RANGES[i]; codePoint <= WIDE_RANGES[i + 1]; codePoint++) {
+                // Combining marks within a wide range, e.g. of kana, still take up no columns
+                if (widths[codePoint] != 0) {
+                    widths[codePoint] = 2;
+                }
+            }
+        }
+
+        for (int i = 0; i < ZERO_WIDTH_RANGES.length; i += 2) {
+            for (int codePoint = ZERO_WIDTH_RANGES[i]; codePoint <= ZERO_WIDTH_RANGES[i + 1]; codePoint++) {
+                widths[codePoint] = 0;
+            }
+        }
+
+        return widths;
+
+    }
+
+}
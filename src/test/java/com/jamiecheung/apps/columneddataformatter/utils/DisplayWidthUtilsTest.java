@@ -0,0 +1,139 @@
+package com.jamiecheung.apps.columneddataformatter.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class to unit test the {@link DisplayWidthUtils} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class DisplayWidthUtilsTest {
+
+    private static final String TEST_ASCII_ENTRY = "Some one";
+    private static final String TEST_MIXED_ENTRY = "S\u00e9 \u4e2d\u6587 \ud83d\ude00 e\u0301";
+    private static final byte[] TEST_MALFORMED_ENTRY = { 'a', (byte) 0xC3, 'b' };
+    private static final int[] TEST_CODE_POINTS = { 'a', 0x00e9, 0x4e2d, 0xff21, 0x0301, 0x3099, 0x200b, 0x00ad,
+            0x1f600, 0x20000 };
+
+    private static final int[] TEST_CJK_CODE_POINTS = { 0x4e00, 0x9fff, 0xac00, 0x3000, 0xff01, 0x20000, 0x30000 };
+    private static final int[] TEST_HALF_WIDTH_CODE_POINTS = { 0xff61, 0x2764, 0x1f1e6, 0x2028, 0xe000, 0x10ffff };
+    private static final int[] TEST_COMBINING_CODE_POINTS = { 0x0300, 0x036f, 0x20dd, 0x0e31, 0x1160, 0xfe0f, 0x200d,
+            0xe0001, 0x0898, 0x11f00, 0x1e4ec };
+    private static final int[] TEST_EMOJI_CODE_POINTS = { 0x231a, 0x1f600, 0x1f680, 0x1f3fb, 0x1faf8, 0x1aff0 };
+    private static final int[] TEST_CONTROL_CODE_POINTS = { 0x00, 0x1b, 0x7f, 0x80, 0x9f };
+
+    private static final int EXPECTED_MIXED_ENTRY_WIDTH = 12;
+    private static final int[] EXPECTED_CODE_POINT_WIDTHS = { 1, 1, 2, 2, 0, 0, 0, 1, 2, 2 };
+    private static final int EXPECTED_MALFORMED_ENTRY_WIDTH = 3;
+
+    /**
+     * Unit tests the {@link DisplayWidthUtils#getWidth(int)} function.
+     */
+    @Test
+    public void testGetWidth() {
+
+        // Check narrow, wide and zero width code points in and out of the BMP
+        for (int i = 0; i < TEST_CODE_POINTS.length; i++) {
+            assertEquals(EXPECTED_CODE_POINT_WIDTHS[i], DisplayWidthUtils.getWidth(TEST_CODE_POINTS[i]));
+        }
+
+    }
+
+    /**
+     * Unit tests the {@link DisplayWidthUtils#getWidth(int)} function against
+     * widths pinned to the generated width table, including marks only known to
+     * newer versions of Unicode than older JDKs have.
+     */
+    @Test
+    public void testGetWidthOfKnownCodePoints() {
+
+        // Check CJK and emoji are two columns wide
+        assertWidths(2, TEST_CJK_CODE_POINTS);
+        assertWidths(2, TEST_EMOJI_CODE_POINTS);
+
+        // Check half width, unassigned and private use characters are a single column
+        assertWidths(1, TEST_HALF_WIDTH_CODE_POINTS);
+
+        // Check combining marks and format characters take up no columns
+        assertWidths(0, TEST_COMBINING_CODE_POINTS);
+
+        // Check control characters are measured as a single column, as they are output
+        assertWidths(1, TEST_CONTROL_CODE_POINTS);
+
+    }
+
+    /**
+     * Unit tests the {@link DisplayWidthUtils#getWidth(CharSequence, int, int)},
+     * {@link DisplayWidthUtils#getWidth(char[], int, int)} and
+     * {@link DisplayWidthUtils#getWidth(ByteBuffer, int, int)} functions.
+     */
+    @Test
+    public void testGetWidthOfText() {
+
+        // Check ASCII entries are as wide as their length
+        assertEquals(TEST_ASCII_ENTRY.length(),
+                DisplayWidthUtils.getWidth(TEST_ASCII_ENTRY, 0, TEST_ASCII_ENTRY.length()));
+        ByteBuffer asciiEntry = encode(TEST_ASCII_ENTRY);
+        assertEquals(TEST_ASCII_ENTRY.length(), DisplayWidthUtils.getWidth(asciiEntry, 0, asciiEntry.limit()));
+
+        // Check chars and UTF-8 bytes of wide, combining and surrogate pair characters
+        // are measured the same
+        assertEquals(EXPECTED_MIXED_ENTRY_WIDTH,
+                DisplayWidthUtils.getWidth(TEST_MIXED_ENTRY, 0, TEST_MIXED_ENTRY.length()));
+        assertEquals(EXPECTED_MIXED_ENTRY_WIDTH,
+                DisplayWidthUtils.getWidth(TEST_MIXED_ENTRY.toCharArray(), 0, TEST_MIXED_ENTRY.length()));
+        ByteBuffer mixedEntry = encode(TEST_MIXED_ENTRY);
+        assertEquals(EXPECTED_MIXED_ENTRY_WIDTH, DisplayWidthUtils.getWidth(mixedEntry, 0, mixedEntry.limit()));
+
+        // Check bytes that are not valid UTF-8 are each a single column
+        assertEquals(EXPECTED_MALFORMED_ENTRY_WIDTH,
+                DisplayWidthUtils.getWidth(ByteBuffer.wrap(TEST_MALFORMED_ENTRY), 0, TEST_MALFORMED_ENTRY.length));
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link DisplayWidthUtils#getWidthEnd(CharSequence, int, int, int)}
+     * function.
+     */
+    @Test
+    public void testGetWidthEnd() {
+
+        int length = TEST_MIXED_ENTRY.length();
+
+        // Check a wide character or surrogate pair that does not fit is left out
+        assertEquals(3, DisplayWidthUtils.getWidthEnd(TEST_MIXED_ENTRY, 0, length, 4));
+        assertEquals(6, DisplayWidthUtils.getWidthEnd(TEST_MIXED_ENTRY, 0, length, 9));
+
+        // Check a combining character is kept with the character before it
+        assertEquals(length, DisplayWidthUtils.getWidthEnd(TEST_MIXED_ENTRY, 0, length, EXPECTED_MIXED_ENTRY_WIDTH));
+
+    }
+
+    /*
+     * Checks every code point is the expected width
+     */
+    private void assertWidths(int expectedWidth, int[] codePoints) {
+
+        for (int codePoint : codePoints) {
+            assertEquals(expectedWidth, DisplayWidthUtils.getWidth(codePoint), Integer.toHexString(codePoint));
+        }
+
+    }
+
+    /*
+     * Encodes the String as UTF-8 bytes
+     */
+    private ByteBuffer encode(String string) {
+
+        return ByteBuffer.wrap(string.getBytes(StandardCharsets.UTF_8));
+
+    }
+
+}
@@ -1,19 +1,38 @@
 package com.jamiecheung.apps.columneddataformatter.utils;
 
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_PARALLELISM;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.DEFAULT_PARALLEL_THRESHOLD;
+import static com.jamiecheung.apps.columneddataformatter.constants.CommonConstants.NO_QUOTE_CHARACTER;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.jamiecheung.apps.columneddataformatter.model.ColumnWidthLimits;
+import com.jamiecheung.apps.columneddataformatter.model.ColumnedTable;
+import com.jamiecheung.apps.columneddataformatter.model.DelimiterMatcher;
+import com.jamiecheung.apps.columneddataformatter.model.OverflowPolicy;
+import com.jamiecheung.apps.columneddataformatter.model.SampledColumnLengths;
+import com.jamiecheung.apps.columneddataformatter.readers.MappedFileReader;
+
 /**
  * Class to unit test the {@link FormatInputUtils} class.
  *
@@ -23,45 +42,40 @@ import org.junit.jupiter.api.Test;
 class FormatInputUtilsTest {
 
     private static final String NEW_LINE = "\n";
-    private static final String PRE_PROCESS_LINES_METHOD_NAME = "preProcessLines";
-    private static final String FIND_MAX_DELIMITERS_A_LINE_METHOD_NAME = "findMaxDelimitersALine";
-    private static final String REBALANCE_DELIMITER_METHOD_NAME = "rebalanceDelimiter";
-    private static final String INSERT_PLACEHOLDER_BETWEEN_CONSECUTIVE_DELIMITERS_METHOD_NAME = "insertPlaceholderBetweenConsecutiveDelimiters";
-    private static final String GET_COLUMN_LENGTHS_METHOD_NAME = "getColumnLengths";
-    private static final String RESTRUCTURE_LINES_METHOD_NAME = "restructureLines";
+    private static final String TOKENIZE_LINE_METHOD_NAME = "tokenizeLine";
 
     private static final String EXPECTED_FILE_CONTENTS_AS_A_STRING = "| First Name |   Surname |Email Address| Mobile Number   |    "
             + NEW_LINE + "    | Some one | 2ndName | a@b.com " + NEW_LINE + "  Someone | SecondName" + NEW_LINE
             + "    |Some1 |SomeName||   999|    ";
-    private static final int EXPECTED_MAX_DELIMITERS_IN_A_LINE = 5;
-    private static final int EXPECTED_LENGTH_COLUMN_1 = 12;
-    private static final int EXPECTED_LENGTH_COLUMN_2 = 11;
+    private static final int EXPECTED_LENGTH_COLUMN_1 = 10;
+    private static final int EXPECTED_LENGTH_COLUMN_2 = 10;
     private static final int EXPECTED_LENGTH_COLUMN_3 = 13;
-    private static final int EXPECTED_LENGTH_COLUMN_4 = 17;
+    private static final int EXPECTED_LENGTH_COLUMN_4 = 13;
 
     private static final String TEST_RESOURCE_DIRECTORY = "src/test/resources/utils_resources/";
     private static final int TEST_COLUMN_1_LENGTH = 10;
     private static final int TEST_COLUMN_2_LENGTH = 10;
     private static final int TEST_COLUMN_3_LENGTH = 13;
     private static final int TEST_COLUMN_4_LENGTH = 13;
-    private static final int TEST_MAX_DELIMITERS_IN_A_LINE = 5;
     private static final String TEST_VALID_DELIMITER = "|";
+    private static final String[] TEST_MULTI_CHARACTER_DELIMITERS = { "||", "::", "\u00a7\u00a7" };
+    private static final int TEST_PARALLELISM = 4;
+    private static final int TEST_PARALLEL_THRESHOLD = 1;
+    private static final byte[] TEST_MALFORMED_CONTENTS = { '|', 'a', '|', '\n', '|', (byte) 0xC3, '|', '\n', '|',
+            'b', '|' };
+    private static final String TEST_BLANK_LINE = " \t ";
+    private static final String TEST_DELIMITERS_ONLY_LINE = " ||| ";
     private static final String TEST_CONVERT_FILE_CONTENTS_TO_STRING_INPUT_FILE = TEST_RESOURCE_DIRECTORY
             + "testConvertFileContentsToStringInputFile.txt";
-    private static final Path TEST_PRE_PROCESS_LINES_INPUT_FILE = Paths
-            .get(TEST_RESOURCE_DIRECTORY + "testPreProcessLinesInputFile.txt");
-    private static final Path TEST_PRE_PROCESS_LINES_EXPECTED_OUTPUT = Paths
-            .get(TEST_RESOURCE_DIRECTORY + "testPreProcessLinesExpectedOutput.txt");
-    private static final Path TEST_FIND_MAX_DELIMITERS_A_LINE_INPUT_FILE = Paths
-            .get(TEST_RESOURCE_DIRECTORY + "testFindMaxDelimitersALineInputFile.txt");
-    private static final Path TEST_REBALANCE_DELIMITER_INPUT_FILE = Paths
-            .get(TEST_RESOURCE_DIRECTORY + "testRebalanceDelimiterInputFile.txt");
-    private static final Path TEST_REBALANCE_DELIMITER_EXPECTED_OUTPUT = Paths
-            .get(TEST_RESOURCE_DIRECTORY + "testRebalanceDelimiterExpectedOutput.txt");
-    private static final Path TEST_INSERT_PLACEHOLDER_BETWEEN_CONSECUTIVE_DELIMITERS_INPUT_FILE = Paths
-            .get(TEST_RESOURCE_DIRECTORY + "testInsertPlaceholderBetweenConsecutiveDelimitersInputFile.txt");
-    private static final Path TEST_INSERT_PLACEHOLDER_BETWEEN_CONSECUTIVE_DELIMITERS_EXPECTED_OUTPUT = Paths
-            .get(TEST_RESOURCE_DIRECTORY + "testInsertPlaceholderBetweenConsecutiveDelimitersExpectedOutput.txt");
+    private static final Path TEST_TOKENIZE_LINE_INPUT_FILE = Paths
+            .get(TEST_RESOURCE_DIRECTORY + "testTokenizeLineInputFile.txt");
+    private static final Path TEST_TOKENIZE_LINE_EXPECTED_OUTPUT = Paths
+            .get(TEST_RESOURCE_DIRECTORY + "testTokenizeLineExpectedOutput.txt");
+    private static final Path TEST_FORMAT_INPUT_FILE_INPUT_FILE = TEST_TOKENIZE_LINE_INPUT_FILE;
+    private static final Path TEST_FORMAT_INPUT_FILE_EXPECTED_OUTPUT = Paths
+            .get(TEST_RESOURCE_DIRECTORY + "testRestructureLinesExpectedOutput.txt");
+    private static final Path TEST_GENERATED_INPUT_FILE = Paths
+            .get(TEST_RESOURCE_DIRECTORY + "testGeneratedInputFile.txt");
     private static final Path TEST_GET_COLUMN_LENGTHS_INPUT_FILE = Paths
             .get(TEST_RESOURCE_DIRECTORY + "testGetColumnLengthsInputFile.txt");
     private static final Path TEST_RESTRUCTURE_LINES_INPUT_FILE = Paths
@@ -69,19 +83,42 @@ class FormatInputUtilsTest {
     private static final Path TEST_RESTRUCTURE_LINES_EXPECTED_OUTPUT = Paths
             .get(TEST_RESOURCE_DIRECTORY + "testRestructureLinesExpectedOutput.txt");
 
+    private static final ColumnWidthLimits TEST_FIXED_COLUMN_WIDTH_LIMITS = new ColumnWidthLimits(new int[] { 5, 4 },
+            6, true, true);
+    private static final String TEST_INPUT_FILE_DOES_NOT_EXIST = TEST_RESOURCE_DIRECTORY + "abc.txt";
+    private static final List<String> TEST_FIXED_COLUMN_WIDTHS_LINES = Arrays.asList(
+            "| First Name | Surname | Email Address |", "| Some one | 2ndName | a@b.com |", "", "| x |");
+    private static final String[] EXPECTED_FIXED_COLUMN_WIDTHS_LINES = { "| Fi... | S... | Ema... |",
+            "| So... | 2... | a@b... |", "| x     |      |" };
+
+    private static final String TEST_SAMPLED_CONTENTS = "| Name | Age |\n| Al | 3 |\n\n| Christopher | 5 | x |\n| D | 66 |";
+    private static final int TEST_SAMPLE_ROWS = 2;
+    private static final int TEST_WINDOW_ROWS = 2;
+    private static final String[] EXPECTED_WINDOWED_LINES = { "| Name | Age |", "| Al   | 3   |",
+            "| Christopher | 5  | x |", "| D           | 66 |   |" };
+    private static final int TEST_RESERVOIR_SAMPLE_ROWS = 10;
+    private static final int[] EXPECTED_SAMPLED_COLUMN_LENGTHS = { 4, 3 };
+    private static final int[] EXPECTED_RESERVOIR_SAMPLED_COLUMN_LENGTHS = { 11, 3, 1 };
+    private static final int EXPECTED_RESERVOIR_SAMPLED_ROWS = 4;
+    private static final String[] EXPECTED_SAMPLED_LINES = { "| Name | Age |", "| Al   | 3   |",
+            "| Chri | 5   |", "| D    | 66  |" };
+    private static final char TEST_QUOTE_CHARACTER = '"';
+    private static final List<String> TEST_QUOTED_LINES = Arrays.asList("| \"a | b\" | c |", "| d | \"e", "f\" |");
+    private static final String[] EXPECTED_QUOTED_LINES = { "| a | b | c   |", "| d     | e f |" };
+    private static final int[] EXPECTED_QUOTED_COLUMN_LENGTHS = { 5, 3 };
+    private static final List<String> TEST_WIDE_LINES = Arrays.asList("| \u4e2d\u6587 | e\u0301 |",
+            "| abc | \ud83d\ude00x |", "a|b");
+    private static final String[] EXPECTED_WIDE_LINES = { "| \u4e2d\u6587 | e\u0301   |",
+            "| abc  | \ud83d\ude00x |", "| a    | b   |" };
+    private static final int[] EXPECTED_WIDE_COLUMN_LENGTHS = { 4, 3 };
+
     private static List<String> testLinesAsStrings = new ArrayList<>();
     private static List<StringBuilder> testLinesAsStringBuilders = new ArrayList<>();
-    private static List<Integer> testColumnLengths = new ArrayList<>();
 
     private static List<String> expectedLinesAsStrings = new ArrayList<>();
 
     private static FormatInputUtils formatInputUtils = new FormatInputUtils();
-    private static Method preProcessLinesMethod;
-    private static Method findMaxDelimitersALineMethod;
-    private static Method rebalanceDelimiterMethod;
-    private static Method insertPlaceholderBetweenConsecutiveDelimitersMethod;
-    private static Method getColumnLengthsMethod;
-    private static Method restructureLinesMethod;
+    private static Method tokenizeLineMethod;
 
     @BeforeEach
     public void setUpBeforeEach() {
@@ -89,7 +126,6 @@ class FormatInputUtilsTest {
         // Reset the lists
         testLinesAsStrings = new ArrayList<>();
         testLinesAsStringBuilders = new ArrayList<>();
-        testColumnLengths = new ArrayList<>();
 
     }
 
@@ -115,186 +151,528 @@ class FormatInputUtilsTest {
 
     /**
      * Unit tests the
-     * {@link FormatInputUtils#preProcessLines(List linesAsStrings, String delimiter, List linesAsStringBuilders)
-     * FormatInputUtils.preProcessLines(List&lt;String&gt; linesAsStrings, String
-     * delimiter, List&lt;StringBuilder&gt; linesAsStringBuilders)} function.
+     * {@link FormatInputUtils#formatInputFile(List linesAsStrings, String delimiter)
+     * FormatInputUtils.formatInputFile(List&lt;String&gt; linesAsStrings, String
+     * delimiter)} function.
      *
-     * @throws NoSuchMethodException
-     * @throws SecurityException
      * @throws IOException
-     * @throws IllegalAccessException
-     * @throws IllegalArgumentException
-     * @throws InvocationTargetException
      */
     @Test
-    public void testPreProcessLines() throws NoSuchMethodException, SecurityException, IOException,
-            IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+    public void testFormatInputFile() throws IOException {
+
+        setLinesAsStrings(TEST_FORMAT_INPUT_FILE_INPUT_FILE);
+
+        // Run the formatInputFile function
+        testLinesAsStringBuilders = FormatInputUtils.formatInputFile(testLinesAsStrings, TEST_VALID_DELIMITER);
+
+        setExpectedLinesAsStrings(TEST_FORMAT_INPUT_FILE_EXPECTED_OUTPUT);
 
-        preProcessLinesMethod = formatInputUtils.getClass().getDeclaredMethod(PRE_PROCESS_LINES_METHOD_NAME, List.class,
-                String.class, List.class);
-        preProcessLinesMethod.setAccessible(true);
+        assertEquals(expectedLinesAsStrings.size(), testLinesAsStringBuilders.size());
+        checkLinesAsStringBuilders(expectedLinesAsStrings, testLinesAsStringBuilders);
+
+    }
 
-        setLinesAsStrings(TEST_PRE_PROCESS_LINES_INPUT_FILE);
+    /**
+     * Unit tests the
+     * {@link FormatInputUtils#formatInputFile(MappedFileReader reader, String delimiter)}
+     * function.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testFormatInputFileMappedFileReader() throws IOException {
 
-        // Run the preProcessLines function
-        preProcessLinesMethod.invoke(null, testLinesAsStrings, TEST_VALID_DELIMITER, testLinesAsStringBuilders);
+        // Run the formatInputFile function
+        try (MappedFileReader reader = new MappedFileReader(TEST_FORMAT_INPUT_FILE_INPUT_FILE.toString())) {
+            testLinesAsStringBuilders = FormatInputUtils.formatInputFile(reader, TEST_VALID_DELIMITER);
+        }
 
-        setExpectedLinesAsStrings(TEST_PRE_PROCESS_LINES_EXPECTED_OUTPUT);
+        setExpectedLinesAsStrings(TEST_FORMAT_INPUT_FILE_EXPECTED_OUTPUT);
 
+        assertEquals(expectedLinesAsStrings.size(), testLinesAsStringBuilders.size());
         checkLinesAsStringBuilders(expectedLinesAsStrings, testLinesAsStringBuilders);
 
-        preProcessLinesMethod.setAccessible(false);
+    }
+
+    /**
+     * Unit tests the
+     * {@link FormatInputUtils#formatInputFile(List linesAsStrings, String delimiter)}
+     * and
+     * {@link FormatInputUtils#formatInputFile(MappedFileReader reader, String delimiter)}
+     * functions with delimiters of more than one character, both with and without
+     * single byte characters, formatted in parallel.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testFormatInputFileMultiCharacterDelimiter() throws IOException {
+
+        setLinesAsStrings(TEST_FORMAT_INPUT_FILE_INPUT_FILE);
+        setExpectedLinesAsStrings(TEST_FORMAT_INPUT_FILE_EXPECTED_OUTPUT);
+
+        try {
+
+            FormatInputUtils.setParallelism(TEST_PARALLELISM, TEST_PARALLEL_THRESHOLD);
+
+            for (String delimiter : TEST_MULTI_CHARACTER_DELIMITERS) {
+
+                List<String> linesAsStrings = new ArrayList<>();
+                List<String> expectedLines = new ArrayList<>();
+
+                // Use the delimiter in place of the single character delimiter
+                for (String line : testLinesAsStrings) {
+                    linesAsStrings.add(line.replace(TEST_VALID_DELIMITER, delimiter));
+                }
+                for (String expectedLine : expectedLinesAsStrings) {
+                    expectedLines.add(expectedLine.replace(TEST_VALID_DELIMITER, delimiter));
+                }
+
+                // Run the formatInputFile function on the lines
+                testLinesAsStringBuilders = FormatInputUtils.formatInputFile(linesAsStrings, delimiter);
+
+                assertEquals(expectedLines.size(), testLinesAsStringBuilders.size());
+                checkLinesAsStringBuilders(expectedLines, testLinesAsStringBuilders);
+
+                // Run the formatInputFile function on the file
+                Files.write(TEST_GENERATED_INPUT_FILE, linesAsStrings, StandardCharsets.UTF_8);
+
+                try (MappedFileReader reader = new MappedFileReader(TEST_GENERATED_INPUT_FILE.toString())) {
+                    testLinesAsStringBuilders = FormatInputUtils.formatInputFile(reader, delimiter);
+                }
+
+                assertEquals(expectedLines.size(), testLinesAsStringBuilders.size());
+                checkLinesAsStringBuilders(expectedLines, testLinesAsStringBuilders);
+
+            }
+
+        } finally {
+            FormatInputUtils.setParallelism(DEFAULT_PARALLELISM, DEFAULT_PARALLEL_THRESHOLD);
+            Files.deleteIfExists(TEST_GENERATED_INPUT_FILE);
+        }
 
     }
 
     /**
      * Unit tests the
-     * {@link FormatInputUtils#findMaxDelimitersALine(List linesAsStringBuilders, String delimiter)
-     * FormatInputUtils.findMaxDelimitersALine(List&lt;StringBuilder&gt;
-     * linesAsStringBuilders, String delimiter} function.
+     * {@link FormatInputUtils#formatInputFile(List linesAsStrings, String delimiter)}
+     * and
+     * {@link FormatInputUtils#formatInputFile(MappedFileReader reader, String delimiter)}
+     * functions with quoted input, whose quoted entries contain delimiters and
+     * line terminators, and the
+     * {@link FormatInputUtils#getColumnLengths(String inputFile, String delimiter)}
+     * function on the same input.
      *
-     * @throws NoSuchMethodException
-     * @throws SecurityException
      * @throws IOException
-     * @throws IllegalAccessException
-     * @throws IllegalArgumentException
-     * @throws InvocationTargetException
      */
     @Test
-    public void testFindMaxDelimitersALine() throws NoSuchMethodException, SecurityException, IOException,
-            IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+    public void testFormatInputFileQuoted() throws IOException {
 
-        findMaxDelimitersALineMethod = formatInputUtils.getClass()
-                .getDeclaredMethod(FIND_MAX_DELIMITERS_A_LINE_METHOD_NAME, List.class, String.class);
-        findMaxDelimitersALineMethod.setAccessible(true);
+        setLinesAsStrings(TEST_FORMAT_INPUT_FILE_INPUT_FILE);
+        setExpectedLinesAsStrings(TEST_FORMAT_INPUT_FILE_EXPECTED_OUTPUT);
 
-        setLinesAsStringBuilders(TEST_FIND_MAX_DELIMITERS_A_LINE_INPUT_FILE);
+        try {
 
-        // Run the findMaxDelimitersALine function
-        int testFindMaxDelimitersALine = (Integer) findMaxDelimitersALineMethod.invoke(null, testLinesAsStringBuilders,
-                TEST_VALID_DELIMITER);
+            FormatInputUtils.setParallelism(TEST_PARALLELISM, TEST_PARALLEL_THRESHOLD);
+            FormatInputUtils.setQuoting(TEST_QUOTE_CHARACTER, TEST_QUOTE_CHARACTER);
+
+            // Run the formatInputFile function on lines without quotes and check they are
+            // formatted the same as without quoting
+            testLinesAsStringBuilders = FormatInputUtils.formatInputFile(testLinesAsStrings, TEST_VALID_DELIMITER);
+
+            assertEquals(expectedLinesAsStrings.size(), testLinesAsStringBuilders.size());
+            checkLinesAsStringBuilders(expectedLinesAsStrings, testLinesAsStringBuilders);
+
+            // Run the formatInputFile function on quoted lines and check each record is
+            // formatted as a single line
+            testLinesAsStringBuilders = FormatInputUtils.formatInputFile(TEST_QUOTED_LINES, TEST_VALID_DELIMITER);
+
+            assertEquals(EXPECTED_QUOTED_LINES.length, testLinesAsStringBuilders.size());
+            checkLinesAsStringBuilders(Arrays.asList(EXPECTED_QUOTED_LINES), testLinesAsStringBuilders);
+
+            // Run the formatInputFile function on a file of the quoted lines, which is not
+            // formatted in parallel
+            Files.write(TEST_GENERATED_INPUT_FILE, TEST_QUOTED_LINES, StandardCharsets.UTF_8);
+
+            try (MappedFileReader reader = new MappedFileReader(TEST_GENERATED_INPUT_FILE.toString())) {
+                testLinesAsStringBuilders = FormatInputUtils.formatInputFile(reader, TEST_VALID_DELIMITER);
+            }
+
+            assertEquals(EXPECTED_QUOTED_LINES.length, testLinesAsStringBuilders.size());
+            checkLinesAsStringBuilders(Arrays.asList(EXPECTED_QUOTED_LINES), testLinesAsStringBuilders);
+
+            // Run the getColumnLengths function on the file of the quoted lines
+            assertArrayEquals(EXPECTED_QUOTED_COLUMN_LENGTHS,
+                    FormatInputUtils.getColumnLengths(TEST_GENERATED_INPUT_FILE.toString(), TEST_VALID_DELIMITER));
+
+        } finally {
+            FormatInputUtils.setParallelism(DEFAULT_PARALLELISM, DEFAULT_PARALLEL_THRESHOLD);
+            FormatInputUtils.setQuoting(NO_QUOTE_CHARACTER, NO_QUOTE_CHARACTER);
+            Files.deleteIfExists(TEST_GENERATED_INPUT_FILE);
+        }
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link FormatInputUtils#formatInputFile(List linesAsStrings, String delimiter)}
+     * and
+     * {@link FormatInputUtils#formatInputFile(MappedFileReader reader, String delimiter)}
+     * functions, and the
+     * {@link FormatInputUtils#getColumnLengths(String inputFile, String delimiter)}
+     * function, with wide, combining and surrogate pair characters.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testFormatInputFileDisplayWidth() throws IOException {
 
-        // Check the correct int is returned
-        assertEquals(EXPECTED_MAX_DELIMITERS_IN_A_LINE, testFindMaxDelimitersALine);
+        // Run the formatInputFile function and check the columns line up by display
+        // width rather than by character length
+        testLinesAsStringBuilders = FormatInputUtils.formatInputFile(TEST_WIDE_LINES, TEST_VALID_DELIMITER);
 
-        findMaxDelimitersALineMethod.setAccessible(false);
+        checkLinesAsStringBuilders(Arrays.asList(EXPECTED_WIDE_LINES), testLinesAsStringBuilders);
+
+        try {
+
+            // Run the formatInputFile and getColumnLengths functions on a file of the same
+            // lines, measured from their bytes
+            Files.write(TEST_GENERATED_INPUT_FILE, TEST_WIDE_LINES, StandardCharsets.UTF_8);
+
+            try (MappedFileReader reader = new MappedFileReader(TEST_GENERATED_INPUT_FILE.toString())) {
+                testLinesAsStringBuilders = FormatInputUtils.formatInputFile(reader, TEST_VALID_DELIMITER);
+            }
+
+            checkLinesAsStringBuilders(Arrays.asList(EXPECTED_WIDE_LINES), testLinesAsStringBuilders);
+            assertArrayEquals(EXPECTED_WIDE_COLUMN_LENGTHS,
+                    FormatInputUtils.getColumnLengths(TEST_GENERATED_INPUT_FILE.toString(), TEST_VALID_DELIMITER));
+
+        } finally {
+            Files.deleteIfExists(TEST_GENERATED_INPUT_FILE);
+        }
 
     }
 
     /**
      * Unit tests the
-     * {@link FormatInputUtils#rebalanceDelimiter(List linesAsStringBuilders, String delimiter, int maxDelimiterCountInASingleLine)
-     * FormatInputUtils.rebalanceDelimiter(List&lt;StringBuilder&gt;
-     * linesAsStringBuilders, String delimiter, int maxDelimiterCountInASingleLine)}
+     * {@link FormatInputUtils#getColumnLengths(String inputFile, String delimiter)}
      * function.
      *
-     * @throws NoSuchMethodException
-     * @throws SecurityException
      * @throws IOException
-     * @throws IllegalAccessException
-     * @throws IllegalArgumentException
-     * @throws InvocationTargetException
      */
     @Test
-    public void testRebalanceDelimiter() throws NoSuchMethodException, SecurityException, IOException,
-            IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+    public void testGetColumnLengths() throws IOException {
+
+        // Run the getColumnLengths function
+        int[] testColumnLengths = FormatInputUtils.getColumnLengths(TEST_GET_COLUMN_LENGTHS_INPUT_FILE.toString(),
+                TEST_VALID_DELIMITER);
+
+        // Check the column lengths are the longest trimmed entry in each column
+        assertArrayEquals(new int[] { EXPECTED_LENGTH_COLUMN_1, EXPECTED_LENGTH_COLUMN_2, EXPECTED_LENGTH_COLUMN_3,
+                EXPECTED_LENGTH_COLUMN_4 }, testColumnLengths);
 
-        rebalanceDelimiterMethod = formatInputUtils.getClass().getDeclaredMethod(REBALANCE_DELIMITER_METHOD_NAME,
-                List.class, String.class, int.class);
-        rebalanceDelimiterMethod.setAccessible(true);
+    }
 
-        setLinesAsStringBuilders(TEST_REBALANCE_DELIMITER_INPUT_FILE);
+    /**
+     * Unit tests the
+     * {@link FormatInputUtils#getColumnLengths(String inputFile, String delimiter)}
+     * and
+     * {@link FormatInputUtils#formatInputFile(MappedFileReader reader, String delimiter)}
+     * functions with the column lengths computed in parallel.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testGetColumnLengthsInParallel() throws IOException {
 
-        // Run the rebalanceDelimiter function
-        rebalanceDelimiterMethod.invoke(null, testLinesAsStringBuilders, TEST_VALID_DELIMITER,
-                TEST_MAX_DELIMITERS_IN_A_LINE);
+        // Split the files into blocks of a few lines each
+        FormatInputUtils.setParallelism(TEST_PARALLELISM, TEST_PARALLEL_THRESHOLD);
 
-        setExpectedLinesAsStrings(TEST_REBALANCE_DELIMITER_EXPECTED_OUTPUT);
+        try {
 
-        checkLinesAsStringBuilders(expectedLinesAsStrings, testLinesAsStringBuilders);
+            // Run the getColumnLengths function and check the column lengths are the same
+            // as when computed on a single thread
+            int[] testColumnLengths = FormatInputUtils
+                    .getColumnLengths(TEST_GET_COLUMN_LENGTHS_INPUT_FILE.toString(), TEST_VALID_DELIMITER);
 
-        rebalanceDelimiterMethod.setAccessible(false);
+            assertArrayEquals(new int[] { EXPECTED_LENGTH_COLUMN_1, EXPECTED_LENGTH_COLUMN_2,
+                    EXPECTED_LENGTH_COLUMN_3, EXPECTED_LENGTH_COLUMN_4 }, testColumnLengths);
+
+            // Run the formatInputFile function and check the lines are formatted the same
+            // as when the column lengths are computed on a single thread
+            try (MappedFileReader reader = new MappedFileReader(TEST_FORMAT_INPUT_FILE_INPUT_FILE.toString())) {
+                testLinesAsStringBuilders = FormatInputUtils.formatInputFile(reader, TEST_VALID_DELIMITER);
+            }
+
+            setExpectedLinesAsStrings(TEST_FORMAT_INPUT_FILE_EXPECTED_OUTPUT);
+
+            assertEquals(expectedLinesAsStrings.size(), testLinesAsStringBuilders.size());
+            checkLinesAsStringBuilders(expectedLinesAsStrings, testLinesAsStringBuilders);
+
+        } finally {
+            FormatInputUtils.setParallelism(DEFAULT_PARALLELISM, DEFAULT_PARALLEL_THRESHOLD);
+        }
 
     }
 
     /**
      * Unit tests the
-     * {@link FormatInputUtils#insertPlaceholderBetweenConsecutiveDelimiters(List linesAsStringBuilders, String delimiter)
-     * FormatInputUtils.insertPlaceholderBetweenConsecutiveDelimiters(List&lt;StringBuilder&gt;
-     * linesAsStringBuilders, String delimiter)} function.
+     * {@link FormatInputUtils#getColumnLengths(String inputFile, String delimiter)}
+     * and
+     * {@link FormatInputUtils#formatInputFile(List linesAsStrings, String delimiter)}
+     * functions with fixed column widths, cutting longer entries short.
      *
-     * @throws NoSuchMethodException
-     * @throws SecurityException
      * @throws IOException
-     * @throws IllegalAccessException
-     * @throws IllegalArgumentException
-     * @throws InvocationTargetException
      */
     @Test
-    public void testInsertPlaceholderBetweenConsecutiveDelimiters() throws NoSuchMethodException, SecurityException,
-            IOException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+    public void testFormatInputFileFixedColumnWidths() throws IOException {
 
-        insertPlaceholderBetweenConsecutiveDelimitersMethod = formatInputUtils.getClass().getDeclaredMethod(
-                INSERT_PLACEHOLDER_BETWEEN_CONSECUTIVE_DELIMITERS_METHOD_NAME, List.class, String.class);
-        insertPlaceholderBetweenConsecutiveDelimitersMethod.setAccessible(true);
+        FormatInputUtils.setColumnWidthLimits(TEST_FIXED_COLUMN_WIDTH_LIMITS);
 
-        setLinesAsStringBuilders(TEST_INSERT_PLACEHOLDER_BETWEEN_CONSECUTIVE_DELIMITERS_INPUT_FILE);
+        try {
 
-        // Run the insertPlaceholderBetweenConsecutiveDelimiters function
-        insertPlaceholderBetweenConsecutiveDelimitersMethod.invoke(null, testLinesAsStringBuilders,
-                TEST_VALID_DELIMITER);
+            // Check the column lengths are found without reading the input file
+            assertArrayEquals(TEST_FIXED_COLUMN_WIDTH_LIMITS.getFixedColumnLengths(),
+                    FormatInputUtils.getColumnLengths(TEST_INPUT_FILE_DOES_NOT_EXIST, TEST_VALID_DELIMITER));
 
-        setExpectedLinesAsStrings(TEST_INSERT_PLACEHOLDER_BETWEEN_CONSECUTIVE_DELIMITERS_EXPECTED_OUTPUT);
+            // Run the formatInputFile function and check every column is its maximum
+            // width, with columns past the first ones at the default maximum width
+            testLinesAsStringBuilders = FormatInputUtils.formatInputFile(TEST_FIXED_COLUMN_WIDTHS_LINES,
+                    TEST_VALID_DELIMITER);
 
-        checkLinesAsStringBuilders(expectedLinesAsStrings, testLinesAsStringBuilders);
+            checkLinesAsStringBuilders(Arrays.asList(EXPECTED_FIXED_COLUMN_WIDTHS_LINES), testLinesAsStringBuilders);
 
-        insertPlaceholderBetweenConsecutiveDelimitersMethod.setAccessible(false);
+        } finally {
+            FormatInputUtils.setColumnWidthLimits(ColumnWidthLimits.UNBOUNDED);
+        }
 
     }
 
     /**
      * Unit tests the
-     * {@link FormatInputUtils#getColumnLengths(int maxDelimiterCountInASingleLine, List linesAsStringBuilders, String delimiter, List columnLengths)
-     * FormatInputUtils.getColumnLengths(int maxDelimiterCountInASingleLine,
-     * List&lt;StringBuilder&gt; linesAsStringBuilders, String delimiter,
-     * List&lt;Integer&gt; columnLengths)} function.
+     * {@link FormatInputUtils#getSampledColumnLengths(String inputFile, String delimiter)}
+     * and
+     * {@link FormatInputUtils#formatSampledLine(MappedFileReader reader, String delimiter, SampledColumnLengths sampledColumnLengths)}
+     * functions, with rows sampled from the start of the file and from across the
+     * whole file.
      *
-     * @throws NoSuchMethodException
-     * @throws SecurityException
      * @throws IOException
-     * @throws IllegalAccessException
-     * @throws IllegalArgumentException
-     * @throws InvocationTargetException
      */
     @Test
-    public void testGetColumnLengths() throws NoSuchMethodException, SecurityException, IOException,
-            IllegalAccessException, IllegalArgumentException, InvocationTargetException {
+    public void testFormatSampledLine() throws IOException {
 
-        getColumnLengthsMethod = formatInputUtils.getClass().getDeclaredMethod(GET_COLUMN_LENGTHS_METHOD_NAME,
-                int.class, List.class, String.class, List.class);
-        getColumnLengthsMethod.setAccessible(true);
+        Files.write(TEST_GENERATED_INPUT_FILE, TEST_SAMPLED_CONTENTS.getBytes());
 
-        setLinesAsStringBuilders(TEST_GET_COLUMN_LENGTHS_INPUT_FILE);
+        try {
 
-        // Run the getColumnLengths function
-        getColumnLengthsMethod.invoke(null, TEST_MAX_DELIMITERS_IN_A_LINE, testLinesAsStringBuilders,
+            // Run the getSampledColumnLengths function and check only the first rows are
+            // sampled
+            FormatInputUtils.setColumnLengthSampling(TEST_SAMPLE_ROWS, false, OverflowPolicy.TRUNCATE);
+            SampledColumnLengths testSampledColumnLengths = FormatInputUtils
+                    .getSampledColumnLengths(TEST_GENERATED_INPUT_FILE.toString(), TEST_VALID_DELIMITER);
+
+            assertArrayEquals(EXPECTED_SAMPLED_COLUMN_LENGTHS, testSampledColumnLengths.getColumnLengths());
+            assertEquals(TEST_SAMPLE_ROWS, testSampledColumnLengths.getSampledRows());
+
+            // Run the formatSampledLine function on each line and check the longer
+            // entries are cut short and the extra cell left out, with the overflowing
+            // line counted
+            try (MappedFileReader reader = new MappedFileReader(TEST_GENERATED_INPUT_FILE.toString())) {
+
+                while (reader.nextLine()) {
+
+                    StringBuilder formattedLine = FormatInputUtils.formatSampledLine(reader, TEST_VALID_DELIMITER,
+                            testSampledColumnLengths);
+
+                    if (formattedLine != null) {
+                        testLinesAsStringBuilders.add(formattedLine);
+                    }
+
+                }
+
+            }
+
+            checkLinesAsStringBuilders(Arrays.asList(EXPECTED_SAMPLED_LINES), testLinesAsStringBuilders);
+            assertEquals(EXPECTED_SAMPLED_LINES.length, testSampledColumnLengths.getRowCount());
+            assertEquals(1, testSampledColumnLengths.getOverflowedRowCount());
+
+            // Run the getSampledColumnLengths function with a reservoir larger than the
+            // file and check every row is sampled
+            FormatInputUtils.setColumnLengthSampling(TEST_RESERVOIR_SAMPLE_ROWS, true, OverflowPolicy.TRUNCATE);
+            testSampledColumnLengths = FormatInputUtils.getSampledColumnLengths(TEST_GENERATED_INPUT_FILE.toString(),
+                    TEST_VALID_DELIMITER);
+
+            assertArrayEquals(EXPECTED_RESERVOIR_SAMPLED_COLUMN_LENGTHS, testSampledColumnLengths.getColumnLengths());
+            assertEquals(EXPECTED_RESERVOIR_SAMPLED_ROWS, testSampledColumnLengths.getSampledRows());
+
+            // Run the getSampledColumnLengths function with a reservoir as large as the
+            // number of non-blank lines and check the blank line takes none of it
+            FormatInputUtils.setColumnLengthSampling(EXPECTED_RESERVOIR_SAMPLED_ROWS, true, OverflowPolicy.TRUNCATE);
+            testSampledColumnLengths = FormatInputUtils.getSampledColumnLengths(TEST_GENERATED_INPUT_FILE.toString(),
+                    TEST_VALID_DELIMITER);
+
+            assertArrayEquals(EXPECTED_RESERVOIR_SAMPLED_COLUMN_LENGTHS, testSampledColumnLengths.getColumnLengths());
+            assertEquals(EXPECTED_RESERVOIR_SAMPLED_ROWS, testSampledColumnLengths.getSampledRows());
+
+            // Run the getSampledColumnLengths function with the largest reservoir and
+            // check it is only as large as the file
+            FormatInputUtils.setColumnLengthSampling(Integer.MAX_VALUE, true, OverflowPolicy.TRUNCATE);
+            testSampledColumnLengths = FormatInputUtils.getSampledColumnLengths(TEST_GENERATED_INPUT_FILE.toString(),
+                    TEST_VALID_DELIMITER);
+
+            assertEquals(EXPECTED_RESERVOIR_SAMPLED_ROWS, testSampledColumnLengths.getSampledRows());
+
+        } finally {
+            FormatInputUtils.setColumnLengthSampling(0, false, OverflowPolicy.TRUNCATE);
+            Files.deleteIfExists(TEST_GENERATED_INPUT_FILE);
+        }
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link FormatInputUtils#nextWindow(MappedFileReader reader, String delimiter, ColumnedTable table, int windowRows)}
+     * function, with each window formatted with its own column lengths.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testNextWindow() throws IOException {
+
+        Files.write(TEST_GENERATED_INPUT_FILE, TEST_SAMPLED_CONTENTS.getBytes());
+
+        try (MappedFileReader reader = new MappedFileReader(TEST_GENERATED_INPUT_FILE.toString())) {
+
+            ColumnedTable testTable = new ColumnedTable();
+            int windowCount = 0;
+
+            // Run the nextWindow function until the end of the file, formatting each window
+            while (FormatInputUtils.nextWindow(reader, TEST_VALID_DELIMITER, testTable, TEST_WINDOW_ROWS)) {
+
+                int[] columnLengths = FormatInputUtils.getColumnLengths(testTable);
+
+                for (int row = 0; row < testTable.getRowCount(); row++) {
+
+                    StringBuilder formattedLine = new StringBuilder();
+                    FormatInputUtils.appendFormattedRow(formattedLine, testTable, row, TEST_VALID_DELIMITER,
+                            columnLengths);
+                    testLinesAsStringBuilders.add(formattedLine);
+
+                }
+
+                windowCount++;
+
+            }
+
+            // Check the blank line is skipped, and each window is aligned on its own
+            checkLinesAsStringBuilders(Arrays.asList(EXPECTED_WINDOWED_LINES), testLinesAsStringBuilders);
+            assertEquals(2, windowCount);
+            assertEquals(0, testTable.getRowCount());
+
+        } finally {
+            Files.deleteIfExists(TEST_GENERATED_INPUT_FILE);
+        }
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link FormatInputUtils#formatInputFile(MappedFileReader reader, String delimiter)}
+     * function with the lines formatted in parallel from a file that is not valid
+     * UTF-8.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testFormatInputFileInParallelMalformedInput() throws IOException {
+
+        Files.write(TEST_GENERATED_INPUT_FILE, TEST_MALFORMED_CONTENTS);
+        FormatInputUtils.setParallelism(TEST_PARALLELISM, TEST_PARALLEL_THRESHOLD);
+
+        // Check the malformed input is reported from the worker thread that found it
+        try (MappedFileReader reader = new MappedFileReader(TEST_GENERATED_INPUT_FILE.toString())) {
+            assertThrows(MalformedInputException.class,
+                    () -> FormatInputUtils.formatInputFile(reader, TEST_VALID_DELIMITER));
+        } finally {
+            FormatInputUtils.setParallelism(DEFAULT_PARALLELISM, DEFAULT_PARALLEL_THRESHOLD);
+            Files.deleteIfExists(TEST_GENERATED_INPUT_FILE);
+        }
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link FormatInputUtils#formatLines(ByteBuffer input, int linesStart, int linesEnd, String delimiter, int[] columnLengths)}
+     * function.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testFormatLines() throws IOException {
+
+        int[] testColumnLengths = { TEST_COLUMN_1_LENGTH, TEST_COLUMN_2_LENGTH, TEST_COLUMN_3_LENGTH,
+                TEST_COLUMN_4_LENGTH };
+        ByteBuffer testInput = ByteBuffer.wrap(Files.readAllBytes(TEST_FORMAT_INPUT_FILE_INPUT_FILE));
+
+        // Run the formatLines function over the whole file
+        testLinesAsStringBuilders = FormatInputUtils.formatLines(testInput, 0, testInput.limit(),
                 TEST_VALID_DELIMITER, testColumnLengths);
 
-        // Check the testColumnLengths list populated correctly
-        assertEquals(EXPECTED_LENGTH_COLUMN_1, testColumnLengths.get(0));
-        assertEquals(EXPECTED_LENGTH_COLUMN_2, testColumnLengths.get(1));
-        assertEquals(EXPECTED_LENGTH_COLUMN_3, testColumnLengths.get(2));
-        assertEquals(EXPECTED_LENGTH_COLUMN_4, testColumnLengths.get(3));
+        setExpectedLinesAsStrings(TEST_FORMAT_INPUT_FILE_EXPECTED_OUTPUT);
 
-        getColumnLengthsMethod.setAccessible(false);
+        assertEquals(expectedLinesAsStrings.size(), testLinesAsStringBuilders.size());
+        checkLinesAsStringBuilders(expectedLinesAsStrings, testLinesAsStringBuilders);
 
     }
 
     /**
      * Unit tests the
-     * {@link FormatInputUtils#restructureLines(List linesAsStringBuilders, String delimiter, List columnLengths)
-     * FormatInputUtils.restructureLines(List&lt;StringBuilder&gt;
-     * linesAsStringBuilders, String delimiter, List&lt;Integer&gt; columnLengths)}
+     * {@link FormatInputUtils#mergeColumnLengths(int[] columnLengths, int[] otherColumnLengths)}
+     * function.
+     */
+    @Test
+    public void testMergeColumnLengths() {
+
+        // Run the mergeColumnLengths function and check the larger length of each
+        // column is kept, including columns only one of the inputs has
+        assertArrayEquals(new int[] { 3, 5, 2 },
+                FormatInputUtils.mergeColumnLengths(new int[] { 3, 1 }, new int[] { 2, 5, 2 }));
+        assertArrayEquals(new int[] { 4 }, FormatInputUtils.mergeColumnLengths(new int[] { 4 }, new int[0]));
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link FormatInputUtils#formatLine(String line, String delimiter, int[] columnLengths)}
+     * function.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testFormatLine() throws IOException {
+
+        // Set the columnLengths to control how the lines get formatted
+        int[] testColumnLengths = { TEST_COLUMN_1_LENGTH, TEST_COLUMN_2_LENGTH, TEST_COLUMN_3_LENGTH,
+                TEST_COLUMN_4_LENGTH };
+
+        setLinesAsStrings(TEST_FORMAT_INPUT_FILE_INPUT_FILE);
+
+        // Run the formatLine function on each line
+        for (String line : testLinesAsStrings) {
+            testLinesAsStringBuilders.add(FormatInputUtils.formatLine(line, TEST_VALID_DELIMITER, testColumnLengths));
+        }
+
+        setExpectedLinesAsStrings(TEST_FORMAT_INPUT_FILE_EXPECTED_OUTPUT);
+
+        checkLinesAsStringBuilders(expectedLinesAsStrings, testLinesAsStringBuilders);
+
+        // Check a blank line has no formatted form
+        assertNull(FormatInputUtils.formatLine(TEST_BLANK_LINE, TEST_VALID_DELIMITER, testColumnLengths));
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link FormatInputUtils#tokenizeLine(String line, DelimiterMatcher delimiter)}
      * function.
      *
      * @throws NoSuchMethodException
@@ -305,30 +683,118 @@ class FormatInputUtilsTest {
      * @throws InvocationTargetException
      */
     @Test
-    public void testRestructureLines() throws NoSuchMethodException, SecurityException, IOException,
+    public void testTokenizeLine() throws NoSuchMethodException, SecurityException, IOException,
             IllegalAccessException, IllegalArgumentException, InvocationTargetException {
 
-        restructureLinesMethod = formatInputUtils.getClass().getDeclaredMethod(RESTRUCTURE_LINES_METHOD_NAME,
-                List.class, String.class, List.class);
-        restructureLinesMethod.setAccessible(true);
+        tokenizeLineMethod = formatInputUtils.getClass().getDeclaredMethod(TOKENIZE_LINE_METHOD_NAME, String.class,
+                DelimiterMatcher.class);
+        tokenizeLineMethod.setAccessible(true);
+
+        setLinesAsStrings(TEST_TOKENIZE_LINE_INPUT_FILE);
+
+        // Run the tokenizeLine function and rebuild each line from its cells
+        for (String line : testLinesAsStrings) {
+
+            int[] boundaries = (int[]) tokenizeLineMethod.invoke(null, line,
+                    DelimiterMatcher.compile(TEST_VALID_DELIMITER));
+            StringBuilder lineFromCells = new StringBuilder(TEST_VALID_DELIMITER);
+
+            for (int i = 0; i < boundaries.length; i += 2) {
+                lineFromCells.append(line, boundaries[i], boundaries[i + 1]).append(TEST_VALID_DELIMITER);
+            }
+
+            testLinesAsStringBuilders.add(lineFromCells);
+
+        }
+
+        setExpectedLinesAsStrings(TEST_TOKENIZE_LINE_EXPECTED_OUTPUT);
+
+        checkLinesAsStringBuilders(expectedLinesAsStrings, testLinesAsStringBuilders);
+
+        // Check blank lines and lines of only delimiters
+        assertNull(tokenizeLineMethod.invoke(null, TEST_BLANK_LINE, DelimiterMatcher.compile(TEST_VALID_DELIMITER)));
+        assertEquals(0, ((int[]) tokenizeLineMethod.invoke(null, TEST_DELIMITERS_ONLY_LINE,
+                DelimiterMatcher.compile(TEST_VALID_DELIMITER))).length);
+
+        tokenizeLineMethod.setAccessible(false);
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link FormatInputUtils#tokenizeInputFile(List linesAsStrings, String delimiter)
+     * FormatInputUtils.tokenizeInputFile(List&lt;String&gt; linesAsStrings, String
+     * delimiter)} function.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testTokenizeInputFile() throws IOException {
+
+        setLinesAsStrings(TEST_GET_COLUMN_LENGTHS_INPUT_FILE);
+        testLinesAsStrings.add(TEST_BLANK_LINE);
+
+        // Run the tokenizeInputFile function
+        ColumnedTable testTable = FormatInputUtils.tokenizeInputFile(testLinesAsStrings, TEST_VALID_DELIMITER);
 
-        // Set the columnLengths list to control how the lines get restructured
-        testColumnLengths = new ArrayList<>();
-        testColumnLengths.add(TEST_COLUMN_1_LENGTH);
-        testColumnLengths.add(TEST_COLUMN_2_LENGTH);
-        testColumnLengths.add(TEST_COLUMN_3_LENGTH);
-        testColumnLengths.add(TEST_COLUMN_4_LENGTH);
+        // Check the column widths are the longest trimmed entry in each column
+        assertArrayEquals(new int[] { EXPECTED_LENGTH_COLUMN_1, EXPECTED_LENGTH_COLUMN_2, EXPECTED_LENGTH_COLUMN_3,
+                EXPECTED_LENGTH_COLUMN_4 }, testTable.getColumnWidths());
 
-        setLinesAsStringBuilders(TEST_RESTRUCTURE_LINES_INPUT_FILE);
+        // Check every line except the blank line has been tokenized
+        assertEquals(testLinesAsStrings.size() - 1, testTable.getRowCount());
 
-        // Run the restructureLines function
-        restructureLinesMethod.invoke(null, testLinesAsStringBuilders, TEST_VALID_DELIMITER, testColumnLengths);
+    }
+
+    /**
+     * Unit tests the
+     * {@link FormatInputUtils#formatTable(ColumnedTable table, String delimiter, int[] columnLengths)}
+     * function.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testFormatTable() throws IOException {
+
+        // Set the columnLengths to control how the lines get restructured
+        int[] testColumnLengths = { TEST_COLUMN_1_LENGTH, TEST_COLUMN_2_LENGTH, TEST_COLUMN_3_LENGTH,
+                TEST_COLUMN_4_LENGTH };
+
+        setLinesAsStrings(TEST_RESTRUCTURE_LINES_INPUT_FILE);
+
+        // Run the formatTable function
+        testLinesAsStringBuilders = FormatInputUtils.formatTable(
+                FormatInputUtils.tokenizeInputFile(testLinesAsStrings, TEST_VALID_DELIMITER), TEST_VALID_DELIMITER,
+                testColumnLengths);
 
         setExpectedLinesAsStrings(TEST_RESTRUCTURE_LINES_EXPECTED_OUTPUT);
 
+        assertEquals(expectedLinesAsStrings.size(), testLinesAsStringBuilders.size());
         checkLinesAsStringBuilders(expectedLinesAsStrings, testLinesAsStringBuilders);
 
-        restructureLinesMethod.setAccessible(false);
+    }
+
+    /**
+     * Unit tests the
+     * {@link FormatInputUtils#formatTable(ColumnedTable table, String delimiter, int[] columnLengths)}
+     * function when the thread formatting the table is interrupted.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testFormatTableInterrupted() throws IOException {
+
+        int[] testColumnLengths = { TEST_COLUMN_1_LENGTH, TEST_COLUMN_2_LENGTH, TEST_COLUMN_3_LENGTH,
+                TEST_COLUMN_4_LENGTH };
+
+        setLinesAsStrings(TEST_RESTRUCTURE_LINES_INPUT_FILE);
+        ColumnedTable testTable = FormatInputUtils.tokenizeInputFile(testLinesAsStrings, TEST_VALID_DELIMITER);
+
+        // Check formatting stops on the interrupt, and clears it
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedIOException.class,
+                () -> FormatInputUtils.formatTable(testTable, TEST_VALID_DELIMITER, testColumnLengths));
+        assertFalse(Thread.interrupted());
 
     }
 
@@ -1,6 +1,7 @@
 package com.jamiecheung.apps.columneddataformatter.utils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayOutputStream;
@@ -35,7 +36,6 @@ class ResultGeneratorUtilsTest {
     private static final String OUTPUT_RESULTS_TO_CONSOLE_METHOD_NAME = "outputResultsToConsole";
     private static final String NAME_RESULT_FILE_METHOD_NAME = "nameResultFile";
     private static final String GET_FILE_EXTENSION_METHOD_NAME = "getFileExtension";
-    private static final String CREATE_RESULT_FILE_METHOD_NAME = "createResultFile";
     private static final String WRITE_RESULT_FILE_METHOD_NAME = "writeResultFile";
 
     private static final String EXPECTED_RESULTS_FILE_NAME = "testInputFile_formatted.txt";
@@ -53,6 +53,12 @@ class ResultGeneratorUtilsTest {
     private static final String TEST_LINE_2 = "test line 2";
     private static final String TEST_LINE_3 = "test line 3";
     private static final String TEST_LINE_4 = "test line 4";
+    private static final Path TEST_RESULT_DIRECTORY_PATH = Paths.get(TEST_RESOURCE_DIRECTORY).toAbsolutePath()
+            .normalize();
+    private static final String[] TEST_GENERATED_FILE_NAMES = { "testInputFile_formatted.txt",
+            ".testInputFile_formatted.txt.1f.tmp", ".columned-data-formatter-cache",
+            ".columned-data-formatter-cache123.tmp", "columned-data-formatter-metrics.json",
+            "columned-data-formatter-metrics.json123.tmp" };
 
     private static List<StringBuilder> testLinesAsStringBuilders = new ArrayList<>();
 
@@ -60,7 +66,6 @@ class ResultGeneratorUtilsTest {
 
     private static Method outputResultsToConsoleMethod;
     private static Method nameResultFileMethod;
-    private static Method createResultFileMethod;
     private static Method writeResultFileMethod;
     private static Method getFileExtensionMethod;
 
@@ -84,6 +89,29 @@ class ResultGeneratorUtilsTest {
 
     }
 
+    /**
+     * Unit tests the
+     * {@link ResultGeneratorUtils#isGeneratedFile(Path path, Path resultDirectoryPath)}
+     * function.
+     */
+    @Test
+    public void testIsGeneratedFile() {
+
+        // Check each file generated in the result directory is recognized
+        for (String generatedFileName : TEST_GENERATED_FILE_NAMES) {
+            assertTrue(ResultGeneratorUtils.isGeneratedFile(Paths.get(TEST_RESOURCE_DIRECTORY, generatedFileName),
+                    TEST_RESULT_DIRECTORY_PATH));
+        }
+
+        // Check input files, and generated files outside the result directory, are not
+        assertFalse(ResultGeneratorUtils.isGeneratedFile(Paths.get(TEST_VALID_INPUT_FILE), TEST_RESULT_DIRECTORY_PATH));
+        assertFalse(ResultGeneratorUtils.isGeneratedFile(Paths.get(TEST_RESOURCE_DIRECTORY, EXPECTED_RESULTS_FILE_NAME),
+                TEST_RESULT_DIRECTORY_PATH.getParent()));
+        assertFalse(ResultGeneratorUtils.isGeneratedFile(Paths.get(TEST_RESOURCE_DIRECTORY, EXPECTED_RESULTS_FILE_NAME),
+                null));
+
+    }
+
     /**
      * Unit tests the
      * {@link ResultGeneratorUtils#outputResultsToConsole(List linesAsStringBuilders)
@@ -149,41 +177,6 @@ class ResultGeneratorUtilsTest {
 
     }
 
-    /**
-     * Unit tests the
-     * {@link ResultGeneratorUtils#createResultFile(String resultDirectory, String resultFileName)}
-     * function.
-     *
-     * @throws NoSuchMethodException
-     * @throws SecurityException
-     * @throws IOException
-     * @throws IllegalAccessException
-     * @throws IllegalArgumentException
-     * @throws InvocationTargetException
-     *
-     */
-    @Test
-    public void testCreateResultFile() throws NoSuchMethodException, SecurityException, IOException,
-            IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-
-        createResultFileMethod = resultGeneratorUtils.getClass().getDeclaredMethod(CREATE_RESULT_FILE_METHOD_NAME,
-                String.class, String.class);
-        createResultFileMethod.setAccessible(true);
-
-        // Delete any result file before the test begins
-        Path resultFilePath = Paths.get(TEST_RESOURCE_DIRECTORY, EXPECTED_RESULTS_FILE_NAME);
-        Files.deleteIfExists(resultFilePath);
-
-        // Run the createResultFile function
-        createResultFileMethod.invoke(null, TEST_RESOURCE_DIRECTORY, EXPECTED_RESULTS_FILE_NAME);
-
-        // Check the result file with the correct name is created
-        assertTrue(Files.exists(resultFilePath));
-
-        createResultFileMethod.setAccessible(false);
-
-    }
-
     /**
      * Unit tests the
      * {@link ResultGeneratorUtils#writeResultFile(Path resultFilePath, List linesAsStringBuilders)
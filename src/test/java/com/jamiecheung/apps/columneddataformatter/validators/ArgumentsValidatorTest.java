@@ -9,6 +9,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 
 import com.jamiecheung.apps.columneddataformatter.exceptions.ProgramArgumentException;
+import com.jamiecheung.apps.columneddataformatter.model.ColumnWidthLimits;
+import com.jamiecheung.apps.columneddataformatter.model.OverflowPolicy;
 
 /**
  * Class to unit test the {@link ArgumentsValidator} class.
@@ -36,6 +38,43 @@ class ArgumentsValidatorTest {
     private static final String[] TEST_ARGS_TWO_ARGUMENTS = new String[] { "b", "c" };
     private static final String[] TEST_ARGS_THREE_ARGUMENTS = new String[] { "d", "e", "f" };
     private static final String[] TEST_ARGS_FOUR_ARGUMENTS = new String[] { "g", "h", "i", "j" };
+    private static final String TEST_OPTION = "--k";
+    private static final String[] TEST_ARGS_WITH_OPTION = new String[] { "l", "m", "n", TEST_OPTION };
+    private static final String[] TEST_ARGS_OPTION_AS_REQUIRED_ARGUMENT = new String[] { "o", TEST_OPTION, "p" };
+    private static final String TEST_INTEGER_OPTION = "--q=";
+    private static final int TEST_INTEGER_OPTION_DEFAULT_VALUE = 1;
+    private static final String[] TEST_ARGS_WITH_INTEGER_OPTION = new String[] { "r", "s", "t", TEST_OPTION,
+            TEST_INTEGER_OPTION + "8" };
+    private static final String[] TEST_ARGS_WITH_INVALID_INTEGER_OPTION = new String[] { "u", "v", "w",
+            TEST_INTEGER_OPTION + "x" };
+    private static final String[] TEST_ARGS_WITH_ZERO_INTEGER_OPTION = new String[] { "y", "z", "a",
+            TEST_INTEGER_OPTION + "0" };
+    private static final String EXPECTED_ERROR_MESSAGE_INVALID_INTEGER_OPTION = "Optional argument --q=x is not a positive whole number.";
+    private static final String EXPECTED_ERROR_MESSAGE_ZERO_INTEGER_OPTION = "Optional argument --q=0 is not a positive whole number.";
+    private static final String[] TEST_ARGS_WITH_COLUMN_WIDTH_OPTIONS = new String[] { "b", "c", "d",
+            "--max-widths=4, 2", "--max-width=6", "--fixed-widths", "--ellipsis" };
+    private static final String[] TEST_ARGS_WITH_INVALID_MAX_WIDTHS_OPTION = new String[] { "e", "f", "g",
+            "--max-widths=4,,2" };
+    private static final String[] TEST_ARGS_WITH_FIXED_WIDTHS_OPTION_ONLY = new String[] { "h", "i", "j",
+            "--fixed-widths" };
+    private static final String[] TEST_ARGS_WITH_FIXED_WIDTHS_OPTION_WITHOUT_MAX_WIDTH = new String[] { "h", "i",
+            "j", "--max-widths=10,20", "--fixed-widths" };
+    private static final String[] TEST_ARGS_WITH_OVERFLOW_OPTION = new String[] { "k", "l", "m", "--overflow=Widen" };
+    private static final String[] TEST_ARGS_WITH_INVALID_OVERFLOW_OPTION = new String[] { "n", "o", "p",
+            "--overflow=wrap" };
+    private static final String[] TEST_ARGS_WITH_QUOTE_OPTION = new String[] { "q", "r", "s", "--quote='" };
+    private static final String[] TEST_ARGS_WITH_INVALID_QUOTE_OPTION = new String[] { "t", "u", "v", "--quote= " };
+    private static final String TEST_QUOTE_OPTION = "--quote=";
+    private static final char TEST_QUOTE_OPTION_DEFAULT_VALUE = '"';
+    private static final char EXPECTED_QUOTE_CHARACTER = '\'';
+    private static final String[] TEST_ARGS_WITH_METRICS_OPTION = new String[] { "w", "x", "y", "--metrics=JSON" };
+    private static final String[] TEST_ARGS_WITH_INVALID_METRICS_OPTION = new String[] { "z", "a", "b",
+            "--metrics=csv" };
+    private static final String EXPECTED_ERROR_MESSAGE_INVALID_METRICS_OPTION = "Optional argument --metrics=csv is not one of [json].";
+    private static final String EXPECTED_ERROR_MESSAGE_INVALID_QUOTE_OPTION = "Optional argument --quote=  is not a single visible ASCII character.";
+    private static final String EXPECTED_ERROR_MESSAGE_INVALID_OVERFLOW_OPTION = "Optional argument --overflow=wrap is not one of [truncate, widen, spill].";
+    private static final String EXPECTED_ERROR_MESSAGE_INVALID_MAX_WIDTHS_OPTION = "Optional argument --max-widths=4,,2 is not a list of positive whole numbers separated by commas.";
+    private static final String EXPECTED_ERROR_MESSAGE_FIXED_WIDTHS_OPTION_ONLY = "Optional argument --fixed-widths needs --max-width= to be provided, so every column has a maximum width.";
 
     /**
      * Unit tests the {@link ArgumentsValidator#validateArguments(String[] args)}
@@ -89,4 +128,176 @@ class ArgumentsValidatorTest {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * Unit tests the
+     * {@link ArgumentsValidator#isOptionProvided(String[] args, String option)}
+     * function.
+     */
+    @Test
+    public void testIsOptionProvided() {
+
+        // Run the isOptionProvided function on args containing the option after the
+        // required arguments and check it returns true
+        assertTrue(ArgumentsValidator.isOptionProvided(TEST_ARGS_WITH_OPTION, TEST_OPTION));
+
+        // Run the isOptionProvided function on args without the option and check it
+        // returns false
+        assertFalse(ArgumentsValidator.isOptionProvided(TEST_ARGS_FOUR_ARGUMENTS, TEST_OPTION));
+
+        // Run the isOptionProvided function on args containing the option as one of
+        // the required arguments and check it returns false
+        assertFalse(ArgumentsValidator.isOptionProvided(TEST_ARGS_OPTION_AS_REQUIRED_ARGUMENT, TEST_OPTION));
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link ArgumentsValidator#getIntegerOption(String[] args, String option, int defaultValue)}
+     * function.
+     *
+     * @throws ProgramArgumentException
+     */
+    @Test
+    public void testGetIntegerOption() throws ProgramArgumentException {
+
+        // Run the getIntegerOption function on args containing the option and check
+        // its value is returned
+        assertEquals(8, ArgumentsValidator.getIntegerOption(TEST_ARGS_WITH_INTEGER_OPTION, TEST_INTEGER_OPTION,
+                TEST_INTEGER_OPTION_DEFAULT_VALUE));
+
+        // Run the getIntegerOption function on args without the option and check the
+        // default value is returned
+        assertEquals(TEST_INTEGER_OPTION_DEFAULT_VALUE, ArgumentsValidator.getIntegerOption(TEST_ARGS_WITH_OPTION,
+                TEST_INTEGER_OPTION, TEST_INTEGER_OPTION_DEFAULT_VALUE));
+
+        // Run the getIntegerOption function and ensure the correct exception is thrown
+        // for a value that is not a whole number
+        ProgramArgumentException exceptionInvalidOption = assertThrows(ProgramArgumentException.class,
+                () -> ArgumentsValidator.getIntegerOption(TEST_ARGS_WITH_INVALID_INTEGER_OPTION, TEST_INTEGER_OPTION,
+                        TEST_INTEGER_OPTION_DEFAULT_VALUE));
+        assertEquals(EXPECTED_ERROR_MESSAGE_INVALID_INTEGER_OPTION, exceptionInvalidOption.getMessage());
+
+        // Run the getIntegerOption function and ensure the correct exception is thrown
+        // for a value that is not positive
+        ProgramArgumentException exceptionZeroOption = assertThrows(ProgramArgumentException.class,
+                () -> ArgumentsValidator.getIntegerOption(TEST_ARGS_WITH_ZERO_INTEGER_OPTION, TEST_INTEGER_OPTION,
+                        TEST_INTEGER_OPTION_DEFAULT_VALUE));
+        assertEquals(EXPECTED_ERROR_MESSAGE_ZERO_INTEGER_OPTION, exceptionZeroOption.getMessage());
+
+    }
+
+    /**
+     * Unit tests the {@link ArgumentsValidator#getColumnWidthLimits(String[] args)}
+     * function.
+     *
+     * @throws ProgramArgumentException
+     */
+    @Test
+    public void testGetColumnWidthLimits() throws ProgramArgumentException {
+
+        // Run the getColumnWidthLimits function and check the maximum width of each
+        // column, with the columns after the listed ones at the single maximum width
+        ColumnWidthLimits columnWidthLimits = ArgumentsValidator
+                .getColumnWidthLimits(TEST_ARGS_WITH_COLUMN_WIDTH_OPTIONS);
+
+        assertEquals(4, columnWidthLimits.getMaxWidth(0));
+        assertEquals(2, columnWidthLimits.getMaxWidth(1));
+        assertEquals(6, columnWidthLimits.getMaxWidth(2));
+        assertTrue(columnWidthLimits.isFixed());
+        assertTrue(columnWidthLimits.isEllipsis());
+
+        // Run the getColumnWidthLimits function on args without the options and check
+        // no column has a maximum width
+        assertFalse(ArgumentsValidator.getColumnWidthLimits(TEST_ARGS_WITH_OPTION).isBounded());
+
+        // Run the getColumnWidthLimits function and ensure the correct exception is
+        // thrown for a list of maximum widths with a missing value
+        ProgramArgumentException exceptionInvalidOption = assertThrows(ProgramArgumentException.class,
+                () -> ArgumentsValidator.getColumnWidthLimits(TEST_ARGS_WITH_INVALID_MAX_WIDTHS_OPTION));
+        assertEquals(EXPECTED_ERROR_MESSAGE_INVALID_MAX_WIDTHS_OPTION, exceptionInvalidOption.getMessage());
+
+        // Run the getColumnWidthLimits function and ensure the correct exception is
+        // thrown for fixed column widths without any maximum width
+        ProgramArgumentException exceptionFixedOption = assertThrows(ProgramArgumentException.class,
+                () -> ArgumentsValidator.getColumnWidthLimits(TEST_ARGS_WITH_FIXED_WIDTHS_OPTION_ONLY));
+        assertEquals(EXPECTED_ERROR_MESSAGE_FIXED_WIDTHS_OPTION_ONLY, exceptionFixedOption.getMessage());
+
+        // Run the getColumnWidthLimits function and ensure the same exception is thrown
+        // for fixed column widths with maximum widths for only the first columns
+        ProgramArgumentException exceptionFixedWithoutMaxWidth = assertThrows(ProgramArgumentException.class,
+                () -> ArgumentsValidator.getColumnWidthLimits(TEST_ARGS_WITH_FIXED_WIDTHS_OPTION_WITHOUT_MAX_WIDTH));
+        assertEquals(EXPECTED_ERROR_MESSAGE_FIXED_WIDTHS_OPTION_ONLY, exceptionFixedWithoutMaxWidth.getMessage());
+
+    }
+
+    /**
+     * Unit tests the {@link ArgumentsValidator#getOverflowPolicy(String[] args)}
+     * function.
+     *
+     * @throws ProgramArgumentException
+     */
+    @Test
+    public void testGetOverflowPolicy() throws ProgramArgumentException {
+
+        // Run the getOverflowPolicy function and check the policy is found whatever
+        // its case, or the default policy if the option is not provided
+        assertEquals(OverflowPolicy.WIDEN, ArgumentsValidator.getOverflowPolicy(TEST_ARGS_WITH_OVERFLOW_OPTION));
+        assertEquals(OverflowPolicy.TRUNCATE, ArgumentsValidator.getOverflowPolicy(TEST_ARGS_WITH_OPTION));
+
+        // Run the getOverflowPolicy function and ensure the correct exception is thrown
+        // for a value that is not an overflow policy
+        ProgramArgumentException exceptionInvalidOption = assertThrows(ProgramArgumentException.class,
+                () -> ArgumentsValidator.getOverflowPolicy(TEST_ARGS_WITH_INVALID_OVERFLOW_OPTION));
+        assertEquals(EXPECTED_ERROR_MESSAGE_INVALID_OVERFLOW_OPTION, exceptionInvalidOption.getMessage());
+
+    }
+
+    /**
+     * Unit tests the
+     * {@link ArgumentsValidator#getCharacterOption(String[] args, String option, char defaultValue)}
+     * function.
+     *
+     * @throws ProgramArgumentException
+     */
+    @Test
+    public void testGetCharacterOption() throws ProgramArgumentException {
+
+        // Run the getCharacterOption function and check the character is found, or the
+        // default value if the option is not provided
+        assertEquals(EXPECTED_QUOTE_CHARACTER, ArgumentsValidator.getCharacterOption(TEST_ARGS_WITH_QUOTE_OPTION,
+                TEST_QUOTE_OPTION, TEST_QUOTE_OPTION_DEFAULT_VALUE));
+        assertEquals(TEST_QUOTE_OPTION_DEFAULT_VALUE, ArgumentsValidator.getCharacterOption(TEST_ARGS_WITH_OPTION,
+                TEST_QUOTE_OPTION, TEST_QUOTE_OPTION_DEFAULT_VALUE));
+
+        // Run the getCharacterOption function and ensure the correct exception is
+        // thrown for a white space
+        ProgramArgumentException exceptionInvalidOption = assertThrows(ProgramArgumentException.class,
+                () -> ArgumentsValidator.getCharacterOption(TEST_ARGS_WITH_INVALID_QUOTE_OPTION, TEST_QUOTE_OPTION,
+                        TEST_QUOTE_OPTION_DEFAULT_VALUE));
+        assertEquals(EXPECTED_ERROR_MESSAGE_INVALID_QUOTE_OPTION, exceptionInvalidOption.getMessage());
+
+    }
+
+    /**
+     * Unit tests the {@link ArgumentsValidator#isMetricsReported(String[] args)}
+     * function.
+     *
+     * @throws ProgramArgumentException
+     */
+    @Test
+    public void testIsMetricsReported() throws ProgramArgumentException {
+
+        // Run the isMetricsReported function and check the format is found whatever its
+        // case, and metrics are not reported if the option is not provided
+        assertTrue(ArgumentsValidator.isMetricsReported(TEST_ARGS_WITH_METRICS_OPTION));
+        assertFalse(ArgumentsValidator.isMetricsReported(TEST_ARGS_WITH_OPTION));
+
+        // Run the isMetricsReported function and ensure the correct exception is thrown
+        // for a format that is not supported
+        ProgramArgumentException exceptionInvalidOption = assertThrows(ProgramArgumentException.class,
+                () -> ArgumentsValidator.isMetricsReported(TEST_ARGS_WITH_INVALID_METRICS_OPTION));
+        assertEquals(EXPECTED_ERROR_MESSAGE_INVALID_METRICS_OPTION, exceptionInvalidOption.getMessage());
+
+    }
+
+}
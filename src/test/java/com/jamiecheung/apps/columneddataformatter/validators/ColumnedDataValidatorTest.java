@@ -31,7 +31,7 @@ class ColumnedDataValidatorTest {
     private static final String EXPECTED_ERROR_MESSAGE_RESULT_DIRECTORY_NOT_PROVIDED = "Result directory not provided.";
     private static final String EXPECTED_ERROR_MESSAGE_RESULT_DIRECTORY_DOES_NOT_EXIST = "Result directory %s does not exist.";
     private static final String EXPECTED_ERROR_MESSAGE_RESULT_DIRECTORY_NOT_A_DIRECTORY = "Result directory %s is not a directory.";
-    private static final String EXPECTED_ERROR_MESSAGE_INVALID_DELIMITER = "Delimiter %s is not a single character.";
+    private static final String EXPECTED_ERROR_MESSAGE_INVALID_DELIMITER = "Delimiter %s is not 1 to 16 characters on a single line.";
 
     private static final String TEST_RESOURCE_DIRECTORY = "src/test/resources/validators_resources/";
     private static final String TEST_PATH_EMPTY = "";
@@ -40,7 +40,8 @@ class ColumnedDataValidatorTest {
     private static final String TEST_VALID_INPUT_FILE = TEST_RESOURCE_DIRECTORY + TEST_INPUT_FILE_NAME;
     private static final String TEST_RESULT_DIRECTORY_NOT_A_DIRECTORY = TEST_RESOURCE_DIRECTORY + TEST_INPUT_FILE_NAME;
     private static final String TEST_VALID_DELIMITER = "|";
-    private static final String TEST_INVALID_DELIMITER = "|,";
+    private static final String TEST_MULTI_CHARACTER_DELIMITER = " :: ";
+    private static final String[] TEST_INVALID_DELIMITERS = { "", "|,|,|,|,|,|,|,|,|", "|\n|" };
 
     private ByteArrayOutputStream errContent = new ByteArrayOutputStream();
     private final PrintStream originalErr = System.err;
@@ -75,15 +76,22 @@ class ColumnedDataValidatorTest {
     public void testDelimiterValidation() {
 
         // Run the validateDelimiter function and ensure the correct exception is thrown
-        // for a delimiter that is more than 1 character long
-        ColumnedDataPropertyException exceptionInvalidDelimiter = assertThrows(ColumnedDataPropertyException.class,
-                () -> ColumnedDataValidator.validateDelimiter(TEST_INVALID_DELIMITER));
-        assertEquals(String.format(EXPECTED_ERROR_MESSAGE_INVALID_DELIMITER, TEST_INVALID_DELIMITER),
-                exceptionInvalidDelimiter.getMessage());
-
-        // Run the validateDelimiter function and ensure no exception is thrown for a
-        // delimiter that is 1 character in length
+        // for a delimiter that is empty, more than 16 characters long, or more than a
+        // single line
+        for (String invalidDelimiter : TEST_INVALID_DELIMITERS) {
+
+            ColumnedDataPropertyException exceptionInvalidDelimiter = assertThrows(
+                    ColumnedDataPropertyException.class,
+                    () -> ColumnedDataValidator.validateDelimiter(invalidDelimiter));
+            assertEquals(String.format(EXPECTED_ERROR_MESSAGE_INVALID_DELIMITER, invalidDelimiter),
+                    exceptionInvalidDelimiter.getMessage());
+
+        }
+
+        // Run the validateDelimiter function and ensure no exception is thrown for
+        // delimiters of 1 or more characters
         assertDoesNotThrow(() -> ColumnedDataValidator.validateDelimiter(TEST_VALID_DELIMITER));
+        assertDoesNotThrow(() -> ColumnedDataValidator.validateDelimiter(TEST_MULTI_CHARACTER_DELIMITER));
 
     }
 
@@ -0,0 +1,125 @@
+package com.jamiecheung.apps.columneddataformatter.watchers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class to unit test the {@link InputDirectoryWatcher} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class InputDirectoryWatcherTest {
+
+    private static final String TEST_RESOURCE_DIRECTORY = "src/test/resources/watchers_resources/";
+    private static final String TEST_INPUT_DIRECTORY = TEST_RESOURCE_DIRECTORY + "testWatchedDirectory";
+    private static final Path TEST_INPUT_DIRECTORY_PATH = Paths.get(TEST_INPUT_DIRECTORY);
+    private static final Path TEST_INPUT_FILE_PATH = TEST_INPUT_DIRECTORY_PATH.resolve("testInputFile.txt");
+    private static final Path TEST_SUB_DIRECTORY_PATH = TEST_INPUT_DIRECTORY_PATH.resolve("testSubDirectory");
+    private static final Path TEST_SUB_DIRECTORY_INPUT_FILE_PATH = TEST_SUB_DIRECTORY_PATH
+            .resolve("testInputFile.txt");
+    private static final Path TEST_RESULT_FILE_PATH = TEST_INPUT_DIRECTORY_PATH.resolve("testInputFile_formatted.txt");
+    private static final Path TEST_NO_EXTENSION_FILE_PATH = TEST_INPUT_DIRECTORY_PATH.resolve("testInputFile");
+    private static final String TEST_LINE = "|First Name|Surname|\n";
+    private static final int TEST_LINES_WRITTEN = 5;
+    private static final int TEST_WORKERS = 2;
+    private static final int TEST_DEBOUNCE = 300;
+    private static final long TEST_EVENT_TIMEOUT = 10000;
+
+    private final BlockingQueue<String> formattedInputFiles = new LinkedBlockingQueue<>();
+
+    private InputDirectoryWatcher inputDirectoryWatcher;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+
+        Files.createDirectories(TEST_INPUT_DIRECTORY_PATH);
+
+        // Watch the input directory, which is also the result directory
+        inputDirectoryWatcher = new InputDirectoryWatcher(TEST_INPUT_DIRECTORY, TEST_INPUT_DIRECTORY, TEST_WORKERS,
+                TEST_DEBOUNCE, formattedInputFiles::add);
+        inputDirectoryWatcher.start();
+
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+
+        inputDirectoryWatcher.close();
+
+        // Delete the watched directory and every file created in it
+        try (Stream<Path> paths = Files.walk(Paths.get(TEST_RESOURCE_DIRECTORY))) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+
+    }
+
+    /**
+     * Unit tests an input file written over several writes is formatted once,
+     * after its last write.
+     *
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testDebounce() throws IOException, InterruptedException {
+
+        // Write the input file a line at a time, within the debounce time of each other
+        try (OutputStream output = Files.newOutputStream(TEST_INPUT_FILE_PATH)) {
+            for (int i = 0; i < TEST_LINES_WRITTEN; i++) {
+                output.write(TEST_LINE.getBytes(StandardCharsets.UTF_8));
+                output.flush();
+                Thread.sleep(TEST_DEBOUNCE / TEST_LINES_WRITTEN);
+            }
+        }
+
+        // Check the input file is formatted once
+        assertEquals(TEST_INPUT_FILE_PATH.toString(), formattedInputFiles.poll(TEST_EVENT_TIMEOUT, TimeUnit.MILLISECONDS));
+        assertNull(formattedInputFiles.poll(2 * TEST_DEBOUNCE, TimeUnit.MILLISECONDS));
+
+    }
+
+    /**
+     * Unit tests result files and files without a file extension are ignored, and
+     * input files in a new sub-directory are formatted.
+     *
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testIgnoredFilesAndSubDirectory() throws IOException, InterruptedException {
+
+        // Create files that are not input files
+        Files.write(TEST_RESULT_FILE_PATH, TEST_LINE.getBytes(StandardCharsets.UTF_8));
+        Files.write(TEST_NO_EXTENSION_FILE_PATH, TEST_LINE.getBytes(StandardCharsets.UTF_8));
+
+        // Create a sub-directory containing an input file
+        Files.createDirectory(TEST_SUB_DIRECTORY_PATH);
+        Files.write(TEST_SUB_DIRECTORY_INPUT_FILE_PATH, TEST_LINE.getBytes(StandardCharsets.UTF_8));
+
+        // Check only the input file in the sub-directory is formatted
+        assertEquals(TEST_SUB_DIRECTORY_INPUT_FILE_PATH.toString(),
+                formattedInputFiles.poll(TEST_EVENT_TIMEOUT, TimeUnit.MILLISECONDS));
+        assertNull(formattedInputFiles.poll(2 * TEST_DEBOUNCE, TimeUnit.MILLISECONDS));
+
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.jamiecheung.apps.columneddataformatter.writers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class to unit test the {@link ConsoleWriter} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class ConsoleWriterTest {
+
+    private static final int TEST_BUFFER_SIZE = 4;
+    private static final CharSequence[] TEST_LINES = { "| First Name | Surname |", "",
+            new StringBuilder("| Some1      | \u00e9\u4e2d    |"), "|\ud83d\ude00|\ud83d\ude00|\ud83d\ude00|",
+            new StringBuilder("abc\ud83d\ude00") };
+    private static final String TEST_LINE = "| Some one | 2ndName |";
+    private static final String TEST_UNSUPPORTED_ENCODING = "no-such-encoding";
+
+    /**
+     * Unit tests the {@link ConsoleWriter#writeLine(CharSequence line)} function
+     * writes the same bytes as {@link PrintStream#println(Object)}, with lines
+     * longer than the buffer and surrogate pairs split across the end of the
+     * buffer.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testWriteLine() throws IOException {
+
+        ByteArrayOutputStream expectedOutput = new ByteArrayOutputStream();
+        ByteArrayOutputStream actualOutput = new ByteArrayOutputStream();
+
+        try (PrintStream printStream = new PrintStream(expectedOutput, false,
+                ConsoleWriter.getConsoleCharset(System.getProperty("stdout.encoding")).name())) {
+            for (CharSequence line : TEST_LINES) {
+                printStream.println(line);
+            }
+        }
+
+        try (ConsoleWriter consoleWriter = new ConsoleWriter(actualOutput, TEST_BUFFER_SIZE)) {
+            for (CharSequence line : TEST_LINES) {
+                consoleWriter.writeLine(line);
+            }
+        }
+
+        // Check the output is the same as printing each line
+        assertArrayEquals(expectedOutput.toByteArray(), actualOutput.toByteArray());
+
+    }
+
+    /**
+     * Unit tests the {@link ConsoleWriter#getConsoleCharset(String encoding)}
+     * function.
+     */
+    @Test
+    public void testGetConsoleCharset() {
+
+        // Check a supported encoding is used
+        assertEquals(StandardCharsets.UTF_16BE, ConsoleWriter.getConsoleCharset(StandardCharsets.UTF_16BE.name()));
+
+        // Check the default charset is used without a supported encoding
+        assertEquals(Charset.defaultCharset(), ConsoleWriter.getConsoleCharset(null));
+        assertEquals(Charset.defaultCharset(), ConsoleWriter.getConsoleCharset(TEST_UNSUPPORTED_ENCODING));
+
+    }
+
+    /**
+     * Unit tests a {@link ConsoleWriter} writing to {@link System#out} after
+     * another one on the same thread, whose buffers it reuses, writes only its own
+     * lines.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testReusedBuffers() throws IOException {
+
+        ByteArrayOutputStream actualOutput = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(actualOutput));
+
+        try {
+
+            try (ConsoleWriter consoleWriter = new ConsoleWriter()) {
+                consoleWriter.writeLine(TEST_LINE);
+            }
+
+            try (ConsoleWriter consoleWriter = new ConsoleWriter()) {
+                consoleWriter.writeLine(TEST_LINES[0]);
+            }
+
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        // Check each line is written once, in order
+        assertEquals(TEST_LINE + System.lineSeparator() + TEST_LINES[0] + System.lineSeparator(),
+                actualOutput.toString());
+
+    }
+
+    /**
+     * Unit tests the {@link ConsoleWriter#flush()} function writes everything
+     * buffered so far, and nothing is written before the buffer fills.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testFlush() throws IOException {
+
+        ByteArrayOutputStream actualOutput = new ByteArrayOutputStream();
+        ConsoleWriter consoleWriter = new ConsoleWriter(actualOutput, 2 * TEST_LINE.length());
+
+        // Check nothing is written until the buffer fills
+        consoleWriter.writeLine(TEST_LINE);
+        assertEquals(0, actualOutput.size());
+
+        // Check the whole line is written once flushed
+        consoleWriter.flush();
+        assertEquals(TEST_LINE + System.lineSeparator(), actualOutput.toString());
+
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.jamiecheung.apps.columneddataformatter.writers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class to unit test the {@link ResultFileWriter} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class ResultFileWriterTest {
+
+    private static final String NEW_LINE = "\n";
+    private static final String TEST_RESOURCE_DIRECTORY = "src/test/resources/writers_resources/";
+    private static final Path TEST_RESOURCE_DIRECTORY_PATH = Paths.get(TEST_RESOURCE_DIRECTORY);
+    private static final Path TEST_RESULT_FILE_PATH = Paths.get(TEST_RESOURCE_DIRECTORY,
+            "testInputFile_formatted.txt");
+    private static final String TEST_LINE = "| Some one   | 2ndName    | a@b.com       |               |";
+    private static final String TEST_PREVIOUS_CONTENTS = "Previous contents";
+    private static final int TEST_LINES_WRITTEN = 20000;
+
+    @BeforeEach
+    public void beforeEach() throws IOException {
+
+        Files.createDirectories(TEST_RESOURCE_DIRECTORY_PATH);
+
+    }
+
+    @AfterEach
+    public void afterEach() throws IOException {
+
+        // Delete the resource directory and every file created in it
+        try (Stream<Path> paths = Files.walk(TEST_RESOURCE_DIRECTORY_PATH)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+
+    }
+
+    /**
+     * Unit tests the {@link ResultFileWriter#publish()} function, with more lines
+     * than fit in all of the byte buffers at once.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testPublish() throws IOException {
+
+        StringBuilder expectedContents = new StringBuilder();
+
+        try (ResultFileWriter writer = new ResultFileWriter(TEST_RESULT_FILE_PATH)) {
+
+            for (int i = 0; i < TEST_LINES_WRITTEN; i++) {
+
+                StringBuilder line = new StringBuilder(TEST_LINE).append(i);
+
+                writer.writeLine(line);
+                expectedContents.append(i == 0 ? "" : NEW_LINE).append(line);
+
+            }
+
+            // Check the resulting file is not seen before it is published
+            assertFalse(Files.exists(TEST_RESULT_FILE_PATH));
+
+            writer.publish();
+
+        }
+
+        // Check the resulting file has every line, with no new line after the last
+        assertArrayEquals(expectedContents.toString().getBytes(Charset.defaultCharset()),
+                Files.readAllBytes(TEST_RESULT_FILE_PATH));
+
+        // Check only the resulting file is left
+        try (Stream<Path> paths = Files.list(TEST_RESOURCE_DIRECTORY_PATH)) {
+            assertEquals(1, paths.count());
+        }
+
+    }
+
+    /**
+     * Unit tests closing a {@link ResultFileWriter} that has not been published
+     * leaves the previous resulting file in place.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testCloseWithoutPublish() throws IOException {
+
+        Files.write(TEST_RESULT_FILE_PATH, TEST_PREVIOUS_CONTENTS.getBytes(Charset.defaultCharset()));
+
+        try (ResultFileWriter writer = new ResultFileWriter(TEST_RESULT_FILE_PATH)) {
+            writer.writeLine(TEST_LINE);
+        }
+
+        // Check the previous resulting file is unchanged
+        assertEquals(TEST_PREVIOUS_CONTENTS,
+                new String(Files.readAllBytes(TEST_RESULT_FILE_PATH), Charset.defaultCharset()));
+
+        // Check the temporary file has been deleted
+        try (Stream<Path> paths = Files.list(TEST_RESOURCE_DIRECTORY_PATH)) {
+            assertEquals(1, paths.count());
+        }
+
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.jamiecheung.apps.columneddataformatter.writers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Class to unit test the {@link SpooledOutputStream} class.
+ *
+ * @author JamieCheung
+ *
+ */
+class SpooledOutputStreamTest {
+
+    private static final int TEST_MEMORY_LIMIT = 100;
+    private static final int TEST_BYTES_WRITTEN = 200000;
+    private static final int TEST_WRITE_LENGTH = 37;
+
+    /**
+     * Unit tests the {@link SpooledOutputStream#writeTo(java.io.OutputStream)}
+     * function, with bytes held in memory and far more bytes spilled to the
+     * temporary file, written both one at a time and in arrays.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testWriteTo() throws IOException {
+
+        byte[] expectedBytes = new byte[TEST_BYTES_WRITTEN];
+
+        for (int i = 0; i < expectedBytes.length; i++) {
+            expectedBytes[i] = (byte) (i * 31);
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ByteArrayOutputStream outputAgain = new ByteArrayOutputStream();
+
+        try (SpooledOutputStream spooledOutput = new SpooledOutputStream(TEST_MEMORY_LIMIT)) {
+
+            int written = 0;
+
+            while (written < expectedBytes.length) {
+
+                // Alternate between single bytes and arrays crossing the memory limit
+                if (written % 2 == 0) {
+                    spooledOutput.write(expectedBytes[written]);
+                    written++;
+                } else {
+                    int length = Math.min(TEST_WRITE_LENGTH, expectedBytes.length - written);
+                    spooledOutput.write(expectedBytes, written, length);
+                    written += length;
+                }
+
+            }
+
+            spooledOutput.writeTo(output);
+            spooledOutput.writeTo(outputAgain);
+
+        }
+
+        // Check every byte is copied in the order written, every time
+        assertArrayEquals(expectedBytes, output.toByteArray());
+        assertArrayEquals(expectedBytes, outputAgain.toByteArray());
+
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.jamiecheung.apps.columneddataformatter.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Class to unit test the {@link StageEvents} class of the multi-release jar,
+ * checking the JDK Flight Recorder records an event for each stage of an input
+ * file. Only run on Java 11 or later.
+ *
+ * @author JamieCheung
+ *
+ */
+class StageEventsTest {
+
+    private static final String TEST_EVENT_NAME_PREFIX = "com.jamiecheung.apps.columneddataformatter.";
+    private static final String TEST_INPUT_FILE = "input_files/b.txt";
+    private static final long TEST_BYTES_IN = 1000;
+    private static final long TEST_BYTES_OUT = 600;
+    private static final long TEST_ROWS = 4;
+    private static final int TEST_COLUMNS = 3;
+    private static final Duration TEST_STAGE_DURATION = Duration.ofMillis(20);
+
+    private static final String EXPECTED_INPUT_FILE_FIELD = "inputFile";
+    private static final String EXPECTED_BYTES_FIELD = "bytes";
+    private static final String EXPECTED_ROWS_FIELD = "rows";
+    private static final String EXPECTED_COLUMNS_FIELD = "columns";
+
+    /**
+     * Unit tests the {@link StageEvents#begin(PipelineStage, FileMetrics)} and
+     * {@link StageEvents#end(Object, FileMetrics)} functions, recording every
+     * stage of an input file and reading the events back from the recording.
+     *
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    @Test
+    public void testBeginAndEnd() throws IOException, InterruptedException {
+
+        Path recordingPath = Files.createTempFile(StageEventsTest.class.getSimpleName(), ".jfr");
+        List<RecordedEvent> events;
+
+        try (Recording recording = new Recording()) {
+
+            for (PipelineStage stage : PipelineStage.values()) {
+                recording.enable(getEventName(stage)).withThreshold(Duration.ZERO);
+            }
+
+            recording.start();
+
+            // Check creating the recording started the Flight Recorder, so metrics are kept
+            assertTrue(StageEvents.isRecorderStarted());
+            assertTrue(PipelineMetrics.isEnabled());
+
+            PipelineMetrics.startFile(TEST_INPUT_FILE);
+            PipelineMetrics.setBytesIn(TEST_BYTES_IN);
+
+            for (PipelineStage stage : PipelineStage.values()) {
+
+                PipelineMetrics.startStage(stage);
+                Thread.sleep(TEST_STAGE_DURATION.toMillis());
+
+                if (isWrittenOut(stage)) {
+                    PipelineMetrics.addBytesOut(stage, TEST_BYTES_OUT);
+                }
+
+                PipelineMetrics.addRows(TEST_ROWS, TEST_COLUMNS);
+                PipelineMetrics.endStage();
+
+            }
+
+            PipelineMetrics.finishFile();
+            recording.stop();
+            recording.dump(recordingPath);
+
+            events = RecordingFile.readAllEvents(recordingPath);
+
+        } finally {
+            Files.deleteIfExists(recordingPath);
+        }
+
+        for (PipelineStage stage : PipelineStage.values()) {
+
+            List<RecordedEvent> stageEvents = events.stream()
+                    .filter(event -> event.getEventType().getName().equals(getEventName(stage)))
+                    .collect(Collectors.toList());
+
+            // Check each stage is recorded once, lasting as long as the stage
+            assertEquals(1, stageEvents.size(), stage.name());
+            RecordedEvent event = stageEvents.get(0);
+            assertTrue(event.getDuration().compareTo(TEST_STAGE_DURATION) >= 0, stage.name());
+
+            // Check the input file and its sizes when the stage ended are recorded
+            assertEquals(TEST_INPUT_FILE, event.getString(EXPECTED_INPUT_FILE_FIELD));
+            assertEquals(isWrittenOut(stage) ? TEST_BYTES_OUT : TEST_BYTES_IN, event.getLong(EXPECTED_BYTES_FIELD),
+                    stage.name());
+            assertEquals(TEST_ROWS * (stage.ordinal() + 1), event.getLong(EXPECTED_ROWS_FIELD), stage.name());
+            assertEquals(TEST_COLUMNS, event.getInt(EXPECTED_COLUMNS_FIELD), stage.name());
+
+        }
+
+    }
+
+    /*
+     * Checks whether the stage writes bytes out, so its event records them rather
+     * than the size of the input
+     */
+    private boolean isWrittenOut(PipelineStage stage) {
+
+        return stage == PipelineStage.CONSOLE || stage == PipelineStage.WRITE;
+
+    }
+
+    /*
+     * Gets the name of the event of the stage, e.g.
+     * com.jamiecheung.apps.columneddataformatter.Read
+     */
+    private String getEventName(PipelineStage stage) {
+
+        String stageName = stage.name();
+
+        return TEST_EVENT_NAME_PREFIX + stageName.charAt(0) + stageName.substring(1).toLowerCase(Locale.ROOT);
+
+    }
+
+}
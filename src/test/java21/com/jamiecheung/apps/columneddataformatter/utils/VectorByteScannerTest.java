@@ -0,0 +1,58 @@
+package com.jamiecheung.apps.columneddataformatter.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import jdk.incubator.vector.ByteVector;
+
+/**
+ * Class to unit test the {@link VectorByteScanner} class, checking it finds and
+ * counts exactly the same bytes as comparing one byte at a time, and so as the
+ * portable {@link ByteScanner}. Only run on Java 21 or later, with the
+ * {@code jdk.incubator.vector} module added.
+ *
+ * @author JamieCheung
+ *
+ */
+class VectorByteScannerTest {
+
+    private static final int BYTES_PER_VECTOR = ByteVector.SPECIES_PREFERRED.length();
+    // The scanner compares the first four vectors' worth of bytes one at a time,
+    // so the edge cases run two vectors past them
+    private static final int TEST_EDGE_CASE_LENGTH = 6 * BYTES_PER_VECTOR;
+    // Past the end of a few chunks of sixteen vectors copied at a time
+    private static final int TEST_RANDOM_LENGTH = 64 * BYTES_PER_VECTOR;
+
+    private static final String EXPECTED_VECTOR_SCANNER_NAME = "vector, %d bytes at a time";
+
+    /**
+     * Unit tests the
+     * {@link VectorByteScanner#indexOf(java.nio.ByteBuffer, int, int, byte)},
+     * {@link VectorByteScanner#indexOfLineTerminator(java.nio.ByteBuffer, int, int)}
+     * and {@link VectorByteScanner#count(java.nio.ByteBuffer, int, int, byte)}
+     * functions against comparing one byte at a time.
+     */
+    @Test
+    public void testSameAsScalar() {
+
+        ByteScannerTest.assertSameAsScalar(new VectorByteScanner(), TEST_EDGE_CASE_LENGTH, TEST_RANDOM_LENGTH);
+
+    }
+
+    /**
+     * Unit tests the {@link ByteScanners#getFastestScanner()} function, checking
+     * the vector scanner is chosen whenever its vectors are wider than a long.
+     */
+    @Test
+    public void testGetFastestScanner() {
+
+        String expectedName = VectorByteScanner.isWiderThanScalar()
+                ? String.format(EXPECTED_VECTOR_SCANNER_NAME, BYTES_PER_VECTOR)
+                : new ByteScanner().getName();
+
+        assertEquals(expectedName, ByteScanners.getFastestScanner().getName());
+
+    }
+
+}